@@ -233,6 +233,7 @@ CREATE TABLE `t_mch_pay_passage` (
          `if_code` VARCHAR(20) NOT NULL COMMENT '支付接口',
          `way_code` VARCHAR(20) NOT NULL COMMENT '支付方式',
          `rate` DECIMAL(20,6) NOT NULL COMMENT '支付方式费率',
+         `weight` INT(11) NOT NULL DEFAULT 100 COMMENT '路由权重: 同一支付方式开启多个通道时, 按权重分配流量',
          `risk_config` JSON DEFAULT NULL COMMENT '风控数据',
          `state` TINYINT(6) NOT NULL COMMENT '状态: 0-停用, 1-启用',
          `created_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '创建时间',
@@ -287,7 +288,14 @@ CREATE TABLE `t_pay_order` (
         `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
         PRIMARY KEY (`pay_order_id`),
         UNIQUE KEY `Uni_MchNo_MchOrderNo` (`mch_no`, `mch_order_no`),
-        INDEX(`created_at`)
+        INDEX(`created_at`),
+        INDEX `Idx_State_CreatedAt` (`state`, `created_at`),
+        INDEX `Idx_State_ExpiredTime` (`state`, `expired_time`),
+        INDEX `Idx_MchNo_CreatedAt` (`mch_no`, `created_at`),
+        INDEX `Idx_IsvNo_CreatedAt` (`isv_no`, `created_at`),
+        INDEX `Idx_MchOrderNo` (`mch_order_no`),
+        INDEX `Idx_ChannelOrderNo` (`channel_order_no`),
+        INDEX `Idx_UpdatedAt_CreatedAt` (`updated_at`, `created_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付订单表';
 
 
@@ -364,7 +372,14 @@ CREATE TABLE `t_refund_order` (
           `created_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '创建时间',
           `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
           PRIMARY KEY (`refund_order_id`),
-          UNIQUE KEY `Uni_MchNo_MchRefundNo` (`mch_no`, `mch_refund_no`)
+          UNIQUE KEY `Uni_MchNo_MchRefundNo` (`mch_no`, `mch_refund_no`),
+          INDEX `Idx_State_CreatedAt` (`state`, `created_at`),
+          INDEX `Idx_State_ExpiredTime` (`state`, `expired_time`),
+          INDEX `Idx_CreatedAt` (`created_at`),
+          INDEX `Idx_MchNo_CreatedAt` (`mch_no`, `created_at`),
+          INDEX `Idx_PayOrderId` (`pay_order_id`),
+          INDEX `Idx_ChannelPayOrderNo` (`channel_pay_order_no`),
+          INDEX `Idx_MchRefundNo` (`mch_refund_no`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='退款订单表';
 
 
@@ -400,7 +415,11 @@ CREATE TABLE `t_transfer_order` (
            `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
            PRIMARY KEY (`transfer_id`),
            UNIQUE KEY `Uni_MchNo_MchOrderNo` (`mch_no`, `mch_order_no`),
-           INDEX(`created_at`)
+           INDEX(`created_at`),
+           INDEX `Idx_State_CreatedAt` (`state`, `created_at`),
+           INDEX `Idx_MchNo_CreatedAt` (`mch_no`, `created_at`),
+           INDEX `Idx_MchOrderNo` (`mch_order_no`),
+           INDEX `Idx_ChannelOrderNo` (`channel_order_no`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='转账订单表';
 
 -- 商户分账接收者账号组
@@ -476,6 +495,52 @@ CREATE TABLE `t_pay_order_division_record` (
           PRIMARY KEY (`record_id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1001 DEFAULT CHARSET=utf8mb4 COMMENT='分账记录表';
 
+-- 支付订单统计表（小时）: 按订单创建时间所在小时汇总， 由支付网关定时任务按订单变更增量重算
+DROP TABLE IF EXISTS `t_stat_pay_order_hour`;
+CREATE TABLE `t_stat_pay_order_hour` (
+          `stat_hour` DATETIME NOT NULL COMMENT '统计小时（订单创建时间所在小时）',
+          `mch_no` VARCHAR(64) NOT NULL COMMENT '商户号',
+          `isv_no` VARCHAR(64) NOT NULL DEFAULT '' COMMENT '服务商号',
+          `way_code` VARCHAR(20) NOT NULL COMMENT '支付方式代码',
+          `if_code` VARCHAR(20) NOT NULL DEFAULT '' COMMENT '支付接口代码',
+          `success_count` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '支付成功(state=2)订单笔数',
+          `success_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '支付成功(state=2)订单金额,单位分',
+          `success_refund_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '支付成功(state=2)订单的已退款金额,单位分',
+          `refunded_count` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '已退款(state=5)订单笔数',
+          `refunded_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '已退款(state=5)订单金额,单位分',
+          `refunded_refund_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '已退款(state=5)订单的已退款金额,单位分',
+          `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
+          PRIMARY KEY (`stat_hour`, `mch_no`, `isv_no`, `way_code`, `if_code`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付订单统计表（小时）';
+
+-- 支付订单统计表（日）: 由小时统计表汇总， 首页统计直接查询此表
+DROP TABLE IF EXISTS `t_stat_pay_order_day`;
+CREATE TABLE `t_stat_pay_order_day` (
+          `stat_date` DATE NOT NULL COMMENT '统计日期（订单创建日期）',
+          `mch_no` VARCHAR(64) NOT NULL COMMENT '商户号',
+          `isv_no` VARCHAR(64) NOT NULL DEFAULT '' COMMENT '服务商号',
+          `way_code` VARCHAR(20) NOT NULL COMMENT '支付方式代码',
+          `if_code` VARCHAR(20) NOT NULL DEFAULT '' COMMENT '支付接口代码',
+          `success_count` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '支付成功(state=2)订单笔数',
+          `success_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '支付成功(state=2)订单金额,单位分',
+          `success_refund_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '支付成功(state=2)订单的已退款金额,单位分',
+          `refunded_count` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '已退款(state=5)订单笔数',
+          `refunded_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '已退款(state=5)订单金额,单位分',
+          `refunded_refund_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '已退款(state=5)订单的已退款金额,单位分',
+          `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
+          PRIMARY KEY (`stat_date`, `mch_no`, `isv_no`, `way_code`, `if_code`),
+          INDEX `Idx_MchNo_StatDate` (`mch_no`, `stat_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付订单统计表（日）';
+
+-- 统计任务进度表
+DROP TABLE IF EXISTS `t_stat_checkpoint`;
+CREATE TABLE `t_stat_checkpoint` (
+          `stat_name` VARCHAR(32) NOT NULL COMMENT '统计任务名称',
+          `checkpoint_time` DATETIME(3) NOT NULL COMMENT '已处理至的时间点',
+          `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
+          PRIMARY KEY (`stat_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='统计任务进度表';
+
 
 
 #####  ↑↑↑↑↑↑↑↑↑↑  表结构DDL  ↑↑↑↑↑↑↑↑↑↑  #####
@@ -303,3 +303,84 @@ alter table t_transfer_order add column `channel_res_data` TEXT DEFAULT NULL COM
 
 
 ## -- ++++ [v3.1.0] ===> NEXT
+
+-- 商户支付通道增加路由权重
+alter table t_mch_pay_passage add column `weight` INT(11) NOT NULL DEFAULT 100 COMMENT '路由权重: 同一支付方式开启多个通道时, 按权重分配流量' after `rate`;
+
+-- 补单兜底扫描索引 (state, created_at), 游标分页使用 (state, created_at, 主键)
+alter table t_pay_order add index `Idx_State_CreatedAt` (`state`, `created_at`);
+alter table t_refund_order add index `Idx_State_CreatedAt` (`state`, `created_at`);
+alter table t_transfer_order add index `Idx_State_CreatedAt` (`state`, `created_at`);
+
+-- 订单过期关闭索引 (state, expired_time), 游标分页使用 (expired_time, 主键)
+alter table t_pay_order add index `Idx_State_ExpiredTime` (`state`, `expired_time`);
+alter table t_refund_order add index `Idx_State_ExpiredTime` (`state`, `expired_time`);
+
+-- 订单列表（运营平台/商户系统）游标分页及三合一订单号查询索引
+--   游标分页按 (created_at desc, 主键 desc) 排序， InnoDB二级索引隐含主键， 故 (筛选列, created_at) 索引可直接按序扫描并定位游标， 无需filesort；
+--   COUNT(*) 仅访问对应二级索引 (覆盖索引)， 无需回表；
+--   三合一订单号按各订单号列单独查询主键 (UNION)， 每个子查询仅访问对应二级索引 (覆盖索引)。
+alter table t_pay_order add index `Idx_MchNo_CreatedAt` (`mch_no`, `created_at`);
+alter table t_pay_order add index `Idx_IsvNo_CreatedAt` (`isv_no`, `created_at`);
+alter table t_pay_order add index `Idx_MchOrderNo` (`mch_order_no`);
+alter table t_pay_order add index `Idx_ChannelOrderNo` (`channel_order_no`);
+
+alter table t_refund_order add index `Idx_CreatedAt` (`created_at`);
+alter table t_refund_order add index `Idx_MchNo_CreatedAt` (`mch_no`, `created_at`);
+alter table t_refund_order add index `Idx_PayOrderId` (`pay_order_id`);
+alter table t_refund_order add index `Idx_ChannelPayOrderNo` (`channel_pay_order_no`);
+alter table t_refund_order add index `Idx_MchRefundNo` (`mch_refund_no`);
+
+alter table t_transfer_order add index `Idx_MchNo_CreatedAt` (`mch_no`, `created_at`);
+alter table t_transfer_order add index `Idx_MchOrderNo` (`mch_order_no`);
+alter table t_transfer_order add index `Idx_ChannelOrderNo` (`channel_order_no`);
+
+-- 首页统计： 支付订单小时/日汇总表 (支付网关定时任务增量维护， 首次运行时自动回填历史数据)
+-- 增量任务按 updated_at 查找变更订单所在的小时， 索引 (updated_at, created_at) 可覆盖该查询
+alter table t_pay_order add index `Idx_UpdatedAt_CreatedAt` (`updated_at`, `created_at`);
+
+-- 支付订单统计表（小时）: 按订单创建时间所在小时汇总， 由支付网关定时任务按订单变更增量重算
+DROP TABLE IF EXISTS `t_stat_pay_order_hour`;
+CREATE TABLE `t_stat_pay_order_hour` (
+          `stat_hour` DATETIME NOT NULL COMMENT '统计小时（订单创建时间所在小时）',
+          `mch_no` VARCHAR(64) NOT NULL COMMENT '商户号',
+          `isv_no` VARCHAR(64) NOT NULL DEFAULT '' COMMENT '服务商号',
+          `way_code` VARCHAR(20) NOT NULL COMMENT '支付方式代码',
+          `if_code` VARCHAR(20) NOT NULL DEFAULT '' COMMENT '支付接口代码',
+          `success_count` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '支付成功(state=2)订单笔数',
+          `success_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '支付成功(state=2)订单金额,单位分',
+          `success_refund_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '支付成功(state=2)订单的已退款金额,单位分',
+          `refunded_count` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '已退款(state=5)订单笔数',
+          `refunded_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '已退款(state=5)订单金额,单位分',
+          `refunded_refund_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '已退款(state=5)订单的已退款金额,单位分',
+          `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
+          PRIMARY KEY (`stat_hour`, `mch_no`, `isv_no`, `way_code`, `if_code`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付订单统计表（小时）';
+
+-- 支付订单统计表（日）: 由小时统计表汇总， 首页统计直接查询此表
+DROP TABLE IF EXISTS `t_stat_pay_order_day`;
+CREATE TABLE `t_stat_pay_order_day` (
+          `stat_date` DATE NOT NULL COMMENT '统计日期（订单创建日期）',
+          `mch_no` VARCHAR(64) NOT NULL COMMENT '商户号',
+          `isv_no` VARCHAR(64) NOT NULL DEFAULT '' COMMENT '服务商号',
+          `way_code` VARCHAR(20) NOT NULL COMMENT '支付方式代码',
+          `if_code` VARCHAR(20) NOT NULL DEFAULT '' COMMENT '支付接口代码',
+          `success_count` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '支付成功(state=2)订单笔数',
+          `success_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '支付成功(state=2)订单金额,单位分',
+          `success_refund_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '支付成功(state=2)订单的已退款金额,单位分',
+          `refunded_count` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '已退款(state=5)订单笔数',
+          `refunded_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '已退款(state=5)订单金额,单位分',
+          `refunded_refund_amount` BIGINT(20) NOT NULL DEFAULT 0 COMMENT '已退款(state=5)订单的已退款金额,单位分',
+          `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
+          PRIMARY KEY (`stat_date`, `mch_no`, `isv_no`, `way_code`, `if_code`),
+          INDEX `Idx_MchNo_StatDate` (`mch_no`, `stat_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付订单统计表（日）';
+
+-- 统计任务进度表
+DROP TABLE IF EXISTS `t_stat_checkpoint`;
+CREATE TABLE `t_stat_checkpoint` (
+          `stat_name` VARCHAR(32) NOT NULL COMMENT '统计任务名称',
+          `checkpoint_time` DATETIME(3) NOT NULL COMMENT '已处理至的时间点',
+          `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
+          PRIMARY KEY (`stat_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='统计任务进度表';
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.benchmarks;
+
+import com.jeequan.jeepay.benchmarks.context.BenchApplication;
+import com.jeequan.jeepay.core.entity.MchApp;
+import com.jeequan.jeepay.core.model.params.NormalMchParams;
+import com.jeequan.jeepay.pay.model.MchAppConfigContext;
+import com.jeequan.jeepay.pay.service.ConfigContextQueryService;
+import com.jeequan.jeepay.service.impl.SysConfigService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+* 商户配置信息查询 基准测试
+* useCache=true: ConfigContextService内存缓存；  useCache=false: 直接查询DB (H2)
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 20:00
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigContextBenchmark {
+
+    @Param({"true", "false"})
+    private boolean useCache;
+
+    private ConfigContextQueryService configContextQueryService;
+
+    @Setup
+    public void setup(){
+        SysConfigService.IS_USE_CACHE = useCache;
+        configContextQueryService = BenchApplication.getContext().getBean(ConfigContextQueryService.class);
+    }
+
+    @Benchmark
+    public MchAppConfigContext queryMchInfoAndAppInfo() {
+        return configContextQueryService.queryMchInfoAndAppInfo(BenchApplication.MCH_NO, BenchApplication.APP_ID);
+    }
+
+    @Benchmark
+    public MchApp queryMchApp() {
+        return configContextQueryService.queryMchApp(BenchApplication.MCH_NO, BenchApplication.APP_ID);
+    }
+
+    @Benchmark
+    public NormalMchParams queryNormalMchParams() {
+        return configContextQueryService.queryNormalMchParams(BenchApplication.MCH_NO, BenchApplication.APP_ID, "xxpay");
+    }
+
+}
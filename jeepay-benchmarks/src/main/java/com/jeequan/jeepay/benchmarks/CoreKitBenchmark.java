@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.benchmarks;
+
+import com.jeequan.jeepay.core.utils.AmountUtil;
+import com.jeequan.jeepay.core.utils.SeqKit;
+import com.jeequan.jeepay.core.utils.StringKit;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+* 工具类 基准测试： 手续费计算 / 订单号生成 / url参数拼接
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 20:00
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoreKitBenchmark {
+
+    private final Long amount = 123456L;
+
+    private final BigDecimal rate = new BigDecimal("0.006");
+
+    private final String notifyUrl = "https://www.jeequan.com/api/notify?from=jeepay";
+
+    private Map<String, Object> notifyParams;
+
+    @Setup
+    public void setup(){
+        notifyParams = new LinkedHashMap<>();
+        notifyParams.put("payOrderId", "P1640000000000000001");
+        notifyParams.put("mchNo", "M1623984572");
+        notifyParams.put("appId", "60cc09bce4b0f1c0b83761c9");
+        notifyParams.put("mchOrderNo", "mho1624005107281");
+        notifyParams.put("ifCode", "wxpay");
+        notifyParams.put("wayCode", "WX_JSAPI");
+        notifyParams.put("amount", 1800);
+        notifyParams.put("currency", "cny");
+        notifyParams.put("state", 2);
+        notifyParams.put("clientIp", "192.166.1.132");
+        notifyParams.put("subject", "商品标题");
+        notifyParams.put("body", "商品描述");
+        notifyParams.put("extParam", "{\"key\":\"value\"}");
+        notifyParams.put("createdAt", 1624005107000L);
+        notifyParams.put("reqTime", 1624005108000L);
+        notifyParams.put("sign", "C380BEC2BFD727A4B6845133519F3AD6");
+    }
+
+    @Benchmark
+    public Long calPercentageFee() {
+        return AmountUtil.calPercentageFee(amount, rate);
+    }
+
+    @Benchmark
+    public String genPayOrderId() {
+        return SeqKit.genPayOrderId();
+    }
+
+    @Benchmark
+    public String appendUrlQuery() {
+        return StringKit.appendUrlQuery(notifyUrl, notifyParams);
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+* 基准测试启动类， 参数与 org.openjdk.jmh.Main 一致。
+* 未指定 -rf / -rff 时默认输出JSON格式结果到 jmh-result-{版本号}.json， 用于跨版本对比。
+*
+* 示例：
+*   mvn -P benchmarks -DskipTests package
+*   java -jar jeepay-benchmarks/target/benchmarks.jar                      # 运行全部
+*   java -jar jeepay-benchmarks/target/benchmarks.jar SignBenchmark -prof gc
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 20:00
+*/
+public class JeepayBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        if(cmdOptions.shouldHelp() || cmdOptions.shouldList() || cmdOptions.shouldListWithParams() || cmdOptions.shouldListProfilers() || cmdOptions.shouldListResultFormats()){
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmdOptions);
+        if(!cmdOptions.getResultFormat().hasValue()){
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if(!cmdOptions.getResult().hasValue()){
+            String version = JeepayBenchmarks.class.getPackage().getImplementationVersion();
+            builder.result("jmh-result-" + (version == null ? "dev" : version) + ".json");
+        }
+
+        new Runner(builder.build()).run();
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.benchmarks;
+
+import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.core.entity.PayOrder;
+import com.jeequan.jeepay.pay.rqrs.payorder.QueryPayOrderRS;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/*
+* 响应数据JSON转换 基准测试 (查单/通知等接口的响应数据均需转换为JSONObject后计算签名)
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 20:00
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    private QueryPayOrderRS queryPayOrderRS;
+
+    @Setup
+    public void setup(){
+        PayOrder payOrder = new PayOrder();
+        payOrder.setPayOrderId("P1640000000000000001");
+        payOrder.setMchNo("M1623984572");
+        payOrder.setAppId("60cc09bce4b0f1c0b83761c9");
+        payOrder.setMchOrderNo("mho1624005107281");
+        payOrder.setIfCode("wxpay");
+        payOrder.setWayCode("WX_JSAPI");
+        payOrder.setAmount(1800L);
+        payOrder.setMchFeeRate(new BigDecimal("0.006"));
+        payOrder.setMchFeeAmount(11L);
+        payOrder.setCurrency("cny");
+        payOrder.setState(PayOrder.STATE_SUCCESS);
+        payOrder.setClientIp("192.166.1.132");
+        payOrder.setSubject("商品标题");
+        payOrder.setBody("商品描述");
+        payOrder.setChannelOrderNo("4200001200202106180123456789");
+        payOrder.setExtParam("{\"key\":\"value\"}");
+        payOrder.setSuccessTime(new Date());
+        payOrder.setCreatedAt(new Date());
+        queryPayOrderRS = QueryPayOrderRS.buildByPayOrder(payOrder);
+    }
+
+    @Benchmark
+    public Object toJSON() {
+        return JSONObject.toJSON(queryPayOrderRS);
+    }
+
+}
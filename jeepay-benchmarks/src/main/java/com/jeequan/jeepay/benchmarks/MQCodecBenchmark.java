@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.benchmarks;
+
+import com.jeequan.jeepay.components.mq.codec.MQCodecKit;
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
+import com.jeequan.jeepay.components.mq.model.AbstractMQ;
+import com.jeequan.jeepay.components.mq.model.PayOrderMchNotifyMQ;
+import com.jeequan.jeepay.components.mq.model.PayOrderReissueMQ;
+import com.jeequan.jeepay.components.mq.vender.activemq.ActiveMQConfig;
+import org.apache.activemq.command.ActiveMQBytesMessage;
+import org.apache.activemq.command.ActiveMQMessage;
+import org.apache.activemq.command.ActiveMQTextMessage;
+import org.apache.activemq.util.ByteSequence;
+import org.apache.rocketmq.common.message.MessageAccessor;
+import org.apache.rocketmq.common.message.MessageDecoder;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.spring.support.RocketMQMessageConverter;
+import org.apache.rocketmq.spring.support.RocketMQUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/*
+* MQ消息体编解码 基准测试： 对比 JSON 与 二进制编码 在各厂商消息对象上的构造与解析开销。
+*   encode： 发送方由业务MQ模型构造厂商消息 (含消息体序列化、 消息头)；
+*   decode： 接收方由厂商消息 (已反序列化为接收时的状态) 解析出业务消息载体。
+* 不连接MQ服务， 网络与broker开销不在统计范围内。
+*
+* 示例： java -jar jeepay-benchmarks/target/benchmarks.jar MQCodecBenchmark -prof gc
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 16:10
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MQCodecBenchmark {
+
+    @Param({"localMQ", "rabbitMQ", "activeMQ", "rocketMQ"})
+    private String vender;
+
+    @Param({MQCodecCS.JSON, MQCodecCS.BINARY})
+    private String codec;
+
+    @Param({"payOrderMchNotify", "payOrderReissue"})
+    private String mqModel;
+
+    private AbstractMQ model;
+
+    /** 发送方： 业务MQ模型 -> 厂商消息 **/
+    private Function<AbstractMQ, Object> encoder;
+
+    /** 接收方： 厂商消息的字节形式 -> 接收时的厂商消息 -> 业务消息载体 **/
+    private Function<Object, Object> decoder;
+
+    /** 接收时的厂商消息原始数据 **/
+    private Object received;
+
+    private final SimpleMessageConverter amqpConverter = new SimpleMessageConverter();
+
+    private final MessageConverter rocketConverter = new RocketMQMessageConverter().getMessageConverter();
+
+    @Setup
+    public void setup() throws Exception {
+
+        model = "payOrderMchNotify".equals(mqModel) ? PayOrderMchNotifyMQ.build(1640000000001L) : PayOrderReissueMQ.build("P1640000000000000001", 3);
+        Function<byte[], Object> parser = "payOrderMchNotify".equals(mqModel) ?
+                body -> PayOrderMchNotifyMQ.parse(body, null) : body -> PayOrderReissueMQ.parse(body, null);
+        Function<Object[], Object> headerParser = "payOrderMchNotify".equals(mqModel) ?
+                args -> PayOrderMchNotifyMQ.parse((byte[]) args[0], (String) args[1]) : args -> PayOrderReissueMQ.parse((byte[]) args[0], (String) args[1]);
+
+        switch (vender) {
+            case "localMQ":
+                // 日志中仅保存消息体
+                encoder = this::localMQEncode;
+                received = localMQEncode(model);
+                decoder = body -> parser.apply((byte[]) body);
+                break;
+
+            case "rabbitMQ":
+                encoder = this::rabbitMQEncode;
+                received = rabbitMQEncode(model);
+                decoder = msg -> {
+                    Message message = (Message) msg;
+                    return headerParser.apply(new Object[]{message.getBody(), message.getMessageProperties().getHeader(MQCodecCS.HEADER_NAME)});
+                };
+                break;
+
+            case "activeMQ":
+                encoder = this::activeMQEncode;
+                ActiveMQMessage sent = activeMQEncode(model);
+                received = new Object[]{sent instanceof ActiveMQTextMessage, sent.getContent(), sent.getMarshalledProperties()};
+                decoder = data -> {
+                    Object[] arr = (Object[]) data;
+                    try {
+                        // 接收时的状态： 消息体与属性均为序列化后的字节， 读取时才反序列化
+                        ActiveMQMessage message = (Boolean) arr[0] ? new ActiveMQTextMessage() : new ActiveMQBytesMessage();
+                        message.setContent((ByteSequence) arr[1]);
+                        message.setMarshalledProperties((ByteSequence) arr[2]);
+                        message.setReadOnlyBody(true);
+                        return headerParser.apply(new Object[]{ActiveMQConfig.getBody(message), message.getStringProperty(MQCodecCS.HEADER_NAME)});
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                };
+                break;
+
+            case "rocketMQ":
+                encoder = this::rocketMQEncode;
+                org.apache.rocketmq.common.message.Message rocketMessage = rocketMQEncode(model);
+                received = new Object[]{rocketMessage.getBody(), MessageDecoder.messageProperties2String(rocketMessage.getProperties())};
+                decoder = data -> {
+                    Object[] arr = (Object[]) data;
+                    MessageExt message = new MessageExt();
+                    message.setBody((byte[]) arr[0]);
+                    MessageAccessor.setProperties(message, MessageDecoder.string2messageProperties((String) arr[1]));
+                    return headerParser.apply(new Object[]{message.getBody(), message.getUserProperty(MQCodecCS.HEADER_NAME)});
+                };
+                break;
+
+            default:
+                throw new IllegalArgumentException(vender);
+        }
+    }
+
+    @Benchmark
+    public Object encode() {
+        return encoder.apply(model);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return decoder.apply(received);
+    }
+
+    /** 与 LocalMQSender 一致 **/
+    private byte[] localMQEncode(AbstractMQ mq) {
+        return MQCodecKit.encode(mq, MQCodecKit.resolveCodec(mq, codec));
+    }
+
+    /** 与 RabbitMQSender 一致： JSON 使用 RabbitTemplate 默认的 SimpleMessageConverter **/
+    private Message rabbitMQEncode(AbstractMQ mq) {
+
+        String actualCodec = MQCodecKit.resolveCodec(mq, codec);
+        if (MQCodecCS.JSON.equals(actualCodec)) {
+            return amqpConverter.toMessage(mq.toMessage(), new MessageProperties());
+        }
+        return MessageBuilder.withBody(MQCodecKit.encode(mq, actualCodec))
+                .setContentType(MessageProperties.CONTENT_TYPE_BYTES)
+                .setHeader(MQCodecCS.HEADER_NAME, actualCodec)
+                .build();
+    }
+
+    /** 与 ActiveMQSender 一致， 并序列化为发送时的状态 **/
+    private ActiveMQMessage activeMQEncode(AbstractMQ mq) {
+
+        try {
+            String actualCodec = MQCodecKit.resolveCodec(mq, codec);
+            ActiveMQMessage message;
+            if (MQCodecCS.JSON.equals(actualCodec)) {
+                ActiveMQTextMessage textMessage = new ActiveMQTextMessage();
+                textMessage.setText(mq.toMessage());
+                message = textMessage;
+            } else {
+                ActiveMQBytesMessage bytesMessage = new ActiveMQBytesMessage();
+                bytesMessage.writeBytes(MQCodecKit.encode(mq, actualCodec));
+                bytesMessage.setStringProperty(MQCodecCS.HEADER_NAME, actualCodec);
+                message = bytesMessage;
+            }
+            message.storeContentAndClear();
+            message.beforeMarshall(null);
+            return message;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** 与 RocketMQSender 一致： spring消息 -> rocketMQ消息 **/
+    private org.apache.rocketmq.common.message.Message rocketMQEncode(AbstractMQ mq) {
+
+        String actualCodec = MQCodecKit.resolveCodec(mq, codec);
+        org.springframework.messaging.support.MessageBuilder<byte[]> builder = org.springframework.messaging.support.MessageBuilder.withPayload(MQCodecKit.encode(mq, actualCodec));
+        if (MQCodecCS.BINARY.equals(actualCodec)) {
+            builder.setHeader(MQCodecCS.HEADER_NAME, actualCodec);
+        }
+        org.apache.rocketmq.common.message.Message message = RocketMQUtil.convertToRocketMessage(rocketConverter, "UTF-8", mq.getMQName(), builder.build());
+        MessageDecoder.messageProperties2String(message.getProperties()); // 发送时序列化消息属性
+        return message;
+    }
+
+}
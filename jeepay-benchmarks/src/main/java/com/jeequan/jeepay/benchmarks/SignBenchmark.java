@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.benchmarks;
+
+import com.jeequan.jeepay.core.utils.JeepayKit;
+import com.jeequan.jeepay.core.utils.SignKit;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/*
+* 签名计算 基准测试
+* 对比原字符串拼接实现(legacyMd5) 与 SignKit 实现的耗时， 分配情况请使用 -prof gc 查看。
+* 运行： java -jar jeepay-benchmarks/target/benchmarks.jar SignBenchmark -prof gc
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 19:30
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignBenchmark {
+
+    /** 参数个数： 下单请求约20个参数， 通知约15个参数 **/
+    @Param({"8", "20"})
+    private int paramCount;
+
+    private Map<String, Object> params;
+
+    private final String appSecret = "EQvN7b2bAlwQ3Rmj6Rn9FFyN8uvW1QQUZQX5vbzMp6EEMqEdsgabRLqOCE6BsWcnMuxmrwWfEjsACTKyY2xwpeI7G9HJeRtmAQEcA73Q0h1wg19n3xXdG3TVyBOn7gg5";
+
+    @Setup
+    public void setup(){
+        params = new LinkedHashMap<>();
+        params.put("mchNo", "M1623984572");
+        params.put("appId", "60cc09bce4b0f1c0b83761c9");
+        params.put("mchOrderNo", "mho1624005107281");
+        params.put("wayCode", "WX_JSAPI");
+        params.put("amount", 1800);
+        params.put("currency", "cny");
+        params.put("subject", "商品标题");
+        params.put("body", "商品描述");
+        String[] extra = {"clientIp", "notifyUrl", "returnUrl", "expiredTime", "channelExtra", "extParam",
+                "divisionMode", "reqTime", "version", "signType", "channelUser"};
+        for (int i = 0; params.size() < paramCount && i < extra.length; i++) {
+            params.put(extra[i], "value_" + extra[i] + "_" + i);
+        }
+        for (int i = 0; params.size() < paramCount; i++) {
+            params.put("attach" + i, "附加数据" + i);
+        }
+    }
+
+    @Benchmark
+    public String legacyMd5() {
+        return legacySign(params, appSecret);
+    }
+
+    @Benchmark
+    public String signKitMd5() {
+        return JeepayKit.getSign(params, appSecret);
+    }
+
+    @Benchmark
+    public String signKitHmacSha256() {
+        return SignKit.sign(params, appSecret, SignKit.SIGN_TYPE_HMAC_SHA256);
+    }
+
+    /** 原 JeepayKit.getSign 实现 (去掉日志输出)， 作为对比基准 **/
+    static String legacySign(Map<String, Object> map, String key) {
+        ArrayList<String> list = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (null != entry.getValue() && !"".equals(entry.getValue())) {
+                list.add(entry.getKey() + "=" + entry.getValue() + "&");
+            }
+        }
+        String[] arrayToSort = list.toArray(new String[0]);
+        Arrays.sort(arrayToSort, String.CASE_INSENSITIVE_ORDER);
+        StringBuilder sb = new StringBuilder();
+        for (String item : arrayToSort) {
+            sb.append(item);
+        }
+        String result = sb + "key=" + key;
+
+        return JeepayKit.md5(result, "UTF-8").toUpperCase();
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.benchmarks;
+
+import com.jeequan.jeepay.benchmarks.context.BenchApplication;
+import com.jeequan.jeepay.benchmarks.context.BenchPayOrderController;
+import com.jeequan.jeepay.core.constants.ApiCodeEnum;
+import com.jeequan.jeepay.core.model.ApiRes;
+import com.jeequan.jeepay.pay.rqrs.payorder.UnifiedOrderRQ;
+import com.jeequan.jeepay.service.impl.SysConfigService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+* 统一下单 端到端基准测试 (AbstractPayOrderController.unifiedOrder)
+* 包含： 商户订单号预占、 配置查询、 通道路由、 订单入库、 状态更新、 响应签名； 数据库为H2， 支付通道为桩实现。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 20:00
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UnifiedOrderBenchmark {
+
+    @Param({"true", "false"})
+    private boolean useCache;
+
+    private BenchPayOrderController payOrderController;
+
+    private final AtomicLong mchOrderSeq = new AtomicLong();
+
+    @Setup
+    public void setup(){
+        SysConfigService.IS_USE_CACHE = useCache;
+        payOrderController = BenchApplication.getContext().getBean(BenchPayOrderController.class);
+
+        ApiRes apiRes = unifiedOrder();
+        if(apiRes.getCode() != ApiCodeEnum.SUCCESS.getCode()){
+            throw new IllegalStateException("统一下单失败： " + apiRes.getMsg());
+        }
+    }
+
+    @Benchmark
+    public ApiRes unifiedOrder() {
+
+        UnifiedOrderRQ rq = new UnifiedOrderRQ();
+        rq.setMchNo(BenchApplication.MCH_NO);
+        rq.setAppId(BenchApplication.APP_ID);
+        rq.setMchOrderNo("BENCH" + System.nanoTime() + "_" + mchOrderSeq.incrementAndGet());
+        rq.setWayCode(BenchApplication.WAY_CODE);
+        rq.setAmount(1800L);
+        rq.setCurrency("cny");
+        rq.setClientIp("127.0.0.1");
+        rq.setSubject("商品标题");
+        rq.setBody("商品描述");
+        rq.setVersion("1.0");
+        rq.setSignType("MD5");
+        rq.setReqTime(String.valueOf(System.currentTimeMillis()));
+
+        return payOrderController.pay(rq);
+    }
+
+}
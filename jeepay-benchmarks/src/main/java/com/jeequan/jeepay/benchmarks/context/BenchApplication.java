@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.benchmarks.context;
+
+import com.baomidou.mybatisplus.autoconfigure.MybatisPlusAutoConfiguration;
+import com.jeequan.jeepay.core.beans.RequestKitBean;
+import com.jeequan.jeepay.core.utils.SpringBeansUtil;
+import com.jeequan.jeepay.pay.config.MchNotifyRetryConfig;
+import com.jeequan.jeepay.pay.service.*;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.validator.HibernateValidator;
+import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.web.context.support.WebApplicationContextUtils;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import javax.sql.DataSource;
+
+/*
+* 基准测试使用的精简spring上下文：
+*   H2内存数据库 + jeepay-service全部服务 + 统一下单链路所需的支付网关服务，
+*   MQ和支付通道均为本地桩实现， 不依赖Redis/MQ/上游渠道。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 20:00
+*/
+@SpringBootConfiguration
+@ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class, ConfigurationPropertiesAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class, TransactionAutoConfiguration.class, MybatisPlusAutoConfiguration.class})
+@MapperScan("com.jeequan.jeepay.service.mapper")
+@ComponentScan(basePackages = "com.jeequan.jeepay.service.impl")
+@Import({SpringBeansUtil.class, RequestKitBean.class, MchNotifyRetryConfig.class,
+        ConfigContextService.class, ConfigContextQueryService.class, ChannelClientRegistry.class, MchPayPassageRouteService.class, ChannelHealthService.class,
+        PayOrderProcessService.class, PayMchNotifyService.class, MchNotifyRetryService.class, OrderReissueQueueService.class,
+        ValidateService.class, BenchPayOrderController.class, BenchPaymentService.class, BenchMQSender.class})
+public class BenchApplication {
+
+    /** 测试商户号 **/
+    public static final String MCH_NO = "M1000000001";
+
+    /** 测试应用ID **/
+    public static final String APP_ID = "6500000000000000000000a1";
+
+    /** 测试应用私钥 **/
+    public static final String APP_SECRET = "EQvN7b2bAlwQ3Rmj6Rn9FFyN8uvW1QQUZQX5vbzMp6EEMqEdsgabRLqOCE6BsWcnMuxmrwWfEjsACTKyY2xwpeI7G9HJeRtmAQEcA73Q0h1wg19n3xXdG3TVyBOn7gg5";
+
+    /** 测试支付方式 **/
+    public static final String WAY_CODE = "ALI_BAR";
+
+    private static ConfigurableApplicationContext applicationContext;
+
+    /** 获取spring上下文 (同一JVM内仅启动一次) **/
+    public static synchronized ConfigurableApplicationContext getContext(){
+
+        if(applicationContext == null){
+            applicationContext = new SpringApplicationBuilder(BenchApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties("spring.main.allow-circular-references=true", "isys.idempotent.type=db", "logging.config=classpath:bench/logback-bench.xml")
+                    .run();
+        }
+        return applicationContext;
+    }
+
+    /** H2内存数据库 (使用连接池， 与生产环境一致) **/
+    @Bean
+    public DataSource dataSource(){
+
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:jeepaydb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(30);
+
+        new ResourceDatabasePopulator(new ClassPathResource("bench/schema.sql"), new ClassPathResource("bench/data.sql")).execute(dataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public Validator validator(){
+        return Validation.byProvider(HibernateValidator.class).configure().failFast(true).buildValidatorFactory().getValidator();
+    }
+
+    /** 注册request作用域， 使ctrl可注入 HttpServletRequest **/
+    @Bean
+    public static BeanFactoryPostProcessor webApplicationScopes(){
+        return WebApplicationContextUtils::registerWebApplicationScopes;
+    }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.benchmarks.context;
+
+import com.jeequan.jeepay.core.model.ApiRes;
+import com.jeequan.jeepay.pay.ctrl.payorder.AbstractPayOrderController;
+import com.jeequan.jeepay.pay.rqrs.payorder.UnifiedOrderRQ;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/*
+* 统一下单 (基准测试使用， 不注册为web接口)
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 20:00
+*/
+public class BenchPayOrderController extends AbstractPayOrderController {
+
+    /** 模拟web请求上下文 (获取客户端IP等) 并调起统一下单 **/
+    public ApiRes pay(UnifiedOrderRQ bizRQ){
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            return unifiedOrder(bizRQ.getWayCode(), bizRQ);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.benchmarks.context;
+
+import com.jeequan.jeepay.core.entity.PayOrder;
+import com.jeequan.jeepay.pay.channel.IPaymentService;
+import com.jeequan.jeepay.pay.model.MchAppConfigContext;
+import com.jeequan.jeepay.pay.rqrs.AbstractRS;
+import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
+import com.jeequan.jeepay.pay.rqrs.payorder.UnifiedOrderRQ;
+import com.jeequan.jeepay.pay.rqrs.payorder.UnifiedOrderRS;
+import org.springframework.stereotype.Service;
+
+/*
+* 支付通道桩实现： 不请求上游， 直接返回支付成功。
+* 注册为 [xxpay] 接口 (复用XxpayNormalMchParams作为商户参数)。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 20:00
+*/
+@Service("xxpayPaymentService")
+public class BenchPaymentService implements IPaymentService {
+
+    @Override
+    public String getIfCode() {
+        return "xxpay";
+    }
+
+    @Override
+    public boolean isSupport(String wayCode) {
+        return true;
+    }
+
+    @Override
+    public String preCheck(UnifiedOrderRQ bizRQ, PayOrder payOrder) {
+        return null;
+    }
+
+    @Override
+    public String customPayOrderId(UnifiedOrderRQ bizRQ, PayOrder payOrder, MchAppConfigContext mchAppConfigContext) {
+        return null;
+    }
+
+    @Override
+    public AbstractRS pay(UnifiedOrderRQ bizRQ, PayOrder payOrder, MchAppConfigContext mchAppConfigContext) {
+        UnifiedOrderRS res = new UnifiedOrderRS();
+        res.setChannelRetMsg(ChannelRetMsg.confirmSuccess("CH" + payOrder.getPayOrderId()));
+        return res;
+    }
+
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.benchmarks.loadtest;
+
+import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.core.utils.SignKit;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+* 支付网关全链路压测： 配合 [mock] 模拟渠道 和 localMQ 进程内消息， 无需第三方沙箱与MQ服务即可在单机运行。
+*
+* 每个并发线程循环执行场景：
+*   统一下单 -> (支付中时)模拟渠道回调 -> 查单 -> (按比例)退款
+* 指定 --notifyPort 时会启动本地HTTP服务接收商户通知， 统计 [下单 -> 收到商户通知] 的端到端延迟。
+* 结束后输出各环节的吞吐量与延迟直方图。
+*
+* 示例：
+*   1. 执行 loadtest/mock-init.sql 初始化压测商户、 应用和 [mock] 支付通道；
+*   2. 支付网关配置 isys.mq.vender=localMQ 和 isys.mock-channel.enabled=true (启用模拟渠道， 默认关闭) 后启动；
+*   3. java -cp jeepay-benchmarks/target/benchmarks.jar com.jeequan.jeepay.benchmarks.loadtest.LoadTestRunner --threads=32 --duration=60 --notifyPort=18080
+*
+* 参数 (--name=value)：
+*   url            支付网关地址， 默认 http://127.0.0.1:9216
+*   mchNo/appId/appSecret/mockKey   商户号/应用ID/应用私钥/模拟渠道密钥， 默认与 mock-init.sql 一致
+*   wayCode        支付方式， 默认 ALI_QR
+*   threads        并发线程数， 默认 16
+*   duration       压测时长 (秒)， 默认 60
+*   warmup         预热时长 (秒， 不计入统计)， 默认 10
+*   refundRate     支付成功后发起退款的比例 (百分比)， 默认 20
+*   notifyPort     商户通知接收端口， 默认 0 (不启用)
+*   histogram      是否输出完整延迟分布， 默认 true
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 13:30
+*/
+public class LoadTestRunner {
+
+    /** 支付订单状态： 支付中 / 支付成功 (与 PayOrder 一致) **/
+    private static final byte PAY_STATE_ING = 1;
+    private static final byte PAY_STATE_SUCCESS = 2;
+
+    private final Map<String, String> options;
+
+    private final String url;
+    private final String mchNo;
+    private final String appId;
+    private final String appSecret;
+    private final String mockKey;
+    private final String wayCode;
+    private final int refundRate;
+    private final int notifyPort;
+
+    private final HttpClient httpClient;
+
+    private final LoadTestStats unifiedOrderStats = new LoadTestStats("unifiedOrder");
+    private final LoadTestStats callbackStats = new LoadTestStats("callback");
+    private final LoadTestStats queryStats = new LoadTestStats("query");
+    private final LoadTestStats refundStats = new LoadTestStats("refund");
+    private final LoadTestStats scenarioStats = new LoadTestStats("scenario");
+    private final LoadTestStats mchNotifyStats = new LoadTestStats("mchNotify(e2e)");
+
+    /** 等待商户通知的订单： mchOrderNo - 下单时间 **/
+    private final Map<String, Long> notifyWaitingMap = new ConcurrentHashMap<>();
+
+    /** 订单号序列 **/
+    private final AtomicLong orderSeq = new AtomicLong();
+
+    private final String runId = Long.toString(System.currentTimeMillis(), 36).toUpperCase();
+
+    /** 预热结束后开始统计 **/
+    private volatile boolean recording = false;
+
+    public LoadTestRunner(Map<String, String> options) {
+        this.options = options;
+        this.url = option("url", "http://127.0.0.1:9216");
+        this.mchNo = option("mchNo", "M1000000099");
+        this.appId = option("appId", "6500000000000000000000f1");
+        this.appSecret = option("appSecret", "jeepayLoadTestAppSecret0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ");
+        this.mockKey = option("mockKey", "loadtest");
+        this.wayCode = option("wayCode", "ALI_QR");
+        this.refundRate = Integer.parseInt(option("refundRate", "20"));
+        this.notifyPort = Integer.parseInt(option("notifyPort", "0"));
+        this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if(arg.startsWith("--") && arg.contains("=")){
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        new LoadTestRunner(options).run();
+    }
+
+    public void run() throws Exception {
+
+        int threads = Integer.parseInt(option("threads", "16"));
+        long durationMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(option("duration", "60")));
+        long warmupMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(option("warmup", "10")));
+
+        HttpServer notifyServer = notifyPort > 0 ? startNotifyServer() : null;
+
+        System.out.printf("压测开始： url=%s, wayCode=%s, threads=%d, warmup=%ds, duration=%ds, refundRate=%d%%%n",
+                url, wayCode, threads, warmupMillis / 1000, durationMillis / 1000, refundRate);
+
+        long warmupEnd = System.currentTimeMillis() + warmupMillis;
+        long end = warmupEnd + durationMillis;
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    while (System.currentTimeMillis() < end) {
+                        runScenario();
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            }, "loadtest-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        Thread.sleep(Math.max(warmupMillis, 0));
+        recording = true;
+        long startNanos = System.nanoTime();
+        latch.await();
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+        // 等待剩余的商户通知 (MQ异步推送)
+        if(notifyServer != null){
+            Thread.sleep(TimeUnit.SECONDS.toMillis(Long.parseLong(option("notifyWait", "5"))));
+            notifyServer.stop(0);
+        }
+
+        printReport(elapsedSeconds);
+    }
+
+    /** 单次业务场景 **/
+    private void runScenario(){
+
+        boolean record = recording;
+        long scenarioStart = System.nanoTime();
+        String mchOrderNo = "LT" + runId + orderSeq.incrementAndGet();
+        long amount = 1 + ThreadLocalRandom.current().nextInt(100);
+
+        // 1. 统一下单
+        JSONObject orderParams = new JSONObject();
+        orderParams.put("mchOrderNo", mchOrderNo);
+        orderParams.put("wayCode", wayCode);
+        orderParams.put("amount", amount);
+        orderParams.put("currency", "cny");
+        orderParams.put("subject", "压测商品");
+        orderParams.put("body", "压测商品描述");
+        if(notifyPort > 0){
+            orderParams.put("notifyUrl", "http://127.0.0.1:" + notifyPort + "/notify");
+            if(record){
+                notifyWaitingMap.put(mchOrderNo, scenarioStart);
+            }
+        }
+
+        long start = System.nanoTime();
+        JSONObject orderData = postApi("/api/pay/unifiedOrder", orderParams);
+        record(unifiedOrderStats, start, orderData != null, record);
+        if(orderData == null){
+            record(scenarioStats, scenarioStart, false, record);
+            return ;
+        }
+        String payOrderId = orderData.getString("payOrderId");
+
+        // 2. 支付中的订单： 模拟渠道回调
+        if(orderData.getByteValue("orderState") == PAY_STATE_ING){
+            JSONObject noticeParams = new JSONObject();
+            noticeParams.put("payOrderId", payOrderId);
+            noticeParams.put("channelOrderId", "MOCK" + payOrderId);
+            noticeParams.put("state", "SUCCESS");
+            noticeParams.put("sign", SignKit.sign(noticeParams, mockKey, SignKit.SIGN_TYPE_MD5, "sign"));
+
+            start = System.nanoTime();
+            String res = post("/api/pay/notify/mock/" + payOrderId, noticeParams.toJSONString());
+            record(callbackStats, start, "success".equals(res), record);
+        }
+
+        // 3. 查单
+        JSONObject queryParams = new JSONObject();
+        queryParams.put("payOrderId", payOrderId);
+        start = System.nanoTime();
+        JSONObject queryData = postApi("/api/pay/query", queryParams);
+        record(queryStats, start, queryData != null, record);
+
+        // 4. 按比例退款
+        boolean success = queryData != null;
+        if(success && queryData.getByteValue("state") == PAY_STATE_SUCCESS && ThreadLocalRandom.current().nextInt(100) < refundRate){
+            JSONObject refundParams = new JSONObject();
+            refundParams.put("payOrderId", payOrderId);
+            refundParams.put("mchRefundNo", "R" + mchOrderNo);
+            refundParams.put("refundAmount", amount);
+            refundParams.put("currency", "cny");
+            refundParams.put("refundReason", "压测退款");
+
+            start = System.nanoTime();
+            JSONObject refundData = postApi("/api/refund/refundOrder", refundParams);
+            record(refundStats, start, refundData != null, record);
+            success = refundData != null;
+        }
+
+        record(scenarioStats, scenarioStart, success, record);
+    }
+
+    /** 调用支付网关API (自动填充公共参数并签名)， 返回 data ， 失败时返回null **/
+    private JSONObject postApi(String path, JSONObject params){
+
+        params.put("mchNo", mchNo);
+        params.put("appId", appId);
+        params.put("reqTime", System.currentTimeMillis());
+        params.put("version", "1.0");
+        params.put("signType", SignKit.SIGN_TYPE_MD5);
+        params.put("sign", SignKit.sign(params, appSecret, SignKit.SIGN_TYPE_MD5));
+
+        String res = post(path, params.toJSONString());
+        if(res == null){
+            return null;
+        }
+
+        JSONObject resJSON = JSONObject.parseObject(res);
+        if(resJSON.getIntValue("code") != 0 || resJSON.getJSONObject("data") == null){
+            return null;
+        }
+        return resJSON.getJSONObject("data");
+    }
+
+    private String post(String path, String jsonBody){
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(jsonBody, StandardCharsets.UTF_8))
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            return response.statusCode() == 200 ? response.body() : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void record(LoadTestStats stats, long startNanos, boolean success, boolean record){
+        if(record){
+            stats.record(startNanos, success);
+        }
+    }
+
+    /** 启动商户通知接收服务 **/
+    private HttpServer startNotifyServer() throws Exception {
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", notifyPort), 1024);
+        server.setExecutor(Executors.newFixedThreadPool(Integer.parseInt(option("notifyThreads", "16"))));
+        server.createContext("/notify", exchange -> {
+
+            String mchOrderNo = null;
+            String query = exchange.getRequestURI().getRawQuery();
+            if(query != null){
+                for (String pair : query.split("&")) {
+                    if(pair.startsWith("mchOrderNo=")){
+                        mchOrderNo = URLDecoder.decode(pair.substring("mchOrderNo=".length()), StandardCharsets.UTF_8);
+                    }
+                }
+            }
+
+            Long start = mchOrderNo == null ? null : notifyWaitingMap.remove(mchOrderNo);
+            if(start != null){
+                mchNotifyStats.record(start, true);
+            }
+
+            byte[] body = "SUCCESS".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private void printReport(double elapsedSeconds){
+
+        System.out.println();
+        System.out.printf("压测结束： 统计时长 %.1fs， 延迟单位：ms%n", elapsedSeconds);
+        LoadTestStats.printHeader(System.out);
+
+        LoadTestStats[] allStats = {unifiedOrderStats, callbackStats, queryStats, refundStats, scenarioStats, mchNotifyStats};
+        for (LoadTestStats stats : allStats) {
+            stats.printSummary(System.out, elapsedSeconds);
+        }
+        if(notifyPort > 0){
+            System.out.printf("未收到商户通知的订单数： %d%n", notifyWaitingMap.size());
+        }
+
+        if(Boolean.parseBoolean(option("histogram", "true"))){
+            for (LoadTestStats stats : allStats) {
+                stats.printHistogram(System.out);
+            }
+        }
+    }
+
+    private String option(String name, String defaultValue){
+        return options.getOrDefault(name, defaultValue);
+    }
+
+}
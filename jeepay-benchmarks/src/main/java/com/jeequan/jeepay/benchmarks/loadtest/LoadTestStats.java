@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.benchmarks.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+* 压测单个环节的统计： 成功/失败次数 + 延迟直方图 (微秒精度)
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 13:10
+*/
+public class LoadTestStats {
+
+    /** 可记录的最大延迟： 60s **/
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final String name;
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private final AtomicLong successCount = new AtomicLong();
+
+    private final AtomicLong failCount = new AtomicLong();
+
+    public LoadTestStats(String name) {
+        this.name = name;
+    }
+
+    /** 记录一次请求， startNanos 为 System.nanoTime() **/
+    public void record(long startNanos, boolean success){
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos), HIGHEST_TRACKABLE_MICROS);
+        histogram.recordValue(Math.max(micros, 1));
+        (success ? successCount : failCount).incrementAndGet();
+    }
+
+    public long getCount(){
+        return successCount.get() + failCount.get();
+    }
+
+    /** 输出汇总行： 次数 失败 吞吐量 均值 P50 P90 P99 P99.9 最大值 (毫秒) **/
+    public void printSummary(PrintStream out, double elapsedSeconds){
+        Histogram copy = histogram.copy();
+        out.printf("%-14s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, getCount(), failCount.get(), getCount() / elapsedSeconds,
+                copy.getMean() / 1000.0,
+                copy.getValueAtPercentile(50) / 1000.0,
+                copy.getValueAtPercentile(90) / 1000.0,
+                copy.getValueAtPercentile(99) / 1000.0,
+                copy.getValueAtPercentile(99.9) / 1000.0,
+                copy.getMaxValue() / 1000.0);
+    }
+
+    /** 输出延迟分布 (HdrHistogram 百分位格式， 单位：毫秒) **/
+    public void printHistogram(PrintStream out){
+        if(getCount() <= 0){
+            return ;
+        }
+        out.println();
+        out.println("==== " + name + " 延迟分布(ms) ====");
+        histogram.copy().outputPercentileDistribution(out, 5, 1000.0);
+    }
+
+    public static void printHeader(PrintStream out){
+        out.printf("%-14s %10s %8s %10s %9s %9s %9s %9s %9s %9s%n",
+                "stage", "count", "fail", "tps", "mean", "p50", "p90", "p99", "p99.9", "max");
+    }
+
+}
@@ -0,0 +1,13 @@
+-- 基准测试数据： 普通商户 + 商户应用 + [xxpay]桩接口 (ALI_BAR)
+
+INSERT INTO t_mch_info (mch_no, mch_name, mch_short_name, type, state) VALUES ('M1000000001', '基准测试商户', '基准测试', 1, 1);
+
+INSERT INTO t_mch_app (app_id, app_name, mch_no, state, app_secret) VALUES ('6500000000000000000000a1', '基准测试应用', 'M1000000001', 1, 'EQvN7b2bAlwQ3Rmj6Rn9FFyN8uvW1QQUZQX5vbzMp6EEMqEdsgabRLqOCE6BsWcnMuxmrwWfEjsACTKyY2xwpeI7G9HJeRtmAQEcA73Q0h1wg19n3xXdG3TVyBOn7gg5');
+
+INSERT INTO t_pay_interface_define (if_code, if_name, is_mch_mode, is_isv_mode, config_page_type, normal_mch_params, way_codes, state)
+VALUES ('xxpay', '桩接口', 1, 0, 1, '[]', '[{"wayCode": "ALI_BAR"}]', 1);
+
+INSERT INTO t_pay_interface_config (info_type, info_id, if_code, if_params, if_rate, state)
+VALUES (3, '6500000000000000000000a1', 'xxpay', '{"mchId":"10000","key":"bench","payUrl":"http://127.0.0.1"}', 0.006, 1);
+
+INSERT INTO t_mch_pay_passage (mch_no, app_id, if_code, way_code, rate, weight, state) VALUES ('M1000000001', '6500000000000000000000a1', 'xxpay', 'ALI_BAR', 0.006, 100, 1);
@@ -0,0 +1,181 @@
+-- 基准测试使用的H2表结构 (与 docs/sql/init.sql 保持一致， 去除MySQL专有语法)
+CREATE TABLE t_sys_config (
+    config_key VARCHAR(50) NOT NULL,
+    config_name VARCHAR(50) NOT NULL,
+    config_desc VARCHAR(200) NOT NULL,
+    group_key VARCHAR(50) NOT NULL,
+    group_name VARCHAR(50) NOT NULL,
+    config_val TEXT NOT NULL,
+    type VARCHAR(20) NOT NULL DEFAULT 'text',
+    sort_num BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (config_key)
+);
+
+CREATE TABLE t_isv_info (
+    isv_no VARCHAR(64) NOT NULL,
+    isv_name VARCHAR(64) NOT NULL,
+    isv_short_name VARCHAR(32) NOT NULL,
+    contact_name VARCHAR(32),
+    contact_tel VARCHAR(32),
+    contact_email VARCHAR(32),
+    state TINYINT NOT NULL DEFAULT 1,
+    remark VARCHAR(128) DEFAULT NULL,
+    created_uid BIGINT,
+    created_by VARCHAR(64),
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (isv_no)
+);
+
+CREATE TABLE t_mch_info (
+    mch_no VARCHAR(64) NOT NULL,
+    mch_name VARCHAR(64) NOT NULL,
+    mch_short_name VARCHAR(32) NOT NULL,
+    type TINYINT NOT NULL DEFAULT 1,
+    isv_no VARCHAR(64),
+    contact_name VARCHAR(32),
+    contact_tel VARCHAR(32),
+    contact_email VARCHAR(32),
+    state TINYINT NOT NULL DEFAULT 1,
+    remark VARCHAR(128),
+    init_user_id BIGINT DEFAULT NULL,
+    created_uid BIGINT,
+    created_by VARCHAR(64),
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (mch_no)
+);
+
+CREATE TABLE t_mch_app (
+    app_id varchar(64) NOT NULL,
+    app_name varchar(64) NOT NULL DEFAULT '',
+    mch_no VARCHAR(64) NOT NULL,
+    state TINYINT NOT NULL DEFAULT 1,
+    app_secret VARCHAR(128) NOT NULL,
+    remark varchar(128) DEFAULT NULL,
+    created_uid BIGINT,
+    created_by VARCHAR(64),
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (app_id)
+);
+
+CREATE TABLE t_pay_interface_define (
+    if_code VARCHAR(20) NOT NULL,
+    if_name VARCHAR(20) NOT NULL,
+    is_mch_mode TINYINT NOT NULL DEFAULT 1,
+    is_isv_mode TINYINT NOT NULL DEFAULT 1,
+    config_page_type TINYINT NOT NULL DEFAULT 1,
+    isv_params VARCHAR(4096) DEFAULT NULL,
+    isvsub_mch_params VARCHAR(4096) DEFAULT NULL,
+    normal_mch_params VARCHAR(4096) DEFAULT NULL,
+    way_codes VARCHAR(4096) NOT NULL,
+    icon VARCHAR(256) DEFAULT NULL,
+    bg_color VARCHAR(20) DEFAULT NULL,
+    state TINYINT NOT NULL DEFAULT 1,
+    remark VARCHAR(128) DEFAULT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (if_code)
+);
+
+CREATE TABLE t_pay_interface_config (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    info_type TINYINT NOT NULL,
+    info_id VARCHAR(64) NOT NULL,
+    if_code VARCHAR(20) NOT NULL,
+    if_params VARCHAR(4096) NOT NULL,
+    if_rate DECIMAL(20,6) DEFAULT NULL,
+    state TINYINT NOT NULL default 1,
+    remark VARCHAR(128) DEFAULT NULL,
+    created_uid BIGINT,
+    created_by VARCHAR(64),
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    updated_uid BIGINT,
+    updated_by VARCHAR(64),
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (id),
+    UNIQUE KEY Uni_InfoType_InfoId_IfCode (info_type, info_id, if_code)
+);
+
+CREATE TABLE t_mch_pay_passage (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    mch_no VARCHAR(64) NOT NULL,
+    app_id VARCHAR(64) NOT NULL,
+    if_code VARCHAR(20) NOT NULL,
+    way_code VARCHAR(20) NOT NULL,
+    rate DECIMAL(20,6) NOT NULL,
+    weight INT NOT NULL DEFAULT 100,
+    risk_config VARCHAR(4096) DEFAULT NULL,
+    state TINYINT NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (id),
+    UNIQUE KEY Uni_AppId_WayCode (app_id,if_code, way_code)
+);
+
+CREATE TABLE t_pay_order (
+    pay_order_id VARCHAR(30) NOT NULL,
+    mch_no VARCHAR(64) NOT NULL,
+    isv_no VARCHAR(64) DEFAULT NULL,
+    app_id VARCHAR(64) NOT NULL,
+    mch_name VARCHAR(30) NOT NULL,
+    mch_type TINYINT NOT NULL,
+    mch_order_no VARCHAR(64) NOT NULL,
+    if_code VARCHAR(20),
+    way_code VARCHAR(20) NOT NULL,
+    amount BIGINT NOT NULL,
+    mch_fee_rate decimal(20,6) NOT NULL,
+    mch_fee_amount BIGINT NOT NULL,
+    currency VARCHAR(3) NOT NULL DEFAULT 'cny',
+    state TINYINT NOT NULL DEFAULT '0',
+    notify_state TINYINT NOT NULL DEFAULT '0',
+    client_ip VARCHAR(32) DEFAULT NULL,
+    subject VARCHAR(64) NOT NULL,
+    body VARCHAR(256) NOT NULL,
+    channel_extra VARCHAR(512) DEFAULT NULL,
+    channel_user VARCHAR(64) DEFAULT NULL,
+    channel_order_no VARCHAR(64) DEFAULT NULL,
+    refund_state TINYINT NOT NULL DEFAULT '0',
+    refund_times INT NOT NULL DEFAULT 0,
+    refund_amount BIGINT NOT NULL DEFAULT 0,
+    division_mode TINYINT DEFAULT 0,
+    division_state TINYINT DEFAULT 0,
+    division_last_time DATETIME,
+    err_code VARCHAR(128) DEFAULT NULL,
+    err_msg VARCHAR(256) DEFAULT NULL,
+    ext_param VARCHAR(128) DEFAULT NULL,
+    notify_url VARCHAR(128) NOT NULL default '',
+    return_url VARCHAR(128) DEFAULT '',
+    expired_time DATETIME DEFAULT NULL,
+    success_time DATETIME DEFAULT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (pay_order_id),
+    UNIQUE KEY Uni_MchNo_MchOrderNo (mch_no, mch_order_no),
+    INDEX(created_at),
+    INDEX Idx_State_CreatedAt (state, created_at),
+    INDEX Idx_State_ExpiredTime (state, expired_time)
+);
+
+CREATE TABLE t_mch_notify_record (
+    notify_id BIGINT NOT NULL AUTO_INCREMENT,
+    order_id VARCHAR(64) NOT NULL,
+    order_type TINYINT NOT NULL,
+    mch_order_no VARCHAR(64) NOT NULL,
+    mch_no VARCHAR(64) NOT NULL,
+    isv_no VARCHAR(64),
+    app_id VARCHAR(64) NOT NULL,
+    notify_url TEXT NOT NULL,
+    res_result TEXT DEFAULT NULL,
+    notify_count INT NOT NULL DEFAULT '0',
+    notify_count_limit INT NOT NULL DEFAULT '6',
+    state TINYINT NOT NULL DEFAULT '1',
+    last_notify_time DATETIME DEFAULT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (notify_id),
+    UNIQUE KEY Uni_OrderId_Type (order_id, order_type)
+);
+
@@ -0,0 +1,31 @@
+-- 全链路压测数据 (MySQL)： [mock]模拟渠道 + 压测商户 + 压测应用 + 支付通道
+-- 与 LoadTestRunner 默认参数一致， 可重复执行。 注意： 请勿在生产环境执行！
+-- 支付网关需配置 isys.mock-channel.enabled=true 才会加载模拟渠道。
+-- 模拟渠道参数说明详见 MockNormalMchParams ： latency/jitter 模拟耗时(ms)， 各 Rate 为百分比。
+
+DELETE FROM t_pay_interface_define WHERE if_code = 'mock';
+INSERT INTO t_pay_interface_define (if_code, if_name, is_mch_mode, is_isv_mode, config_page_type, isv_params, isvsub_mch_params, normal_mch_params, way_codes, icon, bg_color, state, remark)
+VALUES ('mock', '模拟渠道(压测)', 1, 0, 1,
+        NULL,
+        NULL,
+        '[{"name":"key","desc":"回调签名密钥","type":"text","verify":"required","star":"1"},{"name":"latency","desc":"接口耗时(毫秒)","type":"text","verify":""},{"name":"jitter","desc":"耗时随机抖动(毫秒)","type":"text","verify":""},{"name":"paySuccessRate","desc":"下单成功比例(%)","type":"text","verify":""},{"name":"payFailRate","desc":"下单失败比例(%)","type":"text","verify":""},{"name":"querySuccessRate","desc":"查单成功比例(%)","type":"text","verify":""},{"name":"refundSuccessRate","desc":"退款成功比例(%)","type":"text","verify":""},{"name":"refundFailRate","desc":"退款失败比例(%)","type":"text","verify":""}]',
+        '[{"wayCode": "ALI_QR"}, {"wayCode": "ALI_BAR"}, {"wayCode": "WX_NATIVE"}, {"wayCode": "WX_BAR"}]',
+        NULL, '#999999', 1, '模拟渠道， 仅用于本地压测');
+
+DELETE FROM t_mch_info WHERE mch_no = 'M1000000099';
+INSERT INTO t_mch_info (mch_no, mch_name, mch_short_name, type, state, remark) VALUES ('M1000000099', '压测商户', '压测商户', 1, 1, '全链路压测');
+
+DELETE FROM t_mch_app WHERE app_id = '6500000000000000000000f1';
+INSERT INTO t_mch_app (app_id, app_name, mch_no, state, app_secret, remark)
+VALUES ('6500000000000000000000f1', '压测应用', 'M1000000099', 1, 'jeepayLoadTestAppSecret0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ', '全链路压测');
+
+-- 下单： 70%成功 / 5%失败 / 25%支付中(回调或补单推进)； 退款： 80%成功 / 20%退款中
+DELETE FROM t_pay_interface_config WHERE info_type = 3 AND info_id = '6500000000000000000000f1';
+INSERT INTO t_pay_interface_config (info_type, info_id, if_code, if_params, if_rate, state, remark)
+VALUES (3, '6500000000000000000000f1', 'mock', '{"key":"loadtest","latency":20,"jitter":30,"paySuccessRate":70,"payFailRate":5,"querySuccessRate":80,"refundSuccessRate":80,"refundFailRate":0}', 0.006, 1, '全链路压测');
+
+DELETE FROM t_mch_pay_passage WHERE app_id = '6500000000000000000000f1';
+INSERT INTO t_mch_pay_passage (mch_no, app_id, if_code, way_code, rate, state) VALUES ('M1000000099', '6500000000000000000000f1', 'mock', 'ALI_QR', 0.006, 1);
+INSERT INTO t_mch_pay_passage (mch_no, app_id, if_code, way_code, rate, state) VALUES ('M1000000099', '6500000000000000000000f1', 'mock', 'ALI_BAR', 0.006, 1);
+INSERT INTO t_mch_pay_passage (mch_no, app_id, if_code, way_code, rate, state) VALUES ('M1000000099', '6500000000000000000000f1', 'mock', 'WX_NATIVE', 0.006, 1);
+INSERT INTO t_mch_pay_passage (mch_no, app_id, if_code, way_code, rate, state) VALUES ('M1000000099', '6500000000000000000000f1', 'mock', 'WX_BAR', 0.006, 1);
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+* MQ 二进制消息体读取器， 格式与 MQBinaryWriter 对应。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 15:25
+*/
+public class MQBinaryReader {
+
+    private final byte[] buf;
+
+    private int position;
+
+    public MQBinaryReader(byte[] buf, int position) {
+        this.buf = buf;
+        this.position = position;
+    }
+
+    public long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readRawByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("varint 格式错误");
+    }
+
+    public byte readRawByte() {
+        if (position >= buf.length) {
+            throw new IllegalArgumentException("消息体长度不足");
+        }
+        return buf[position++];
+    }
+
+    public Long readLong() {
+        if (readRawByte() == 0) {
+            return null;
+        }
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public Integer readInt() {
+        Long value = readLong();
+        return value == null ? null : value.intValue();
+    }
+
+    public Byte readByte() {
+        Long value = readLong();
+        return value == null ? null : value.byteValue();
+    }
+
+    public Boolean readBoolean() {
+        byte value = readRawByte();
+        return value == 0 ? null : value == 2;
+    }
+
+    public String readString() {
+        int len = (int) readVarLong() - 1;
+        if (len < 0) {
+            return null;
+        }
+        if (position + len > buf.length) {
+            throw new IllegalArgumentException("消息体长度不足");
+        }
+        String value = new String(buf, position, len, StandardCharsets.UTF_8);
+        position += len;
+        return value;
+    }
+
+    public List<Long> readLongList() {
+        int count = (int) readVarLong() - 1;
+        if (count < 0) {
+            return null;
+        }
+        List<Long> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(readLong());
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+* MQ 二进制消息体写入器： 整数使用 zigzag + varint 编码， 可为空的字段先写入1字节的标记。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 15:25
+*/
+public class MQBinaryWriter {
+
+    private byte[] buf;
+
+    private int size;
+
+    public MQBinaryWriter(int initialCapacity) {
+        this.buf = new byte[initialCapacity];
+    }
+
+    /** 无符号 varint **/
+    public MQBinaryWriter writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buf[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[size++] = (byte) value;
+        return this;
+    }
+
+    public MQBinaryWriter writeRawByte(int value) {
+        ensureCapacity(1);
+        buf[size++] = (byte) value;
+        return this;
+    }
+
+    /** 可为空的整数 (Long/Integer/Byte 均使用该格式) **/
+    public MQBinaryWriter writeLong(Long value) {
+        if (value == null) {
+            return writeRawByte(0);
+        }
+        writeRawByte(1);
+        return writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public MQBinaryWriter writeInt(Integer value) {
+        return writeLong(value == null ? null : value.longValue());
+    }
+
+    public MQBinaryWriter writeByte(Byte value) {
+        return writeLong(value == null ? null : value.longValue());
+    }
+
+    /** 0: null, 1: false, 2: true **/
+    public MQBinaryWriter writeBoolean(Boolean value) {
+        return writeRawByte(value == null ? 0 : (value ? 2 : 1));
+    }
+
+    /** 长度+1 (0表示null) + UTF-8 字节 **/
+    public MQBinaryWriter writeString(String value) {
+        if (value == null) {
+            return writeVarLong(0);
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buf, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    /** 元素个数+1 (0表示null) + 各元素 **/
+    public MQBinaryWriter writeLongList(List<Long> value) {
+        if (value == null) {
+            return writeVarLong(0);
+        }
+        writeVarLong(value.size() + 1L);
+        value.forEach(this::writeLong);
+        return this;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, size);
+    }
+
+    private void ensureCapacity(int len) {
+        if (size + len > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, size + len));
+        }
+    }
+
+}
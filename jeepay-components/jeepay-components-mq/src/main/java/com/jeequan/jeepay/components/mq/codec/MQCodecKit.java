@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.codec;
+
+import cn.hutool.core.util.HexUtil;
+import com.alibaba.fastjson.JSON;
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
+import com.jeequan.jeepay.components.mq.model.AbstractMQ;
+import com.jeequan.jeepay.components.mq.model.IBinaryMQ;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+* MQ 消息体编解码工具类
+*
+* JSON： 与历史版本一致， 为默认格式。
+* 二进制： [1字节标识 0xB1][varint schemaId][各字段]， 各厂商同时在消息头 jeepayCodec 中标明编码格式；
+*         接收方优先读取消息头， 消息头不存在时 (如 localMQ) 根据首字节识别 (JSON消息体以 '{' 开头， 不会冲突)。
+*
+* 升级方式： 先升级全部接收方 (可同时识别两种格式)， 再将发送方的 isys.mq.codec 配置为 binary。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 15:30
+*/
+public class MQCodecKit {
+
+    /** 二进制消息体的首字节 **/
+    public static final byte BINARY_MAGIC = (byte) 0xB1;
+
+    /** 实际使用的编码格式： 该MQ未实现 IBinaryMQ 时， 使用JSON **/
+    public static String resolveCodec(AbstractMQ mqModel, String codec){
+        return MQCodecCS.BINARY.equals(codec) && mqModel instanceof IBinaryMQ ? MQCodecCS.BINARY : MQCodecCS.JSON;
+    }
+
+    /** 按编码格式构造消息体， codec 需为 resolveCodec 的返回值 **/
+    public static byte[] encode(AbstractMQ mqModel, String codec){
+
+        if(!MQCodecCS.BINARY.equals(codec) || !(mqModel instanceof IBinaryMQ)){
+            return mqModel.toMessage().getBytes(StandardCharsets.UTF_8);
+        }
+
+        IBinaryMQ binaryMQ = (IBinaryMQ) mqModel;
+        MQBinaryWriter writer = new MQBinaryWriter(32);
+        writer.writeRawByte(BINARY_MAGIC).writeVarLong(binaryMQ.getSchemaId());
+        binaryMQ.writePayload(writer);
+        return writer.toByteArray();
+    }
+
+    /** 是否为二进制消息体， codec: 消息头中的编码格式， 可为空 **/
+    public static boolean isBinary(byte[] body, String codec){
+
+        if(codec != null){
+            return MQCodecCS.BINARY.equals(codec);
+        }
+        return body.length > 0 && body[0] == BINARY_MAGIC;
+    }
+
+    /**
+     * 解析消息体
+     * @param codec 消息头中的编码格式， 可为空
+     * @param schemaId 期望的 schema id
+     * @param binaryReader 二进制格式的解析函数， 为空表示该MQ仅支持JSON
+     */
+    public static <T> T decode(byte[] body, String codec, int schemaId, Class<T> jsonClass, Function<MQBinaryReader, T> binaryReader){
+
+        if(!isBinary(body, codec)){
+            return JSON.parseObject(body, jsonClass);
+        }
+
+        if(binaryReader == null){
+            throw new IllegalArgumentException("[" + jsonClass.getName() + "]不支持二进制编码");
+        }
+
+        MQBinaryReader reader = new MQBinaryReader(body, 0);
+        if(reader.readRawByte() != BINARY_MAGIC){
+            throw new IllegalArgumentException("二进制消息体格式错误");
+        }
+        long actualSchemaId = reader.readVarLong();
+        if(actualSchemaId != schemaId){
+            throw new IllegalArgumentException("消息 schemaId 不匹配， 期望：" + schemaId + ", 实际：" + actualSchemaId);
+        }
+        return binaryReader.apply(reader);
+    }
+
+    /** 日志输出： JSON 输出原文， 二进制输出十六进制 **/
+    public static String toLogString(byte[] body){
+        return isBinary(body, null) ? HexUtil.encodeHexStr(body) : new String(body, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.constant;
+
+/**
+* MQ 消息体编码格式定义类
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 15:20
+*/
+public class MQCodecCS {
+
+    /** 发送方使用的编码格式， 接收方根据消息头自动识别 **/
+    public static final String YML_CODEC_KEY = "isys.mq.codec";
+
+    /** 消息头/消息属性： 消息体编码格式 **/
+    public static final String HEADER_NAME = "jeepayCodec";
+
+    public static final String JSON = "json";
+    public static final String BINARY = "binary";
+
+}
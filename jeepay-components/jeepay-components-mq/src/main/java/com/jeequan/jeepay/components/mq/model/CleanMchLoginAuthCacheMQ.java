@@ -17,6 +17,8 @@ package com.jeequan.jeepay.components.mq.model;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.components.mq.codec.MQBinaryWriter;
+import com.jeequan.jeepay.components.mq.codec.MQCodecKit;
 import com.jeequan.jeepay.components.mq.constant.MQSendTypeEnum;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -36,10 +38,13 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class CleanMchLoginAuthCacheMQ extends AbstractMQ {
+public class CleanMchLoginAuthCacheMQ extends AbstractMQ implements IBinaryMQ {
 
     /** 【！重要配置项！】 定义MQ名称 **/
-    public static final String MQ_NAME = "QUEUE_CLEAN_MCH_LOGIN_AUTH_CACHE";
+    public static final String MQ_NAME = "BROADCAST_CLEAN_MCH_LOGIN_AUTH_CACHE";
+
+    /** 【！重要配置项！】 二进制编码的 schema id， 消息结构变更时需修改 **/
+    public static final int SCHEMA_ID = 1;
 
     /** 内置msg 消息体定义 **/
     private MsgPayload payload;
@@ -62,7 +67,7 @@ public class CleanMchLoginAuthCacheMQ extends AbstractMQ {
     /**  【！重要配置项！】 **/
     @Override
     public MQSendTypeEnum getMQType(){
-        return MQSendTypeEnum.QUEUE;  // QUEUE - 点对点 、 BROADCAST - 广播模式
+        return MQSendTypeEnum.BROADCAST;  // QUEUE - 点对点 、 BROADCAST - 广播模式 (各商户系统节点均需清除本地登录缓存)
     }
 
     @Override
@@ -70,6 +75,17 @@ public class CleanMchLoginAuthCacheMQ extends AbstractMQ {
         return JSONObject.toJSONString(payload);
     }
 
+    @Override
+    public int getSchemaId() {
+        return SCHEMA_ID;
+    }
+
+    /**  【！重要配置项！】 二进制消息体， 字段顺序需与 parse 一致 **/
+    @Override
+    public void writePayload(MQBinaryWriter writer) {
+        writer.writeLongList(payload.getUserIdList());
+    }
+
     /**  【！重要配置项！】 构造MQModel , 一般用于发送MQ时 **/
     public static CleanMchLoginAuthCacheMQ build(List<Long> userIdList){
         return new CleanMchLoginAuthCacheMQ(new MsgPayload(userIdList));
@@ -80,9 +96,19 @@ public class CleanMchLoginAuthCacheMQ extends AbstractMQ {
         return JSON.parseObject(msg, MsgPayload.class);
     }
 
+    /** 解析MQ消息体 (JSON 或 二进制)， codec: 消息头中的编码格式， 可为空 **/
+    public static MsgPayload parse(byte[] body, String codec){
+        return MQCodecKit.decode(body, codec, SCHEMA_ID, MsgPayload.class, reader -> new MsgPayload(reader.readLongList()));
+    }
+
     /** 定义 IMQReceiver 接口： 项目实现该接口则可接收到对应的业务消息  **/
     public interface IMQReceiver{
         void receive(MsgPayload payload);
+
+        /** 批量接收 （仅开启批量消费时调用）， 默认逐条处理 **/
+        default void receiveBatch(List<MsgPayload> payloadList){
+            payloadList.forEach(this::receive);
+        }
     }
 
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.model;
+
+import com.jeequan.jeepay.components.mq.codec.MQBinaryWriter;
+
+/**
+* 支持二进制编码的MQ消息： 实现该接口的MQ在 isys.mq.codec=binary 时使用二进制消息体， 其他MQ始终使用JSON。
+* 实现类需同时提供 parse(byte[], String) 的二进制解析， 字段顺序与 writePayload 一致。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 15:20
+*/
+public interface IBinaryMQ {
+
+    /** 二进制编码的 schema id (大于0， 消息结构变更时需修改) **/
+    int getSchemaId();
+
+    /** 写入二进制消息体 (不含 schema 头) **/
+    void writePayload(MQBinaryWriter writer);
+
+}
@@ -18,6 +18,7 @@ package com.jeequan.jeepay.components.mq.model;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.components.mq.codec.MQCodecKit;
 import com.jeequan.jeepay.components.mq.constant.MQSendTypeEnum;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -100,9 +101,19 @@ public class PayOrderDivisionMQ extends AbstractMQ {
         return JSON.parseObject(msg, MsgPayload.class);
     }
 
+    /** 解析MQ消息体， 分账消息频率低且结构复杂， 仅支持JSON **/
+    public static MsgPayload parse(byte[] body, String codec){
+        return MQCodecKit.decode(body, codec, 0, MsgPayload.class, null);
+    }
+
     /** 定义 IMQReceiver 接口： 项目实现该接口则可接收到对应的业务消息  **/
     public interface IMQReceiver{
         void receive(MsgPayload payload);
+
+        /** 批量接收 （仅开启批量消费时调用）， 默认逐条处理 **/
+        default void receiveBatch(List<MsgPayload> payloadList){
+            payloadList.forEach(this::receive);
+        }
     }
 
 
@@ -17,11 +17,15 @@ package com.jeequan.jeepay.components.mq.model;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.components.mq.codec.MQBinaryWriter;
+import com.jeequan.jeepay.components.mq.codec.MQCodecKit;
 import com.jeequan.jeepay.components.mq.constant.MQSendTypeEnum;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
 *
 * 定义MQ消息格式
@@ -34,11 +38,14 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class PayOrderReissueMQ extends AbstractMQ {
+public class PayOrderReissueMQ extends AbstractMQ implements IBinaryMQ {
 
     /** 【！重要配置项！】 定义MQ名称 **/
     public static final String MQ_NAME = "QUEUE_PAY_ORDER_REISSUE";
 
+    /** 【！重要配置项！】 二进制编码的 schema id， 消息结构变更时需修改 **/
+    public static final int SCHEMA_ID = 3;
+
     /** 内置msg 消息体定义 **/
     private MsgPayload payload;
 
@@ -71,6 +78,17 @@ public class PayOrderReissueMQ extends AbstractMQ {
         return JSONObject.toJSONString(payload);
     }
 
+    @Override
+    public int getSchemaId() {
+        return SCHEMA_ID;
+    }
+
+    /**  【！重要配置项！】 二进制消息体， 字段顺序需与 parse 一致 **/
+    @Override
+    public void writePayload(MQBinaryWriter writer) {
+        writer.writeString(payload.getPayOrderId()).writeInt(payload.getCount());
+    }
+
     /**  【！重要配置项！】 构造MQModel , 一般用于发送MQ时 **/
     public static PayOrderReissueMQ build(String payOrderId, Integer count){
         return new PayOrderReissueMQ(new MsgPayload(payOrderId, count));
@@ -81,9 +99,19 @@ public class PayOrderReissueMQ extends AbstractMQ {
         return JSON.parseObject(msg, MsgPayload.class);
     }
 
+    /** 解析MQ消息体 (JSON 或 二进制)， codec: 消息头中的编码格式， 可为空 **/
+    public static MsgPayload parse(byte[] body, String codec){
+        return MQCodecKit.decode(body, codec, SCHEMA_ID, MsgPayload.class, reader -> new MsgPayload(reader.readString(), reader.readInt()));
+    }
+
     /** 定义 IMQReceiver 接口： 项目实现该接口则可接收到对应的业务消息  **/
     public interface IMQReceiver{
         void receive(MsgPayload payload);
+
+        /** 批量接收 （仅开启批量消费时调用）， 默认逐条处理 **/
+        default void receiveBatch(List<MsgPayload> payloadList){
+            payloadList.forEach(this::receive);
+        }
     }
 
 }
@@ -17,11 +17,17 @@ package com.jeequan.jeepay.components.mq.model;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.components.mq.codec.MQBinaryReader;
+import com.jeequan.jeepay.components.mq.codec.MQBinaryWriter;
+import com.jeequan.jeepay.components.mq.codec.MQCodecKit;
 import com.jeequan.jeepay.components.mq.constant.MQSendTypeEnum;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
 *
 * 定义MQ消息格式
@@ -34,11 +40,14 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class ResetIsvMchAppInfoConfigMQ extends AbstractMQ {
+public class ResetIsvMchAppInfoConfigMQ extends AbstractMQ implements IBinaryMQ {
 
     /** 【！重要配置项！】 定义MQ名称 **/
     public static final String MQ_NAME = "BROADCAST_RESET_ISV_MCH_APP_INFO_CONFIG";
 
+    /** 【！重要配置项！】 二进制编码的 schema id， 消息结构变更时需修改 **/
+    public static final int SCHEMA_ID = 6;
+
     /** 内置msg 消息体定义 **/
     private MsgPayload payload;
 
@@ -46,6 +55,8 @@ public class ResetIsvMchAppInfoConfigMQ extends AbstractMQ {
     public static final byte RESET_TYPE_ISV_INFO = 1;
     public static final byte RESET_TYPE_MCH_INFO = 2;
     public static final byte RESET_TYPE_MCH_APP = 3;
+    public static final byte RESET_TYPE_PAY_IF_DEFINE = 4;
+    public static final byte RESET_TYPE_BATCH = 5; // 合并后的批量重置， 明细见 itemList
 
     /**  【！重要配置项！】 定义Msg消息载体 **/
     @Data
@@ -64,6 +75,9 @@ public class ResetIsvMchAppInfoConfigMQ extends AbstractMQ {
         /** appId **/
         private String appId;
 
+        /** 批量重置明细 （仅 RESET_TYPE_BATCH） **/
+        private List<MsgPayload> itemList;
+
     }
 
 
@@ -83,9 +97,39 @@ public class ResetIsvMchAppInfoConfigMQ extends AbstractMQ {
         return JSONObject.toJSONString(payload);
     }
 
+    @Override
+    public int getSchemaId() {
+        return SCHEMA_ID;
+    }
+
+    /**  【！重要配置项！】 二进制消息体， 字段顺序需与 parse 一致 **/
+    @Override
+    public void writePayload(MQBinaryWriter writer) {
+        writeItem(writer, payload);
+        if(payload.getItemList() == null){
+            writer.writeVarLong(0);
+            return ;
+        }
+        writer.writeVarLong(payload.getItemList().size() + 1L);
+        payload.getItemList().forEach(item -> writeItem(writer, item));
+    }
+
+    private static void writeItem(MQBinaryWriter writer, MsgPayload item){
+        writer.writeByte(item.getResetType()).writeString(item.getIsvNo()).writeString(item.getMchNo()).writeString(item.getAppId());
+    }
+
+    private static MsgPayload readItem(MQBinaryReader reader){
+        return new MsgPayload(reader.readByte(), reader.readString(), reader.readString(), reader.readString(), null);
+    }
+
     /**  【！重要配置项！】 构造MQModel , 一般用于发送MQ时 **/
     public static ResetIsvMchAppInfoConfigMQ build(Byte resetType, String isvNo, String mchNo, String appId){
-        return new ResetIsvMchAppInfoConfigMQ(new MsgPayload(resetType, isvNo, mchNo, appId));
+        return new ResetIsvMchAppInfoConfigMQ(new MsgPayload(resetType, isvNo, mchNo, appId, null));
+    }
+
+    /** 构造批量重置MQModel （由多条重置消息合并而来） **/
+    public static ResetIsvMchAppInfoConfigMQ buildBatch(List<MsgPayload> itemList){
+        return new ResetIsvMchAppInfoConfigMQ(new MsgPayload(RESET_TYPE_BATCH, null, null, null, itemList));
     }
 
     /** 解析MQ消息， 一般用于接收MQ消息时 **/
@@ -93,9 +137,30 @@ public class ResetIsvMchAppInfoConfigMQ extends AbstractMQ {
         return JSON.parseObject(msg, MsgPayload.class);
     }
 
+    /** 解析MQ消息体 (JSON 或 二进制)， codec: 消息头中的编码格式， 可为空 **/
+    public static MsgPayload parse(byte[] body, String codec){
+        return MQCodecKit.decode(body, codec, SCHEMA_ID, MsgPayload.class, reader -> {
+            MsgPayload result = readItem(reader);
+            int count = (int) reader.readVarLong() - 1;
+            if(count >= 0){
+                List<MsgPayload> itemList = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    itemList.add(readItem(reader));
+                }
+                result.setItemList(itemList);
+            }
+            return result;
+        });
+    }
+
     /** 定义 IMQReceiver 接口： 项目实现该接口则可接收到对应的业务消息  **/
     public interface IMQReceiver{
         void receive(MsgPayload payload);
+
+        /** 批量接收 （仅开启批量消费时调用）， 默认逐条处理 **/
+        default void receiveBatch(List<MsgPayload> payloadList){
+            payloadList.forEach(this::receive);
+        }
     }
 
 }
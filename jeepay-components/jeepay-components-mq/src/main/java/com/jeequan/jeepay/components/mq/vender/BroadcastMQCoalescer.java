@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender;
+
+import com.jeequan.jeepay.components.mq.model.AbstractMQ;
+import com.jeequan.jeepay.components.mq.model.ResetAppConfigMQ;
+import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+* 配置重置广播的合并发送器
+*
+* 批量修改配置（如批量导入商户、 批量配置支付通道）时， 每次修改都会广播一条重置消息， 各支付节点逐条重新加载。
+* 本发送器在合并窗口内对重置消息去重， 窗口结束时：
+*   [更新服务商/商户/商户应用配置信息] 合并为一条批量重置消息 （仅一条时保持原消息格式）；
+*   [更新系统配置参数] 按 groupKey 去重后批量推送。
+* 合并窗口为0 （默认） 时直接推送。 注意： 接收方需支持 RESET_TYPE_BATCH 后再开启合并。
+* 合并推送失败时， 明细放回待推送集合， 按指数退避重新推送 （最多 coalesceMaxRetries 次）。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 16:40
+*/
+@Slf4j
+@Component
+public class BroadcastMQCoalescer {
+
+    @Autowired private IMQSender mqSender;
+
+    /** 合并窗口 （毫秒）， 0 表示不合并 **/
+    @Value("${isys.mq.coalesce-window-ms:0}")
+    private long coalesceWindowMs;
+
+    /** 单条批量重置消息的最大明细数 **/
+    @Value("${isys.mq.coalesce-max-items:500}")
+    private int coalesceMaxItems;
+
+    /** 合并推送失败时的最大重试次数 **/
+    @Value("${isys.mq.coalesce-max-retries:5}")
+    private int coalesceMaxRetries;
+
+    /** 重试间隔上限 （毫秒） **/
+    private static final long MAX_RETRY_DELAY_MS = 60 * 1000;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "mq-broadcast-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** 待推送的重置明细 **/
+    private Set<ResetIsvMchAppInfoConfigMQ.MsgPayload> pendingResetItems = new LinkedHashSet<>();
+
+    /** 待推送的系统配置groupKey **/
+    private Set<String> pendingGroupKeys = new LinkedHashSet<>();
+
+    /** 当前窗口是否已安排推送 **/
+    private boolean flushScheduled = false;
+
+    /** 连续推送失败次数 **/
+    private int failCount = 0;
+
+
+    /** 推送 [更新服务商/商户/商户应用配置信息] **/
+    public void send(ResetIsvMchAppInfoConfigMQ mqModel){
+
+        if(coalesceWindowMs <= 0){
+            mqSender.send(mqModel);
+            return ;
+        }
+
+        synchronized (this){
+            pendingResetItems.add(mqModel.getPayload());
+            scheduleFlush();
+        }
+    }
+
+    /** 推送 [更新系统配置参数] **/
+    public void send(ResetAppConfigMQ mqModel){
+
+        if(coalesceWindowMs <= 0){
+            mqSender.send(mqModel);
+            return ;
+        }
+
+        synchronized (this){
+            pendingGroupKeys.add(mqModel.getPayload().getGroupKey());
+            scheduleFlush();
+        }
+    }
+
+    /** 立即推送当前窗口内的消息 **/
+    public void flush(){
+
+        Set<ResetIsvMchAppInfoConfigMQ.MsgPayload> resetItems;
+        Set<String> groupKeys;
+        synchronized (this){
+            resetItems = pendingResetItems;
+            groupKeys = pendingGroupKeys;
+            pendingResetItems = new LinkedHashSet<>();
+            pendingGroupKeys = new LinkedHashSet<>();
+            flushScheduled = false;
+        }
+
+        List<AbstractMQ> mqModelList = new ArrayList<>();
+        groupKeys.forEach(groupKey -> mqModelList.add(ResetAppConfigMQ.build(groupKey)));
+
+        List<ResetIsvMchAppInfoConfigMQ.MsgPayload> itemList = new ArrayList<>(resetItems);
+        if(itemList.size() == 1){
+            mqModelList.add(new ResetIsvMchAppInfoConfigMQ(itemList.get(0)));
+        }else{
+            for (int i = 0; i < itemList.size(); i += coalesceMaxItems) {
+                mqModelList.add(ResetIsvMchAppInfoConfigMQ.buildBatch(new ArrayList<>(itemList.subList(i, Math.min(i + coalesceMaxItems, itemList.size())))));
+            }
+        }
+
+        if(mqModelList.isEmpty()){
+            return ;
+        }
+
+        try {
+            mqSender.sendBatch(mqModelList);
+            log.info("合并推送配置重置广播， 系统配置{}条， 服务商/商户/应用配置{}条", groupKeys.size(), resetItems.size());
+            synchronized (this){
+                failCount = 0;
+            }
+        } catch (Exception e) {
+            log.error("合并推送配置重置广播异常， groupKeys={}, resetItems={}", groupKeys, resetItems, e);
+            requeue(groupKeys, resetItems);
+        }
+    }
+
+    @PreDestroy
+    public void destroy(){
+        scheduler.shutdownNow();
+        flush();
+    }
+
+    /** 推送失败： 放回待推送集合， 按指数退避重新推送 **/
+    private synchronized void requeue(Set<String> groupKeys, Set<ResetIsvMchAppInfoConfigMQ.MsgPayload> resetItems){
+
+        if(scheduler.isShutdown() || ++failCount > coalesceMaxRetries){
+            log.error("配置重置广播推送失败， 不再重试, failCount={}, groupKeys={}, resetItems={}", failCount, groupKeys, resetItems);
+            failCount = 0;
+            return ;
+        }
+
+        // 保持原有顺序， 失败的明细在前
+        groupKeys.addAll(pendingGroupKeys);
+        resetItems.addAll(pendingResetItems);
+        pendingGroupKeys = groupKeys;
+        pendingResetItems = resetItems;
+
+        long retryDelayMs = Math.min(Math.max(coalesceWindowMs, 1000) << Math.min(failCount - 1, 10), MAX_RETRY_DELAY_MS);
+        flushScheduled = true;
+        scheduler.schedule(this::flush, retryDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** 窗口内首条消息时安排推送 （需持有锁） **/
+    private void scheduleFlush(){
+
+        if(flushScheduled){
+            return ;
+        }
+        flushScheduled = true;
+        scheduler.schedule(this::flush, coalesceWindowMs, TimeUnit.MILLISECONDS);
+    }
+
+}
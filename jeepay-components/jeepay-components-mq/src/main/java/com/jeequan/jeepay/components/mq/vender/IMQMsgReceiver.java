@@ -15,6 +15,11 @@
  */
 package com.jeequan.jeepay.components.mq.vender;
 
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 /**
 * MQ 消息接收器 接口定义
 *
@@ -24,6 +29,16 @@ package com.jeequan.jeepay.components.mq.vender;
 */
 public interface IMQMsgReceiver {
 
-    /** 接收消息 **/
-    void receiveMsg(String msg);
+    /** 接收消息 (JSON文本) **/
+    default void receiveMsg(String msg){
+        receiveMsg(msg.getBytes(StandardCharsets.UTF_8), MQCodecCS.JSON);
+    }
+
+    /** 接收消息体， codec: 消息头中的编码格式， 为空时根据消息体识别 **/
+    void receiveMsg(byte[] body, String codec);
+
+    /** 批量接收消息体 （仅开启批量消费的厂商调用）， 默认逐条接收 **/
+    default void receiveMsgBatch(List<byte[]> bodyList){
+        bodyList.forEach(body -> receiveMsg(body, null));
+    }
 }
@@ -17,6 +17,9 @@ package com.jeequan.jeepay.components.mq.vender;
 
 import com.jeequan.jeepay.components.mq.model.AbstractMQ;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
 * MQ 消息发送器 接口定义
 *
@@ -32,4 +35,34 @@ public interface IMQSender {
     /** 推送MQ消息， 延迟接收，单位：s **/
     void send(AbstractMQ mqModel, int delay);
 
+    /** 批量推送MQ消息， 实时。 默认逐条推送， 各厂商可使用原生批量接口实现 **/
+    default void sendBatch(List<? extends AbstractMQ> mqModelList){
+        mqModelList.forEach(this::send);
+    }
+
+    /** 异步推送MQ消息， 实时。 默认在当前线程推送完成后返回 **/
+    default CompletableFuture<Void> sendAsync(AbstractMQ mqModel){
+        return completeWith(() -> send(mqModel));
+    }
+
+    /** 异步推送MQ消息， 延迟接收，单位：s **/
+    default CompletableFuture<Void> sendAsync(AbstractMQ mqModel, int delay){
+        return completeWith(() -> send(mqModel, delay));
+    }
+
+    /** 异步批量推送MQ消息， 实时 **/
+    default CompletableFuture<Void> sendBatchAsync(List<? extends AbstractMQ> mqModelList){
+        return completeWith(() -> sendBatch(mqModelList));
+    }
+
+    /** 执行推送， 并将结果（或异常）包装为 CompletableFuture **/
+    static CompletableFuture<Void> completeWith(Runnable sendAction){
+        try {
+            sendAction.run();
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
 }
@@ -28,6 +28,10 @@ import org.springframework.stereotype.Component;
 
 import jakarta.jms.ConnectionFactory;
 import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.TextMessage;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -62,6 +66,15 @@ public class ActiveMQConfig {
     }
 
 
+    /** 读取消息体： JSON 为 TextMessage， 二进制编码为 BytesMessage **/
+    public static byte[] getBody(Message message) throws JMSException {
+
+        if(message instanceof TextMessage){
+            return ((TextMessage) message).getText().getBytes(StandardCharsets.UTF_8);
+        }
+        return message.getBody(byte[].class);
+    }
+
     public static final String TOPIC_LISTENER_CONTAINER = "jmsTopicListenerContainer";
 
     /** 新增jmsListenerContainer, 用于接收topic类型的消息 **/
@@ -15,16 +15,26 @@
  */
 package com.jeequan.jeepay.components.mq.vender.activemq;
 
+import com.jeequan.jeepay.components.mq.codec.MQCodecKit;
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.model.AbstractMQ;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.vender.IMQSender;
 import org.apache.activemq.ScheduledMessage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.JmsUtils;
 import org.springframework.stereotype.Component;
 
-import jakarta.jms.TextMessage;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.Connection;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import java.util.List;
 
 /**
 *  activeMQ 消息发送器的实现
@@ -43,15 +53,19 @@ public class ActiveMQSender implements IMQSender {
     @Autowired
     private JmsTemplate jmsTemplate;
 
+    /** 消息体编码格式 **/
+    @Value("${" + MQCodecCS.YML_CODEC_KEY + ":" + MQCodecCS.JSON + "}")
+    private String codec;
+
     @Override
     public void send(AbstractMQ mqModel) {
-        jmsTemplate.convertAndSend(activeMQConfig.getDestination(mqModel), mqModel.toMessage());
+        jmsTemplate.send(activeMQConfig.getDestination(mqModel), session -> createMessage(session, mqModel));
     }
 
     @Override
     public void send(AbstractMQ mqModel, int delay) {
         jmsTemplate.send(activeMQConfig.getDestination(mqModel), session -> {
-            TextMessage tm = session.createTextMessage(mqModel.toMessage());
+            Message tm = createMessage(session, mqModel);
             tm.setLongProperty(ScheduledMessage.AMQ_SCHEDULED_DELAY, delay * 1000);
             tm.setLongProperty(ScheduledMessage.AMQ_SCHEDULED_PERIOD, 1*1000);
             tm.setLongProperty(ScheduledMessage.AMQ_SCHEDULED_REPEAT, 1);
@@ -59,4 +73,47 @@ public class ActiveMQSender implements IMQSender {
         });
     }
 
+    /**
+     * 批量推送： 使用事务session发送， 持久化消息无需逐条等待broker确认， 提交时一次确认。
+     * 若执行异常则回滚， 整批均不会投递。
+     */
+    @Override
+    public void sendBatch(List<? extends AbstractMQ> mqModelList) {
+
+        if(mqModelList.isEmpty()){
+            return ;
+        }
+
+        try (Connection connection = jmsTemplate.getConnectionFactory().createConnection();
+             Session session = connection.createSession(true, Session.SESSION_TRANSACTED);
+             MessageProducer producer = session.createProducer(null)) {
+
+            try {
+                for (AbstractMQ mqModel : mqModelList) {
+                    producer.send(activeMQConfig.getDestination(mqModel), createMessage(session, mqModel));
+                }
+                session.commit();
+            } catch (JMSException e) {
+                session.rollback();
+                throw e;
+            }
+        } catch (JMSException e) {
+            throw JmsUtils.convertJmsAccessException(e);
+        }
+    }
+
+    /** 构造消息： JSON 与历史版本一致为 TextMessage， 二进制编码为 BytesMessage 并在消息属性中标明编码格式 **/
+    private Message createMessage(Session session, AbstractMQ mqModel) throws JMSException {
+
+        String actualCodec = MQCodecKit.resolveCodec(mqModel, codec);
+        if(MQCodecCS.JSON.equals(actualCodec)){
+            return session.createTextMessage(mqModel.toMessage());
+        }
+
+        BytesMessage bytesMessage = session.createBytesMessage();
+        bytesMessage.writeBytes(MQCodecKit.encode(mqModel, actualCodec));
+        bytesMessage.setStringProperty(MQCodecCS.HEADER_NAME, actualCodec);
+        return bytesMessage;
+    }
+
 }
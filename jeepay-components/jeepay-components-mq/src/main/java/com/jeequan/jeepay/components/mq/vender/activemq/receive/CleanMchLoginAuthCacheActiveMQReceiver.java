@@ -15,17 +15,20 @@
  */
 package com.jeequan.jeepay.components.mq.vender.activemq.receive;
 
-import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
-import com.jeequan.jeepay.components.mq.executor.MqThreadExecutor;
 import com.jeequan.jeepay.components.mq.model.CleanMchLoginAuthCacheMQ;
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
+import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
+import com.jeequan.jeepay.components.mq.vender.activemq.ActiveMQConfig;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jms.annotation.JmsListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+
 /**
  * activeMQ 消息接收器：仅在vender=activeMQ时 && 项目实现IMQReceiver接口时 进行实例化
  * 业务：  清除商户登录信息
@@ -42,12 +45,15 @@ public class CleanMchLoginAuthCacheActiveMQReceiver implements IMQMsgReceiver {
     @Autowired
     private CleanMchLoginAuthCacheMQ.IMQReceiver mqReceiver;
 
-    /** 接收 【 queue 】 类型的消息 **/
+    /** 接收 【 MQSendTypeEnum.BROADCAST  】 广播类型的消息 **/
+    @JmsListener(destination = CleanMchLoginAuthCacheMQ.MQ_NAME, containerFactory = ActiveMQConfig.TOPIC_LISTENER_CONTAINER)
+    public void onMessage(Message message) throws JMSException {
+        this.receiveMsg(ActiveMQConfig.getBody(message), message.getStringProperty(MQCodecCS.HEADER_NAME));
+    }
+
     @Override
-    @Async(MqThreadExecutor.EXECUTOR_PAYORDER_MCH_NOTIFY)
-    @JmsListener(destination = CleanMchLoginAuthCacheMQ.MQ_NAME)
-    public void receiveMsg(String msg){
-        mqReceiver.receive(CleanMchLoginAuthCacheMQ.parse(msg));
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(CleanMchLoginAuthCacheMQ.parse(body, codec));
     }
 
 }
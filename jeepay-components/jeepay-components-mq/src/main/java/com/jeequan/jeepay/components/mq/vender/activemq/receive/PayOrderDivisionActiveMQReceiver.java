@@ -15,9 +15,11 @@
  */
 package com.jeequan.jeepay.components.mq.vender.activemq.receive;
 
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.model.PayOrderDivisionMQ;
 import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
+import com.jeequan.jeepay.components.mq.vender.activemq.ActiveMQConfig;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -25,6 +27,9 @@ import org.springframework.jms.annotation.JmsListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+
 /**
  * activeMQ 消息接收器：仅在vender=activeMQ时 && 项目实现IMQReceiver接口时 进行实例化
  * 业务：  支付订单分账通知
@@ -42,10 +47,14 @@ public class PayOrderDivisionActiveMQReceiver implements IMQMsgReceiver {
     private PayOrderDivisionMQ.IMQReceiver mqReceiver;
 
     /** 接收 【 queue 】 类型的消息 **/
-    @Override
     @JmsListener(destination = PayOrderDivisionMQ.MQ_NAME)
-    public void receiveMsg(String msg){
-        mqReceiver.receive(PayOrderDivisionMQ.parse(msg));
+    public void onMessage(Message message) throws JMSException {
+        this.receiveMsg(ActiveMQConfig.getBody(message), message.getStringProperty(MQCodecCS.HEADER_NAME));
+    }
+
+    @Override
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(PayOrderDivisionMQ.parse(body, codec));
     }
 
 }
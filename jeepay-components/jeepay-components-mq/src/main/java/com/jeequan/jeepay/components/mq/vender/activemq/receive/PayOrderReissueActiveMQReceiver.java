@@ -15,10 +15,12 @@
  */
 package com.jeequan.jeepay.components.mq.vender.activemq.receive;
 
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.executor.MqThreadExecutor;
 import com.jeequan.jeepay.components.mq.model.PayOrderReissueMQ;
 import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
+import com.jeequan.jeepay.components.mq.vender.activemq.ActiveMQConfig;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -26,6 +28,9 @@ import org.springframework.jms.annotation.JmsListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+
 /**
  * activeMQ 消息接收器：仅在vender=activeMQ时 && 项目实现IMQReceiver接口时 进行实例化
  * 业务：  支付订单补单（一般用于没有回调的接口，比如微信的条码支付）
@@ -43,11 +48,15 @@ public class PayOrderReissueActiveMQReceiver implements IMQMsgReceiver {
     private PayOrderReissueMQ.IMQReceiver mqReceiver;
 
     /** 接收 【 queue 】 类型的消息 **/
-    @Override
     @Async(MqThreadExecutor.EXECUTOR_PAYORDER_MCH_NOTIFY)
     @JmsListener(destination = PayOrderReissueMQ.MQ_NAME)
-    public void receiveMsg(String msg){
-        mqReceiver.receive(PayOrderReissueMQ.parse(msg));
+    public void onMessage(Message message) throws JMSException {
+        this.receiveMsg(ActiveMQConfig.getBody(message), message.getStringProperty(MQCodecCS.HEADER_NAME));
+    }
+
+    @Override
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(PayOrderReissueMQ.parse(body, codec));
     }
 
 }
@@ -15,6 +15,7 @@
  */
 package com.jeequan.jeepay.components.mq.vender.activemq.receive;
 
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
 import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
@@ -25,6 +26,9 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jms.annotation.JmsListener;
 import org.springframework.stereotype.Component;
 
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+
 /**
 * activeMQ消息接收器：仅在vender=activeMQ时 && 项目实现IMQReceiver接口时 进行实例化
 * 业务：  更新服务商/商户/商户应用配置信息；
@@ -42,10 +46,14 @@ public class ResetIsvMchAppInfoActiveMQReceiver implements IMQMsgReceiver {
     private ResetIsvMchAppInfoConfigMQ.IMQReceiver mqReceiver;
 
     /** 接收 【 MQSendTypeEnum.BROADCAST  】 广播类型的消息 **/
-    @Override
     @JmsListener(destination = ResetIsvMchAppInfoConfigMQ.MQ_NAME, containerFactory = ActiveMQConfig.TOPIC_LISTENER_CONTAINER)
-    public void receiveMsg(String msg){
-        mqReceiver.receive(ResetIsvMchAppInfoConfigMQ.parse(msg));
+    public void onMessage(Message message) throws JMSException {
+        this.receiveMsg(ActiveMQConfig.getBody(message), message.getStringProperty(MQCodecCS.HEADER_NAME));
+    }
+
+    @Override
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(ResetIsvMchAppInfoConfigMQ.parse(body, codec));
     }
 
 }
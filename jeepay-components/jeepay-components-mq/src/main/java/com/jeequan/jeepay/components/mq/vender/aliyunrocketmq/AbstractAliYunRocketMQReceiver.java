@@ -16,6 +16,7 @@
 package com.jeequan.jeepay.components.mq.vender.aliyunrocketmq;
 
 import com.aliyun.openservices.ons.api.*;
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.constant.MQSendTypeEnum;
 import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
 import lombok.extern.slf4j.Slf4j;
@@ -61,7 +62,7 @@ public abstract class AbstractAliYunRocketMQReceiver implements IMQMsgReceiver,
 
         aliyunConsumer.subscribe(this.getMQName(), AliYunRocketMQFactory.defaultTag, (message, context) -> {
             try {
-                receiveMsg(new String(message.getBody()));
+                receiveMsg(message.getBody(), message.getUserProperties(MQCodecCS.HEADER_NAME));
                 log.debug("【{}】MQ消息消费成功topic:{}, messageId:{}", getConsumerName(), message.getTopic(), message.getMsgID());
                 return Action.CommitMessage;
             } catch (Exception e) {
@@ -17,17 +17,24 @@ package com.jeequan.jeepay.components.mq.vender.aliyunrocketmq;
 
 import com.alibaba.fastjson.JSONObject;
 import com.aliyun.openservices.ons.api.Message;
+import com.aliyun.openservices.ons.api.OnExceptionContext;
 import com.aliyun.openservices.ons.api.Producer;
+import com.aliyun.openservices.ons.api.SendCallback;
 import com.aliyun.openservices.ons.api.SendResult;
+import com.jeequan.jeepay.components.mq.codec.MQCodecKit;
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.model.AbstractMQ;
 import com.jeequan.jeepay.components.mq.vender.IMQSender;
 import com.jeequan.jeepay.core.utils.DateKit;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 阿里云rocketMQ 消息发送器的实现
  */
@@ -43,32 +50,80 @@ public class AliYunRocketMQSender implements IMQSender {
 
     @Autowired
     private AliYunRocketMQFactory aliYunRocketMQFactory;
+
+    /** 消息体编码格式 **/
+    @Value("${" + MQCodecCS.YML_CODEC_KEY + ":" + MQCodecCS.JSON + "}")
+    private String codec;
     private Producer producerClient;
 
     @Override
     public void send(AbstractMQ mqModel) {
-        Message message = new Message(mqModel.getMQName(), AliYunRocketMQFactory.defaultTag, mqModel.toMessage().getBytes());
-        sendMessage(message);
+        sendMessage(buildMessage(mqModel, 0));
     }
 
     @Override
     public void send(AbstractMQ mqModel, int delaySeconds) {
-        Message message = new Message(mqModel.getMQName(), AliYunRocketMQFactory.defaultTag, mqModel.toMessage().getBytes());
+        sendMessage(buildMessage(mqModel, delaySeconds));
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(AbstractMQ mqModel) {
+        return sendMessageAsync(buildMessage(mqModel, 0));
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(AbstractMQ mqModel, int delaySeconds) {
+        return sendMessageAsync(buildMessage(mqModel, delaySeconds));
+    }
+
+    private Message buildMessage(AbstractMQ mqModel, int delaySeconds) {
+        String actualCodec = MQCodecKit.resolveCodec(mqModel, codec);
+        Message message = new Message(mqModel.getMQName(), AliYunRocketMQFactory.defaultTag, MQCodecKit.encode(mqModel, actualCodec));
+        if (MQCodecCS.BINARY.equals(actualCodec)) {
+            message.putUserProperties(MQCodecCS.HEADER_NAME, actualCodec);
+        }
         if (delaySeconds > 0) {
             long delayTime = DateKit.currentTimeMillis() + delayTimeCorrector(delaySeconds) * 1000;
             // 设置消息需要被投递的时间。
             message.setStartDeliverTime(delayTime);
         }
-        sendMessage(message);
+        return message;
     }
 
     private void sendMessage(Message message) {
+        SendResult sendResult = getProducerClient().send(message);
+        log.info("消息队列推送返回结果：{}", JSONObject.toJSONString(sendResult));
+    }
+
+    /** 异步推送， 回调中完成 CompletableFuture **/
+    private CompletableFuture<Void> sendMessageAsync(Message message) {
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            getProducerClient().sendAsync(message, new SendCallback() {
+
+                @Override
+                public void onSuccess(SendResult sendResult) {
+                    future.complete(null);
+                }
+
+                @Override
+                public void onException(OnExceptionContext context) {
+                    future.completeExceptionally(context.getException());
+                }
+            });
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private Producer getProducerClient() {
         if (producerClient == null) {
             producerClient = aliYunRocketMQFactory.producerClient();
         }
         producerClient.start();
-        SendResult sendResult = producerClient.send(message);
-        log.info("消息队列推送返回结果：{}", JSONObject.toJSONString(sendResult));
+        return producerClient;
     }
 
     /**
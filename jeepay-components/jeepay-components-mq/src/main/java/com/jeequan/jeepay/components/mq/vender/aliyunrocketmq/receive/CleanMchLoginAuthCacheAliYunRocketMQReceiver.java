@@ -15,25 +15,24 @@
  */
 package com.jeequan.jeepay.components.mq.vender.aliyunrocketmq.receive;
 
+import com.jeequan.jeepay.components.mq.constant.MQSendTypeEnum;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
-import com.jeequan.jeepay.components.mq.executor.MqThreadExecutor;
 import com.jeequan.jeepay.components.mq.model.CleanMchLoginAuthCacheMQ;
 import com.jeequan.jeepay.components.mq.vender.aliyunrocketmq.AbstractAliYunRocketMQReceiver;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 /**
  * AliYunRocketMQ消息接收器：仅在vender=AliYunRocketMQ时 && 项目实现IMQReceiver接口时 进行实例化
  * 业务：  清除商户登录信息
  */
+@Slf4j
 @Component
 @ConditionalOnProperty(name = MQVenderCS.YML_VENDER_KEY, havingValue = MQVenderCS.ALIYUN_ROCKET_MQ)
 @ConditionalOnBean(CleanMchLoginAuthCacheMQ.IMQReceiver.class)
-@Slf4j
 public class CleanMchLoginAuthCacheAliYunRocketMQReceiver extends AbstractAliYunRocketMQReceiver {
 
     private static final String CONSUMER_NAME = "清除商户登录消息";
@@ -42,12 +41,18 @@ public class CleanMchLoginAuthCacheAliYunRocketMQReceiver extends AbstractAliYun
     private CleanMchLoginAuthCacheMQ.IMQReceiver mqReceiver;
 
     /**
-     * 接收 【 queue 】 类型的消息
+     * 接收 【 MQSendTypeEnum.BROADCAST  】 广播类型的消息
+     * <p>
+     * 注意：
+     * AliYunRocketMQ的广播模式（fanout）交换机 --》全部的Queue
+     * 如果queue包含多个消费者， 【例如，manager和payment的监听器是名称相同的queue下的消费者（Consumers） 】， 两个消费者是工作模式且存在竞争关系， 导致只能一个来消费。
+     * 解决：
+     * 每个topic的QUEUE都声明一个FANOUT交换机， 消费者声明一个系统产生的【随机队列】绑定到这个交换机上，然后往交换机发消息，只要绑定到这个交换机上都能收到消息。
+     * 参考： https://bbs.csdn.net/topics/392509262?list=70088931
      **/
     @Override
-    @Async(MqThreadExecutor.EXECUTOR_PAYORDER_MCH_NOTIFY)
-    public void receiveMsg(String msg) {
-        mqReceiver.receive(CleanMchLoginAuthCacheMQ.parse(msg));
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(CleanMchLoginAuthCacheMQ.parse(body, codec));
     }
 
     /**
@@ -70,4 +75,14 @@ public class CleanMchLoginAuthCacheAliYunRocketMQReceiver extends AbstractAliYun
         return CONSUMER_NAME;
     }
 
+    /**
+     * 发送类型
+     *
+     * @return
+     */
+    @Override
+    public MQSendTypeEnum getMQType() {
+        // RocketMQ的广播模式
+        return MQSendTypeEnum.BROADCAST;
+    }
 }
@@ -43,8 +43,8 @@ public class PayOrderDivisionAliYunRocketMQReceiver extends AbstractAliYunRocket
      * 接收 【 queue 】 类型的消息
      **/
     @Override
-    public void receiveMsg(String msg) {
-        mqReceiver.receive(PayOrderDivisionMQ.parse(msg));
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(PayOrderDivisionMQ.parse(body, codec));
     }
 
     /**
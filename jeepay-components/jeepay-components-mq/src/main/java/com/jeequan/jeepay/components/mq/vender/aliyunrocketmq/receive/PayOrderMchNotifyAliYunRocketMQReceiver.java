@@ -46,8 +46,8 @@ public class PayOrderMchNotifyAliYunRocketMQReceiver extends AbstractAliYunRocke
      **/
     @Override
     @Async(MqThreadExecutor.EXECUTOR_PAYORDER_MCH_NOTIFY)
-    public void receiveMsg(String msg) {
-        mqReceiver.receive(PayOrderMchNotifyMQ.parse(msg));
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(PayOrderMchNotifyMQ.parse(body, codec));
     }
 
     /**
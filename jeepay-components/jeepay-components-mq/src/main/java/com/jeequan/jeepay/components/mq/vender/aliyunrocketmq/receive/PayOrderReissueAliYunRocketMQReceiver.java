@@ -46,8 +46,8 @@ public class PayOrderReissueAliYunRocketMQReceiver extends AbstractAliYunRocketM
      **/
     @Override
     @Async(MqThreadExecutor.EXECUTOR_PAYORDER_MCH_NOTIFY)
-    public void receiveMsg(String msg) {
-        mqReceiver.receive(PayOrderReissueMQ.parse(msg));
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(PayOrderReissueMQ.parse(body, codec));
     }
 
     /**
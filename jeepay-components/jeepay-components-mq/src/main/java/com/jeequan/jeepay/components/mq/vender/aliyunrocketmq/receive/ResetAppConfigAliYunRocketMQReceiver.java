@@ -51,8 +51,8 @@ public class ResetAppConfigAliYunRocketMQReceiver extends AbstractAliYunRocketMQ
      * 参考： https://bbs.csdn.net/topics/392509262?list=70088931
      **/
     @Override
-    public void receiveMsg(String msg) {
-        mqReceiver.receive(ResetAppConfigMQ.parse(msg));
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(ResetAppConfigMQ.parse(body, codec));
     }
 
     /**
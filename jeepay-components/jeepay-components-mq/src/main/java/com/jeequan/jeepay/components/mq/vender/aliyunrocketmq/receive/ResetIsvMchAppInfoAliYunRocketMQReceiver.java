@@ -51,8 +51,8 @@ public class ResetIsvMchAppInfoAliYunRocketMQReceiver extends AbstractAliYunRock
      * 参考： https://bbs.csdn.net/topics/392509262?list=70088931
      **/
     @Override
-    public void receiveMsg(String msg) {
-        mqReceiver.receive(ResetIsvMchAppInfoConfigMQ.parse(msg));
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(ResetIsvMchAppInfoConfigMQ.parse(body, codec));
     }
 
     /**
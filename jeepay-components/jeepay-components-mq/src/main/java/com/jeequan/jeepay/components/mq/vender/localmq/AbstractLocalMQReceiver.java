@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender.localmq;
+
+import com.jeequan.jeepay.components.mq.constant.MQSendTypeEnum;
+import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 进程内MQ 消息接收器抽象类： 初始化时向 LocalMQBroker 订阅对应的MQ名称。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/18 11:25
+ */
+public abstract class AbstractLocalMQReceiver implements IMQMsgReceiver, InitializingBean {
+
+    @Autowired
+    private LocalMQBroker localMQBroker;
+
+    /** 获取MQ名称 **/
+    public abstract String getMQName();
+
+    /** 发送类型 **/
+    public MQSendTypeEnum getMQType() {
+        // QUEUE - 点对点 （只有1个消费者可消费。 ActiveMQ的queue模式 ）
+        return MQSendTypeEnum.QUEUE;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        localMQBroker.subscribe(this);
+    }
+
+}
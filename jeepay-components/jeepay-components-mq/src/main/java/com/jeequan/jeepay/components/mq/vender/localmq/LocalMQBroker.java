@@ -0,0 +1,498 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender.localmq;
+
+import com.jeequan.jeepay.components.mq.codec.MQCodecKit;
+import com.jeequan.jeepay.components.mq.constant.MQSendTypeEnum;
+import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * 进程内MQ 消息中转： 适用于单节点部署 (无需独立的MQ服务)。
+ *
+ * 1. 消息写入 内存映射的只追加日志 (LocalMQCommitLog)， 同一节点的多个应用共享存储目录， 可跨进程收发；
+ * 2. 拉取线程读取新消息： 到期的直接投递， 延迟消息放入时间轮 (LocalMQTimingWheel) 精确到秒；
+ * 3. 点对点消息：同一时刻仅一个进程持有消费锁， 已投递完成的最小偏移量定期提交， 重启后从提交位置继续 (至少投递一次)；
+ *    延迟消息读取后单独保存 (不计入提交偏移量)， 投递后删除， 获取消费锁时重新加载；
+ * 4. 广播消息：每个进程从订阅时的位置开始读取， 不提交偏移量。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/18 11:20
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = MQVenderCS.YML_VENDER_KEY, havingValue = MQVenderCS.LOCAL_MQ)
+public class LocalMQBroker implements InitializingBean, DisposableBean {
+
+    /** 单次拉取的最大消息数 **/
+    private static final int PULL_BATCH_SIZE = 256;
+
+    /** 提交偏移量 / 抢占消费锁 的间隔 **/
+    private static final long COMMIT_INTERVAL_MILLIS = 1000;
+
+    /** 投递线程数 (不支持虚拟线程时生效) **/
+    @Value("${isys.mq.local.pool-size:8}")
+    private int poolSize;
+
+    /** 是否优先使用虚拟线程 (JDK21+) 执行消息接收器 **/
+    @Value("${isys.mq.local.virtual-threads:true}")
+    private boolean virtualThreads;
+
+    /** 消息存储目录， 同一节点的各应用需配置相同目录 **/
+    @Value("${isys.mq.local.store-path:/jeepayhomes/service/localmq}")
+    private String storePath;
+
+    /** 日志分段大小 (MB) **/
+    @Value("${isys.mq.local.segment-size:64}")
+    private int segmentSizeMB;
+
+    /** 跨进程消息的拉取间隔 (ms)， 本进程发送的消息会立即唤醒拉取线程 **/
+    @Value("${isys.mq.local.pull-interval:20}")
+    private long pullIntervalMillis;
+
+    /** 是否每条消息写入后强制刷盘 (可防止断电丢失， 性能显著下降) **/
+    @Value("${isys.mq.local.fsync:false}")
+    private boolean fsync;
+
+    /** 批量消费： 单次投递给接收器的最大消息数， 1表示逐条消费 (延迟消息始终逐条投递) **/
+    @Value("${isys.mq.local.consume-batch-size:1}")
+    private int consumeBatchSize;
+
+    /** 日志 MQ名称 - 日志 **/
+    private final Map<String, LocalMQCommitLog> commitLogMap = new ConcurrentHashMap<>();
+
+    /** 订阅关系 MQ名称 - 订阅 **/
+    private final Map<String, Subscription> subscriptionMap = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+
+    private LocalMQTimingWheel timingWheel;
+
+    private Thread pullThread;
+
+    private volatile boolean running = true;
+
+    @Override
+    public void afterPropertiesSet() {
+
+        executor = newExecutor();
+        timingWheel = new LocalMQTimingWheel("localMQTimingWheel");
+        timingWheel.start();
+
+        pullThread = new Thread(this::pullLoop, "localMQPuller");
+        pullThread.setDaemon(true);
+        pullThread.start();
+
+        log.info("进程内MQ初始化完成， 存储目录：{}", new File(storePath).getAbsolutePath());
+    }
+
+    /** 订阅MQ **/
+    public void subscribe(AbstractLocalMQReceiver receiver){
+
+        Subscription subscription = subscriptionMap.computeIfAbsent(receiver.getMQName(), mqName -> {
+            try {
+                return new Subscription(getCommitLog(mqName), receiver.getMQType());
+            } catch (IOException e) {
+                throw new IllegalStateException("进程内MQ[" + mqName + "]初始化失败", e);
+            }
+        });
+        subscription.receivers.add(receiver);
+        LockSupport.unpark(pullThread);
+        log.info("初始化[{}]进程内消费者: {}成功", receiver.getMQType(), receiver.getMQName());
+    }
+
+    /** 投递消息， delay: 延迟时间， 单位：s **/
+    public void publish(String mqName, MQSendTypeEnum sendType, byte[] body, int delay){
+
+        try {
+            long deliverTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(Math.max(delay, 0));
+            getCommitLog(mqName).append(deliverTime, body, sendType == MQSendTypeEnum.QUEUE);
+        } catch (IOException e) {
+            throw new IllegalStateException("进程内MQ[" + mqName + "]写入失败", e);
+        }
+
+        if(subscriptionMap.containsKey(mqName)){
+            LockSupport.unpark(pullThread);
+        }
+    }
+
+    /** 批量投递实时消息： 仅写入一次日志 **/
+    public void publishBatch(String mqName, MQSendTypeEnum sendType, List<byte[]> bodyList){
+
+        if(bodyList.isEmpty()){
+            return ;
+        }
+
+        try {
+            getCommitLog(mqName).appendBatch(System.currentTimeMillis(), bodyList, sendType == MQSendTypeEnum.QUEUE);
+        } catch (IOException e) {
+            throw new IllegalStateException("进程内MQ[" + mqName + "]写入失败", e);
+        }
+
+        if(subscriptionMap.containsKey(mqName)){
+            LockSupport.unpark(pullThread);
+        }
+    }
+
+    /** 本进程已读取但未投递完成的消息数量 (含延迟消息) **/
+    public int getPendingCount(){
+        return subscriptionMap.values().stream().mapToInt(s -> s.inflightOffsets.size() + s.delayedOffsets.size()).sum();
+    }
+
+    private LocalMQCommitLog getCommitLog(String mqName) throws IOException {
+
+        LocalMQCommitLog commitLog = commitLogMap.get(mqName);
+        if(commitLog != null){
+            return commitLog;
+        }
+        synchronized (commitLogMap){
+            commitLog = commitLogMap.get(mqName);
+            if(commitLog == null){
+                commitLog = new LocalMQCommitLog(new File(storePath), mqName, segmentSizeMB * 1024 * 1024, fsync);
+                commitLogMap.put(mqName, commitLog);
+            }
+            return commitLog;
+        }
+    }
+
+    /** 拉取线程： 读取各订阅的新消息 **/
+    private void pullLoop(){
+
+        long lastCommitTime = 0;
+        while (running){
+
+            boolean hasMore = false;
+            for (Subscription subscription : subscriptionMap.values()) {
+                try {
+                    hasMore |= subscription.pull();
+                } catch (Exception e) {
+                    log.error("进程内MQ[{}]拉取消息异常", subscription.commitLog.getMqName(), e);
+                }
+            }
+
+            if(System.currentTimeMillis() - lastCommitTime >= COMMIT_INTERVAL_MILLIS){
+                subscriptionMap.values().forEach(Subscription::commitOrAcquire);
+                lastCommitTime = System.currentTimeMillis();
+            }
+
+            if(!hasMore){
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pullIntervalMillis));
+            }
+        }
+    }
+
+    /** 消息接收器执行线程池： 优先使用虚拟线程 **/
+    private ExecutorService newExecutor(){
+
+        if(virtualThreads){
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.info("当前JDK不支持虚拟线程， 进程内MQ使用普通线程池， 线程数：{}", poolSize);
+            }
+        }
+        return new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), new CustomizableThreadFactory("localMQExecutor-"));
+    }
+
+    @Override
+    public void destroy() {
+
+        running = false;
+        LockSupport.unpark(pullThread);
+        try {
+            pullThread.join(COMMIT_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        timingWheel.stop();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // 未投递的消息已持久化， 重启后从提交位置继续投递
+        subscriptionMap.values().forEach(Subscription::close);
+        commitLogMap.values().forEach(LocalMQCommitLog::close);
+        log.info("进程内MQ已关闭， 未投递完成的消息数量：{}", getPendingCount());
+    }
+
+    /** 单个MQ名称的订阅 **/
+    private class Subscription {
+
+        private final LocalMQCommitLog commitLog;
+
+        private final MQSendTypeEnum sendType;
+
+        private final List<AbstractLocalMQReceiver> receivers = new CopyOnWriteArrayList<>();
+
+        /** 已读取， 但未投递完成的消息偏移量 (不含延迟消息) **/
+        private final ConcurrentSkipListSet<Long> inflightOffsets = new ConcurrentSkipListSet<>();
+
+        /** 已读取， 未到期的延迟消息偏移量 (点对点模式已单独保存， 不计入提交偏移量) **/
+        private final Set<Long> delayedOffsets = ConcurrentHashMap.newKeySet();
+
+        /** 点对点模式的轮询下标 **/
+        private final AtomicInteger queueIndex = new AtomicInteger();
+
+        /** 点对点模式： 消费锁 与 偏移量文件 **/
+        private RandomAccessFile consumerLockFile;
+        private FileLock consumerLock;
+        private RandomAccessFile offsetFile;
+        private MappedByteBuffer offsetBuffer;
+
+        /** 读取位置， 仅由拉取线程访问， 小于0表示未持有消费锁 **/
+        private long readOffset = -1;
+
+        Subscription(LocalMQCommitLog commitLog, MQSendTypeEnum sendType) throws IOException {
+            this.commitLog = commitLog;
+            this.sendType = sendType;
+
+            if(sendType == MQSendTypeEnum.BROADCAST){
+                readOffset = commitLog.getTail(); // 广播： 仅接收订阅之后的消息
+            }else{
+                consumerLockFile = new RandomAccessFile(new File(commitLog.getDir(), LocalMQCommitLog.QUEUE_CONSUMER_LOCK_FILE_NAME), "rw");
+            }
+        }
+
+        /** 拉取新消息， 返回是否还有未读取的消息 **/
+        boolean pull() throws IOException {
+
+            if(readOffset < 0 || receivers.isEmpty()){
+                return false;
+            }
+
+            long tail = commitLog.getTail();
+            if(readOffset >= tail){
+                return false;
+            }
+
+            long now = System.currentTimeMillis();
+            List<LocalMQRecord> dueList = new ArrayList<>();
+            for (LocalMQRecord record : commitLog.read(readOffset, tail, PULL_BATCH_SIZE)) {
+
+                if(record.getBody() != null){
+                    if(record.getDeliverTime() > now){
+                        try {
+                            scheduleDelayed(record, true);
+                        } catch (IOException e) { // 保存失败： 不推进读取位置， 下次重新读取
+                            log.error("进程内MQ[{}]保存延迟消息异常", commitLog.getMqName(), e);
+                            break;
+                        }
+                    }else{
+                        inflightOffsets.add(record.getOffset());
+                        if(consumeBatchSize > 1){
+                            dueList.add(record);
+                        }else{
+                            submit(record);
+                        }
+                    }
+                }
+                readOffset = record.getNextOffset();
+            }
+
+            for (int i = 0; i < dueList.size(); i += consumeBatchSize) {
+                submitBatch(dueList.subList(i, Math.min(i + consumeBatchSize, dueList.size())));
+            }
+            return readOffset < tail;
+        }
+
+        /** 延迟消息放入时间轮， 点对点模式先单独保存 (persist) **/
+        private void scheduleDelayed(LocalMQRecord record, boolean persist) throws IOException {
+
+            boolean isQueue = sendType == MQSendTypeEnum.QUEUE;
+            if(!delayedOffsets.add(record.getOffset())){
+                return ; // 获取消费锁时已从延迟消息目录加载
+            }
+            if(isQueue && persist){
+                try {
+                    commitLog.saveDelayed(record);
+                } catch (IOException e) {
+                    delayedOffsets.remove(record.getOffset());
+                    throw e;
+                }
+            }
+
+            timingWheel.add(record.getDeliverTime(), () -> executor.execute(() -> {
+                try {
+                    dispatch(record.getBody());
+                } finally {
+                    delayedOffsets.remove(record.getOffset());
+                    if(isQueue){
+                        commitLog.removeDelayed(record.getOffset());
+                    }
+                }
+            }));
+        }
+
+        private void submit(LocalMQRecord record){
+            executor.execute(() -> {
+                try {
+                    dispatch(record.getBody());
+                } finally {
+                    inflightOffsets.remove(record.getOffset());
+                }
+            });
+        }
+
+        private void submitBatch(List<LocalMQRecord> recordList){
+
+            if(recordList.size() == 1){
+                submit(recordList.get(0));
+                return ;
+            }
+
+            List<byte[]> bodyList = recordList.stream().map(LocalMQRecord::getBody).collect(Collectors.toList());
+            executor.execute(() -> {
+                try {
+                    dispatchBatch(bodyList);
+                } finally {
+                    recordList.forEach(record -> inflightOffsets.remove(record.getOffset()));
+                }
+            });
+        }
+
+        private void dispatch(byte[] body){
+
+            // BROADCAST - 广播模式： 本进程的所有接收器均需消费
+            if(sendType == MQSendTypeEnum.BROADCAST){
+                receivers.forEach(receiver -> consume(receiver, body));
+                return ;
+            }
+
+            // QUEUE - 点对点： 仅一个接收器消费
+            consume(receivers.get(Math.floorMod(queueIndex.getAndIncrement(), receivers.size())), body);
+        }
+
+        private void dispatchBatch(List<byte[]> bodyList){
+
+            if(sendType == MQSendTypeEnum.BROADCAST){
+                receivers.forEach(receiver -> consumeBatch(receiver, bodyList));
+                return ;
+            }
+
+            consumeBatch(receivers.get(Math.floorMod(queueIndex.getAndIncrement(), receivers.size())), bodyList);
+        }
+
+        private void consumeBatch(AbstractLocalMQReceiver receiver, List<byte[]> bodyList){
+            try {
+                receiver.receiveMsgBatch(bodyList);
+            } catch (Exception e) {
+                log.error("进程内MQ[{}]批量消费失败, 消息数量={}", receiver.getMQName(), bodyList.size(), e);
+            }
+        }
+
+        private void consume(AbstractLocalMQReceiver receiver, byte[] body){
+            try {
+                receiver.receiveMsg(body, null);
+            } catch (Exception e) {
+                log.error("进程内MQ[{}]消息消费失败, msg={}", receiver.getMQName(), MQCodecKit.toLogString(body), e);
+            }
+        }
+
+        /** 点对点模式： 提交偏移量， 未持有消费锁时尝试抢占 **/
+        void commitOrAcquire(){
+
+            if(sendType == MQSendTypeEnum.BROADCAST || receivers.isEmpty()){
+                return ;
+            }
+
+            try {
+                if(consumerLock == null){
+                    acquire();
+                }
+                if(consumerLock != null){
+                    Long minInflight = inflightOffsets.isEmpty() ? null : inflightOffsets.first();
+                    offsetBuffer.putLong(0, minInflight == null ? readOffset : Math.min(minInflight, readOffset));
+                }
+            } catch (Exception e) {
+                log.error("进程内MQ[{}]提交偏移量异常", commitLog.getMqName(), e);
+            }
+        }
+
+        private void acquire() throws IOException {
+
+            consumerLock = consumerLockFile.getChannel().tryLock();
+            if(consumerLock == null){
+                return ; // 其他进程正在消费， 作为备用消费者
+            }
+
+            offsetFile = new RandomAccessFile(new File(commitLog.getDir(), LocalMQCommitLog.QUEUE_OFFSET_FILE_NAME), "rw");
+            boolean isNew = offsetFile.length() < 8;
+            offsetBuffer = offsetFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, 8);
+            if(isNew){
+                offsetBuffer.putLong(0, commitLog.getHead()); // 首次消费： 从最早的消息开始
+            }
+            readOffset = Math.max(offsetBuffer.getLong(0), commitLog.getHead());
+
+            // 重新加载已读取、 未投递的延迟消息
+            List<LocalMQRecord> delayedList = commitLog.loadDelayed();
+            for (LocalMQRecord record : delayedList) {
+                scheduleDelayed(record, false);
+            }
+            log.info("进程内MQ[{}]获取消费锁， 从偏移量{}开始消费， 当前写入位置{}， 加载延迟消息{}条", commitLog.getMqName(), readOffset, commitLog.getTail(), delayedList.size());
+        }
+
+        void close(){
+            try {
+                if(consumerLock != null){
+                    commitOrAcquire();
+                    consumerLock.release();
+                }
+                if(offsetFile != null){
+                    offsetFile.close();
+                }
+                if(consumerLockFile != null){
+                    consumerLockFile.close();
+                }
+            } catch (IOException e) {
+                log.warn("close error", e);
+            }
+        }
+    }
+
+}
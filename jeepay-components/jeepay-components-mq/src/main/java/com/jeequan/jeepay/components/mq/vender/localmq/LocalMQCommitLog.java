@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender.localmq;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内MQ 消息存储： 单个MQ名称对应的 内存映射 + 只追加 日志。
+ *
+ * 目录结构 ( 同一节点上的 manager / merchant / payment 共享同一目录， 从而支持跨进程收发 )：
+ *   {storePath}/{mqName}/meta                     [long 写入位置][int 分段大小]
+ *   {storePath}/{mqName}/{20位起始偏移量}.log       固定大小的日志分段
+ *   {storePath}/{mqName}/queue.offset             点对点消费者已提交的偏移量
+ *   {storePath}/{mqName}/delay/{20位偏移量}.msg     点对点消费者已读取、 未到期的延迟消息 [long 投递时间戳(ms)][消息体]
+ *
+ * 记录格式： [int 记录长度][long 投递时间戳(ms)][消息体 UTF-8]， 记录长度为 -1 表示该分段剩余空间已废弃。
+ * 写入时先持有进程内锁， 再持有文件锁， 保证多进程追加的顺序一致。
+ * 延迟消息读取后单独保存， 不占用已提交的偏移量， 避免长时间延迟的消息导致日志分段无法清理。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/18 14:10
+ */
+@Slf4j
+public class LocalMQCommitLog implements Closeable {
+
+    /** 记录头长度： 记录长度 + 投递时间 **/
+    private static final int RECORD_HEADER_SIZE = 4 + 8;
+
+    /** 分段结束标记 **/
+    private static final int SEGMENT_END_FLAG = -1;
+
+    private static final String META_FILE_NAME = "meta";
+    private static final String LOCK_FILE_NAME = ".lock";
+    public static final String QUEUE_OFFSET_FILE_NAME = "queue.offset";
+    public static final String QUEUE_CONSUMER_LOCK_FILE_NAME = "queue.consumer.lock";
+    private static final String DELAY_DIR_NAME = "delay";
+    private static final String DELAY_FILE_SUFFIX = ".msg";
+
+    @Getter
+    private final String mqName;
+
+    @Getter
+    private final File dir;
+
+    /** 是否每次写入后强制刷盘 **/
+    private final boolean fsync;
+
+    /** 分段大小， 以首次创建时写入meta的值为准 **/
+    @Getter
+    private final int segmentSize;
+
+    private final RandomAccessFile metaFile;
+    private final MappedByteBuffer metaBuffer;
+
+    private final RandomAccessFile lockFile;
+
+    /** 延迟消息目录 **/
+    private final File delayDir;
+
+    /** 写入方已映射的分段 起始偏移量 - 分段 **/
+    private final Map<Long, Segment> segmentMap = new ConcurrentHashMap<>();
+
+    /** 读取方已映射的分段 (只读) 起始偏移量 - 分段 **/
+    private final Map<Long, Segment> readSegmentMap = new ConcurrentHashMap<>();
+
+    public LocalMQCommitLog(File rootDir, String mqName, int segmentSize, boolean fsync) throws IOException {
+
+        this.mqName = mqName;
+        this.dir = new File(rootDir, mqName);
+        this.fsync = fsync;
+        if(!dir.isDirectory() && !dir.mkdirs()){
+            throw new IOException("创建目录失败：" + dir.getAbsolutePath());
+        }
+        this.delayDir = new File(dir, DELAY_DIR_NAME);
+
+        this.lockFile = new RandomAccessFile(new File(dir, LOCK_FILE_NAME), "rw");
+        this.metaFile = new RandomAccessFile(new File(dir, META_FILE_NAME), "rw");
+        this.metaBuffer = metaFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, 8 + 4);
+
+        // 首次创建时写入分段大小
+        try (FileLock ignored = lockFile.getChannel().lock()) {
+            if(metaBuffer.getInt(8) <= 0){
+                metaBuffer.putInt(8, segmentSize);
+            }
+            this.segmentSize = metaBuffer.getInt(8);
+        }
+    }
+
+    /** 当前写入位置 **/
+    public long getTail(){
+        return metaBuffer.getLong(0);
+    }
+
+    /** 磁盘上最早的偏移量 **/
+    public long getHead(){
+        long head = getTail() / segmentSize * segmentSize;
+        while (head >= segmentSize && segmentFile(head - segmentSize).exists()){
+            head -= segmentSize;
+        }
+        return head;
+    }
+
+    /**
+     * 追加消息， 返回该消息的偏移量
+     * 分段切换时清理旧分段： 点对点消息保留 已提交偏移量 之后的分段， 广播消息仅保留上一分段。
+     */
+    public long append(long deliverTime, byte[] body, boolean isQueue) throws IOException {
+        return appendBatch(deliverTime, Collections.singletonList(body), isQueue);
+    }
+
+    /** 批量追加消息 （仅持有一次锁、 刷盘一次）， 返回第一条消息的偏移量 **/
+    public long appendBatch(long deliverTime, List<byte[]> bodyList, boolean isQueue) throws IOException {
+
+        for (byte[] body : bodyList) {
+            if(RECORD_HEADER_SIZE + body.length + 4 > segmentSize){
+                throw new IllegalArgumentException("消息体过大：" + (RECORD_HEADER_SIZE + body.length));
+            }
+        }
+
+        synchronized (this) {
+            try (FileLock ignored = lockFile.getChannel().lock()) {
+
+                long firstOffset = -1;
+                Set<Segment> dirtySegments = fsync ? new HashSet<>() : null;
+                for (byte[] body : bodyList) {
+                    long offset = writeRecord(deliverTime, body, isQueue, dirtySegments);
+                    if(firstOffset < 0){
+                        firstOffset = offset;
+                    }
+                }
+
+                if(fsync){
+                    dirtySegments.forEach(segment -> segment.getBuffer().force());
+                    metaBuffer.force();
+                }
+                return firstOffset;
+            }
+        }
+    }
+
+    /** 写入单条记录 （需持有锁）， 返回该记录的偏移量 **/
+    private long writeRecord(long deliverTime, byte[] body, boolean isQueue, Set<Segment> dirtySegments) throws IOException {
+
+        int recordSize = RECORD_HEADER_SIZE + body.length;
+        long tail = getTail();
+        Segment segment = getSegment(tail);
+        int position = (int) (tail - segment.getBaseOffset());
+
+        // 剩余空间不足： 标记分段结束， 切换到下一分段
+        if(position + recordSize + 4 > segmentSize){
+            segment.getBuffer().putInt(position, SEGMENT_END_FLAG);
+            tail = segment.getBaseOffset() + segmentSize;
+            segment = getSegment(tail);
+            position = 0;
+
+            long retainOffset = isQueue ? readQueueOffset() : Long.MAX_VALUE;
+            if(retainOffset >= 0){
+                deleteBefore(Math.min(retainOffset, segment.getBaseOffset() - segmentSize));
+            }
+        }
+
+        MappedByteBuffer buffer = segment.getBuffer();
+        buffer.putLong(position + 4, deliverTime);
+        buffer.put(position + RECORD_HEADER_SIZE, body);
+        buffer.putInt(position, recordSize);
+        metaBuffer.putLong(0, tail + recordSize);
+
+        if(dirtySegments != null){
+            dirtySegments.add(segment);
+        }
+        return tail;
+    }
+
+    /** 读取 [fromOffset, tail) 之间的消息， 最多maxCount条 **/
+    public List<LocalMQRecord> read(long fromOffset, long tail, int maxCount) throws IOException {
+
+        List<LocalMQRecord> result = new ArrayList<>();
+        long offset = fromOffset;
+        while (offset < tail && result.size() < maxCount){
+
+            Segment segment = getReadSegment(offset);
+            if(segment == null){ // 分段已被清理： 跳至磁盘上最早的分段
+                long nextOffset = Math.max(offset / segmentSize * segmentSize + segmentSize, getHead());
+                log.warn("进程内MQ[{}]日志分段已清理， 跳过偏移量[{}, {})", mqName, offset, nextOffset);
+                offset = nextOffset;
+                continue;
+            }
+            int position = (int) (offset - segment.getBaseOffset());
+
+            int recordSize = position + 4 > segmentSize ? SEGMENT_END_FLAG : segment.getBuffer().getInt(position);
+            if(recordSize == SEGMENT_END_FLAG){
+                offset = segment.getBaseOffset() + segmentSize;
+                continue;
+            }
+            if(recordSize < RECORD_HEADER_SIZE){ // 写入方尚未完成 (不应出现)
+                break;
+            }
+
+            byte[] body = new byte[recordSize - RECORD_HEADER_SIZE];
+            segment.getBuffer().get(position + RECORD_HEADER_SIZE, body);
+            result.add(new LocalMQRecord(offset, offset + recordSize, segment.getBuffer().getLong(position + 4), body));
+            offset += recordSize;
+        }
+
+        // 全部为分段结束标记时， 也需要推进读取位置
+        if(result.isEmpty() && offset > fromOffset){
+            result.add(new LocalMQRecord(fromOffset, offset, 0, null));
+        }
+        return result;
+    }
+
+    /** 读取已提交的消费偏移量， 不存在时返回-1 **/
+    public long readQueueOffset() throws IOException {
+        File file = new File(dir, QUEUE_OFFSET_FILE_NAME);
+        if(!file.exists()){
+            return -1;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            return raf.length() < 8 ? -1 : raf.readLong();
+        }
+    }
+
+    /** 保存已读取的延迟消息 (点对点)， 先写临时文件再重命名， 保证文件完整 **/
+    public void saveDelayed(LocalMQRecord record) throws IOException {
+
+        if(!delayDir.isDirectory() && !delayDir.mkdirs()){
+            throw new IOException("创建目录失败：" + delayDir.getAbsolutePath());
+        }
+
+        File tmpFile = new File(delayDir, String.format("%020d.tmp", record.getOffset()));
+        try (RandomAccessFile raf = new RandomAccessFile(tmpFile, "rw")) {
+            raf.setLength(0);
+            raf.writeLong(record.getDeliverTime());
+            raf.write(record.getBody());
+            if(fsync){
+                raf.getFD().sync();
+            }
+        }
+        Files.move(tmpFile.toPath(), delayedFile(record.getOffset()).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** 延迟消息已投递： 删除 **/
+    public void removeDelayed(long offset){
+        File file = delayedFile(offset);
+        if(file.exists() && !file.delete()){
+            log.warn("进程内MQ[{}]删除延迟消息失败：{}", mqName, file.getName());
+        }
+    }
+
+    /** 读取全部已保存的延迟消息 **/
+    public List<LocalMQRecord> loadDelayed() throws IOException {
+
+        List<LocalMQRecord> result = new ArrayList<>();
+        File[] files = delayDir.listFiles((d, name) -> name.endsWith(DELAY_FILE_SUFFIX));
+        if(files == null){
+            return result;
+        }
+
+        for (File file : files) {
+            byte[] data = Files.readAllBytes(file.toPath());
+            if(data.length < 8){
+                continue;
+            }
+            long offset = Long.parseLong(file.getName().substring(0, file.getName().length() - DELAY_FILE_SUFFIX.length()));
+            long deliverTime = ByteBuffer.wrap(data, 0, 8).getLong();
+            byte[] body = new byte[data.length - 8];
+            System.arraycopy(data, 8, body, 0, body.length);
+            result.add(new LocalMQRecord(offset, offset, deliverTime, body));
+        }
+        return result;
+    }
+
+    private File delayedFile(long offset){
+        return new File(delayDir, String.format("%020d", offset) + DELAY_FILE_SUFFIX);
+    }
+
+    /** 删除 offset 之前的全部分段 **/
+    private void deleteBefore(long offset){
+
+        long base = offset / segmentSize * segmentSize - segmentSize;
+        while (base >= 0){
+            File file = segmentFile(base);
+            if(!file.exists()){
+                break;
+            }
+            Segment segment = segmentMap.remove(base);
+            if(segment != null){
+                segment.close();
+            }
+            Segment readSegment = readSegmentMap.remove(base);
+            if(readSegment != null){
+                readSegment.close();
+            }
+            if(file.delete()){
+                log.info("进程内MQ[{}]删除已消费的日志分段：{}", mqName, file.getName());
+            }
+            base -= segmentSize;
+        }
+    }
+
+    /** 写入方获取分段， 不存在时创建 **/
+    private Segment getSegment(long offset) throws IOException {
+
+        long baseOffset = offset / segmentSize * segmentSize;
+        Segment segment = segmentMap.get(baseOffset);
+        if(segment != null){
+            return segment;
+        }
+
+        synchronized (segmentMap) {
+            segment = segmentMap.get(baseOffset);
+            if(segment == null){
+                RandomAccessFile raf = new RandomAccessFile(segmentFile(baseOffset), "rw");
+                segment = new Segment(baseOffset, raf, raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+                segmentMap.put(baseOffset, segment);
+            }
+            return segment;
+        }
+    }
+
+    /** 读取方获取分段： 以只读方式映射已存在的分段， 分段文件不存在 (已清理) 时返回null， 不会重新创建 **/
+    private Segment getReadSegment(long offset) throws IOException {
+
+        long baseOffset = offset / segmentSize * segmentSize;
+        Segment segment = readSegmentMap.get(baseOffset);
+        if(segment != null){
+            return segment;
+        }
+
+        synchronized (readSegmentMap) {
+            segment = readSegmentMap.get(baseOffset);
+            if(segment == null){
+                File file = segmentFile(baseOffset);
+                if(!file.exists() || file.length() < segmentSize){
+                    return null;
+                }
+                RandomAccessFile raf = new RandomAccessFile(file, "r");
+                segment = new Segment(baseOffset, raf, raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, segmentSize));
+                readSegmentMap.put(baseOffset, segment);
+            }
+            return segment;
+        }
+    }
+
+    private File segmentFile(long baseOffset){
+        return new File(dir, String.format("%020d.log", baseOffset));
+    }
+
+    @Override
+    public void close() {
+        segmentMap.values().forEach(Segment::close);
+        segmentMap.clear();
+        readSegmentMap.values().forEach(Segment::close);
+        readSegmentMap.clear();
+        closeQuietly(metaFile);
+        closeQuietly(lockFile);
+    }
+
+    private static void closeQuietly(Closeable closeable){
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.warn("close error", e);
+        }
+    }
+
+    /** 日志分段 **/
+    @Getter
+    @AllArgsConstructor
+    private static class Segment {
+
+        private final long baseOffset;
+
+        private final RandomAccessFile file;
+
+        private final MappedByteBuffer buffer;
+
+        void close(){
+            closeQuietly(file);
+        }
+    }
+
+}
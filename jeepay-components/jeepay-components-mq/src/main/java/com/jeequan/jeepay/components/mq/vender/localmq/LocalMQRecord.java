@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender.localmq;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 进程内MQ 日志中的单条消息
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/18 14:05
+ */
+@Getter
+@AllArgsConstructor
+public class LocalMQRecord {
+
+    /** 消息偏移量 **/
+    private final long offset;
+
+    /** 下一条消息的偏移量 **/
+    private final long nextOffset;
+
+    /** 投递时间戳 (ms) **/
+    private final long deliverTime;
+
+    /** 消息体， 为null时表示仅推进读取位置 (分段结束) **/
+    private final byte[] body;
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender.localmq;
+
+import com.jeequan.jeepay.components.mq.codec.MQCodecKit;
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
+import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
+import com.jeequan.jeepay.components.mq.model.AbstractMQ;
+import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ *  进程内MQ 消息发送器的实现 (支持任意秒数的延迟消息)
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/18 11:30
+ */
+@Component
+@ConditionalOnProperty(name = MQVenderCS.YML_VENDER_KEY, havingValue = MQVenderCS.LOCAL_MQ)
+public class LocalMQSender implements IMQSender {
+
+    @Autowired
+    private LocalMQBroker localMQBroker;
+
+    /** 消息体编码格式 **/
+    @Value("${" + MQCodecCS.YML_CODEC_KEY + ":" + MQCodecCS.JSON + "}")
+    private String codec;
+
+    @Override
+    public void send(AbstractMQ mqModel) {
+        localMQBroker.publish(mqModel.getMQName(), mqModel.getMQType(), toBody(mqModel), 0);
+    }
+
+    @Override
+    public void send(AbstractMQ mqModel, int delay) {
+        localMQBroker.publish(mqModel.getMQName(), mqModel.getMQType(), toBody(mqModel), delay);
+    }
+
+    /** 批量推送： 按MQ名称分组， 每组仅写入一次日志 **/
+    @Override
+    public void sendBatch(List<? extends AbstractMQ> mqModelList) {
+
+        Map<String, List<AbstractMQ>> groupMap = mqModelList.stream().collect(Collectors.groupingBy(AbstractMQ::getMQName, LinkedHashMap::new, Collectors.toList()));
+        groupMap.forEach((mqName, modelList) ->
+                localMQBroker.publishBatch(mqName, modelList.get(0).getMQType(), modelList.stream().map(this::toBody).collect(Collectors.toList()))
+        );
+    }
+
+    /** 日志中无消息头， 接收方根据首字节识别编码格式 **/
+    private byte[] toBody(AbstractMQ mqModel) {
+        return MQCodecKit.encode(mqModel, MQCodecKit.resolveCodec(mqModel, codec));
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender.localmq;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 进程内MQ 延迟消息时间轮 (单层哈希时间轮， 每格1秒)
+ * 添加/到期均为O(1)， 超过一圈的任务通过剩余圈数区分； 任务只会延后、 不会提前执行。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/18 14:20
+ */
+@Slf4j
+public class LocalMQTimingWheel {
+
+    /** 每格时长 **/
+    private static final long TICK_MILLIS = 1000;
+
+    /** 格数 (一圈1小时) **/
+    private static final int WHEEL_SIZE = 3600;
+
+    /** 时间轮格子， 仅由工作线程访问 **/
+    @SuppressWarnings("unchecked")
+    private final Queue<Timeout>[] buckets = new Queue[WHEEL_SIZE];
+
+    /** 待放入时间轮的任务 **/
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+    /** 未到期的任务数量 **/
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final Thread workerThread;
+
+    private volatile boolean running = true;
+
+    private long startTime;
+
+    private long tick;
+
+    public LocalMQTimingWheel(String threadName) {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.workerThread = new Thread(this::work, threadName);
+        this.workerThread.setDaemon(true);
+    }
+
+    public void start(){
+        this.startTime = System.currentTimeMillis();
+        workerThread.start();
+    }
+
+    /** 添加任务， 于 deliverTime (ms) 之后执行 **/
+    public void add(long deliverTime, Runnable task){
+        pendingCount.incrementAndGet();
+        pendingTimeouts.add(new Timeout(deliverTime, task));
+    }
+
+    /** 未到期的任务数量 **/
+    public int getPendingCount(){
+        return pendingCount.get();
+    }
+
+    public void stop(){
+        running = false;
+        LockSupport.unpark(workerThread);
+        try {
+            workerThread.join(TICK_MILLIS * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void work(){
+
+        while (running){
+
+            // 等待到当前格的结束时间
+            long deadline = startTime + (tick + 1) * TICK_MILLIS;
+            long sleepMillis;
+            while (running && (sleepMillis = deadline - System.currentTimeMillis()) > 0){
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(sleepMillis));
+            }
+            if(!running){
+                break;
+            }
+
+            transferPendingTimeouts();
+            expireBucket(buckets[(int) (tick % WHEEL_SIZE)]);
+            tick++;
+        }
+    }
+
+    private void transferPendingTimeouts(){
+
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null){
+
+            // 需在第 calculated 格结束时执行 (向上取整， 保证不提前)
+            long calculated = Math.floorDiv(timeout.deliverTime - startTime + TICK_MILLIS - 1, TICK_MILLIS) - 1;
+            timeout.remainingRounds = Math.max(calculated - tick, 0) / WHEEL_SIZE;
+            buckets[(int) (Math.max(calculated, tick) % WHEEL_SIZE)].add(timeout);
+        }
+    }
+
+    private void expireBucket(Queue<Timeout> bucket){
+
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()){
+            Timeout timeout = iterator.next();
+            if(timeout.remainingRounds > 0){
+                timeout.remainingRounds--;
+                continue;
+            }
+
+            iterator.remove();
+            pendingCount.decrementAndGet();
+            try {
+                timeout.task.run();
+            } catch (Exception e) {
+                log.error("时间轮任务执行异常", e);
+            }
+        }
+    }
+
+    /** 延迟任务 **/
+    private static class Timeout {
+
+        private final long deliverTime;
+
+        private final Runnable task;
+
+        private long remainingRounds;
+
+        Timeout(long deliverTime, Runnable task) {
+            this.deliverTime = deliverTime;
+            this.task = task;
+        }
+    }
+
+}
@@ -15,15 +15,23 @@
  */
 package com.jeequan.jeepay.components.mq.vender.rabbitmq;
 
+import com.jeequan.jeepay.components.mq.codec.MQCodecKit;
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.constant.MQSendTypeEnum;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.model.AbstractMQ;
 import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  *  rabbitMQ 消息发送器的实现
  *
@@ -38,34 +46,73 @@ public class RabbitMQSender implements IMQSender {
     @Autowired
     private RabbitTemplate rabbitTemplate;
 
+    /** 消息体编码格式 **/
+    @Value("${" + MQCodecCS.YML_CODEC_KEY + ":" + MQCodecCS.JSON + "}")
+    private String codec;
+
     @Override
     public void send(AbstractMQ mqModel) {
+        doSend(rabbitTemplate, mqModel);
+    }
+
+    @Override
+    public void send(AbstractMQ mqModel, int delay) {
+        doSend(rabbitTemplate, mqModel, delay);
+    }
+
+    /** 批量推送： 在同一个channel上连续发送， 避免每条消息都获取/归还channel **/
+    @Override
+    public void sendBatch(List<? extends AbstractMQ> mqModelList) {
+
+        if(mqModelList.isEmpty()){
+            return ;
+        }
+
+        rabbitTemplate.invoke(operations -> {
+            mqModelList.forEach(mqModel -> doSend(operations, mqModel));
+            return null;
+        });
+    }
+
+    private void doSend(RabbitOperations operations, AbstractMQ mqModel) {
 
         if(mqModel.getMQType() == MQSendTypeEnum.QUEUE){
 
-            rabbitTemplate.convertAndSend(mqModel.getMQName(), mqModel.toMessage());
+            operations.convertAndSend(mqModel.getMQName(), toPayload(mqModel));
         }else{
 
             // fanout模式 的 routeKEY 没意义。
-            this.rabbitTemplate.convertAndSend(RabbitMQConfig.FANOUT_EXCHANGE_NAME_PREFIX + mqModel.getMQName(), null, mqModel.toMessage());
+            operations.convertAndSend(RabbitMQConfig.FANOUT_EXCHANGE_NAME_PREFIX + mqModel.getMQName(), null, toPayload(mqModel));
         }
     }
 
-    @Override
-    public void send(AbstractMQ mqModel, int delay) {
-
+    private void doSend(RabbitOperations operations, AbstractMQ mqModel, int delay) {
 
         if(mqModel.getMQType() == MQSendTypeEnum.QUEUE){
 
-            rabbitTemplate.convertAndSend(RabbitMQConfig.DELAYED_EXCHANGE_NAME, mqModel.getMQName(), mqModel.toMessage(), messagePostProcessor ->{
+            operations.convertAndSend(RabbitMQConfig.DELAYED_EXCHANGE_NAME, mqModel.getMQName(), toPayload(mqModel), messagePostProcessor ->{
                 messagePostProcessor.getMessageProperties().setDelay(Math.toIntExact(delay * 1000));
                 return messagePostProcessor;
             });
         }else{
 
             // fanout模式 的 routeKEY 没意义。  没有延迟属性
-            this.rabbitTemplate.convertAndSend(RabbitMQConfig.FANOUT_EXCHANGE_NAME_PREFIX + mqModel.getMQName(), null, mqModel.toMessage());
+            operations.convertAndSend(RabbitMQConfig.FANOUT_EXCHANGE_NAME_PREFIX + mqModel.getMQName(), null, toPayload(mqModel));
         }
     }
 
+    /** 消息内容： JSON 与历史版本一致发送字符串， 二进制编码时发送字节并在消息头中标明编码格式 **/
+    private Object toPayload(AbstractMQ mqModel) {
+
+        String actualCodec = MQCodecKit.resolveCodec(mqModel, codec);
+        if(MQCodecCS.JSON.equals(actualCodec)){
+            return mqModel.toMessage();
+        }
+
+        return MessageBuilder.withBody(MQCodecKit.encode(mqModel, actualCodec))
+                .setContentType(MessageProperties.CONTENT_TYPE_BYTES)
+                .setHeader(MQCodecCS.HEADER_NAME, actualCodec)
+                .build();
+    }
+
 }
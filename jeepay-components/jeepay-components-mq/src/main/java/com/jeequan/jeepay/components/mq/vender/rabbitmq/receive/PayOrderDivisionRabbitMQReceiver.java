@@ -15,9 +15,11 @@
  */
 package com.jeequan.jeepay.components.mq.vender.rabbitmq.receive;
 
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.model.PayOrderDivisionMQ;
 import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -41,10 +43,14 @@ public class PayOrderDivisionRabbitMQReceiver implements IMQMsgReceiver {
     private PayOrderDivisionMQ.IMQReceiver mqReceiver;
 
     /** 接收 【 queue 】 类型的消息 **/
-    @Override
     @RabbitListener(queues = PayOrderDivisionMQ.MQ_NAME)
-    public void receiveMsg(String msg){
-        mqReceiver.receive(PayOrderDivisionMQ.parse(msg));
+    public void onMessage(Message message){
+        this.receiveMsg(message.getBody(), message.getMessageProperties().getHeader(MQCodecCS.HEADER_NAME));
+    }
+
+    @Override
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(PayOrderDivisionMQ.parse(body, codec));
     }
 
 }
@@ -18,7 +18,9 @@ package com.jeequan.jeepay.components.mq.vender.rabbitmq.receive;
 import com.jeequan.jeepay.components.mq.executor.MqThreadExecutor;
 import com.jeequan.jeepay.components.mq.model.PayOrderMchNotifyMQ;
 import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -43,11 +45,15 @@ public class PayOrderMchNotifyRabbitMQReceiver implements IMQMsgReceiver {
     private PayOrderMchNotifyMQ.IMQReceiver mqReceiver;
 
     /** 接收 【 queue 】 类型的消息 **/
-    @Override
     @Async(MqThreadExecutor.EXECUTOR_PAYORDER_MCH_NOTIFY)
     @RabbitListener(queues = PayOrderMchNotifyMQ.MQ_NAME)
-    public void receiveMsg(String msg){
-        mqReceiver.receive(PayOrderMchNotifyMQ.parse(msg));
+    public void onMessage(Message message){
+        this.receiveMsg(message.getBody(), message.getMessageProperties().getHeader(MQCodecCS.HEADER_NAME));
+    }
+
+    @Override
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(PayOrderMchNotifyMQ.parse(body, codec));
     }
 
 }
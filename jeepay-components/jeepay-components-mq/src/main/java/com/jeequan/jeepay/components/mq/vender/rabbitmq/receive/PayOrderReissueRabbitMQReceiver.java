@@ -15,10 +15,12 @@
  */
 package com.jeequan.jeepay.components.mq.vender.rabbitmq.receive;
 
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.executor.MqThreadExecutor;
 import com.jeequan.jeepay.components.mq.model.PayOrderReissueMQ;
 import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -43,11 +45,15 @@ public class PayOrderReissueRabbitMQReceiver implements IMQMsgReceiver {
     private PayOrderReissueMQ.IMQReceiver mqReceiver;
 
     /** 接收 【 queue 】 类型的消息 **/
-    @Override
     @Async(MqThreadExecutor.EXECUTOR_PAYORDER_MCH_NOTIFY)
     @RabbitListener(queues = PayOrderReissueMQ.MQ_NAME)
-    public void receiveMsg(String msg){
-        mqReceiver.receive(PayOrderReissueMQ.parse(msg));
+    public void onMessage(Message message){
+        this.receiveMsg(message.getBody(), message.getMessageProperties().getHeader(MQCodecCS.HEADER_NAME));
+    }
+
+    @Override
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(PayOrderReissueMQ.parse(body, codec));
     }
 
 }
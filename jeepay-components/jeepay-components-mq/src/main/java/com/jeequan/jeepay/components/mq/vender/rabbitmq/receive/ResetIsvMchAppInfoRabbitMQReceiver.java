@@ -15,6 +15,7 @@
  */
 package com.jeequan.jeepay.components.mq.vender.rabbitmq.receive;
 
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
 import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
@@ -23,6 +24,7 @@ import org.springframework.amqp.core.ExchangeTypes;
 import org.springframework.amqp.rabbit.annotation.Exchange;
 import org.springframework.amqp.rabbit.annotation.Queue;
 import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -55,13 +57,17 @@ public class ResetIsvMchAppInfoRabbitMQReceiver implements IMQMsgReceiver {
      *   参考： https://bbs.csdn.net/topics/392509262?list=70088931
      *
      * **/
-    @Override
     @RabbitListener(
             bindings = {@QueueBinding(value = @Queue(), // 注意这里不要定义队列名称,系统会随机产生
             exchange = @Exchange(name = RabbitMQConfig.FANOUT_EXCHANGE_NAME_PREFIX + ResetIsvMchAppInfoConfigMQ.MQ_NAME,
             type = ExchangeTypes.FANOUT ))} )
-    public void receiveMsg(String msg){
-        mqReceiver.receive(ResetIsvMchAppInfoConfigMQ.parse(msg));
+    public void onMessage(Message message){
+        this.receiveMsg(message.getBody(), message.getMessageProperties().getHeader(MQCodecCS.HEADER_NAME));
+    }
+
+    @Override
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(ResetIsvMchAppInfoConfigMQ.parse(body, codec));
     }
 
 }
@@ -15,18 +15,28 @@
  */
 package com.jeequan.jeepay.components.mq.vender.rocketmq;
 
+import com.jeequan.jeepay.components.mq.codec.MQCodecKit;
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.model.AbstractMQ;
 import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  *  rocketMQ 消息发送器的实现
@@ -62,17 +72,114 @@ public class RocketMQSender implements IMQSender {
         DELAY_TIME_LEVEL.add(60 * 60 * 2);
     }
 
+    /** 批量消息： 单批最大条数 **/
+    private static final int BATCH_MAX_COUNT = 256;
+
+    /** 批量消息： 单批最大字节数 (broker默认上限为4M， 预留属性等空间) **/
+    private static final int BATCH_MAX_BYTES = 1024 * 1024;
+
     @Autowired private RocketMQTemplate rocketMQTemplate;
 
+    /** 消息体编码格式 **/
+    @Value("${" + MQCodecCS.YML_CODEC_KEY + ":" + MQCodecCS.JSON + "}")
+    private String codec;
+
     @Override
     public void send(AbstractMQ mqModel) {
-        rocketMQTemplate.convertAndSend(mqModel.getMQName(), mqModel.toMessage());
+        rocketMQTemplate.send(mqModel.getMQName(), toMessage(mqModel));
     }
 
     @Override
     public void send(AbstractMQ mqModel, int delay) {
         // RocketMQ不支持自定义延迟时间， 需要根据传入的参数进行最近的匹配。
-        rocketMQTemplate.syncSend(mqModel.getMQName(), MessageBuilder.withPayload(mqModel.toMessage()).build(),300000, getNearDelayLevel(delay));
+        rocketMQTemplate.syncSend(mqModel.getMQName(), toMessage(mqModel), getSendTimeout(), getNearDelayLevel(delay));
+    }
+
+    /** 批量推送： 按topic分组， 使用rocketMQ原生批量消息 （一批仅一次网络往返） **/
+    @Override
+    public void sendBatch(List<? extends AbstractMQ> mqModelList) {
+
+        Map<String, List<AbstractMQ>> groupMap = mqModelList.stream().collect(Collectors.groupingBy(AbstractMQ::getMQName, LinkedHashMap::new, Collectors.toList()));
+        groupMap.forEach((topic, modelList) -> {
+
+            List<Message<byte[]>> batch = new ArrayList<>();
+            int batchBytes = 0;
+            for (AbstractMQ mqModel : modelList) {
+
+                Message<byte[]> message = toMessage(mqModel);
+                int msgBytes = message.getPayload().length;
+                if(!batch.isEmpty() && (batch.size() >= BATCH_MAX_COUNT || batchBytes + msgBytes > BATCH_MAX_BYTES)){
+                    rocketMQTemplate.syncSend(topic, batch, getSendTimeout());
+                    batch = new ArrayList<>();
+                    batchBytes = 0;
+                }
+                batch.add(message);
+                batchBytes += msgBytes;
+            }
+            rocketMQTemplate.syncSend(topic, batch, getSendTimeout());
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(AbstractMQ mqModel) {
+        return asyncSend(mqModel, 0);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(AbstractMQ mqModel, int delay) {
+        return asyncSend(mqModel, getNearDelayLevel(delay));
+    }
+
+    /** 异步批量推送： rocketMQ批量消息不支持异步接口， 逐条异步推送 (无需等待每条消息的broker响应) **/
+    @Override
+    public CompletableFuture<Void> sendBatchAsync(List<? extends AbstractMQ> mqModelList) {
+        return CompletableFuture.allOf(mqModelList.stream().map(this::sendAsync).toArray(CompletableFuture[]::new));
+    }
+
+    /** 异步推送， delayLevel=0表示实时消息 **/
+    private CompletableFuture<Void> asyncSend(AbstractMQ mqModel, int delayLevel){
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        SendCallback sendCallback = new SendCallback() {
+
+            @Override
+            public void onSuccess(SendResult sendResult) {
+                future.complete(null);
+            }
+
+            @Override
+            public void onException(Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+
+        try {
+            Message<byte[]> message = toMessage(mqModel);
+            if(delayLevel > 0){
+                rocketMQTemplate.asyncSend(mqModel.getMQName(), message, sendCallback, getSendTimeout(), delayLevel);
+            }else{
+                rocketMQTemplate.asyncSend(mqModel.getMQName(), message, sendCallback);
+            }
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /** 构造消息： 消息体与JSON字符串发送时一致， 二进制编码时在消息属性中标明编码格式 **/
+    private Message<byte[]> toMessage(AbstractMQ mqModel){
+
+        String actualCodec = MQCodecKit.resolveCodec(mqModel, codec);
+        MessageBuilder<byte[]> builder = MessageBuilder.withPayload(MQCodecKit.encode(mqModel, actualCodec));
+        if(MQCodecCS.BINARY.equals(actualCodec)){
+            builder.setHeader(MQCodecCS.HEADER_NAME, actualCodec);
+        }
+        return builder.build();
+    }
+
+    /** 发送超时时间， 与 rocketmq.producer.send-message-timeout 配置一致 **/
+    private long getSendTimeout(){
+        return rocketMQTemplate.getProducer().getSendMsgTimeout();
     }
 
     /** 获取最接近的节点值 **/
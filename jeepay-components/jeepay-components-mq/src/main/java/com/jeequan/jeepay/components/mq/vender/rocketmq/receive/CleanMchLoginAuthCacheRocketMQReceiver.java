@@ -15,9 +15,12 @@
  */
 package com.jeequan.jeepay.components.mq.vender.rocketmq.receive;
 
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.model.CleanMchLoginAuthCacheMQ;
 import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
+import org.apache.rocketmq.spring.annotation.MessageModel;
+import org.apache.rocketmq.common.message.MessageExt;
 import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
 import org.apache.rocketmq.spring.core.RocketMQListener;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,21 +39,21 @@ import org.springframework.stereotype.Component;
 @Component
 @ConditionalOnProperty(name = MQVenderCS.YML_VENDER_KEY, havingValue = MQVenderCS.ROCKET_MQ)
 @ConditionalOnBean(CleanMchLoginAuthCacheMQ.IMQReceiver.class)
-@RocketMQMessageListener(topic = CleanMchLoginAuthCacheMQ.MQ_NAME, consumerGroup = CleanMchLoginAuthCacheMQ.MQ_NAME)
-public class CleanMchLoginAuthCacheRocketMQReceiver implements IMQMsgReceiver, RocketMQListener<String> {
+@RocketMQMessageListener(topic = CleanMchLoginAuthCacheMQ.MQ_NAME, consumerGroup = CleanMchLoginAuthCacheMQ.MQ_NAME, messageModel = MessageModel.BROADCASTING)
+public class CleanMchLoginAuthCacheRocketMQReceiver implements IMQMsgReceiver, RocketMQListener<MessageExt> {
 
     @Autowired
     private CleanMchLoginAuthCacheMQ.IMQReceiver mqReceiver;
 
-    /** 接收 【 queue 】 类型的消息 **/
+    /** 接收 【 MQSendTypeEnum.BROADCAST  】 广播类型的消息 **/
     @Override
-    public void receiveMsg(String msg){
-        mqReceiver.receive(CleanMchLoginAuthCacheMQ.parse(msg));
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(CleanMchLoginAuthCacheMQ.parse(body, codec));
     }
 
     @Override
-    public void onMessage(String message) {
-        this.receiveMsg(message);
+    public void onMessage(MessageExt message) {
+        this.receiveMsg(message.getBody(), message.getUserProperty(MQCodecCS.HEADER_NAME));
     }
 
 }
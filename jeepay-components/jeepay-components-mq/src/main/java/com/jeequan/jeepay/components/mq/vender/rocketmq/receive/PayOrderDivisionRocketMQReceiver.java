@@ -15,9 +15,11 @@
  */
 package com.jeequan.jeepay.components.mq.vender.rocketmq.receive;
 
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.model.PayOrderDivisionMQ;
 import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
+import org.apache.rocketmq.common.message.MessageExt;
 import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
 import org.apache.rocketmq.spring.core.RocketMQListener;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,20 +40,20 @@ import org.springframework.stereotype.Component;
 @ConditionalOnProperty(name = MQVenderCS.YML_VENDER_KEY, havingValue = MQVenderCS.ROCKET_MQ)
 @ConditionalOnBean(PayOrderDivisionMQ.IMQReceiver.class)
 @RocketMQMessageListener(topic = PayOrderDivisionMQ.MQ_NAME, consumerGroup = PayOrderDivisionMQ.MQ_NAME)
-public class PayOrderDivisionRocketMQReceiver implements IMQMsgReceiver, RocketMQListener<String> {
+public class PayOrderDivisionRocketMQReceiver implements IMQMsgReceiver, RocketMQListener<MessageExt> {
 
     @Autowired
     private PayOrderDivisionMQ.IMQReceiver mqReceiver;
 
     /** 接收 【 queue 】 类型的消息 **/
     @Override
-    public void receiveMsg(String msg){
-        mqReceiver.receive(PayOrderDivisionMQ.parse(msg));
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(PayOrderDivisionMQ.parse(body, codec));
     }
 
     @Override
-    public void onMessage(String message) {
-        this.receiveMsg(message);
+    public void onMessage(MessageExt message) {
+        this.receiveMsg(message.getBody(), message.getUserProperty(MQCodecCS.HEADER_NAME));
     }
 
 }
@@ -15,10 +15,12 @@
  */
 package com.jeequan.jeepay.components.mq.vender.rocketmq.receive;
 
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.executor.MqThreadExecutor;
 import com.jeequan.jeepay.components.mq.model.PayOrderMchNotifyMQ;
 import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
+import org.apache.rocketmq.common.message.MessageExt;
 import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
 import org.apache.rocketmq.spring.core.RocketMQListener;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,21 +41,21 @@ import org.springframework.stereotype.Component;
 @ConditionalOnProperty(name = MQVenderCS.YML_VENDER_KEY, havingValue = MQVenderCS.ROCKET_MQ)
 @ConditionalOnBean(PayOrderMchNotifyMQ.IMQReceiver.class)
 @RocketMQMessageListener(topic = PayOrderMchNotifyMQ.MQ_NAME, consumerGroup = PayOrderMchNotifyMQ.MQ_NAME)
-public class PayOrderMchNotifyRocketMQReceiver implements IMQMsgReceiver, RocketMQListener<String> {
+public class PayOrderMchNotifyRocketMQReceiver implements IMQMsgReceiver, RocketMQListener<MessageExt> {
 
     @Autowired
     private PayOrderMchNotifyMQ.IMQReceiver mqReceiver;
 
     /** 接收 【 queue 】 类型的消息 **/
     @Override
-    public void receiveMsg(String msg){
-        mqReceiver.receive(PayOrderMchNotifyMQ.parse(msg));
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(PayOrderMchNotifyMQ.parse(body, codec));
     }
 
     @Override
     @Async(MqThreadExecutor.EXECUTOR_PAYORDER_MCH_NOTIFY)
-    public void onMessage(String message) {
-        this.receiveMsg(message);
+    public void onMessage(MessageExt message) {
+        this.receiveMsg(message.getBody(), message.getUserProperty(MQCodecCS.HEADER_NAME));
     }
 
 }
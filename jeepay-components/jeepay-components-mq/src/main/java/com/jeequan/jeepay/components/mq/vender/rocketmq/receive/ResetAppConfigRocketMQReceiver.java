@@ -15,10 +15,12 @@
  */
 package com.jeequan.jeepay.components.mq.vender.rocketmq.receive;
 
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.model.ResetAppConfigMQ;
 import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
 import org.apache.rocketmq.spring.annotation.MessageModel;
+import org.apache.rocketmq.common.message.MessageExt;
 import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
 import org.apache.rocketmq.spring.core.RocketMQListener;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,20 +40,20 @@ import org.springframework.stereotype.Component;
 @ConditionalOnProperty(name = MQVenderCS.YML_VENDER_KEY, havingValue = MQVenderCS.ROCKET_MQ)
 @ConditionalOnBean(ResetAppConfigMQ.IMQReceiver.class)
 @RocketMQMessageListener(topic = ResetAppConfigMQ.MQ_NAME, consumerGroup = ResetAppConfigMQ.MQ_NAME, messageModel = MessageModel.BROADCASTING)
-public class ResetAppConfigRocketMQReceiver implements IMQMsgReceiver, RocketMQListener<String> {
+public class ResetAppConfigRocketMQReceiver implements IMQMsgReceiver, RocketMQListener<MessageExt> {
 
     @Autowired
     private ResetAppConfigMQ.IMQReceiver mqReceiver;
 
     /** 接收 【 MQSendTypeEnum.BROADCAST  】 广播类型的消息 **/
     @Override
-    public void receiveMsg(String msg){
-        mqReceiver.receive(ResetAppConfigMQ.parse(msg));
+    public void receiveMsg(byte[] body, String codec){
+        mqReceiver.receive(ResetAppConfigMQ.parse(body, codec));
     }
 
     @Override
-    public void onMessage(String message) {
-        this.receiveMsg(message);
+    public void onMessage(MessageExt message) {
+        this.receiveMsg(message.getBody(), message.getUserProperty(MQCodecCS.HEADER_NAME));
     }
 
 }
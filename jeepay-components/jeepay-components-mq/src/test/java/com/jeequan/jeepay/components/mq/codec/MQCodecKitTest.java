@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.codec;
+
+import com.jeequan.jeepay.components.mq.constant.MQCodecCS;
+import com.jeequan.jeepay.components.mq.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+* MQ 消息体编解码测试： 各MQ的 JSON / 二进制 往返解析， 以及滚动升级时 JSON、 无消息头消息的兼容解析
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 20:40
+*/
+class MQCodecKitTest {
+
+    @Test
+    void cleanMchLoginAuthCacheRoundTrip() {
+        CleanMchLoginAuthCacheMQ mq = CleanMchLoginAuthCacheMQ.build(Arrays.asList(1L, 0L, -1L, Long.MAX_VALUE, Long.MIN_VALUE));
+        for (String codec : Arrays.asList(MQCodecCS.BINARY, MQCodecCS.JSON)) {
+            for (String header : Arrays.asList(codec, null)) {
+                assertEquals(mq.getPayload(), CleanMchLoginAuthCacheMQ.parse(encode(mq, codec), header));
+            }
+        }
+        CleanMchLoginAuthCacheMQ emptyMQ = CleanMchLoginAuthCacheMQ.build(Collections.emptyList());
+        assertEquals(emptyMQ.getPayload(), CleanMchLoginAuthCacheMQ.parse(encode(emptyMQ, MQCodecCS.BINARY), null));
+    }
+
+    @Test
+    void payOrderMchNotifyRoundTrip() {
+        PayOrderMchNotifyMQ mq = PayOrderMchNotifyMQ.build(1234567890123L);
+        for (String codec : Arrays.asList(MQCodecCS.BINARY, MQCodecCS.JSON)) {
+            for (String header : Arrays.asList(codec, null)) {
+                assertEquals(mq.getPayload(), PayOrderMchNotifyMQ.parse(encode(mq, codec), header));
+            }
+        }
+    }
+
+    @Test
+    void payOrderReissueRoundTrip() {
+        PayOrderReissueMQ mq = PayOrderReissueMQ.build("P1624005107281562345", 3);
+        for (String codec : Arrays.asList(MQCodecCS.BINARY, MQCodecCS.JSON)) {
+            for (String header : Arrays.asList(codec, null)) {
+                assertEquals(mq.getPayload(), PayOrderReissueMQ.parse(encode(mq, codec), header));
+            }
+        }
+    }
+
+    @Test
+    void resetAppConfigRoundTrip() {
+        for (String groupKey : Arrays.asList("applicationConfig", "中文分组", "", null)) {
+            ResetAppConfigMQ mq = ResetAppConfigMQ.build(groupKey);
+            assertEquals(mq.getPayload(), ResetAppConfigMQ.parse(encode(mq, MQCodecCS.BINARY), MQCodecCS.BINARY));
+            assertEquals(mq.getPayload(), ResetAppConfigMQ.parse(encode(mq, MQCodecCS.BINARY), null));
+        }
+        ResetAppConfigMQ mq = ResetAppConfigMQ.build("applicationConfig");
+        assertEquals(mq.getPayload(), ResetAppConfigMQ.parse(encode(mq, MQCodecCS.JSON), null));
+    }
+
+    @Test
+    void resetIsvMchAppInfoConfigRoundTrip() {
+        ResetIsvMchAppInfoConfigMQ single = ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_APP, null, "M1623984572", "60cc09bce4b0f1c0b83761c9");
+        ResetIsvMchAppInfoConfigMQ batch = ResetIsvMchAppInfoConfigMQ.buildBatch(Arrays.asList(
+                single.getPayload(),
+                ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_ISV_INFO, "V1623998765", null, null).getPayload()));
+        ResetIsvMchAppInfoConfigMQ emptyBatch = ResetIsvMchAppInfoConfigMQ.buildBatch(Collections.emptyList());
+
+        for (ResetIsvMchAppInfoConfigMQ mq : Arrays.asList(single, batch, emptyBatch)) {
+            for (String codec : Arrays.asList(MQCodecCS.BINARY, MQCodecCS.JSON)) {
+                for (String header : Arrays.asList(codec, null)) {
+                    assertEquals(mq.getPayload(), ResetIsvMchAppInfoConfigMQ.parse(encode(mq, codec), header));
+                }
+            }
+        }
+    }
+
+    /** 未实现 IBinaryMQ 的消息在 binary 配置下仍使用JSON **/
+    @Test
+    void jsonOnlyModelFallsBackToJson() {
+        PayOrderDivisionMQ mq = PayOrderDivisionMQ.build("P1624005107281562345", (byte) 0,
+                Collections.singletonList(new PayOrderDivisionMQ.CustomerDivisionReceiver(1001L, null, new BigDecimal("0.1"))), true);
+
+        assertEquals(MQCodecCS.JSON, MQCodecKit.resolveCodec(mq, MQCodecCS.BINARY));
+        byte[] body = encode(mq, MQCodecCS.BINARY);
+        assertArrayEquals(mq.toMessage().getBytes(StandardCharsets.UTF_8), body);
+        assertEquals(mq.getPayload(), PayOrderDivisionMQ.parse(body, MQCodecCS.JSON));
+        assertEquals(mq.getPayload(), PayOrderDivisionMQ.parse(body, null));
+
+        assertThrows(IllegalArgumentException.class, () -> PayOrderDivisionMQ.parse(new byte[]{MQCodecKit.BINARY_MAGIC}, MQCodecCS.BINARY));
+    }
+
+    /** 旧版本发送方： 无消息头的JSON消息体， 与 parse(String) 结果一致 **/
+    @Test
+    void legacyHeaderlessJson() {
+        PayOrderReissueMQ mq = PayOrderReissueMQ.build("P1624005107281562345", 1);
+        String legacyMsg = mq.toMessage();
+        assertEquals(PayOrderReissueMQ.parse(legacyMsg), PayOrderReissueMQ.parse(legacyMsg.getBytes(StandardCharsets.UTF_8), null));
+
+        assertFalse(MQCodecKit.isBinary(legacyMsg.getBytes(StandardCharsets.UTF_8), null));
+        assertFalse(MQCodecKit.isBinary(new byte[0], null));
+        assertTrue(MQCodecKit.isBinary(encode(mq, MQCodecCS.BINARY), null));
+    }
+
+    /** 消息头优先于首字节识别 **/
+    @Test
+    void headerTakesPrecedence() {
+        PayOrderMchNotifyMQ mq = PayOrderMchNotifyMQ.build(1L);
+        assertFalse(MQCodecKit.isBinary(encode(mq, MQCodecCS.BINARY), MQCodecCS.JSON));
+        assertTrue(MQCodecKit.isBinary(encode(mq, MQCodecCS.JSON), MQCodecCS.BINARY));
+    }
+
+    @Test
+    void schemaIdMismatchRejected() {
+        byte[] body = encode(PayOrderMchNotifyMQ.build(1L), MQCodecCS.BINARY);
+        assertThrows(IllegalArgumentException.class, () -> PayOrderReissueMQ.parse(body, MQCodecCS.BINARY));
+    }
+
+    private static byte[] encode(AbstractMQ mq, String configCodec) {
+        return MQCodecKit.encode(mq, MQCodecKit.resolveCodec(mq, configCodec));
+    }
+
+}
@@ -47,6 +47,9 @@ public class RequestKitBean {
     /** reqContext对象中的key: 转换好的json对象 */
     private static final String REQ_CONTEXT_KEY_PARAMJSON = "REQ_CONTEXT_KEY_PARAMJSON";
 
+    /** reqContext对象中的key: 已通过验签的json对象 */
+    private static final String REQ_CONTEXT_KEY_SIGN_VERIFIED_PARAMJSON = "REQ_CONTEXT_KEY_SIGN_VERIFIED_PARAMJSON";
+
     /** JSON 格式通过请求主体（BODY）传输  获取参数 **/
     public String getReqParamFromBody() {
 
@@ -151,6 +154,16 @@ public class RequestKitBean {
         return (JSONObject) reqParamObject;
     }
 
+    /** 获取已通过验签的请求参数， 未验签返回null **/
+    public JSONObject getSignVerifiedParamJSON(){
+        return (JSONObject) RequestContextHolder.getRequestAttributes().getAttribute(REQ_CONTEXT_KEY_SIGN_VERIFIED_PARAMJSON, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /** 保存已通过验签的请求参数， 同一请求内无需重复验签 **/
+    public void setSignVerifiedParamJSON(JSONObject reqParam){
+        RequestContextHolder.getRequestAttributes().setAttribute(REQ_CONTEXT_KEY_SIGN_VERIFIED_PARAMJSON, reqParam, RequestAttributes.SCOPE_REQUEST);
+    }
+
     /** 判断请求参数是否转换为json格式 */
     private boolean isConvertJSON(){
 
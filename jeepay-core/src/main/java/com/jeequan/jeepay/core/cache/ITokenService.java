@@ -17,14 +17,28 @@ package com.jeequan.jeepay.core.cache;
 
 import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.model.security.JeeUserDetails;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /*
 * token service
 *
+* 每个用户维护一个token索引 (Redis Set: TOKENS_{sysUserId})， 记录该用户所有登录token的cacheKey，
+* 按用户批量失效token时直接读取索引， 不再使用 KEYS TOKEN_{sysUserId}_* 扫描全库。
+* 索引本身不设置过期时间 (token会被续签)， 登录时清理其中已过期的token。
+*
 * @author terrfly
 * @site https://www.jeequan.com
 * @date 2021/5/24 09:06
 */
+@Slf4j
 public class ITokenService {
 
     /** 处理token信息
@@ -49,6 +63,22 @@ public class ITokenService {
 
         //保存token
         RedisUtil.set(cacheKey, userDetail, CS.TOKEN_TIME);  //缓存时间2小时, 保存具体信息而只是uid, 因为很多场景需要得到信息， 例如验证接口权限， 每次请求都需要获取。 将信息封装在一起减少磁盘请求次数， 如果放置多个key会增加非顺序读取。
+
+        //更新用户token索引， 并清理已过期的token
+        String indexKey = CS.getCacheKeyTokenIndex(userDetail.getSysUser().getSysUserId());
+        RedisUtil.sAdd(indexKey, cacheKey);
+
+        List<String> tokenList = new ArrayList<>(RedisUtil.sMembers(indexKey));
+        List<Boolean> existsList = RedisUtil.hasKeysPipelined(tokenList);
+        List<String> expiredList = new ArrayList<>();
+        for (int i = 0; i < tokenList.size(); i++) {
+            if(!Boolean.TRUE.equals(existsList.get(i))){
+                expiredList.add(tokenList.get(i));
+            }
+        }
+        if(!expiredList.isEmpty()){
+            RedisUtil.sRemove(indexKey, expiredList.toArray());
+        }
     }
 
 
@@ -57,6 +87,77 @@ public class ITokenService {
 
         //1. 清除token的信息
         RedisUtil.del(iToken);
+
+        //2. 从用户token索引中移除
+        RedisUtil.sRemove(CS.getCacheKeyTokenIndex(currentUID), iToken);
+
+        //3. 清除本地缓存
+        TokenLocalCache.invalidate(iToken);
+    }
+
+    /** 查询用户的所有token cacheKey (pipeline 一次读取全部用户的索引) */
+    public static Map<Long, Set<String>> listUserTokens(Collection<Long> sysUserIdList){
+
+        List<Long> userIdList = new ArrayList<>(sysUserIdList);
+        List<String> indexKeyList = new ArrayList<>(userIdList.size());
+        userIdList.forEach(sysUserId -> indexKeyList.add(CS.getCacheKeyTokenIndex(sysUserId)));
+
+        List<Set<String>> tokenSetList = RedisUtil.sMembersPipelined(indexKeyList);
+
+        Map<Long, Set<String>> result = new HashMap<>();
+        for (int i = 0; i < userIdList.size(); i++) {
+            Set<String> tokenSet = tokenSetList.get(i);
+            if(tokenSet != null && !tokenSet.isEmpty()){
+                result.put(userIdList.get(i), tokenSet);
+            }
+        }
+        return result;
+    }
+
+    /** 删除用户的所有token信息 (一次读取索引 + 一次批量删除) */
+    public static void removeUserTokens(Collection<Long> sysUserIdList){
+
+        if(sysUserIdList == null || sysUserIdList.isEmpty()){
+            return ;
+        }
+
+        List<String> delKeyList = new ArrayList<>();
+        listUserTokens(sysUserIdList).values().forEach(delKeyList::addAll);
+        sysUserIdList.forEach(sysUserId -> delKeyList.add(CS.getCacheKeyTokenIndex(sysUserId)));
+
+        RedisUtil.del(delKeyList);
+        TokenLocalCache.invalidateUsers(sysUserIdList);
+    }
+
+    /**
+     * 将已存在的token登记到用户token索引 (SCAN 遍历， 不阻塞Redis)。
+     * 用于兼容建立索引之前登录的token， 幂等， 可重复执行。
+     */
+    public static void migrateTokenIndex(){
+
+        String prefix = CS.CACHE_KEY_TOKEN.substring(0, CS.CACHE_KEY_TOKEN.indexOf('%')); // TOKEN_
+        AtomicLong count = new AtomicLong();
+
+        RedisUtil.scan(prefix + "*_*", 1000, cacheKey -> {
+
+            // TOKEN_{sysUserId}_{uuid}
+            int idx = cacheKey.indexOf('_', prefix.length());
+            if(idx <= prefix.length()){
+                return;
+            }
+
+            Long sysUserId;
+            try {
+                sysUserId = Long.valueOf(cacheKey.substring(prefix.length(), idx));
+            } catch (NumberFormatException e) {
+                return;
+            }
+
+            RedisUtil.sAdd(CS.getCacheKeyTokenIndex(sysUserId), cacheKey);
+            count.incrementAndGet();
+        });
+
+        log.info("用户token索引迁移完成, token数量={}", count.get());
     }
 
     /**
@@ -66,6 +167,7 @@ public class ITokenService {
 
         //保存token 和 tokenList信息
         RedisUtil.set(currentUserInfo.getCacheKey(), currentUserInfo, CS.TOKEN_TIME);  //缓存时间2小时, 保存具体信息而只是uid, 因为很多场景需要得到信息， 例如验证接口权限， 每次请求都需要获取。 将信息封装在一起减少磁盘请求次数， 如果放置多个key会增加非顺序读取。
+        TokenLocalCache.invalidate(currentUserInfo.getCacheKey());
 
     }
 
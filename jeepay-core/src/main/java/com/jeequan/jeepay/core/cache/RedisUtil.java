@@ -17,12 +17,22 @@ package com.jeequan.jeepay.core.cache;
 
 import com.alibaba.fastjson.JSON;
 import com.jeequan.jeepay.core.utils.SpringBeansUtil;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.util.CollectionUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /*
 * Redis工具类
@@ -35,6 +45,16 @@ public class RedisUtil {
 
     private static StringRedisTemplate stringRedisTemplate = null;
 
+    /** 有序集合 领取脚本: ZRANGEBYSCORE + ZADD XX **/
+    private static final RedisScript<List> Z_CLAIM_BY_SCORE_SCRIPT = new DefaultRedisScript<>(
+            "local members = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[3]) " +
+            "for i, member in ipairs(members) do redis.call('ZADD', KEYS[1], 'XX', ARGV[2], member) end " +
+            "return members", List.class);
+
+    /** 值相等时续期脚本: GET + EXPIRE **/
+    private static final RedisScript<Long> EXPIRE_IF_EQUALS_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('EXPIRE', KEYS[1], ARGV[2]) end return 0", Long.class);
+
     /** 获取RedisTemplate对象, 默认使用 StringRedisTemplate, 客户端可查询 **/
     private static final RedisTemplate getStringRedisTemplate(){
 
@@ -94,6 +114,18 @@ public class RedisUtil {
         setString(key, JSON.toJSONString(value), time, timeUnit);
     }
 
+    /** 不存在时放入并设置时间, 默认单位：秒。 返回是否放入成功 (SET NX EX) */
+    public static boolean setIfAbsent(String key, String value, long time) {
+        return Boolean.TRUE.equals(getStringRedisTemplate().opsForValue().setIfAbsent(key, value, time, TimeUnit.SECONDS));
+    }
+
+    /** 当前值与value相等时重新设置失效时间, 单位：秒。 返回是否续期成功 (锁持有者续期) */
+    @SuppressWarnings("unchecked")
+    public static boolean expireIfEquals(String key, String value, long time) {
+        Long result = (Long) getStringRedisTemplate().execute(EXPIRE_IF_EQUALS_SCRIPT, Collections.singletonList(key), value, String.valueOf(time));
+        return result != null && result == 1L;
+    }
+
     /** 指定缓存失效时间 */
     public static void expire(String key, long time) {
        getStringRedisTemplate().expire(key, time, TimeUnit.SECONDS);
@@ -104,6 +136,19 @@ public class RedisUtil {
         getStringRedisTemplate().expire(key, time, timeUnit);
     }
 
+    /** 批量指定缓存失效时间 (pipeline, 一次往返) */
+    public static void expirePipelined(Collection<String> keys, long time) {
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        getStringRedisTemplate().executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.keyCommands().expire(key.getBytes(StandardCharsets.UTF_8), time);
+            }
+            return null;
+        });
+    }
+
     /**
      * 根据key 获取过期时间
      * @param key 键 不能为null
@@ -129,9 +174,111 @@ public class RedisUtil {
         }
     }
 
-    /** 查询keys */
-    public static Collection<String> keys(String pattern) {
-        return getStringRedisTemplate().keys(pattern);
+    /** 批量删除缓存 (一次DEL) **/
+    public static void del(Collection<String> keys) {
+        if (keys != null && !keys.isEmpty()) {
+            getStringRedisTemplate().delete(keys);
+        }
+    }
+
+    /** 集合： 添加元素 */
+    public static void sAdd(String key, String... values) {
+        getStringRedisTemplate().opsForSet().add(key, (Object[]) values);
+    }
+
+    /** 集合： 删除元素 */
+    public static void sRemove(String key, Object... values) {
+        getStringRedisTemplate().opsForSet().remove(key, values);
+    }
+
+    /** 集合： 查询全部元素 */
+    public static Set<String> sMembers(String key) {
+        Set<String> result = getStringRedisTemplate().opsForSet().members(key);
+        return result == null ? Collections.emptySet() : result;
+    }
+
+    /** 集合： 批量查询多个集合的全部元素 (pipeline, 一次往返)， 返回顺序与keys一致 */
+    @SuppressWarnings("unchecked")
+    public static List<Set<String>> sMembersPipelined(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return (List<Set<String>>) getStringRedisTemplate().executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.setCommands().sMembers(key.getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+    }
+
+    /** 批量判断key是否存在 (pipeline, 一次往返)， 返回顺序与keys一致 */
+    @SuppressWarnings("unchecked")
+    public static List<Boolean> hasKeysPipelined(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return (List<Boolean>) getStringRedisTemplate().executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.keyCommands().exists(key.getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+    }
+
+    /** 有序集合： 添加元素 (已存在时更新score) */
+    public static void zAdd(String key, String value, double score) {
+        getStringRedisTemplate().opsForZSet().add(key, value, score);
+    }
+
+    /** 有序集合： 按score范围查询元素 (升序, 分页) */
+    public static Set<String> zRangeByScore(String key, double min, double max, long offset, long count) {
+        Set<String> result = getStringRedisTemplate().opsForZSet().rangeByScore(key, min, max, offset, count);
+        return result == null ? Collections.emptySet() : result;
+    }
+
+    /** 有序集合： 不存在时添加元素 (ZADD NX), 返回是否添加成功 */
+    public static boolean zAddIfAbsent(String key, String value, double score) {
+        return Boolean.TRUE.equals(getStringRedisTemplate().opsForZSet().addIfAbsent(key, value, score));
+    }
+
+    /**
+     * 有序集合： 原子领取score <= maxScore 的前count个元素， 并将其score更新为newScore (租约到期前其他节点无法领取)
+     * 领取后元素不再处于查询范围内， 因此每次均从头领取， 无需OFFSET分页。
+     */
+    @SuppressWarnings("unchecked")
+    public static List<String> zClaimByScore(String key, long maxScore, long newScore, long count) {
+        List<String> result = (List<String>) getStringRedisTemplate().execute(Z_CLAIM_BY_SCORE_SCRIPT, Collections.singletonList(key),
+                String.valueOf(maxScore), String.valueOf(newScore), String.valueOf(count));
+        return result == null ? Collections.emptyList() : result;
+    }
+
+    /** 有序集合： 元素数量 */
+    public static long zCard(String key) {
+        Long count = getStringRedisTemplate().opsForZSet().zCard(key);
+        return count == null ? 0 : count;
+    }
+
+    /** 有序集合： score范围内的元素数量 */
+    public static long zCount(String key, double min, double max) {
+        Long count = getStringRedisTemplate().opsForZSet().count(key, min, max);
+        return count == null ? 0 : count;
+    }
+
+    /** 有序集合： 删除元素, 返回是否删除成功 (多节点并发时， 可作为抢占标记) */
+    public static boolean zRemove(String key, String value) {
+        Long count = getStringRedisTemplate().opsForZSet().remove(key, value);
+        return count != null && count > 0;
+    }
+
+    /**
+     * 遍历匹配的keys (SCAN 游标方式， 每批count个)。
+     * 不使用 KEYS 命令： KEYS 为 O(keyspace) 的阻塞操作， 执行期间共用该Redis的所有服务均会被阻塞。
+     */
+    public static void scan(String pattern, long count, Consumer<String> consumer) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(count).build();
+        try (Cursor<String> cursor = getStringRedisTemplate().scan(options)) {
+            cursor.forEachRemaining(consumer);
+        }
     }
 
 }
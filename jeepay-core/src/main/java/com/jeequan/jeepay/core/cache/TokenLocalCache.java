@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.model.security.JeeUserDetails;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+* 登录信息本地缓存 (运营平台 & 商户系统 的 JeeAuthenticationTokenFilter 使用)
+*
+* 1. 已解析的 JeeUserDetails 按 cacheKey 在本地缓存 TOKEN_LOCAL_CACHE_TIME 秒， 缓存期内的请求不再访问Redis；
+*    本节点退出登录/刷新权限时立即失效， 其他节点最多延迟 TOKEN_LOCAL_CACHE_TIME 秒 (商户系统由 CleanMchLoginAuthCacheMQ 广播清除)。
+* 2. token续签 (EXPIRE) 不再每次请求执行： 同一token每 TOKEN_RENEW_INTERVAL 秒最多续签一次， 由后台线程批量 (pipeline) 提交。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 23:20
+*/
+@Slf4j
+public class TokenLocalCache {
+
+    /** 本地缓存最大token数量 **/
+    private static final long MAX_SIZE = 10000;
+
+    /** 续签任务执行间隔 (秒) **/
+    private static final long RENEW_FLUSH_SECONDS = 5;
+
+    /** cacheKey -> 登录信息 **/
+    private static final Cache<String, JeeUserDetails> USER_CACHE = Caffeine.newBuilder()
+            .expireAfterWrite(CS.TOKEN_LOCAL_CACHE_TIME, TimeUnit.SECONDS)
+            .maximumSize(MAX_SIZE)
+            .build();
+
+    /** 续签间隔内已续签 (或已等待续签) 的cacheKey **/
+    private static final Cache<String, Boolean> RENEWED_CACHE = Caffeine.newBuilder()
+            .expireAfterWrite(CS.TOKEN_RENEW_INTERVAL, TimeUnit.SECONDS)
+            .maximumSize(MAX_SIZE * 10)
+            .build();
+
+    /** 等待续签的cacheKey **/
+    private static final Set<String> RENEW_PENDING = ConcurrentHashMap.newKeySet();
+
+    private static final ScheduledExecutorService RENEW_EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "token-renew");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        RENEW_EXECUTOR.scheduleWithFixedDelay(TokenLocalCache::flushRenew, RENEW_FLUSH_SECONDS, RENEW_FLUSH_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /** 获取本地缓存的登录信息， 不存在返回null **/
+    public static JeeUserDetails get(String cacheKey){
+        return USER_CACHE.getIfPresent(cacheKey);
+    }
+
+    /** 放置本地缓存 **/
+    public static void put(String cacheKey, JeeUserDetails userDetails){
+        USER_CACHE.put(cacheKey, userDetails);
+    }
+
+    /** 删除本地缓存 **/
+    public static void invalidate(String cacheKey){
+        USER_CACHE.invalidate(cacheKey);
+    }
+
+    /** 删除用户的全部本地缓存 **/
+    public static void invalidateUsers(Collection<Long> sysUserIdList){
+
+        if(sysUserIdList == null || sysUserIdList.isEmpty()){
+            return ;
+        }
+
+        // cacheKey = TOKEN_{sysUserId}_{uuid}
+        List<String> prefixList = new ArrayList<>(sysUserIdList.size());
+        sysUserIdList.forEach(sysUserId -> prefixList.add(CS.getCacheKeyToken(sysUserId, "")));
+
+        USER_CACHE.asMap().keySet().removeIf(cacheKey -> prefixList.stream().anyMatch(cacheKey::startsWith));
+    }
+
+    /** token续签： 加入等待队列， 由后台线程批量执行 **/
+    public static void renew(String cacheKey){
+
+        if(RENEWED_CACHE.asMap().putIfAbsent(cacheKey, Boolean.TRUE) == null){
+            RENEW_PENDING.add(cacheKey);
+        }
+    }
+
+    /** 批量提交续签 **/
+    private static void flushRenew(){
+
+        if(RENEW_PENDING.isEmpty()){
+            return ;
+        }
+
+        List<String> cacheKeyList = new ArrayList<>(RENEW_PENDING);
+        RENEW_PENDING.removeAll(cacheKeyList);
+
+        try {
+            RedisUtil.expirePipelined(cacheKeyList, CS.TOKEN_TIME);
+        } catch (Exception e) {
+            log.error("token续签异常, 数量={}", cacheKeyList.size(), e);
+            cacheKeyList.forEach(RENEWED_CACHE::invalidate); // 下次请求时重新续签
+        }
+    }
+
+}
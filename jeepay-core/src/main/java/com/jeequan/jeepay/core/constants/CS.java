@@ -95,23 +95,62 @@ public class CS {
 
     public static final long TOKEN_TIME = 60 * 60 * 2; //单位：s,  两小时
 
+    /** 登录信息本地缓存时间 单位：s， 其他节点退出登录/修改权限后， 本节点最多延迟该时间生效 **/
+    public static final long TOKEN_LOCAL_CACHE_TIME = 5;
+
+    /** token续签间隔 单位：s， 同一token在该时间内最多续签一次 (批量异步执行) **/
+    public static final long TOKEN_RENEW_INTERVAL = 60;
+
 
     //access_token 名称
     public static final String ACCESS_TOKEN_NAME = "iToken";
 
     /** ！！不同系统请放置不同的redis库 ！！ **/
-    /** 缓存key: 当前用户所有用户的token集合  example: TOKEN_1001_HcNheNDqHzhTIrT0lUXikm7xU5XY4Q */
+    /** 缓存key: 用户登录token  example: TOKEN_1001_HcNheNDqHzhTIrT0lUXikm7xU5XY4Q */
     public static final String CACHE_KEY_TOKEN = "TOKEN_%s_%s";
     public static String getCacheKeyToken(Long sysUserId, String uuid){
         return String.format(CACHE_KEY_TOKEN, sysUserId, uuid);
     }
 
+    /** 缓存key: 当前用户所有token的cacheKey集合 (Redis Set)  example: TOKENS_1001  (注意不可匹配 TOKEN_*) */
+    public static final String CACHE_KEY_TOKEN_INDEX = "TOKENS_%s";
+    public static String getCacheKeyTokenIndex(Long sysUserId){
+        return String.format(CACHE_KEY_TOKEN_INDEX, sysUserId);
+    }
+
     /** 图片验证码 缓存key **/
     public static final String CACHE_KEY_IMG_CODE = "img_code_%s";
     public static String getCacheKeyImgCode(String imgToken){
         return String.format(CACHE_KEY_IMG_CODE, imgToken);
     }
 
+    /** 商户订单号幂等索引 缓存key  example: MCH_ORDER_NO_M1623984572_20210618001 **/
+    public static final String CACHE_KEY_MCH_ORDER_NO = "MCH_ORDER_NO_%s_%s";
+    public static String getCacheKeyMchOrderNo(String mchNo, String mchOrderNo){
+        return String.format(CACHE_KEY_MCH_ORDER_NO, mchNo, mchOrderNo);
+    }
+
+    /** 商户通知延迟队列 缓存key (有序集合， score为到期时间戳) **/
+    public static final String CACHE_KEY_MCH_NOTIFY_DELAY_QUEUE = "MCH_NOTIFY_DELAY_QUEUE";
+
+    /** 补单(查单)延迟队列 缓存key (有序集合， score为下次查单时间戳)  example: ORDER_REISSUE_QUEUE_PAY **/
+    public static final String CACHE_KEY_ORDER_REISSUE_QUEUE = "ORDER_REISSUE_QUEUE_%s";
+    public static String getCacheKeyOrderReissueQueue(String orderType){
+        return String.format(CACHE_KEY_ORDER_REISSUE_QUEUE, orderType);
+    }
+
+    /** 定时任务 单节点执行锁 缓存key  example: TASK_LOCK_PayOrderExpiredTask **/
+    public static final String CACHE_KEY_TASK_LOCK = "TASK_LOCK_%s";
+    public static String getCacheKeyTaskLock(String taskName){
+        return String.format(CACHE_KEY_TASK_LOCK, taskName);
+    }
+
+    /** 后台导出任务 缓存key  example: EXPORT_JOB_{jobId} **/
+    public static final String CACHE_KEY_EXPORT_JOB = "EXPORT_JOB_%s";
+    public static String getCacheKeyExportJob(String jobId){
+        return String.format(CACHE_KEY_EXPORT_JOB, jobId);
+    }
+
     /** 回调URL的格前缀  */
     public static final String PAY_RETURNURL_FIX_ONLY_JUMP_PREFIX = "ONLYJUMP_";
 
@@ -148,6 +187,7 @@ public class CS {
         String XXPAY = "xxpay";     // 小新支付
         String PPPAY = "pppay";     // Paypal 支付
         String PLSPAY = "plspay";     // 计全支付plus
+        String MOCK = "mock";     // 模拟渠道 (仅用于本地压测， 不会调用任何上游接口)
     }
 
 
@@ -87,6 +87,12 @@ public class MchPayPassage extends BaseModel implements Serializable {
     @Schema(title = "rate", description = "支付方式费率")
     private BigDecimal rate;
 
+    /**
+     * 路由权重: 同一支付方式开启多个通道时, 按权重分配流量
+     */
+    @Schema(title = "weight", description = "路由权重: 同一支付方式开启多个通道时, 按权重分配流量")
+    private Integer weight;
+
     /**
      * 风控数据
      */
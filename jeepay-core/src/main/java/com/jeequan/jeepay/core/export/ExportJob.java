@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.export;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/*
+* 后台导出任务
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 22:10
+*/
+@Data
+@Schema(description = "后台导出任务")
+public class ExportJob implements Serializable {
+
+    public static final byte STATE_ING = 0; //导出中
+    public static final byte STATE_SUCCESS = 1; //导出成功
+    public static final byte STATE_FAIL = 2; //导出失败
+
+    /** 任务ID **/
+    @Schema(title = "jobId", description = "任务ID")
+    private String jobId;
+
+    /** 任务所属用户标识 (仅创建者可查询/下载) **/
+    @Schema(title = "ownerKey", description = "任务所属用户标识")
+    private String ownerKey;
+
+    /** 下载文件名 **/
+    @Schema(title = "fileName", description = "下载文件名")
+    private String fileName;
+
+    /** 文件格式: csv / xlsx **/
+    @Schema(title = "format", description = "文件格式: csv / xlsx")
+    private String format;
+
+    /** 状态: 0-导出中, 1-导出成功, 2-导出失败 **/
+    @Schema(title = "state", description = "状态: 0-导出中, 1-导出成功, 2-导出失败")
+    private Byte state;
+
+    /** 已导出行数 **/
+    @Schema(title = "rowCount", description = "已导出行数")
+    private Long rowCount;
+
+    /** 失败原因 **/
+    @Schema(title = "errMsg", description = "失败原因")
+    private String errMsg;
+
+    /** 创建时间 **/
+    @Schema(title = "createdAt", description = "创建时间")
+    private Date createdAt;
+
+    /** 完成时间 **/
+    @Schema(title = "finishedAt", description = "完成时间")
+    private Date finishedAt;
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.export;
+
+import com.jeequan.jeepay.core.constants.ApiCodeEnum;
+import com.jeequan.jeepay.core.exception.BizException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/*
+* 流式导出 写入器
+*   逐行写入底层输出流， 内存占用与行数无关； finish() 仅完成写入， 不关闭底层输出流。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 22:10
+*/
+public interface ExportWriter {
+
+    String FORMAT_CSV = "csv";
+    String FORMAT_XLSX = "xlsx";
+
+    /** 写入表头 **/
+    void writeHeader(List<String> titles) throws IOException;
+
+    /** 写入数据行： 支持 String / Number / Date， null 写为空 **/
+    void writeRow(List<?> values) throws IOException;
+
+    /** 完成写入 **/
+    void finish() throws IOException;
+
+    /** 根据文件格式创建写入器 **/
+    static ExportWriter create(String format, OutputStream out) {
+        if (FORMAT_CSV.equalsIgnoreCase(format)) {
+            return new CsvExportWriter(out);
+        }
+        if (FORMAT_XLSX.equalsIgnoreCase(format)) {
+            return new XlsxExportWriter(out);
+        }
+        throw new BizException(ApiCodeEnum.PARAMS_ERROR, "format");
+    }
+
+    /** 文件格式对应的 Content-Type **/
+    static String getContentType(String format) {
+        return FORMAT_XLSX.equalsIgnoreCase(format) ? "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet" : "text/csv;charset=UTF-8";
+    }
+
+}
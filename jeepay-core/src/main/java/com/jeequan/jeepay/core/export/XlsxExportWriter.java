@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.export;
+
+import cn.hutool.core.date.DateUtil;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/*
+* XLSX 流式写入器
+*   直接按 SpreadsheetML 格式逐行写入zip输出流， 文本使用内联字符串 (inlineStr)， 无需在内存中保留共享字符串表或已写入的行；
+*   单个工作表超过Excel行数上限时自动新建工作表 (并重复表头)。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 22:10
+*/
+public class XlsxExportWriter implements ExportWriter {
+
+    /** 单个工作表的最大行数 (Excel上限) **/
+    private static final int MAX_ROWS_PER_SHEET = 1048576;
+
+    private static final String NS_MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String NS_REL = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String NS_PKG_REL = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+
+    private List<String> titles;
+
+    /** 工作表数量 **/
+    private int sheetCount = 0;
+
+    /** 当前工作表已写入行数 **/
+    private int rowCount = 0;
+
+    public XlsxExportWriter(OutputStream out) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void writeHeader(List<String> titles) throws IOException {
+        this.titles = titles;
+        writeRow(titles);
+    }
+
+    @Override
+    public void writeRow(List<?> values) throws IOException {
+
+        if (sheetCount == 0 || rowCount >= MAX_ROWS_PER_SHEET) {
+            nextSheet();
+        }
+
+        rowCount++;
+        writer.write("<row r=\"");
+        writer.write(Integer.toString(rowCount));
+        writer.write("\">");
+        for (Object value : values) {
+            writeCell(value);
+        }
+        writer.write("</row>");
+    }
+
+    @Override
+    public void finish() throws IOException {
+
+        if (sheetCount == 0) {
+            nextSheet();
+        }
+        closeSheet();
+
+        StringBuilder contentTypes = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>")
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+        StringBuilder sheets = new StringBuilder();
+        StringBuilder workbookRels = new StringBuilder();
+        for (int i = 1; i <= sheetCount; i++) {
+            contentTypes.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+            sheets.append("<sheet name=\"Sheet").append(i).append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+            workbookRels.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(NS_REL)
+                    .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        contentTypes.append("</Types>");
+
+        writeEntry("[Content_Types].xml", contentTypes.toString());
+        writeEntry("_rels/.rels", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><Relationships xmlns=\"" + NS_PKG_REL + "\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + NS_REL + "/officeDocument\" Target=\"xl/workbook.xml\"/></Relationships>");
+        writeEntry("xl/workbook.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><workbook xmlns=\"" + NS_MAIN + "\" xmlns:r=\"" + NS_REL + "\">"
+                + "<sheets>" + sheets + "</sheets></workbook>");
+        writeEntry("xl/_rels/workbook.xml.rels", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><Relationships xmlns=\"" + NS_PKG_REL + "\">"
+                + workbookRels + "</Relationships>");
+
+        zip.finish();
+        zip.flush();
+    }
+
+    /** 新建工作表， 非首个工作表时重复写入表头 **/
+    private void nextSheet() throws IOException {
+
+        if (sheetCount > 0) {
+            closeSheet();
+        }
+
+        sheetCount++;
+        rowCount = 0;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetCount + ".xml"));
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><worksheet xmlns=\"" + NS_MAIN + "\"><sheetData>");
+
+        if (sheetCount > 1 && titles != null) {
+            writeRow(titles);
+        }
+    }
+
+    private void closeSheet() throws IOException {
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private void writeCell(Object value) throws IOException {
+
+        if (value == null) {
+            writer.write("<c/>");
+            return;
+        }
+        if (value instanceof Number number) {
+            writer.write("<c><v>");
+            writer.write(number instanceof BigDecimal decimal ? decimal.toPlainString() : number.toString());
+            writer.write("</v></c>");
+            return;
+        }
+
+        String text = value instanceof Date date ? DateUtil.formatDateTime(date) : value.toString();
+        writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+        writeEscaped(text);
+        writer.write("</t></is></c>");
+    }
+
+    /** XML转义， 并去除XML不允许的控制字符 **/
+    private void writeEscaped(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> writer.write("&amp;");
+                case '<' -> writer.write("&lt;");
+                case '>' -> writer.write("&gt;");
+                case '"' -> writer.write("&quot;");
+                default -> {
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -47,6 +47,12 @@ public class ApiPageRes<M> extends ApiRes {
         innerPage.setCurrent(iPage.getCurrent()); //当前页码
         innerPage.setHasNext( iPage.getPages() > iPage.getCurrent()); //是否有下一页
 
+        // 游标分页： 以实际查询结果判断是否有下一页， 并返回下一页游标
+        if(iPage instanceof KeysetPage<M> keysetPage){
+            innerPage.setHasNext(keysetPage.isHasNext());
+            innerPage.setNextCursor(keysetPage.getNextCursor());
+        }
+
         ApiPageRes result = new ApiPageRes();
         result.setData(innerPage);
         result.setCode(ApiCodeEnum.SUCCESS.getCode());
@@ -76,6 +82,10 @@ public class ApiPageRes<M> extends ApiRes {
         @Schema(title = "hasNext", description = "是否包含下一页， true:包含 ，false: 不包含")
         private boolean hasNext;
 
+        /** 下一页游标（游标分页时返回） */
+        @Schema(title = "nextCursor", description = "下一页游标， 查询下一页时作为cursor参数传入， 无下一页时为空")
+        private String nextCursor;
+
     }
 
 }
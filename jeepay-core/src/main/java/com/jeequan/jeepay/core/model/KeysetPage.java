@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.model;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/*
+* 游标（keyset）分页对象
+*   按 [创建时间 倒序, 主键 倒序] 定位下一页， 不依赖 OFFSET 深翻页；
+*   total 为缓存值（或近似值）， 是否有下一页以 hasNext 为准。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 21:10
+*/
+@Getter
+@Setter
+public class KeysetPage<T> extends Page<T> {
+
+    /** 下一页游标， 无下一页时为空 **/
+    private String nextCursor;
+
+    /** 是否包含下一页 **/
+    private boolean hasNext;
+
+    public KeysetPage(long current, long size) {
+        super(current, size, false);
+    }
+
+    public KeysetPage(long current, long size, long total, List<T> records) {
+        super(current, size, total, false);
+        setRecords(records);
+    }
+
+}
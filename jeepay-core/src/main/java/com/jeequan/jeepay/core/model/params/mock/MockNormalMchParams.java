@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.model.params.mock;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.core.model.params.NormalMchParams;
+import com.jeequan.jeepay.core.utils.StringKit;
+import lombok.Data;
+import org.apache.commons.lang3.StringUtils;
+
+/*
+ * 模拟渠道 普通商户参数定义
+ * 各比例均为百分比(0-100)， 成功与失败之外的剩余部分视为 [支付中/退款中]， 需由回调或查单推进。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/18 10:20
+ */
+@Data
+public class MockNormalMchParams extends NormalMchParams {
+
+    /** 签名密钥 (模拟回调报文的MD5签名) */
+    private String key;
+
+    /** 模拟渠道接口的基础耗时 (毫秒) */
+    private Integer latency = 0;
+
+    /** 耗时随机抖动的上限 (毫秒)， 实际耗时 = latency + [0, jitter) */
+    private Integer jitter = 0;
+
+    /** 下单直接返回成功的比例 */
+    private Integer paySuccessRate = 100;
+
+    /** 下单直接返回失败的比例 */
+    private Integer payFailRate = 0;
+
+    /** 支付中的订单， 查单返回成功的比例 */
+    private Integer querySuccessRate = 100;
+
+    /** 退款直接返回成功的比例 */
+    private Integer refundSuccessRate = 100;
+
+    /** 退款直接返回失败的比例 */
+    private Integer refundFailRate = 0;
+
+    @Override
+    public String deSenData() {
+        MockNormalMchParams mchParams = this;
+        if (StringUtils.isNotBlank(this.key)) {
+            mchParams.setKey(StringKit.str2Star(this.key, 4, 4, 6));
+        }
+        return ((JSONObject) JSON.toJSON(mchParams)).toJSONString();
+    }
+
+}
@@ -25,8 +25,6 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -64,24 +62,19 @@ public class JeepayKit {
      * @return
      */
     public static String getSign(Map<String,Object> map, String key){
-        ArrayList<String> list = new ArrayList<String>();
-        for(Map.Entry<String,Object> entry:map.entrySet()){
-            if(null != entry.getValue() && !"".equals(entry.getValue())){
-                list.add(entry.getKey() + "=" + entry.getValue() + "&");
-            }
-        }
-        int size = list.size();
-        String [] arrayToSort = list.toArray(new String[size]);
-        Arrays.sort(arrayToSort, String.CASE_INSENSITIVE_ORDER);
-        StringBuilder sb = new StringBuilder();
-        for(int i = 0; i < size; i ++) {
-            sb.append(arrayToSort[i]);
-        }
-        String result = sb.toString();
-        result += "key=" + key;
-        log.info("signStr:{}", result);
-        result = md5(result, encodingCharset).toUpperCase();
-        log.info("sign:{}", result);
+        return getSign(map, key, SignKit.SIGN_TYPE_MD5);
+    }
+
+    /**
+     * 按签名类型计算签名摘要， 支持 MD5 和 HMAC-SHA256， 为空时按MD5计算
+     * @param map 参数Map
+     * @param key 商户秘钥
+     * @param signType 签名类型
+     * @return
+     */
+    public static String getSign(Map<String,Object> map, String key, String signType){
+        String result = SignKit.sign(map, key, signType);
+        log.debug("sign:{}", result);
         return result;
     }
 
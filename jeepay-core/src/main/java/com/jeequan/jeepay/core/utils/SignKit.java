@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.utils;
+
+import com.jeequan.jeepay.core.exception.BizException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Map;
+
+/*
+* 签名计算工具类
+* 签名串规则： 参数值非空的参数按 "key=value&" 忽略大小写排序后拼接， 末尾拼接 "key=商户秘钥"， 计算摘要后转为大写16进制。
+*
+* 实现上不生成中间字符串： 参数排序时按虚拟的 "key=value&" 逐字符比较 (与 String.CASE_INSENSITIVE_ORDER 规则一致)，
+* 排序后按UTF-8编码直接写入线程内复用的缓冲区并计算摘要 (MessageDigest 线程内复用； Mac 持有商户秘钥， 每次计算时创建)。
+* 每次计算结束后清空参数、 缓冲区及 Mac， 线程内不保留商户秘钥与签名串。
+* 参数中包含代理字符(如emoji)时， 使用字符串拼接方式计算， 以保证与原规则的结果完全一致。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 19:00
+*/
+public class SignKit {
+
+    /** 签名类型: MD5 (默认) **/
+    public static final String SIGN_TYPE_MD5 = "MD5";
+
+    /** 签名类型: HMAC-SHA256 (签名串与MD5一致， 以商户秘钥作为HMAC密钥) **/
+    public static final String SIGN_TYPE_HMAC_SHA256 = "HMAC-SHA256";
+
+    private static final char[] HEX_CHARS = "0123456789ABCDEF".toCharArray();
+
+    /** 参数数量超过该值时使用 Arrays.sort， 否则使用插入排序 (无额外对象分配) **/
+    private static final int INSERTION_SORT_THRESHOLD = 64;
+
+    private static final ThreadLocal<SignContext> SIGN_CONTEXT = ThreadLocal.withInitial(SignContext::new);
+
+    /** 是否为 HMAC-SHA256 签名类型 (兼容 HMAC_SHA256 写法) **/
+    public static boolean isHmacSha256(String signType){
+        return SIGN_TYPE_HMAC_SHA256.equalsIgnoreCase(signType) || "HMAC_SHA256".equalsIgnoreCase(signType);
+    }
+
+    /** 计算签名， signType为空或不支持时按MD5计算 **/
+    public static String sign(Map<String, Object> map, String key, String signType){
+        return sign(map, key, signType, null);
+    }
+
+    /** 计算签名， 忽略参数ignoreParamName (如：验签时直接使用请求参数， 忽略sign参数， 无需复制Map) **/
+    public static String sign(Map<String, Object> map, String key, String signType, String ignoreParamName){
+
+        key = String.valueOf(key);
+        boolean isHmac = isHmacSha256(signType);
+        SignContext context = SIGN_CONTEXT.get();
+        try {
+            String result = context.sign(map, key, isHmac, ignoreParamName);
+            return result != null ? result : signByString(map, key, isHmac, ignoreParamName);
+        } finally {
+            context.clear();
+        }
+    }
+
+
+    /** 字符串拼接方式计算签名 (原实现) **/
+    private static String signByString(Map<String, Object> map, String key, boolean isHmac, String ignoreParamName){
+
+        String[] arrayToSort = map.entrySet().stream()
+                .filter(entry -> null != entry.getValue() && !"".equals(entry.getValue()))
+                .filter(entry -> ignoreParamName == null || !ignoreParamName.equals(entry.getKey()))
+                .map(entry -> entry.getKey() + "=" + entry.getValue() + "&")
+                .toArray(String[]::new);
+        Arrays.sort(arrayToSort, String.CASE_INSENSITIVE_ORDER);
+
+        StringBuilder sb = new StringBuilder();
+        for (String item : arrayToSort) {
+            sb.append(item);
+        }
+        sb.append("key=").append(key);
+
+        byte[] data = sb.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            byte[] digest;
+            if(isHmac){
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+                digest = mac.doFinal(data);
+            }else{
+                digest = MessageDigest.getInstance("MD5").digest(data);
+            }
+            return toHex(digest, digest.length, new char[digest.length * 2]);
+        } catch (GeneralSecurityException e) {
+            throw new BizException("签名计算异常：" + e.getMessage());
+        }
+    }
+
+    private static String toHex(byte[] data, int length, char[] out){
+        for (int i = 0; i < length; i++) {
+            out[i * 2] = HEX_CHARS[(data[i] >> 4) & 0x0F];
+            out[i * 2 + 1] = HEX_CHARS[data[i] & 0x0F];
+        }
+        return new String(out, 0, length * 2);
+    }
+
+
+    /** 线程内复用的签名上下文 **/
+    private static class SignContext {
+
+        private String[] keys = new String[32];
+        private String[] values = new String[32];
+        private int size;
+
+        private final byte[] buffer = new byte[2048];
+        private int position;
+
+        /** 本次计算缓冲区写入的最大位置 (清空时使用) **/
+        private int usedLength;
+
+        private MessageDigest md5;
+        private Mac hmac;
+        private boolean isHmac;
+
+        private final byte[] digestBuffer = new byte[32];
+        private final char[] hexBuffer = new char[64];
+
+        /** 计算签名， 参数包含代理字符时返回null **/
+        String sign(Map<String, Object> map, String key, boolean isHmac, String ignoreParamName) {
+
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                Object value = entry.getValue();
+                if(value == null || "".equals(value) || (ignoreParamName != null && ignoreParamName.equals(entry.getKey()))){
+                    continue;
+                }
+                String k = String.valueOf(entry.getKey());
+                String v = String.valueOf(value);
+                if(hasSurrogate(k) || hasSurrogate(v)){
+                    return null;
+                }
+                add(k, v);
+            }
+            if(hasSurrogate(key)){
+                return null;
+            }
+
+            sort();
+
+            try {
+                begin(key, isHmac);
+                for (int i = 0; i < size; i++) {
+                    write(keys[i]);
+                    write('=');
+                    write(values[i]);
+                    write('&');
+                }
+                write("key=");
+                write(key);
+                return finish();
+
+            } catch (GeneralSecurityException e) {
+                throw new BizException("签名计算异常：" + e.getMessage());
+            }
+        }
+
+        /** 清空参数、 缓冲区(含商户秘钥) 及 Mac **/
+        void clear(){
+            Arrays.fill(keys, 0, size, null);
+            Arrays.fill(values, 0, size, null);
+            size = 0;
+            Arrays.fill(buffer, 0, Math.max(usedLength, position), (byte) 0);
+            usedLength = 0;
+            position = 0;
+            if(md5 != null){
+                md5.reset();
+            }
+            hmac = null;
+        }
+
+        private void add(String k, String v){
+            if(size == keys.length){
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            keys[size] = k;
+            values[size] = v;
+            size++;
+        }
+
+        /** 稳定排序， 结果与 Arrays.sort(String[], CASE_INSENSITIVE_ORDER) 一致 **/
+        private void sort(){
+
+            if(size > INSERTION_SORT_THRESHOLD){
+                Integer[] indexes = new Integer[size];
+                for (int i = 0; i < size; i++) {
+                    indexes[i] = i;
+                }
+                Arrays.sort(indexes, (a, b) -> compare(keys[a], values[a], keys[b], values[b]));
+                String[] sortedKeys = new String[keys.length];
+                String[] sortedValues = new String[values.length];
+                for (int i = 0; i < size; i++) {
+                    sortedKeys[i] = keys[indexes[i]];
+                    sortedValues[i] = values[indexes[i]];
+                }
+                keys = sortedKeys;
+                values = sortedValues;
+                return;
+            }
+
+            for (int i = 1; i < size; i++) {
+                String k = keys[i];
+                String v = values[i];
+                int j = i - 1;
+                while (j >= 0 && compare(keys[j], values[j], k, v) > 0){
+                    keys[j + 1] = keys[j];
+                    values[j + 1] = values[j];
+                    j--;
+                }
+                keys[j + 1] = k;
+                values[j + 1] = v;
+            }
+        }
+
+        /** 按 "k1=v1&" 与 "k2=v2&" 忽略大小写比较 **/
+        private static int compare(String k1, String v1, String k2, String v2){
+
+            int n1 = k1.length() + v1.length() + 2;
+            int n2 = k2.length() + v2.length() + 2;
+            int min = Math.min(n1, n2);
+            for (int i = 0; i < min; i++) {
+                char c1 = charAt(k1, v1, i);
+                char c2 = charAt(k2, v2, i);
+                if (c1 != c2) {
+                    c1 = Character.toUpperCase(c1);
+                    c2 = Character.toUpperCase(c2);
+                    if (c1 != c2) {
+                        c1 = Character.toLowerCase(c1);
+                        c2 = Character.toLowerCase(c2);
+                        if (c1 != c2) {
+                            return c1 - c2;
+                        }
+                    }
+                }
+            }
+            return n1 - n2;
+        }
+
+        private static char charAt(String k, String v, int index){
+            int keyLength = k.length();
+            if(index < keyLength){
+                return k.charAt(index);
+            }
+            if(index == keyLength){
+                return '=';
+            }
+            index -= keyLength + 1;
+            return index < v.length() ? v.charAt(index) : '&';
+        }
+
+        private static boolean hasSurrogate(String str){
+            for (int i = 0, len = str.length(); i < len; i++) {
+                if(Character.isSurrogate(str.charAt(i))){
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void begin(String key, boolean isHmac) throws GeneralSecurityException {
+
+            this.isHmac = isHmac;
+            this.position = 0;
+
+            if(isHmac){
+                hmac = Mac.getInstance("HmacSHA256");
+                hmac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            }else{
+                if(md5 == null){
+                    md5 = MessageDigest.getInstance("MD5");
+                }
+                md5.reset();
+            }
+        }
+
+        /** 按UTF-8编码写入 (不含代理字符) **/
+        private void write(String str){
+            for (int i = 0, len = str.length(); i < len; i++) {
+                write(str.charAt(i));
+            }
+        }
+
+        private void write(char c){
+
+            if(position + 3 > buffer.length){
+                flush();
+            }
+
+            if(c < 0x80){
+                buffer[position++] = (byte) c;
+            }else if(c < 0x800){
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }else{
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        private void flush(){
+            usedLength = Math.max(usedLength, position);
+            if(isHmac){
+                hmac.update(buffer, 0, position);
+            }else{
+                md5.update(buffer, 0, position);
+            }
+            position = 0;
+        }
+
+        private String finish() throws GeneralSecurityException {
+
+            flush();
+            int length;
+            if(isHmac){
+                hmac.doFinal(digestBuffer, 0);
+                length = hmac.getMacLength();
+            }else{
+                length = md5.digest(digestBuffer, 0, digestBuffer.length);
+            }
+            return toHex(digestBuffer, length, hexBuffer);
+        }
+    }
+
+}
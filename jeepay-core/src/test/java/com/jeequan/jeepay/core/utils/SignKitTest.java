@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.utils;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+* SignKit 签名结果与原 JeepayKit.getSign (字符串拼接) 实现逐字节一致性测试
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 20:20
+*/
+class SignKitTest {
+
+    private static final String KEY = "EWEFD123RGSRETYDFNGFGFGSHDFGH1AWEF3SD2FASDF2ERGSDFG3ASDFAS1ERGA21DFGA";
+
+    @Test
+    void emptyMap() {
+        assertSameSign(new HashMap<>(), KEY);
+    }
+
+    @Test
+    void nullAndEmptyValuesSkipped() {
+        Map<String, Object> map = baseParams();
+        map.put("clientIp", null);
+        map.put("body", "");
+        map.put("extParam", null);
+        assertSameSign(map, KEY);
+    }
+
+    @Test
+    void nestedJsonValues() {
+        Map<String, Object> map = baseParams();
+        JSONObject channelExtra = new JSONObject();
+        channelExtra.put("authCode", "280812820366966512");
+        channelExtra.put("payDataType", "codeImgUrl");
+        channelExtra.put("nested", new JSONObject(Collections.singletonMap("deep", new JSONArray(Arrays.asList(1, "两", null)))));
+        map.put("channelExtra", channelExtra);
+        map.put("extParam", channelExtra.toJSONString());
+        map.put("amount", 1000L);
+        map.put("divisionMode", (byte) 0);
+        assertSameSign(map, KEY);
+    }
+
+    @Test
+    void caseInsensitiveOrderAndPrefixKeys() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", "1");
+        map.put("A", "2");
+        map.put("ab", "3");
+        map.put("a_b", "4");
+        map.put("aB", "5");
+        map.put("a=", "6");
+        map.put("Z", "z");
+        map.put("z", "Z");
+        assertSameSign(map, KEY);
+    }
+
+    @Test
+    void multiByteAndSurrogateValues() {
+        Map<String, Object> map = baseParams();
+        map.put("subject", "商品标题ÄÖ€");
+        assertSameSign(map, KEY);
+
+        map.put("body", "emoji 😀 描述");
+        assertSameSign(map, KEY);
+    }
+
+    @Test
+    void manyParamsAndLongValues() {
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            map.put("param" + (i % 7 == 0 ? "X" : "x") + i, "值" + i);
+        }
+        StringBuilder longValue = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            longValue.append((char) ('a' + i % 26)).append('中');
+        }
+        map.put("longValue", longValue.toString());
+        assertSameSign(map, KEY);
+    }
+
+    @Test
+    void ignoreParamName() {
+        Map<String, Object> map = baseParams();
+        map.put("sign", "ABCDEF");
+        String sign = SignKit.sign(map, KEY, SignKit.SIGN_TYPE_MD5, "sign");
+
+        Map<String, Object> withoutSign = new HashMap<>(map);
+        withoutSign.remove("sign");
+        assertEquals(legacyMd5Sign(withoutSign, KEY), sign);
+    }
+
+    @Test
+    void hmacKeyNotReusedAcrossCalls() throws Exception {
+        Map<String, Object> map = baseParams();
+        for (String key : Arrays.asList(KEY, "otherKey", KEY, null, "中文秘钥")) {
+            assertEquals(hmacSign(map, String.valueOf(key)), SignKit.sign(map, key, SignKit.SIGN_TYPE_HMAC_SHA256));
+            assertEquals(legacyMd5Sign(map, key), SignKit.sign(map, key, SignKit.SIGN_TYPE_MD5));
+        }
+    }
+
+    private static Map<String, Object> baseParams() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("mchNo", "M1623984572");
+        map.put("appId", "60cc09bce4b0f1c0b83761c9");
+        map.put("mchOrderNo", "mho1624005107281");
+        map.put("wayCode", "ALI_BAR");
+        map.put("currency", "cny");
+        map.put("subject", "商品标题");
+        map.put("reqTime", "1624005107");
+        map.put("version", "1.0");
+        map.put("signType", "MD5");
+        return map;
+    }
+
+    private static void assertSameSign(Map<String, Object> map, String key) {
+        assertEquals(legacyMd5Sign(map, key), JeepayKit.getSign(map, key));
+        assertEquals(legacyMd5Sign(map, key), SignKit.sign(map, key, null));
+        try {
+            assertEquals(hmacSign(map, key), SignKit.sign(map, key, SignKit.SIGN_TYPE_HMAC_SHA256));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** 原 JeepayKit.getSign 实现 **/
+    private static String legacyMd5Sign(Map<String, Object> map, String key) {
+        String result = legacySignString(map) + "key=" + key;
+        return JeepayKit.md5(result, "UTF-8").toUpperCase();
+    }
+
+    private static String hmacSign(Map<String, Object> map, String key) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] digest = mac.doFinal((legacySignString(map) + "key=" + key).getBytes(StandardCharsets.UTF_8));
+        return JeepayKit.toHex(digest).toUpperCase();
+    }
+
+    private static String legacySignString(Map<String, Object> map) {
+        ArrayList<String> list = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (null != entry.getValue() && !"".equals(entry.getValue())) {
+                list.add(entry.getKey() + "=" + entry.getValue() + "&");
+            }
+        }
+        String[] arrayToSort = list.toArray(new String[0]);
+        Arrays.sort(arrayToSort, String.CASE_INSENSITIVE_ORDER);
+        StringBuilder sb = new StringBuilder();
+        for (String item : arrayToSort) {
+            sb.append(item);
+        }
+        return sb.toString();
+    }
+
+}
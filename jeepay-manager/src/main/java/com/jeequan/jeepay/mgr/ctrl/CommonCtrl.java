@@ -18,6 +18,7 @@ package com.jeequan.jeepay.mgr.ctrl;
 import com.alibaba.fastjson.JSONObject;
 import com.jeequan.jeepay.core.ctrls.AbstractCtrl;
 import com.jeequan.jeepay.core.entity.MchInfo;
+import com.jeequan.jeepay.core.entity.SysUser;
 import com.jeequan.jeepay.core.model.BaseModel;
 import com.jeequan.jeepay.core.model.security.JeeUserDetails;
 import com.jeequan.jeepay.service.impl.MchInfoService;
@@ -25,6 +26,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -46,6 +51,19 @@ public abstract class CommonCtrl extends AbstractCtrl {
         return (JeeUserDetails)SecurityContextHolder.getContext().getAuthentication().getPrincipal();
     }
 
+    /** 导出任务归属： 系统类型 + 用户ID， 仅创建者可查询和下载 **/
+    protected String getExportOwnerKey() {
+        SysUser sysUser = getCurrentUser().getSysUser();
+        return sysUser.getSysType() + "_" + sysUser.getSysUserId();
+    }
+
+    /** 设置文件下载响应头， 返回响应输出流 **/
+    protected OutputStream getDownloadOutputStream(String fileName, String contentType) throws IOException {
+        response.setContentType(contentType);
+        response.setHeader("Content-Disposition", "attachment; filename=" + URLEncoder.encode(fileName, StandardCharsets.UTF_8));
+        return response.getOutputStream();
+    }
+
     /**
      * 获取当前用户登录IP
      * @return
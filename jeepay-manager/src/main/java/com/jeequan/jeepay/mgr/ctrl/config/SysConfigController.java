@@ -18,7 +18,7 @@ package com.jeequan.jeepay.mgr.ctrl.config;
 import com.alibaba.fastjson.JSONObject;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.jeequan.jeepay.components.mq.model.ResetAppConfigMQ;
-import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import com.jeequan.jeepay.components.mq.vender.BroadcastMQCoalescer;
 import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
 import com.jeequan.jeepay.core.entity.SysConfig;
@@ -58,7 +58,7 @@ import java.util.Map;
 public class SysConfigController extends CommonCtrl {
 
 	@Autowired private SysConfigService sysConfigService;
-	@Autowired private IMQSender mqSender;
+	@Autowired private BroadcastMQCoalescer mqCoalescer;
 
 
 	/**
@@ -117,7 +117,7 @@ public class SysConfigController extends CommonCtrl {
 
 	@Async
 	public void updateSysConfigMQ(String groupKey){
-		mqSender.send(ResetAppConfigMQ.build(groupKey));
+		mqCoalescer.send(ResetAppConfigMQ.build(groupKey));
 	}
 
 
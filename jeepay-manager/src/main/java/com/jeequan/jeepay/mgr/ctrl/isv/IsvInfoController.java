@@ -19,7 +19,7 @@ import cn.hutool.core.date.DateUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
-import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import com.jeequan.jeepay.components.mq.vender.BroadcastMQCoalescer;
 import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
 import com.jeequan.jeepay.core.entity.IsvInfo;
@@ -53,7 +53,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class IsvInfoController extends CommonCtrl {
 
     @Autowired private IsvInfoService isvInfoService;
-    @Autowired private IMQSender mqSender;
+    @Autowired private BroadcastMQCoalescer mqCoalescer;
 
     /**
      * @author: pangxiaoyu
@@ -138,7 +138,7 @@ public class IsvInfoController extends CommonCtrl {
         isvInfoService.removeByIsvNo(isvNo);
 
         // 推送mq到目前节点进行更新数据
-        mqSender.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_ISV_INFO, isvNo, null, null));
+        mqCoalescer.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_ISV_INFO, isvNo, null, null));
         return ApiRes.ok();
     }
 
@@ -168,7 +168,7 @@ public class IsvInfoController extends CommonCtrl {
         boolean result = isvInfoService.updateById(isvInfo);
 
         // 推送mq到目前节点进行更新数据
-        mqSender.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_ISV_INFO, isvNo, null, null));
+        mqCoalescer.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_ISV_INFO, isvNo, null, null));
 
         if (!result) {
             return ApiRes.fail(ApiCodeEnum.SYS_OPERATION_FAIL_UPDATE);
@@ -16,7 +16,7 @@
 package com.jeequan.jeepay.mgr.ctrl.isv;
 
 import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
-import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import com.jeequan.jeepay.components.mq.vender.BroadcastMQCoalescer;
 import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
 import com.jeequan.jeepay.core.constants.CS;
@@ -54,7 +54,7 @@ import java.util.List;
 public class IsvPayInterfaceConfigController extends CommonCtrl {
 
     @Autowired private PayInterfaceConfigService payInterfaceConfigService;
-    @Autowired private IMQSender mqSender;
+    @Autowired private BroadcastMQCoalescer mqCoalescer;
 
    /**
     * @Author: ZhuXiao
@@ -160,7 +160,7 @@ public class IsvPayInterfaceConfigController extends CommonCtrl {
         }
 
         // 推送mq到目前节点进行更新数据
-        mqSender.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_ISV_INFO, infoId, null, null));
+        mqCoalescer.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_ISV_INFO, infoId, null, null));
 
         return ApiRes.ok();
     }
@@ -21,6 +21,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.jeequan.jeepay.components.mq.model.CleanMchLoginAuthCacheMQ;
 import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
+import com.jeequan.jeepay.components.mq.vender.BroadcastMQCoalescer;
 import com.jeequan.jeepay.components.mq.vender.IMQSender;
 import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
@@ -67,6 +68,7 @@ public class MchInfoController extends CommonCtrl {
     @Autowired private SysUserService sysUserService;
     @Autowired private SysUserAuthService sysUserAuthService;
     @Autowired private IMQSender mqSender;
+    @Autowired private BroadcastMQCoalescer mqCoalescer;
 
     /**
      * @author: pangxiaoyu
@@ -167,7 +169,7 @@ public class MchInfoController extends CommonCtrl {
         mqSender.send(CleanMchLoginAuthCacheMQ.build(userIdList));
 
         // 推送mq到目前节点进行更新数据
-        mqSender.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_INFO, null, mchNo, null));
+        mqCoalescer.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_INFO, null, mchNo, null));
         return ApiRes.ok();
     }
 
@@ -238,7 +240,7 @@ public class MchInfoController extends CommonCtrl {
         }
 
         // 推送mq到目前节点进行更新数据
-        mqSender.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_INFO, null, mchNo, null));
+        mqCoalescer.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_INFO, null, mchNo, null));
 
         return ApiRes.ok();
     }
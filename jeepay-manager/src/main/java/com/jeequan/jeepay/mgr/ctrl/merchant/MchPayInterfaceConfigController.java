@@ -17,7 +17,7 @@ package com.jeequan.jeepay.mgr.ctrl.merchant;
 
 import com.alibaba.fastjson.JSONObject;
 import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
-import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import com.jeequan.jeepay.components.mq.vender.BroadcastMQCoalescer;
 import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
 import com.jeequan.jeepay.core.constants.CS;
@@ -61,7 +61,7 @@ public class MchPayInterfaceConfigController extends CommonCtrl {
 
     @Autowired private PayInterfaceConfigService payInterfaceConfigService;
     @Autowired private MchAppService mchAppService;
-    @Autowired private IMQSender mqSender;
+    @Autowired private BroadcastMQCoalescer mqCoalescer;
     @Autowired private MchInfoService mchInfoService;
     @Autowired private SysConfigService sysConfigService;
 
@@ -179,7 +179,7 @@ public class MchPayInterfaceConfigController extends CommonCtrl {
         }
 
         // 推送mq到目前节点进行更新数据
-        mqSender.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_APP, null, mchApp.getMchNo(), infoId));
+        mqCoalescer.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_APP, null, mchApp.getMchNo(), infoId));
 
         return ApiRes.ok();
     }
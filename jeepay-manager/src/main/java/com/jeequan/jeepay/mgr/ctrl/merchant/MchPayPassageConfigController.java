@@ -20,6 +20,8 @@ import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
+import com.jeequan.jeepay.components.mq.vender.BroadcastMQCoalescer;
 import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
 import com.jeequan.jeepay.core.constants.CS;
@@ -64,6 +66,7 @@ public class MchPayPassageConfigController extends CommonCtrl {
     @Autowired private PayWayService payWayService;
     @Autowired private MchInfoService mchInfoService;
     @Autowired private MchAppService mchAppService;
+    @Autowired private BroadcastMQCoalescer mqCoalescer;
 
 
     /**
@@ -185,6 +188,9 @@ public class MchPayPassageConfigController extends CommonCtrl {
             }
 
             mchPayPassageService.saveOrUpdateBatchSelf(mchPayPassageList, mchApp.getMchNo());
+
+            // 推送mq到目前节点进行更新数据
+            mqCoalescer.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_APP, null, mchApp.getMchNo(), mchApp.getAppId()));
             return ApiRes.ok();
         }catch (Exception e) {
             return ApiRes.fail(ApiCodeEnum.SYSTEM_ERROR);
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.mgr.ctrl.order;
+
+import com.jeequan.jeepay.core.constants.ApiCodeEnum;
+import com.jeequan.jeepay.core.export.ExportJob;
+import com.jeequan.jeepay.core.export.ExportWriter;
+import com.jeequan.jeepay.core.model.ApiRes;
+import com.jeequan.jeepay.mgr.ctrl.CommonCtrl;
+import com.jeequan.jeepay.service.impl.OrderExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.Parameters;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+/*
+* 后台导出任务 (查询状态 & 下载文件)， 仅任务创建者可访问
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 22:40
+*/
+@Tag(name = "订单管理（后台导出）")
+@RestController
+@RequestMapping("/api/exportJobs")
+public class ExportJobController extends CommonCtrl {
+
+    @Autowired private OrderExportService orderExportService;
+
+    /** 查询任务状态 **/
+    @Operation(summary = "查询后台导出任务")
+    @Parameters({
+            @Parameter(name = "iToken", description = "用户身份凭证", required = true, in = ParameterIn.HEADER),
+            @Parameter(name = "jobId", description = "任务ID", required = true)
+    })
+    @GetMapping("/{jobId}")
+    public ApiRes<ExportJob> detail(@PathVariable("jobId") String jobId) {
+
+        ExportJob job = orderExportService.getJob(jobId, getExportOwnerKey());
+        if (job == null) {
+            return ApiRes.fail(ApiCodeEnum.SYS_OPERATION_FAIL_SELETE);
+        }
+        return ApiRes.ok(job);
+    }
+
+    /** 下载导出文件 **/
+    @Operation(summary = "下载后台导出文件")
+    @Parameters({
+            @Parameter(name = "iToken", description = "用户身份凭证", required = true, in = ParameterIn.HEADER),
+            @Parameter(name = "jobId", description = "任务ID", required = true)
+    })
+    @GetMapping("/{jobId}/file")
+    public ResponseEntity<Resource> download(@PathVariable("jobId") String jobId) {
+
+        ExportJob job = orderExportService.getJob(jobId, getExportOwnerKey());
+        File file = job == null ? null : orderExportService.getJobFile(job);
+        if (file == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setContentType(MediaType.parseMediaType(ExportWriter.getContentType(job.getFormat())));
+        httpHeaders.setContentDisposition(ContentDisposition.attachment().filename(job.getFileName(), StandardCharsets.UTF_8).build());
+        return new ResponseEntity<>(new FileSystemResource(file), httpHeaders, HttpStatus.OK);
+    }
+
+}
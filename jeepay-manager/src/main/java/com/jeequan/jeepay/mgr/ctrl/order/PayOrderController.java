@@ -23,6 +23,8 @@ import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
 import com.jeequan.jeepay.core.entity.MchApp;
 import com.jeequan.jeepay.core.entity.PayOrder;
+import com.jeequan.jeepay.core.export.ExportJob;
+import com.jeequan.jeepay.core.export.ExportWriter;
 import com.jeequan.jeepay.core.entity.PayWay;
 import com.jeequan.jeepay.core.exception.BizException;
 import com.jeequan.jeepay.core.model.ApiPageRes;
@@ -34,6 +36,7 @@ import com.jeequan.jeepay.model.RefundOrderCreateReqModel;
 import com.jeequan.jeepay.request.RefundOrderCreateRequest;
 import com.jeequan.jeepay.response.RefundOrderCreateResponse;
 import com.jeequan.jeepay.service.impl.MchAppService;
+import com.jeequan.jeepay.service.impl.OrderExportService;
 import com.jeequan.jeepay.service.impl.PayOrderService;
 import com.jeequan.jeepay.service.impl.PayWayService;
 import com.jeequan.jeepay.service.impl.SysConfigService;
@@ -47,6 +50,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -64,6 +68,7 @@ import java.util.Map;
 public class PayOrderController extends CommonCtrl {
 
     @Autowired private PayOrderService payOrderService;
+    @Autowired private OrderExportService orderExportService;
     @Autowired private PayWayService payWayService;
     @Autowired private SysConfigService sysConfigService;
     @Autowired private MchAppService mchAppService;
@@ -78,6 +83,7 @@ public class PayOrderController extends CommonCtrl {
             @Parameter(name = "iToken", description = "用户身份凭证", required = true, in = ParameterIn.HEADER),
             @Parameter(name = "pageNumber", description = "分页页码"),
             @Parameter(name = "pageSize", description = "分页条数"),
+            @Parameter(name = "cursor", description = "游标分页： 上一页返回的nextCursor， 首页传空串； 不传此参数时按页码分页"),
             @Parameter(name = "createdStart", description = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--开始时间，查询范围：大于等于此时间"),
             @Parameter(name = "createdEnd", description = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--结束时间，查询范围：小于等于此时间"),
             @Parameter(name = "mchNo", description = "商户号"),
@@ -115,6 +121,46 @@ public class PayOrderController extends CommonCtrl {
         return ApiPageRes.pages(pages);
     }
 
+    /** 同步导出支付订单 (查询条件同列表) **/
+    @Operation(summary = "导出支付订单")
+    @Parameters({
+            @Parameter(name = "iToken", description = "用户身份凭证", required = true, in = ParameterIn.HEADER),
+            @Parameter(name = "format", description = "文件格式： csv / xlsx， 默认csv"),
+            @Parameter(name = "createdStart", description = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--开始时间", required = true),
+            @Parameter(name = "createdEnd", description = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--结束时间", required = true)
+    })
+    @PreAuthorize("hasAuthority('ENT_ORDER_LIST')")
+    @RequestMapping(value="/export", method = RequestMethod.GET)
+    public void export() throws IOException {
+
+        PayOrder payOrder = getObject(PayOrder.class);
+        JSONObject paramJSON = getReqParamJSON();
+        String format = getValStringDefault("format", ExportWriter.FORMAT_CSV);
+        orderExportService.checkSyncExport(paramJSON, format);
+
+        LambdaQueryWrapper<PayOrder> wrapper = PayOrder.gw();
+        orderExportService.exportPayOrder(payOrder, paramJSON, wrapper, format,
+                getDownloadOutputStream(OrderExportService.genFileName("payOrder", format), ExportWriter.getContentType(format)));
+    }
+
+    /** 后台导出支付订单， 通过 /api/exportJobs/{jobId} 查询进度并下载 **/
+    @Operation(summary = "后台导出支付订单")
+    @Parameters({
+            @Parameter(name = "iToken", description = "用户身份凭证", required = true, in = ParameterIn.HEADER),
+            @Parameter(name = "format", description = "文件格式： csv / xlsx， 默认csv")
+    })
+    @PreAuthorize("hasAuthority('ENT_ORDER_LIST')")
+    @RequestMapping(value="/exportJob", method = RequestMethod.POST)
+    public ApiRes<ExportJob> exportJob() {
+
+        PayOrder payOrder = getObject(PayOrder.class);
+        JSONObject paramJSON = getReqParamJSON();
+        String format = getValStringDefault("format", ExportWriter.FORMAT_CSV);
+
+        LambdaQueryWrapper<PayOrder> wrapper = PayOrder.gw();
+        return ApiRes.ok(orderExportService.submitPayOrderJob(getExportOwnerKey(), payOrder, paramJSON, wrapper, format));
+    }
+
     /**
      * @author: pangxiaoyu
      * @date: 2021/6/7 16:15
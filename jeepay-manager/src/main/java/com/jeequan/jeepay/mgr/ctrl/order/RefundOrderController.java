@@ -20,9 +20,12 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
 import com.jeequan.jeepay.core.entity.RefundOrder;
+import com.jeequan.jeepay.core.export.ExportJob;
+import com.jeequan.jeepay.core.export.ExportWriter;
 import com.jeequan.jeepay.core.model.ApiPageRes;
 import com.jeequan.jeepay.core.model.ApiRes;
 import com.jeequan.jeepay.mgr.ctrl.CommonCtrl;
+import com.jeequan.jeepay.service.impl.OrderExportService;
 import com.jeequan.jeepay.service.impl.RefundOrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -36,6 +39,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+
 /**
  * 退款订单类
  *
@@ -49,6 +54,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class RefundOrderController extends CommonCtrl {
 
     @Autowired private RefundOrderService refundOrderService;
+    @Autowired private OrderExportService orderExportService;
 
     /**
      * @author: pangxiaoyu
@@ -60,6 +66,7 @@ public class RefundOrderController extends CommonCtrl {
             @Parameter(name = "iToken", description = "用户身份凭证", required = true, in = ParameterIn.HEADER),
             @Parameter(name = "pageNumber", description = "分页页码"),
             @Parameter(name = "pageSize", description = "分页条数"),
+            @Parameter(name = "cursor", description = "游标分页： 上一页返回的nextCursor， 首页传空串； 不传此参数时按页码分页"),
             @Parameter(name = "createdStart", description = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--开始时间，查询范围：大于等于此时间"),
             @Parameter(name = "createdEnd", description = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--结束时间，查询范围：小于等于此时间"),
             @Parameter(name = "mchNo", description = "商户号"),
@@ -81,6 +88,46 @@ public class RefundOrderController extends CommonCtrl {
         return ApiPageRes.pages(pages);
     }
 
+    /** 同步导出退款订单 (查询条件同列表) **/
+    @Operation(summary = "导出退款订单")
+    @Parameters({
+            @Parameter(name = "iToken", description = "用户身份凭证", required = true, in = ParameterIn.HEADER),
+            @Parameter(name = "format", description = "文件格式： csv / xlsx， 默认csv"),
+            @Parameter(name = "createdStart", description = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--开始时间", required = true),
+            @Parameter(name = "createdEnd", description = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--结束时间", required = true)
+    })
+    @PreAuthorize("hasAuthority('ENT_REFUND_LIST')")
+    @RequestMapping(value="/export", method = RequestMethod.GET)
+    public void export() throws IOException {
+
+        RefundOrder refundOrder = getObject(RefundOrder.class);
+        JSONObject paramJSON = getReqParamJSON();
+        String format = getValStringDefault("format", ExportWriter.FORMAT_CSV);
+        orderExportService.checkSyncExport(paramJSON, format);
+
+        LambdaQueryWrapper<RefundOrder> wrapper = RefundOrder.gw();
+        orderExportService.exportRefundOrder(refundOrder, paramJSON, wrapper, format,
+                getDownloadOutputStream(OrderExportService.genFileName("refundOrder", format), ExportWriter.getContentType(format)));
+    }
+
+    /** 后台导出退款订单， 通过 /api/exportJobs/{jobId} 查询进度并下载 **/
+    @Operation(summary = "后台导出退款订单")
+    @Parameters({
+            @Parameter(name = "iToken", description = "用户身份凭证", required = true, in = ParameterIn.HEADER),
+            @Parameter(name = "format", description = "文件格式： csv / xlsx， 默认csv")
+    })
+    @PreAuthorize("hasAuthority('ENT_REFUND_LIST')")
+    @RequestMapping(value="/exportJob", method = RequestMethod.POST)
+    public ApiRes<ExportJob> exportJob() {
+
+        RefundOrder refundOrder = getObject(RefundOrder.class);
+        JSONObject paramJSON = getReqParamJSON();
+        String format = getValStringDefault("format", ExportWriter.FORMAT_CSV);
+
+        LambdaQueryWrapper<RefundOrder> wrapper = RefundOrder.gw();
+        return ApiRes.ok(orderExportService.submitRefundOrderJob(getExportOwnerKey(), refundOrder, paramJSON, wrapper, format));
+    }
+
     /**
      * @author: pangxiaoyu
      * @date: 2021/6/7 16:15
@@ -20,9 +20,12 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
 import com.jeequan.jeepay.core.entity.TransferOrder;
+import com.jeequan.jeepay.core.export.ExportJob;
+import com.jeequan.jeepay.core.export.ExportWriter;
 import com.jeequan.jeepay.core.model.ApiPageRes;
 import com.jeequan.jeepay.core.model.ApiRes;
 import com.jeequan.jeepay.mgr.ctrl.CommonCtrl;
+import com.jeequan.jeepay.service.impl.OrderExportService;
 import com.jeequan.jeepay.service.impl.TransferOrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -36,6 +39,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+
 
 /**
 * 转账订单api
@@ -50,6 +55,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class TransferOrderController extends CommonCtrl {
 
     @Autowired private TransferOrderService transferOrderService;
+    @Autowired private OrderExportService orderExportService;
 
     /** list **/
     @Operation(summary = "转账订单信息列表")
@@ -57,6 +63,7 @@ public class TransferOrderController extends CommonCtrl {
             @Parameter(name = "iToken", description = "用户身份凭证", required = true, in = ParameterIn.HEADER),
             @Parameter(name = "pageNumber", description = "分页页码"),
             @Parameter(name = "pageSize", description = "分页条数"),
+            @Parameter(name = "cursor", description = "游标分页： 上一页返回的nextCursor， 首页传空串； 不传此参数时按页码分页"),
             @Parameter(name = "createdStart", description = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--开始时间，查询范围：大于等于此时间"),
             @Parameter(name = "createdEnd", description = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--结束时间，查询范围：小于等于此时间"),
             @Parameter(name = "mchNo", description = "商户号"),
@@ -76,6 +83,46 @@ public class TransferOrderController extends CommonCtrl {
         return ApiPageRes.pages(pages);
     }
 
+    /** 同步导出转账订单 (查询条件同列表) **/
+    @Operation(summary = "导出转账订单")
+    @Parameters({
+            @Parameter(name = "iToken", description = "用户身份凭证", required = true, in = ParameterIn.HEADER),
+            @Parameter(name = "format", description = "文件格式： csv / xlsx， 默认csv"),
+            @Parameter(name = "createdStart", description = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--开始时间", required = true),
+            @Parameter(name = "createdEnd", description = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--结束时间", required = true)
+    })
+    @PreAuthorize("hasAuthority('ENT_TRANSFER_ORDER_LIST')")
+    @RequestMapping(value="/export", method = RequestMethod.GET)
+    public void export() throws IOException {
+
+        TransferOrder transferOrder = getObject(TransferOrder.class);
+        JSONObject paramJSON = getReqParamJSON();
+        String format = getValStringDefault("format", ExportWriter.FORMAT_CSV);
+        orderExportService.checkSyncExport(paramJSON, format);
+
+        LambdaQueryWrapper<TransferOrder> wrapper = TransferOrder.gw();
+        orderExportService.exportTransferOrder(transferOrder, paramJSON, wrapper, format,
+                getDownloadOutputStream(OrderExportService.genFileName("transferOrder", format), ExportWriter.getContentType(format)));
+    }
+
+    /** 后台导出转账订单， 通过 /api/exportJobs/{jobId} 查询进度并下载 **/
+    @Operation(summary = "后台导出转账订单")
+    @Parameters({
+            @Parameter(name = "iToken", description = "用户身份凭证", required = true, in = ParameterIn.HEADER),
+            @Parameter(name = "format", description = "文件格式： csv / xlsx， 默认csv")
+    })
+    @PreAuthorize("hasAuthority('ENT_TRANSFER_ORDER_LIST')")
+    @RequestMapping(value="/exportJob", method = RequestMethod.POST)
+    public ApiRes<ExportJob> exportJob() {
+
+        TransferOrder transferOrder = getObject(TransferOrder.class);
+        JSONObject paramJSON = getReqParamJSON();
+        String format = getValStringDefault("format", ExportWriter.FORMAT_CSV);
+
+        LambdaQueryWrapper<TransferOrder> wrapper = TransferOrder.gw();
+        return ApiRes.ok(orderExportService.submitTransferOrderJob(getExportOwnerKey(), transferOrder, paramJSON, wrapper, format));
+    }
+
     /** detail **/
     @Operation(summary = "转账订单信息详情")
     @Parameters({
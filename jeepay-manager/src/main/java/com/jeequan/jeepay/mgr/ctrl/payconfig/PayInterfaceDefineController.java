@@ -17,6 +17,8 @@ package com.jeequan.jeepay.mgr.ctrl.payconfig;
 
 import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
+import com.jeequan.jeepay.components.mq.vender.BroadcastMQCoalescer;
 import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
 import com.jeequan.jeepay.core.entity.PayInterfaceConfig;
@@ -54,6 +56,7 @@ public class PayInterfaceDefineController extends CommonCtrl {
     @Autowired private PayInterfaceDefineService payInterfaceDefineService;
     @Autowired private PayOrderService payOrderService;
     @Autowired private PayInterfaceConfigService payInterfaceConfigService;
+    @Autowired private BroadcastMQCoalescer mqCoalescer;
 
     /**
      * @Author: ZhuXiao
@@ -132,6 +135,9 @@ public class PayInterfaceDefineController extends CommonCtrl {
         if (!result) {
             return ApiRes.fail(ApiCodeEnum.SYS_OPERATION_FAIL_CREATE);
         }
+
+        // 推送mq到目前节点进行更新数据
+        mqCoalescer.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_PAY_IF_DEFINE, null, null, null));
         return ApiRes.ok();
     }
 
@@ -178,6 +184,9 @@ public class PayInterfaceDefineController extends CommonCtrl {
         if (!result) {
             return ApiRes.fail(ApiCodeEnum.SYS_OPERATION_FAIL_UPDATE);
         }
+
+        // 推送mq到目前节点进行更新数据
+        mqCoalescer.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_PAY_IF_DEFINE, null, null, null));
         return ApiRes.ok();
     }
 
@@ -206,6 +215,9 @@ public class PayInterfaceDefineController extends CommonCtrl {
         if (!result) {
             return ApiRes.fail(ApiCodeEnum.SYS_OPERATION_FAIL_DELETE);
         }
+
+        // 推送mq到目前节点进行更新数据
+        mqCoalescer.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_PAY_IF_DEFINE, null, null, null));
         return ApiRes.ok();
     }
 
@@ -18,6 +18,7 @@ package com.jeequan.jeepay.mgr.service;
 import cn.hutool.core.util.IdUtil;
 import com.jeequan.jeepay.core.cache.ITokenService;
 import com.jeequan.jeepay.core.cache.RedisUtil;
+import com.jeequan.jeepay.core.cache.TokenLocalCache;
 import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.entity.SysUser;
 import com.jeequan.jeepay.core.exception.BizException;
@@ -132,20 +133,23 @@ public class AuthService {
                         .in(SysUser::getSysUserId, sysUserIdList)
         ).stream().forEach(item -> sysUserMap.put(item.getSysUserId(), item));
 
-        for (Long sysUserId : sysUserIdList) {
+        // 一次读取全部用户的token索引
+        Map<Long, Set<String>> userTokenMap = ITokenService.listUserTokens(sysUserIdList);
 
-            Collection<String> cacheKeyList = RedisUtil.keys(CS.getCacheKeyToken(sysUserId, "*"));
-            if(cacheKeyList == null || cacheKeyList.isEmpty()){
+        List<Long> delUserIdList = new ArrayList<>();
+        for (Long sysUserId : userTokenMap.keySet()) {
+
+            //用户不存在 || 已禁用 需要删除Redis
+            if(sysUserMap.get(sysUserId) == null || sysUserMap.get(sysUserId).getState() == CS.PUB_DISABLE){
+                delUserIdList.add(sysUserId);
                 continue;
             }
 
-            for (String cacheKey : cacheKeyList) {
+            // 重新查询sysUser对象及权限数据， 同一用户的多个token共用
+            SysUser sysUser = sysUserService.getById(sysUserId);
+            List<SimpleGrantedAuthority> authorities = getUserAuthority(sysUser);
 
-                //用户不存在 || 已禁用 需要删除Redis
-                if(sysUserMap.get(sysUserId) == null || sysUserMap.get(sysUserId).getState() == CS.PUB_DISABLE){
-                    RedisUtil.del(cacheKey);
-                    continue;
-                }
+            for (String cacheKey : userTokenMap.get(sysUserId)) {
 
                 JeeUserDetails jwtBaseUser = RedisUtil.getObject(cacheKey, JeeUserDetails.class);
                 if(jwtBaseUser == null){
@@ -153,32 +157,23 @@ public class AuthService {
                 }
 
                 // 重新放置sysUser对象
-                jwtBaseUser.setSysUser(sysUserService.getById(sysUserId));
+                jwtBaseUser.setSysUser(sysUser);
 
-                //查询放置权限数据
-                jwtBaseUser.setAuthorities(getUserAuthority(jwtBaseUser.getSysUser()));
+                //放置权限数据
+                jwtBaseUser.setAuthorities(authorities);
 
-                //保存token  失效时间不变
-                RedisUtil.set(cacheKey, jwtBaseUser);
+                //保存token  (同时续期， 不可丢失过期时间)
+                RedisUtil.set(cacheKey, jwtBaseUser, CS.TOKEN_TIME);
             }
         }
 
+        ITokenService.removeUserTokens(delUserIdList);
+        TokenLocalCache.invalidateUsers(userTokenMap.keySet());
     }
 
     /** 根据用户ID 删除用户缓存信息  **/
     public void delAuthentication(List<Long> sysUserIdList){
-        if(sysUserIdList == null || sysUserIdList.isEmpty()){
-            return ;
-        }
-        for (Long sysUserId : sysUserIdList) {
-            Collection<String> cacheKeyList = RedisUtil.keys(CS.getCacheKeyToken(sysUserId, "*"));
-            if(cacheKeyList == null || cacheKeyList.isEmpty()){
-                continue;
-            }
-            for (String cacheKey : cacheKeyList) {
-                RedisUtil.del(cacheKey);
-            }
-        }
+        ITokenService.removeUserTokens(sysUserIdList);
     }
 
     public List<SimpleGrantedAuthority> getUserAuthority(SysUser sysUser){
@@ -20,14 +20,17 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.serializer.SerializeConfig;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 import com.alibaba.fastjson.serializer.SimpleDateFormatSerializer;
+import com.jeequan.jeepay.core.cache.ITokenService;
 import com.jeequan.jeepay.core.utils.DateKit;
 import com.jeequan.jeepay.mch.config.SystemYmlConfig;
 import com.jeequan.jeepay.service.impl.SysConfigService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 项目初始化操作
@@ -38,6 +41,7 @@ import java.util.Date;
  * @site https://www.jeequan.com
  * @date 2021-04-27 15:50
  */
+@Slf4j
 @Component
 public class InitRunner implements CommandLineRunner {
 
@@ -57,5 +61,11 @@ public class InitRunner implements CommandLineRunner {
         //解决json 序列化时候的  $ref：问题
         JSON.DEFAULT_GENERATE_FEATURE |= SerializerFeature.DisableCircularReferenceDetect.getMask();
 
+        // 将升级前已登录的token登记到用户token索引 (SCAN遍历， 幂等)， 异步执行不影响启动
+        CompletableFuture.runAsync(ITokenService::migrateTokenIndex).exceptionally(e -> {
+            log.error("用户token索引迁移异常", e);
+            return null;
+        });
+
     }
 }
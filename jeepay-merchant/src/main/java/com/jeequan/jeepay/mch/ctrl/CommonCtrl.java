@@ -26,6 +26,11 @@ import com.jeequan.jeepay.service.impl.SysConfigService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
 /**
  * 通用ctrl类
  *
@@ -53,6 +58,19 @@ public abstract class CommonCtrl extends AbstractCtrl {
         return getCurrentUser().getSysUser().getBelongInfoId();
     }
 
+    /** 导出任务归属： 系统类型 + 用户ID， 仅创建者可查询和下载 **/
+    protected String getExportOwnerKey() {
+        SysUser sysUser = getCurrentUser().getSysUser();
+        return sysUser.getSysType() + "_" + sysUser.getSysUserId();
+    }
+
+    /** 设置文件下载响应头， 返回响应输出流 **/
+    protected OutputStream getDownloadOutputStream(String fileName, String contentType) throws IOException {
+        response.setContentType(contentType);
+        response.setHeader("Content-Disposition", "attachment; filename=" + URLEncoder.encode(fileName, StandardCharsets.UTF_8));
+        return response.getOutputStream();
+    }
+
     /**
      * 获取当前用户登录IP
      * @return
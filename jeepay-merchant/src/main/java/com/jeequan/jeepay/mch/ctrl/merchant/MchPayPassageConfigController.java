@@ -20,6 +20,8 @@ import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
+import com.jeequan.jeepay.components.mq.vender.BroadcastMQCoalescer;
 import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
 import com.jeequan.jeepay.core.constants.CS;
@@ -59,6 +61,7 @@ import java.util.List;
 public class MchPayPassageConfigController extends CommonCtrl {
 
     @Autowired private MchPayPassageService mchPayPassageService;
+    @Autowired private BroadcastMQCoalescer mqCoalescer;
     @Autowired private PayWayService payWayService;
     @Autowired private MchInfoService mchInfoService;
 
@@ -193,6 +196,11 @@ public class MchPayPassageConfigController extends CommonCtrl {
         try {
             List<MchPayPassage> mchPayPassageList = JSONArray.parseArray(reqParams, MchPayPassage.class);
             mchPayPassageService.saveOrUpdateBatchSelf(mchPayPassageList, getCurrentMchNo());
+
+            // 推送mq到目前节点进行更新数据
+            mchPayPassageList.stream().map(MchPayPassage::getAppId).distinct().forEach(appId ->
+                    mqCoalescer.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_APP, null, getCurrentMchNo(), appId))
+            );
             return ApiRes.ok();
         }catch (Exception e) {
             return ApiRes.fail(ApiCodeEnum.SYSTEM_ERROR);
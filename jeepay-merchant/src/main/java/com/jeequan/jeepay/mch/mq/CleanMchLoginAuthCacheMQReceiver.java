@@ -16,12 +16,10 @@
 package com.jeequan.jeepay.mch.mq;
 
 import com.jeequan.jeepay.components.mq.model.CleanMchLoginAuthCacheMQ;
-import com.jeequan.jeepay.core.cache.RedisUtil;
-import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.cache.ITokenService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.Collection;
 import java.util.List;
 
 /**
@@ -46,17 +44,7 @@ public class CleanMchLoginAuthCacheMQReceiver implements CleanMchLoginAuthCacheM
             log.info("用户ID为空");
             return ;
         }
-        for (Long sysUserId : userIdList) {
-            Collection<String> cacheKeyList = RedisUtil.keys(CS.getCacheKeyToken(sysUserId, "*"));
-            if(cacheKeyList == null || cacheKeyList.isEmpty()){
-                continue;
-            }
-            for (String cacheKey : cacheKeyList) {
-                // 删除用户Redis信息
-                RedisUtil.del(cacheKey);
-                continue;
-            }
-        }
+        ITokenService.removeUserTokens(userIdList);
         log.info("无权限登录用户信息已清除");
     }
 }
@@ -17,6 +17,7 @@ package com.jeequan.jeepay.mch.secruity;
 
 import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.cache.RedisUtil;
+import com.jeequan.jeepay.core.cache.TokenLocalCache;
 import com.jeequan.jeepay.core.jwt.JWTPayload;
 import com.jeequan.jeepay.core.jwt.JWTUtils;
 import com.jeequan.jeepay.core.model.security.JeeUserDetails;
@@ -83,15 +84,20 @@ public class JeeAuthenticationTokenFilter extends OncePerRequestFilter {
             return null;
         }
 
-        //根据用户名查找数据库
-        JeeUserDetails jwtBaseUser = RedisUtil.getObject(jwtPayload.getCacheKey(), JeeUserDetails.class);
+        //优先读取本地缓存， 不存在时查询redis
+        JeeUserDetails jwtBaseUser = TokenLocalCache.get(jwtPayload.getCacheKey());
         if(jwtBaseUser == null){
-            RedisUtil.del(jwtPayload.getCacheKey());
-            return null; //数据库查询失败，删除redis
+
+            jwtBaseUser = RedisUtil.getObject(jwtPayload.getCacheKey(), JeeUserDetails.class);
+            if(jwtBaseUser == null){
+                RedisUtil.del(jwtPayload.getCacheKey());
+                return null; //数据库查询失败，删除redis
+            }
+            TokenLocalCache.put(jwtPayload.getCacheKey(), jwtBaseUser);
         }
 
-        //续签时间
-        RedisUtil.expire(jwtPayload.getCacheKey(), CS.TOKEN_TIME);
+        //续签时间 (异步批量)
+        TokenLocalCache.renew(jwtPayload.getCacheKey());
 
         return jwtBaseUser;
     }
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.bootstrap;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.entity.IsvInfo;
+import com.jeequan.jeepay.core.entity.MchApp;
+import com.jeequan.jeepay.core.entity.MchInfo;
+import com.jeequan.jeepay.core.entity.PayInterfaceConfig;
+import com.jeequan.jeepay.pay.model.ConfigContextSnapshot;
+import com.jeequan.jeepay.pay.service.ConfigContextService;
+import com.jeequan.jeepay.service.impl.*;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+* 配置信息预热 (cache-config: true 时生效)
+*
+* 启动时分页批量查询已启用的服务商/商户/商户应用/支付接口配置， 并行构建配置上下文， 避免发布后首批请求逐个加载。
+* 由 InitRunner 同步调用， 预热完成前健康检查返回 OUT_OF_SERVICE （就绪探针不放入流量）。
+* 开启本地快照时， 下次启动仅查询主键及更新时间， 未变更的数据行直接使用快照。
+* 预热失败不影响启动， 请求时按需加载。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 17:30
+*/
+@Slf4j
+@Component
+public class ConfigContextWarmer implements HealthIndicator {
+
+    @Autowired private ConfigContextService configContextService;
+    @Autowired private IsvInfoService isvInfoService;
+    @Autowired private MchInfoService mchInfoService;
+    @Autowired private MchAppService mchAppService;
+    @Autowired private PayInterfaceConfigService payInterfaceConfigService;
+
+    /** 是否开启预热 **/
+    @Value("${isys.config-cache.warm-up.enabled:true}")
+    private boolean enabled;
+
+    /** 预热线程数 **/
+    @Value("${isys.config-cache.warm-up.parallelism:4}")
+    private int parallelism;
+
+    /** 分页查询的每页数量 **/
+    @Value("${isys.config-cache.warm-up.page-size:1000}")
+    private int pageSize;
+
+    /** 本地快照文件路径， 为空表示不使用快照 **/
+    @Value("${isys.config-cache.warm-up.snapshot-path:}")
+    private String snapshotPath;
+
+    /** 预热结果， null表示预热未完成 **/
+    private volatile Map<String, Object> warmUpResult = null;
+
+
+    @Override
+    public Health health() {
+
+        Map<String, Object> result = warmUpResult;
+        if(result == null){
+            return Health.outOfService().withDetail("state", "warming").build();
+        }
+        return Health.up().withDetails(result).build();
+    }
+
+    /** 执行预热 **/
+    public void warmUp(){
+
+        if(!SysConfigService.IS_USE_CACHE || !enabled){
+            warmUpResult = Map.of("state", "disabled");
+            return ;
+        }
+
+        long startTime = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, new NamedThreadFactory("configContextWarmer-", false));
+        try {
+
+            ConfigContextSnapshot localSnapshot = readSnapshot();
+            AtomicReference<ConfigContextSnapshot> snapshotRef = new AtomicReference<>();
+            int count = configContextService.preload(() -> {
+                snapshotRef.set(querySnapshot(localSnapshot, executor));
+                return snapshotRef.get();
+            }, executor);
+
+            long costMillis = System.currentTimeMillis() - startTime;
+            log.info("配置信息预热完成， 数量={}, 使用本地快照={}, 耗时={}ms", count, localSnapshot != null, costMillis);
+            warmUpResult = Map.of("state", "done", "count", count, "fromSnapshot", localSnapshot != null, "costMillis", costMillis);
+
+            writeSnapshot(snapshotRef.get());
+
+        } catch (Exception e) {
+            log.error("配置信息预热异常， 将在请求时按需加载", e);
+            warmUpResult = Map.of("state", "failed", "error", String.valueOf(e.getMessage()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    /** 并行查询各类数据行 **/
+    private ConfigContextSnapshot querySnapshot(ConfigContextSnapshot localSnapshot, ExecutorService executor){
+
+        CompletableFuture<List<IsvInfo>> isvFuture = CompletableFuture.supplyAsync(() -> localSnapshot == null ? listIsvInfo(false) :
+                reconcile(localSnapshot.getIsvInfoList(), listIsvInfo(true), IsvInfo::getIsvNo, IsvInfo::getUpdatedAt,
+                        ids -> isvInfoService.list(IsvInfo.gw().in(IsvInfo::getIsvNo, ids).eq(IsvInfo::getState, CS.YES))), executor);
+
+        CompletableFuture<List<MchInfo>> mchInfoFuture = CompletableFuture.supplyAsync(() -> localSnapshot == null ? listMchInfo(false) :
+                reconcile(localSnapshot.getMchInfoList(), listMchInfo(true), MchInfo::getMchNo, MchInfo::getUpdatedAt,
+                        ids -> mchInfoService.list(MchInfo.gw().in(MchInfo::getMchNo, ids).eq(MchInfo::getState, CS.YES))), executor);
+
+        CompletableFuture<List<MchApp>> mchAppFuture = CompletableFuture.supplyAsync(() -> localSnapshot == null ? listMchApp(false) :
+                reconcile(localSnapshot.getMchAppList(), listMchApp(true), MchApp::getAppId, MchApp::getUpdatedAt,
+                        ids -> mchAppService.list(MchApp.gw().in(MchApp::getAppId, ids))), executor);
+
+        CompletableFuture<List<PayInterfaceConfig>> configFuture = CompletableFuture.supplyAsync(() -> localSnapshot == null ? listPayInterfaceConfig(false) :
+                reconcile(localSnapshot.getPayInterfaceConfigList(), listPayInterfaceConfig(true), PayInterfaceConfig::getId, PayInterfaceConfig::getUpdatedAt,
+                        ids -> payInterfaceConfigService.list(PayInterfaceConfig.gw().in(PayInterfaceConfig::getId, ids).eq(PayInterfaceConfig::getState, CS.YES))), executor);
+
+        ConfigContextSnapshot snapshot = new ConfigContextSnapshot();
+        snapshot.setIsvInfoList(isvFuture.join());
+        snapshot.setMchInfoList(mchInfoFuture.join());
+
+        // 仅保留已启用商户的应用
+        Set<String> mchNoSet = snapshot.getMchInfoList().stream().map(MchInfo::getMchNo).collect(Collectors.toSet());
+        snapshot.setMchAppList(mchAppFuture.join().stream().filter(mchApp -> mchNoSet.contains(mchApp.getMchNo())).collect(Collectors.toList()));
+        snapshot.setPayInterfaceConfigList(configFuture.join());
+        return snapshot;
+    }
+
+    /** 已启用的服务商， keyOnly: 仅查询主键及更新时间 **/
+    private List<IsvInfo> listIsvInfo(boolean keyOnly){
+        return listAll(lastIsvNo -> {
+            LambdaQueryWrapper<IsvInfo> wrapper = IsvInfo.gw();
+            if(keyOnly){
+                wrapper.select(IsvInfo::getIsvNo, IsvInfo::getUpdatedAt);
+            }
+            return isvInfoService.list(wrapper.eq(IsvInfo::getState, CS.YES)
+                    .gt(lastIsvNo != null, IsvInfo::getIsvNo, lastIsvNo).orderByAsc(IsvInfo::getIsvNo).last("limit " + pageSize));
+        }, IsvInfo::getIsvNo);
+    }
+
+    /** 已启用的商户 **/
+    private List<MchInfo> listMchInfo(boolean keyOnly){
+        return listAll(lastMchNo -> {
+            LambdaQueryWrapper<MchInfo> wrapper = MchInfo.gw();
+            if(keyOnly){
+                wrapper.select(MchInfo::getMchNo, MchInfo::getUpdatedAt);
+            }
+            return mchInfoService.list(wrapper.eq(MchInfo::getState, CS.YES)
+                    .gt(lastMchNo != null, MchInfo::getMchNo, lastMchNo).orderByAsc(MchInfo::getMchNo).last("limit " + pageSize));
+        }, MchInfo::getMchNo);
+    }
+
+    /** 全部商户应用 （商户配置信息中包含商户的全部应用） **/
+    private List<MchApp> listMchApp(boolean keyOnly){
+        return listAll(lastAppId -> {
+            LambdaQueryWrapper<MchApp> wrapper = MchApp.gw();
+            if(keyOnly){
+                wrapper.select(MchApp::getAppId, MchApp::getUpdatedAt);
+            }
+            return mchAppService.list(wrapper.gt(lastAppId != null, MchApp::getAppId, lastAppId).orderByAsc(MchApp::getAppId).last("limit " + pageSize));
+        }, MchApp::getAppId);
+    }
+
+    /** 已启用的支付接口配置 **/
+    private List<PayInterfaceConfig> listPayInterfaceConfig(boolean keyOnly){
+        return listAll(lastId -> {
+            LambdaQueryWrapper<PayInterfaceConfig> wrapper = PayInterfaceConfig.gw();
+            if(keyOnly){
+                wrapper.select(PayInterfaceConfig::getId, PayInterfaceConfig::getUpdatedAt);
+            }
+            return payInterfaceConfigService.list(wrapper.eq(PayInterfaceConfig::getState, CS.YES)
+                    .gt(lastId != null, PayInterfaceConfig::getId, lastId).orderByAsc(PayInterfaceConfig::getId).last("limit " + pageSize));
+        }, PayInterfaceConfig::getId);
+    }
+
+    /** 按主键游标分页查询全部数据 **/
+    private <T, K> List<T> listAll(Function<K, List<T>> pageQuery, Function<T, K> idGetter){
+
+        List<T> result = new ArrayList<>();
+        K lastId = null;
+        while(true){
+            List<T> pageList = pageQuery.apply(lastId);
+            result.addAll(pageList);
+
+            //本次查询不足一页, 不再继续查询;
+            if(pageList.size() < pageSize){
+                return result;
+            }
+            lastId = idGetter.apply(pageList.get(pageList.size() - 1));
+        }
+    }
+
+    /** 对比快照与DB的更新时间： 未变更的使用快照数据行， 新增或变更的重新查询， DB中已删除或停用的丢弃 **/
+    private <T, K extends Serializable> List<T> reconcile(List<T> snapshotList, List<T> keyList, Function<T, K> idGetter,
+                                                          Function<T, Date> updatedAtGetter, Function<List<K>, List<T>> fetcher){
+
+        Map<K, T> snapshotMap = new HashMap<>();
+        snapshotList.forEach(row -> snapshotMap.put(idGetter.apply(row), row));
+
+        List<T> result = new ArrayList<>();
+        List<K> changedIdList = new ArrayList<>();
+        for (T keyRow : keyList) {
+            T snapshotRow = snapshotMap.get(idGetter.apply(keyRow));
+            if(snapshotRow != null && Objects.equals(updatedAtGetter.apply(snapshotRow), updatedAtGetter.apply(keyRow))){
+                result.add(snapshotRow);
+            }else{
+                changedIdList.add(idGetter.apply(keyRow));
+            }
+        }
+
+        for (int i = 0; i < changedIdList.size(); i += pageSize) {
+            result.addAll(fetcher.apply(changedIdList.subList(i, Math.min(i + pageSize, changedIdList.size()))));
+        }
+        return result;
+    }
+
+    /** 读取本地快照， 不存在或解析失败返回null **/
+    private ConfigContextSnapshot readSnapshot(){
+
+        if(StringUtils.isEmpty(snapshotPath) || !Files.isRegularFile(Paths.get(snapshotPath))){
+            return null;
+        }
+
+        try {
+            return JSON.parseObject(Files.readAllBytes(Paths.get(snapshotPath)), ConfigContextSnapshot.class);
+        } catch (Exception e) {
+            log.warn("读取配置信息快照失败， 将全量查询DB, path={}", snapshotPath, e);
+            return null;
+        }
+    }
+
+    /** 写入本地快照 （包含支付参数， 仅当前用户可读写）， 日期按毫秒数序列化以便对比更新时间 **/
+    private void writeSnapshot(ConfigContextSnapshot snapshot){
+
+        if(StringUtils.isEmpty(snapshotPath)){
+            return ;
+        }
+
+        try {
+            Path path = Paths.get(snapshotPath).toAbsolutePath();
+            Files.createDirectories(path.getParent());
+
+            Path tmpPath = path.getFileSystem().supportedFileAttributeViews().contains("posix") ?
+                    Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp", PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"))) :
+                    Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+
+            Files.write(tmpPath, JSON.toJSONBytes(snapshot, new SerializeConfig()));
+            Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            log.warn("写入配置信息快照失败, path={}", snapshotPath, e);
+        }
+    }
+
+}
@@ -42,6 +42,7 @@ import java.util.Date;
 public class InitRunner implements CommandLineRunner {
 
     @Autowired private SystemYmlConfig systemYmlConfig;
+    @Autowired private ConfigContextWarmer configContextWarmer;
 
 
     @Override
@@ -57,5 +58,8 @@ public class InitRunner implements CommandLineRunner {
         //解决json 序列化时候的  $ref：问题
         JSON.DEFAULT_GENERATE_FEATURE |= SerializerFeature.DisableCircularReferenceDetect.getMask();
 
+        // 预热配置信息 （同步执行， 完成后应用才会进入就绪状态）
+        configContextWarmer.warmUp();
+
     }
 }
@@ -21,7 +21,7 @@ import com.alipay.api.domain.AlipayOpenAuthTokenAppModel;
 import com.alipay.api.request.AlipayOpenAuthTokenAppRequest;
 import com.alipay.api.response.AlipayOpenAuthTokenAppResponse;
 import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
-import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import com.jeequan.jeepay.components.mq.vender.BroadcastMQCoalescer;
 import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.ctrls.AbstractCtrl;
 import com.jeequan.jeepay.core.entity.MchApp;
@@ -63,7 +63,7 @@ public class AlipayBizController extends AbstractCtrl {
     @Autowired private SysConfigService sysConfigService;
     @Autowired private PayInterfaceConfigService payInterfaceConfigService;
     @Autowired private MchAppService mchAppService;
-    @Autowired private IMQSender mqSender;
+    @Autowired private BroadcastMQCoalescer mqCoalescer;
 
 
     /** 跳转到支付宝的授权页面 （统一从pay项目获取到isv配置信息）
@@ -147,7 +147,7 @@ public class AlipayBizController extends AbstractCtrl {
                 }
 
                 // 更新应用配置信息
-                mqSender.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_APP, null, mchApp.getMchNo(), mchApp.getAppId()));
+                mqCoalescer.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_APP, null, mchApp.getMchNo(), mchApp.getAppId()));
 
             }
         } catch (Exception e) {
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.channel.mock;
+
+import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.entity.RefundOrder;
+import com.jeequan.jeepay.core.exception.ResponseException;
+import com.jeequan.jeepay.core.model.params.mock.MockNormalMchParams;
+import com.jeequan.jeepay.pay.channel.AbstractChannelRefundNoticeService;
+import com.jeequan.jeepay.pay.model.MchAppConfigContext;
+import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.MutablePair;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/*
+* 模拟渠道 退款回调接口实现类
+* 回调报文： refundOrderId, channelOrderId, state(SUCCESS/FAIL), sign(MD5, 密钥为商户参数key)
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 11:00
+*/
+@Service
+@ConditionalOnProperty(name = "isys.mock-channel.enabled", havingValue = "true")
+@Slf4j
+public class MockChannelRefundNoticeService extends AbstractChannelRefundNoticeService {
+
+    @Override
+    public String getIfCode() {
+        return CS.IF_CODE.MOCK;
+    }
+
+    @Override
+    public MutablePair<String, Object> parseParams(HttpServletRequest request, String urlOrderId, NoticeTypeEnum noticeTypeEnum) {
+
+        try {
+
+            JSONObject params = getReqParamJSON();
+            String refundOrderId = params.getString("refundOrderId");
+            return MutablePair.of(refundOrderId, params);
+
+        } catch (Exception e) {
+            log.error("error", e);
+            throw ResponseException.buildText("ERROR");
+        }
+    }
+
+    @Override
+    public ChannelRetMsg doNotice(HttpServletRequest request, Object params, RefundOrder refundOrder, MchAppConfigContext mchAppConfigContext, NoticeTypeEnum noticeTypeEnum) {
+        try {
+            MockNormalMchParams mockParams = (MockNormalMchParams)configContextQueryService.queryNormalMchParams(mchAppConfigContext.getMchNo(), mchAppConfigContext.getAppId(), getIfCode());
+
+            // 验证签名
+            JSONObject jsonParams = (JSONObject) params;
+            if(!MockKit.getSign(jsonParams, mockParams.getKey()).equals(jsonParams.getString(MockKit.SIGN_PARAM_NAME))) {
+                throw ResponseException.buildText("ERROR");
+            }
+
+            ChannelRetMsg result = new ChannelRetMsg();
+            result.setChannelOrderId(jsonParams.getString("channelOrderId")); //渠道订单号
+            result.setResponseEntity(textResp("success")); //响应数据
+
+            String state = jsonParams.getString("state");
+            if(MockKit.STATE_SUCCESS.equals(state)){
+                result.setChannelState(ChannelRetMsg.ChannelState.CONFIRM_SUCCESS);
+            }else if(MockKit.STATE_FAIL.equals(state)){
+                result.setChannelState(ChannelRetMsg.ChannelState.CONFIRM_FAIL);
+            }else{
+                result.setChannelState(ChannelRetMsg.ChannelState.WAITING);
+            }
+
+            return result;
+        } catch (ResponseException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("error", e);
+            throw ResponseException.buildText("ERROR");
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.channel.mock;
+
+import com.jeequan.jeepay.core.model.params.mock.MockNormalMchParams;
+import com.jeequan.jeepay.core.utils.SignKit;
+import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+* 模拟渠道 工具类
+* 按商户参数中配置的耗时和比例模拟上游接口， 用于无第三方沙箱环境下的全链路压测。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 10:30
+*/
+public class MockKit {
+
+    /** 回调报文中的签名参数名 **/
+    public static final String SIGN_PARAM_NAME = "sign";
+
+    /** 回调报文中的订单状态： 成功 **/
+    public static final String STATE_SUCCESS = "SUCCESS";
+
+    /** 回调报文中的订单状态： 失败 **/
+    public static final String STATE_FAIL = "FAIL";
+
+    /** 模拟上游接口耗时 **/
+    public static void simulateLatency(MockNormalMchParams params){
+
+        int latency = params.getLatency() == null ? 0 : params.getLatency();
+        int jitter = params.getJitter() == null ? 0 : params.getJitter();
+        if(jitter > 0){
+            latency += ThreadLocalRandom.current().nextInt(jitter);
+        }
+        if(latency <= 0){
+            return ;
+        }
+
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** 按比例(百分比)抽取上游返回状态， 成功与失败之外的部分为 [处理中] **/
+    public static ChannelRetMsg.ChannelState roll(Integer successRate, Integer failRate){
+
+        int point = ThreadLocalRandom.current().nextInt(100);
+        int success = successRate == null ? 0 : successRate;
+        int fail = failRate == null ? 0 : failRate;
+
+        if(point < success){
+            return ChannelRetMsg.ChannelState.CONFIRM_SUCCESS;
+        }
+        if(point < success + fail){
+            return ChannelRetMsg.ChannelState.CONFIRM_FAIL;
+        }
+        return ChannelRetMsg.ChannelState.WAITING;
+    }
+
+    /** 生成模拟的渠道订单号 **/
+    public static String genChannelOrderId(String orderId){
+        return "MOCK" + orderId;
+    }
+
+    /** 计算回调报文签名 (忽略sign参数) **/
+    public static String getSign(Map<String, Object> map, String key){
+        return SignKit.sign(map, key, SignKit.SIGN_TYPE_MD5, SIGN_PARAM_NAME);
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.channel.mock;
+
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.entity.PayOrder;
+import com.jeequan.jeepay.core.model.params.mock.MockNormalMchParams;
+import com.jeequan.jeepay.pay.channel.AbstractPaymentService;
+import com.jeequan.jeepay.pay.model.MchAppConfigContext;
+import com.jeequan.jeepay.pay.rqrs.AbstractRS;
+import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
+import com.jeequan.jeepay.pay.rqrs.payorder.CommonPayDataRS;
+import com.jeequan.jeepay.pay.rqrs.payorder.UnifiedOrderRQ;
+import com.jeequan.jeepay.pay.util.ApiResBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/*
+* 支付接口： 模拟渠道 (仅用于本地压测)
+* 支付方式： 全部
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 10:40
+*/
+@Service
+@ConditionalOnProperty(name = "isys.mock-channel.enabled", havingValue = "true")
+@Slf4j
+public class MockPaymentService extends AbstractPaymentService {
+
+    @Override
+    public String getIfCode() {
+        return CS.IF_CODE.MOCK;
+    }
+
+    @Override
+    public boolean isSupport(String wayCode) {
+        return true;
+    }
+
+    @Override
+    public String preCheck(UnifiedOrderRQ rq, PayOrder payOrder) {
+        return null;
+    }
+
+    @Override
+    public AbstractRS pay(UnifiedOrderRQ rq, PayOrder payOrder, MchAppConfigContext mchAppConfigContext) throws Exception {
+
+        MockNormalMchParams params = (MockNormalMchParams)configContextQueryService.queryNormalMchParams(mchAppConfigContext.getMchNo(), mchAppConfigContext.getAppId(), getIfCode());
+
+        // 模拟上游耗时
+        MockKit.simulateLatency(params);
+
+        CommonPayDataRS res = ApiResBuilder.buildSuccess(CommonPayDataRS.class);
+        ChannelRetMsg channelRetMsg = new ChannelRetMsg();
+        res.setChannelRetMsg(channelRetMsg);
+
+        channelRetMsg.setChannelState(MockKit.roll(params.getPaySuccessRate(), params.getPayFailRate()));
+        if(channelRetMsg.getChannelState() == ChannelRetMsg.ChannelState.CONFIRM_SUCCESS){
+            channelRetMsg.setChannelOrderId(MockKit.genChannelOrderId(payOrder.getPayOrderId()));
+
+        }else if(channelRetMsg.getChannelState() == ChannelRetMsg.ChannelState.CONFIRM_FAIL){
+            channelRetMsg.setChannelErrCode("MOCK_FAIL");
+            channelRetMsg.setChannelErrMsg("模拟渠道返回失败");
+
+        }else{
+            // 支付中： 由回调或轮询查单推进订单状态
+            channelRetMsg.setNeedQuery(true);
+        }
+
+        return res;
+    }
+
+}
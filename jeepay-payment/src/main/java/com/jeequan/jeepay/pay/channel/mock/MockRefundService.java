@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.channel.mock;
+
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.entity.PayOrder;
+import com.jeequan.jeepay.core.entity.RefundOrder;
+import com.jeequan.jeepay.core.model.params.mock.MockNormalMchParams;
+import com.jeequan.jeepay.pay.channel.AbstractRefundService;
+import com.jeequan.jeepay.pay.model.MchAppConfigContext;
+import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
+import com.jeequan.jeepay.pay.rqrs.refund.RefundOrderRQ;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/*
+* 退款接口： 模拟渠道 (仅用于本地压测)
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 10:50
+*/
+@Service
+@ConditionalOnProperty(name = "isys.mock-channel.enabled", havingValue = "true")
+@Slf4j
+public class MockRefundService extends AbstractRefundService {
+
+    @Override
+    public String getIfCode() {
+        return CS.IF_CODE.MOCK;
+    }
+
+    @Override
+    public String preCheck(RefundOrderRQ bizRQ, RefundOrder refundOrder, PayOrder payOrder) {
+        return null;
+    }
+
+    @Override
+    public ChannelRetMsg refund(RefundOrderRQ bizRQ, RefundOrder refundOrder, PayOrder payOrder, MchAppConfigContext mchAppConfigContext) throws Exception {
+
+        MockNormalMchParams params = (MockNormalMchParams)configContextQueryService.queryNormalMchParams(mchAppConfigContext.getMchNo(), mchAppConfigContext.getAppId(), getIfCode());
+
+        // 模拟上游耗时
+        MockKit.simulateLatency(params);
+
+        ChannelRetMsg.ChannelState state = MockKit.roll(params.getRefundSuccessRate(), params.getRefundFailRate());
+        if(state == ChannelRetMsg.ChannelState.CONFIRM_SUCCESS){
+            return ChannelRetMsg.confirmSuccess(MockKit.genChannelOrderId(refundOrder.getRefundOrderId()));
+        }
+        if(state == ChannelRetMsg.ChannelState.CONFIRM_FAIL){
+            return ChannelRetMsg.confirmFail("MOCK_FAIL", "模拟渠道返回失败");
+        }
+        return ChannelRetMsg.waiting(); // 退款中： 由回调或补单任务推进
+    }
+
+    @Override
+    public ChannelRetMsg query(RefundOrder refundOrder, MchAppConfigContext mchAppConfigContext) throws Exception {
+
+        MockNormalMchParams params = (MockNormalMchParams)configContextQueryService.queryNormalMchParams(mchAppConfigContext.getMchNo(), mchAppConfigContext.getAppId(), getIfCode());
+
+        // 模拟上游耗时
+        MockKit.simulateLatency(params);
+
+        if(MockKit.roll(params.getQuerySuccessRate(), 0) == ChannelRetMsg.ChannelState.CONFIRM_SUCCESS){
+            return ChannelRetMsg.confirmSuccess(MockKit.genChannelOrderId(refundOrder.getRefundOrderId()));
+        }
+        return ChannelRetMsg.waiting();
+    }
+
+}
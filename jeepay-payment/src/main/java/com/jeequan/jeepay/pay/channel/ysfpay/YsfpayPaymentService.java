@@ -31,9 +31,11 @@ import com.jeequan.jeepay.pay.model.IsvConfigContext;
 import com.jeequan.jeepay.pay.model.MchAppConfigContext;
 import com.jeequan.jeepay.pay.rqrs.AbstractRS;
 import com.jeequan.jeepay.pay.rqrs.payorder.UnifiedOrderRQ;
+import com.jeequan.jeepay.pay.service.ChannelClientRegistry;
 import com.jeequan.jeepay.pay.util.PaywayUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.Date;
@@ -49,6 +51,8 @@ import java.util.Date;
 @Slf4j
 public class YsfpayPaymentService extends AbstractPaymentService {
 
+    @Autowired private ChannelClientRegistry channelClientRegistry;
+
     @Override
     public String getIfCode() {
         return CS.IF_CODE.YSFPAY;
@@ -85,9 +89,7 @@ public class YsfpayPaymentService extends AbstractPaymentService {
         reqParams.put("merId", isvsubMchParams.getMerId()); // 商户号
 
         //签名
-        String isvPrivateCertFile = channelCertConfigKitBean.getCertFilePath(isvParams.getIsvPrivateCertFile());
-        String isvPrivateCertPwd = isvParams.getIsvPrivateCertPwd();
-        reqParams.put("signature", YsfSignUtils.signBy256(reqParams, isvPrivateCertFile, isvPrivateCertPwd)); //RSA 签名串
+        reqParams.put("signature", YsfSignUtils.signBy256(reqParams, channelClientRegistry.getYsfpaySignPrivateKey(isvParams))); //RSA 签名串
 
         // 调起上游接口
         log.info("{} reqJSON={}", logPrefix, reqParams);
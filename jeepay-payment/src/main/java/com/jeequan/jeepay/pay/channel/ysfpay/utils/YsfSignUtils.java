@@ -64,6 +64,13 @@ public class YsfSignUtils {
      * **/
     public static String signBy256(JSONObject params, String privateKeyFilePath, String certPwd) {
 
+        //获取私钥证书的key
+        return signBy256(params, getSignCertPrivateKey(privateKeyFilePath, certPwd));
+    }
+
+    /** 签名 （使用已加载的私钥， 避免每次读取私钥证书文件） **/
+    public static String signBy256(JSONObject params, PrivateKey privateKey) {
+
         try {
 
             //0. 将请求参数 转换成key1=value1&key2=value2的形式
@@ -72,16 +79,13 @@ public class YsfSignUtils {
             //1. 通过SHA256进行摘要并转16进制
             byte[] signDigest = sha256X16(stringSign, "UTF-8");
 
-            //2. /获取私钥证书的key
-            PrivateKey privateKey = getSignCertPrivateKey(privateKeyFilePath, certPwd);
-
-            //3. 使用 SHA-256算法 进行签名
+            //2. 使用 SHA-256算法 进行签名
             Signature st = Signature.getInstance(ALGORITHM_SHA256WITHRSA, KEYSTORE_PROVIDER_BC);
             st.initSign(privateKey);
             st.update(signDigest);
             byte[] result = st.sign();
 
-            //4. 做base64 处理
+            //3. 做base64 处理
             byte[] byteSign = Base64.encodeBase64(result);
             return new String(byteSign);
 
@@ -250,7 +254,7 @@ public class YsfSignUtils {
     }
 
     /** 获取证书私钥 **/
-    private static PrivateKey getSignCertPrivateKey(String pfxkeyfile, String keypwd) {
+    public static PrivateKey getSignCertPrivateKey(String pfxkeyfile, String keypwd) {
         FileInputStream fis = null;
 
         try {
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 商户通知重试策略 Yml配置参数定义Bean
+ * 重试间隔 = random(0, min(maxSeconds, baseSeconds * 2^(第n次 - 1)))  (指数退避 + 全抖动)
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/18 16:30
+ */
+@Component
+@ConfigurationProperties(prefix="isys.notify.retry")
+@Data
+public class MchNotifyRetryConfig {
+
+	/** 延迟调度方式: [redis]: 基于redis有序集合的精确延迟队列;  [mq]: 使用MQ厂商自身的延迟消息 (如RocketMQ仅支持固定的延迟级别) **/
+	private String scheduler = "redis";
+
+	/** 默认策略 **/
+	private Policy defaults = new Policy(6, 30, 600, true);
+
+	/** 商户个性化策略 <商户号, 策略>， 未配置的属性使用默认策略 **/
+	private Map<String, Policy> mch = new HashMap<>();
+
+	@Data
+	public static class Policy {
+
+		/** 最大通知次数 **/
+		private Integer maxCount;
+
+		/** 退避基数 (秒) **/
+		private Integer baseSeconds;
+
+		/** 最大重试间隔 (秒) **/
+		private Integer maxSeconds;
+
+		/** 是否启用全抖动 **/
+		private Boolean jitter;
+
+		public Policy() {
+		}
+
+		public Policy(Integer maxCount, Integer baseSeconds, Integer maxSeconds, Boolean jitter) {
+			this.maxCount = maxCount;
+			this.baseSeconds = baseSeconds;
+			this.maxSeconds = maxSeconds;
+			this.jitter = jitter;
+		}
+	}
+
+}
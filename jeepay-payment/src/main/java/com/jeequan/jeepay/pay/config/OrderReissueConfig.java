@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 补单(查单) Yml配置参数定义Bean
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/18 17:30
+ */
+@Component
+@ConfigurationProperties(prefix="isys.reissue")
+@Data
+public class OrderReissueConfig {
+
+	/** 查单线程数 **/
+	private Integer workerThreads = 16;
+
+	/** 每个支付接口默认的查单限流 (次/秒) **/
+	private Integer defaultQps = 20;
+
+	/** 支付接口个性化限流 <接口代码, 次/秒> **/
+	private Map<String, Integer> ifCodeQps = new HashMap<>();
+
+	/** 获取令牌的最长等待时间 (毫秒)， 超时后该订单延迟查单 **/
+	private Long rateLimitWaitMillis = 1000L;
+
+	/** 被限流订单的延迟查单时间 (秒) **/
+	private Integer rateLimitedDelaySeconds = 5;
+
+	/** 已提交未完成 (查单中 + 排队中) 的最大订单数量， 查单任务按剩余容量领取 **/
+	private Integer queueCapacity = 500;
+
+	/** 每个商户已提交未完成的最大订单数量， 超出的订单重新入队 **/
+	private Integer mchClaimLimit = 20;
+
+}
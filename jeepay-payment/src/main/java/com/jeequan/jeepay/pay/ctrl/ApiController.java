@@ -16,11 +16,15 @@
 package com.jeequan.jeepay.pay.ctrl;
 
 import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.serializer.JavaBeanSerializer;
+import com.alibaba.fastjson.serializer.ObjectSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
 import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.ctrls.AbstractCtrl;
 import com.jeequan.jeepay.core.entity.MchApp;
 import com.jeequan.jeepay.core.exception.BizException;
 import com.jeequan.jeepay.core.utils.JeepayKit;
+import com.jeequan.jeepay.core.utils.SignKit;
 import com.jeequan.jeepay.pay.model.MchAppConfigContext;
 import com.jeequan.jeepay.pay.rqrs.AbstractMchAppRQ;
 import com.jeequan.jeepay.pay.rqrs.AbstractRQ;
@@ -29,6 +33,8 @@ import com.jeequan.jeepay.pay.service.ValidateService;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Map;
+
 /*
 * api 抽象接口， 公共函数
 *
@@ -91,15 +97,76 @@ public abstract class ApiController extends AbstractCtrl {
         }
 
         // 验签
-        String appSecret = mchApp.getAppSecret();
+        verifySign(bizRQ, mchApp.getAppSecret());
+
+        return bizRQ;
+    }
+
+
+    /**
+     * 验签： 按请求参数的形式选择一种签名方式， 仅计算一次签名。
+     * 原始参数与参数绑定后的RQ对象一致时 (常规请求)， 直接使用原始请求参数计算， 无需将RQ对象再转换为JSON；
+     * 否则 (如：原始参数中包含无法绑定到RQ的参数) 按原验签方式使用RQ对象计算。
+     * 验签通过的参数保存在请求上下文中， 同一请求内不再重复计算。
+     **/
+    private void verifySign(AbstractRQ bizRQ, String appSecret){
 
-        // 转换为 JSON
-        JSONObject bizReqJSON = (JSONObject)JSONObject.toJSON(bizRQ);
-        bizReqJSON.remove("sign");
-        if(!sign.equalsIgnoreCase(JeepayKit.getSign(bizReqJSON, appSecret))){
+        JSONObject reqParamJSON = getReqParamJSON();
+        if(requestKitBean.getSignVerifiedParamJSON() == reqParamJSON){
+            return;
+        }
+
+        String sign = bizRQ.getSign();
+        String expectSign;
+        if(isSameSignParams(reqParamJSON, bizRQ)){
+            expectSign = SignKit.sign(reqParamJSON, appSecret, bizRQ.getSignType(), "sign");
+        }else{
+            JSONObject bizReqJSON = (JSONObject)JSONObject.toJSON(bizRQ);
+            bizReqJSON.remove("sign");
+            expectSign = JeepayKit.getSign(bizReqJSON, appSecret, bizRQ.getSignType());
+        }
+
+        if(!sign.equalsIgnoreCase(expectSign)){
              throw new BizException("验签失败");
         }
+        requestKitBean.setSignVerifiedParamJSON(reqParamJSON);
+    }
 
-        return bizRQ;
+    /** 原始请求参数与RQ对象参与签名的参数 (值非空) 是否完全一致， 一致时两种方式的签名串相同 **/
+    private boolean isSameSignParams(JSONObject reqParamJSON, AbstractRQ bizRQ){
+
+        ObjectSerializer serializer = SerializeConfig.getGlobalInstance().getObjectWriter(bizRQ.getClass());
+        if(!(serializer instanceof JavaBeanSerializer)){
+            return false;
+        }
+
+        Map<String, Object> bizReqMap;
+        try {
+            bizReqMap = ((JavaBeanSerializer) serializer).getFieldValuesMap(bizRQ);
+        } catch (Exception e) {
+            return false;
+        }
+
+        int count = 0;
+        for (Map.Entry<String, Object> entry : bizReqMap.entrySet()) {
+            if(isSignValue(entry.getValue()) && !"sign".equals(entry.getKey())){
+                Object reqValue = reqParamJSON.get(entry.getKey());
+                if(!isSignValue(reqValue) || !String.valueOf(reqValue).equals(String.valueOf(entry.getValue()))){
+                    return false;
+                }
+                count++;
+            }
+        }
+
+        for (Map.Entry<String, Object> entry : reqParamJSON.entrySet()) {
+            if(isSignValue(entry.getValue()) && !"sign".equals(entry.getKey())){
+                count--;
+            }
+        }
+        return count == 0;
+    }
+
+    private static boolean isSignValue(Object value){
+        return value != null && !"".equals(value);
     }
 }
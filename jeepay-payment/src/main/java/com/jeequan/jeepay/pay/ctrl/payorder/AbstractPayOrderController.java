@@ -40,15 +40,19 @@ import com.jeequan.jeepay.pay.rqrs.payorder.UnifiedOrderRQ;
 import com.jeequan.jeepay.pay.rqrs.payorder.UnifiedOrderRS;
 import com.jeequan.jeepay.pay.rqrs.payorder.payway.QrCashierOrderRQ;
 import com.jeequan.jeepay.pay.rqrs.payorder.payway.QrCashierOrderRS;
+import com.jeequan.jeepay.pay.service.ChannelHealthService;
 import com.jeequan.jeepay.pay.service.ConfigContextQueryService;
+import com.jeequan.jeepay.pay.service.MchPayPassageRouteService;
+import com.jeequan.jeepay.pay.service.OrderReissueQueueService;
 import com.jeequan.jeepay.pay.service.PayOrderProcessService;
-import com.jeequan.jeepay.service.impl.MchPayPassageService;
 import com.jeequan.jeepay.service.impl.PayOrderService;
 import com.jeequan.jeepay.service.impl.SysConfigService;
+import com.jeequan.jeepay.service.impl.idempotent.IMchOrderIdempotentService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.math.BigDecimal;
 import java.util.Date;
@@ -63,12 +67,15 @@ import java.util.Date;
 @Slf4j
 public abstract class AbstractPayOrderController extends ApiController {
 
-    @Autowired private MchPayPassageService mchPayPassageService;
+    @Autowired private MchPayPassageRouteService mchPayPassageRouteService;
     @Autowired private PayOrderService payOrderService;
     @Autowired private ConfigContextQueryService configContextQueryService;
     @Autowired private PayOrderProcessService payOrderProcessService;
     @Autowired private SysConfigService sysConfigService;
     @Autowired private IMQSender mqSender;
+    @Autowired private IMchOrderIdempotentService mchOrderIdempotentService;
+    @Autowired private ChannelHealthService channelHealthService;
+    @Autowired private OrderReissueQueueService orderReissueQueueService;
 
 
     /** 统一下单 (新建订单模式) **/
@@ -85,6 +92,10 @@ public abstract class AbstractPayOrderController extends ApiController {
         //是否新订单模式 [  一般接口都为新订单模式，  由于QR_CASHIER支付方式，需要先 在DB插入一个新订单， 导致此处需要特殊判断下。 如果已存在则直接更新，否则为插入。  ]
         boolean isNewOrder = payOrder == null;
 
+        //是否已预占商户订单号 & 是否已入库。  预占后未入库（下单中断或入库失败）需释放预占。
+        boolean isReserved = false;
+        boolean isSaved = false;
+
         try {
 
             if(payOrder != null){ //当订单存在时，封装公共参数。
@@ -113,9 +124,12 @@ public abstract class AbstractPayOrderController extends ApiController {
             String mchNo = bizRQ.getMchNo();
             String appId = bizRQ.getAppId();
 
-            // 只有新订单模式，进行校验
-            if(isNewOrder && payOrderService.count(PayOrder.gw().eq(PayOrder::getMchNo, mchNo).eq(PayOrder::getMchOrderNo, bizRQ.getMchOrderNo())) > 0){
-                throw new BizException("商户订单["+bizRQ.getMchOrderNo()+"]已存在");
+            // 只有新订单模式，进行校验 (预占商户订单号， 数据库唯一索引兜底)
+            if(isNewOrder){
+                if(!mchOrderIdempotentService.reserve(mchNo, bizRQ.getMchOrderNo())){
+                    throw new BizException("商户订单["+bizRQ.getMchOrderNo()+"]已存在");
+                }
+                isReserved = true;
             }
 
             if(StringUtils.isNotEmpty(bizRQ.getNotifyUrl()) && !StringKit.isAvailableUrl(bizRQ.getNotifyUrl())){
@@ -146,6 +160,8 @@ public abstract class AbstractPayOrderController extends ApiController {
                 String payOrderId = payOrder.getPayOrderId();
                 //订单入库 订单状态： 生成状态  此时没有和任何上游渠道产生交互。
                 payOrderService.save(payOrder);
+                isSaved = true;
+                mchOrderIdempotentService.commit(mchNo, bizRQ.getMchOrderNo());
 
                 QrCashierOrderRS qrCashierOrderRS = new QrCashierOrderRS();
                 QrCashierOrderRQ qrCashierOrderRQ = (QrCashierOrderRQ)bizRQ;
@@ -164,7 +180,7 @@ public abstract class AbstractPayOrderController extends ApiController {
             }
 
             // 根据支付方式， 查询出 该商户 可用的支付接口
-            MchPayPassage mchPayPassage = mchPayPassageService.findMchPayPassage(mchAppConfigContext.getMchNo(), mchAppConfigContext.getAppId(), wayCode);
+            MchPayPassage mchPayPassage = mchPayPassageRouteService.findMchPayPassage(mchAppConfigContext.getMchNo(), mchAppConfigContext.getAppId(), wayCode);
             if(mchPayPassage == null){
                 throw new BizException("商户应用不支持该支付方式");
             }
@@ -199,10 +215,12 @@ public abstract class AbstractPayOrderController extends ApiController {
                 }
                 //订单入库 订单状态： 生成状态  此时没有和任何上游渠道产生交互。
                 payOrderService.save(payOrder);
+                isSaved = true;
+                mchOrderIdempotentService.commit(mchNo, bizRQ.getMchOrderNo());
             }
 
             //调起上游支付接口
-            bizRS = (UnifiedOrderRS) paymentService.pay(bizRQ, payOrder, mchAppConfigContext);
+            bizRS = invokeChannelPay(paymentService, bizRQ, payOrder, mchAppConfigContext);
 
             //处理上游返回数据
             this.processChannelMsg(bizRS.getChannelRetMsg(), payOrder);
@@ -224,9 +242,18 @@ public abstract class AbstractPayOrderController extends ApiController {
             return this.packageApiResByPayOrder(bizRQ, bizRS, payOrder);
 
 
+        } catch (DuplicateKeyException e) { // 数据库唯一索引拦截
+            return ApiRes.customFail("商户订单["+bizRQ.getMchOrderNo()+"]已存在");
+
         } catch (Exception e) {
             log.error("系统异常：{}", e);
             return ApiRes.customFail("系统异常");
+
+        } finally {
+
+            if(isReserved && !isSaved){
+                mchOrderIdempotentService.release(bizRQ.getMchNo(), bizRQ.getMchOrderNo());
+            }
         }
     }
 
@@ -280,6 +307,28 @@ public abstract class AbstractPayOrderController extends ApiController {
     }
 
 
+    /** 调起上游支付接口， 并记录通道耗时及结果 (用于通道路由的健康度计算) **/
+    private UnifiedOrderRS invokeChannelPay(IPaymentService paymentService, UnifiedOrderRQ bizRQ, PayOrder payOrder, MchAppConfigContext mchAppConfigContext) throws Exception{
+
+        long startTime = System.currentTimeMillis();
+        try {
+            UnifiedOrderRS bizRS = (UnifiedOrderRS) paymentService.pay(bizRQ, payOrder, mchAppConfigContext);
+            channelHealthService.record(paymentService.getIfCode(), System.currentTimeMillis() - startTime, bizRS.getChannelRetMsg());
+            return bizRS;
+
+        } catch (ChannelException e) {
+            channelHealthService.record(paymentService.getIfCode(), System.currentTimeMillis() - startTime, e.getChannelRetMsg());
+            throw e;
+
+        } catch (BizException e) { // 业务校验异常， 与通道健康无关
+            throw e;
+
+        } catch (Exception e) {
+            channelHealthService.record(paymentService.getIfCode(), System.currentTimeMillis() - startTime, true);
+            throw e;
+        }
+    }
+
     /**
      * 校验： 商户的支付方式是否可用
      * 返回： 支付接口
@@ -350,6 +399,7 @@ public abstract class AbstractPayOrderController extends ApiController {
 
         ){
             this.updateInitOrderStateThrowException(PayOrder.STATE_ING, payOrder, channelRetMsg);
+            orderReissueQueueService.enqueue(OrderReissueQueueService.OrderType.PAY, payOrderId); // 加入补单队列
 
         // 系统异常：  订单不再处理。  为： 生成状态
         }else if( ChannelRetMsg.ChannelState.SYS_ERROR == channelRetMsg.getChannelState()){
@@ -34,6 +34,7 @@ import com.jeequan.jeepay.pay.rqrs.refund.RefundOrderRQ;
 import com.jeequan.jeepay.pay.rqrs.refund.RefundOrderRS;
 import com.jeequan.jeepay.pay.service.ConfigContextQueryService;
 import com.jeequan.jeepay.pay.service.ConfigContextService;
+import com.jeequan.jeepay.pay.service.OrderReissueQueueService;
 import com.jeequan.jeepay.pay.service.PayMchNotifyService;
 import com.jeequan.jeepay.service.impl.PayOrderService;
 import com.jeequan.jeepay.service.impl.RefundOrderService;
@@ -60,6 +61,7 @@ public class RefundOrderController extends ApiController {
     @Autowired private RefundOrderService refundOrderService;
     @Autowired private PayMchNotifyService payMchNotifyService;
     @Autowired private ConfigContextQueryService configContextQueryService;
+    @Autowired private OrderReissueQueueService orderReissueQueueService;
 
 
     /** 申请退款 **/
@@ -239,6 +241,7 @@ public class RefundOrderController extends ApiController {
 
         ){
             this.updateInitOrderStateThrowException(RefundOrder.STATE_ING, refundOrder, channelRetMsg);
+            orderReissueQueueService.enqueue(OrderReissueQueueService.OrderType.REFUND, refundOrder.getRefundOrderId()); // 加入补单队列
 
             // 系统异常：  退款单不再处理。  为： 生成状态
         }else if( ChannelRetMsg.ChannelState.SYS_ERROR == channelRetMsg.getChannelState() ){
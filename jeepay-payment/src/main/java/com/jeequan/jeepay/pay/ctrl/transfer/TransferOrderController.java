@@ -32,6 +32,7 @@ import com.jeequan.jeepay.pay.rqrs.transfer.TransferOrderRQ;
 import com.jeequan.jeepay.pay.rqrs.transfer.TransferOrderRS;
 import com.jeequan.jeepay.pay.service.ConfigContextQueryService;
 import com.jeequan.jeepay.pay.service.ConfigContextService;
+import com.jeequan.jeepay.pay.service.OrderReissueQueueService;
 import com.jeequan.jeepay.pay.service.PayMchNotifyService;
 import com.jeequan.jeepay.service.impl.PayInterfaceConfigService;
 import com.jeequan.jeepay.service.impl.TransferOrderService;
@@ -58,6 +59,7 @@ public class TransferOrderController extends ApiController {
     @Autowired private TransferOrderService transferOrderService;
     @Autowired private PayInterfaceConfigService payInterfaceConfigService;
     @Autowired private PayMchNotifyService payMchNotifyService;
+    @Autowired private OrderReissueQueueService orderReissueQueueService;
 
     /**
      * 转账
@@ -217,6 +219,7 @@ public class TransferOrderController extends ApiController {
 
         ){
             this.updateInitOrderStateThrowException(TransferOrder.STATE_ING, transferOrder, channelRetMsg);
+            orderReissueQueueService.enqueue(OrderReissueQueueService.OrderType.TRANSFER, transferId); // 加入补单队列
 
             // 系统异常：  订单不再处理。  为： 生成状态
         }else if( ChannelRetMsg.ChannelState.SYS_ERROR == channelRetMsg.getChannelState()){
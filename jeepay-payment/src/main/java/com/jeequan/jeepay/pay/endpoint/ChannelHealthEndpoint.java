@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.endpoint;
+
+import com.jeequan.jeepay.pay.service.ChannelHealthService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+* 监控端点： 支付通道健康度 (熔断状态/异常率/耗时百分位)
+* 访问地址： 管理端口 /actuator/channelHealth (默认不开放， 见 conf/payment/application.yml 中 management 配置)
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 15:00
+*/
+@Component
+@Endpoint(id = "channelHealth")
+public class ChannelHealthEndpoint {
+
+    @Autowired private ChannelHealthService channelHealthService;
+
+    @ReadOperation
+    public List<Map<String, Object>> channelHealth(){
+        return channelHealthService.snapshot();
+    }
+
+}
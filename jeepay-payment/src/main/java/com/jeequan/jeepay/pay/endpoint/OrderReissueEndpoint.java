@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.endpoint;
+
+import com.jeequan.jeepay.pay.service.OrderReissueExecutor;
+import com.jeequan.jeepay.pay.service.OrderReissueQueueService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+* 监控端点： 补单队列积压数量/出队速率 & 各支付接口的查单耗时
+* 访问地址： 管理端口 /actuator/orderReissue (默认不开放， 见 conf/payment/application.yml 中 management 配置)
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 17:30
+*/
+@Component
+@Endpoint(id = "orderReissue")
+public class OrderReissueEndpoint {
+
+    @Autowired private OrderReissueQueueService orderReissueQueueService;
+    @Autowired private OrderReissueExecutor orderReissueExecutor;
+
+    @ReadOperation
+    public Map<String, Object> orderReissue(){
+
+        List<Map<String, Object>> queueList = new ArrayList<>();
+        for (OrderReissueQueueService.OrderType orderType : OrderReissueQueueService.OrderType.values()) {
+
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("orderType", orderType.name());
+            item.put("backlog", orderReissueQueueService.size(orderType));
+            item.put("due", orderReissueQueueService.dueSize(orderType));
+            item.put("drainPerMinute", orderReissueQueueService.drainCountLastMinute(orderType));
+            queueList.add(item);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("queues", queueList);
+        result.put("channels", orderReissueExecutor.snapshot());
+        return result;
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/*
+* 订单关闭事件 (订单过期后由系统关闭)
+* 订阅方式： @EventListener public void onOrderClosed(OrderClosedEvent event)
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 18:30
+*/
+@Getter
+public class OrderClosedEvent extends ApplicationEvent {
+
+    /** 订单类型  同 MchNotifyRecord.TYPE_PAY_ORDER / TYPE_REFUND_ORDER **/
+    private final Byte orderType;
+
+    /** 订单号 **/
+    private final String orderId;
+
+    /** 商户号 **/
+    private final String mchNo;
+
+    /** 应用ID **/
+    private final String appId;
+
+    public OrderClosedEvent(Object source, Byte orderType, String orderId, String mchNo, String appId) {
+        super(source);
+        this.orderType = orderType;
+        this.orderId = orderId;
+        this.mchNo = mchNo;
+        this.appId = appId;
+    }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+* 支付通道(接口)健康状态
+* 按时间滑动窗口统计调用量、 异常量、 耗时分布， 并维护熔断状态：
+* 关闭(正常) --异常率超限--> 打开(剔除) --熔断时间到--> 半开(逐步恢复流量) --恢复期内正常--> 关闭
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 15:00
+*/
+public class ChannelHealth {
+
+    /** 熔断状态 **/
+    public enum CircuitState {
+        CLOSED, // 正常
+        OPEN, // 熔断， 不分配流量
+        HALF_OPEN // 恢复中， 按恢复进度逐步分配流量
+    }
+
+    /** 耗时分布区间上限 (毫秒) **/
+    private static final long[] LATENCY_BOUNDS = {50, 100, 200, 300, 500, 800, 1000, 1500, 2000, 3000, 5000, 8000, 13000, 20000, Long.MAX_VALUE};
+
+    /** 半开状态下的最小流量比例 **/
+    private static final double MIN_RECOVERY_FACTOR = 0.1;
+
+    private final String ifCode;
+
+    /** 窗口内每个时间片的时长 (毫秒) **/
+    private final long bucketMillis;
+
+    private final long[] bucketStartAt;
+    private final long[] bucketTotal;
+    private final long[] bucketError;
+    private final long[][] bucketLatency;
+
+    private CircuitState circuitState = CircuitState.CLOSED;
+
+    /** 状态变更时间 **/
+    private long stateChangedAt = System.currentTimeMillis();
+
+    /** 半开状态下的调用量、异常量 **/
+    private long halfOpenTotal = 0;
+    private long halfOpenError = 0;
+
+    public ChannelHealth(String ifCode, int bucketCount, long bucketMillis){
+        this.ifCode = ifCode;
+        this.bucketMillis = bucketMillis;
+        this.bucketStartAt = new long[bucketCount];
+        this.bucketTotal = new long[bucketCount];
+        this.bucketError = new long[bucketCount];
+        this.bucketLatency = new long[bucketCount][LATENCY_BOUNDS.length];
+    }
+
+    /** 记录一次调用结果 **/
+    public synchronized void record(long costMillis, boolean isError, long now){
+
+        int index = currentBucket(now);
+        bucketTotal[index]++;
+        if(isError){
+            bucketError[index]++;
+        }
+        bucketLatency[index][latencyIndex(costMillis)]++;
+
+        if(circuitState == CircuitState.HALF_OPEN){
+            halfOpenTotal++;
+            if(isError){
+                halfOpenError++;
+            }
+        }
+    }
+
+    /**
+     * 根据窗口统计数据更新熔断状态
+     * @param minRequests 触发熔断的最小调用量
+     * @param errorRateThreshold 触发熔断的异常率
+     * @param openMillis 熔断时长
+     * @param recoveryMillis 半开恢复时长
+     * **/
+    public synchronized void evaluate(long minRequests, double errorRateThreshold, long openMillis, long recoveryMillis, long now){
+
+        if(circuitState == CircuitState.CLOSED){
+
+            long total = windowTotal(now);
+            if(total >= minRequests && (double) windowError(now) / total >= errorRateThreshold){
+                changeState(CircuitState.OPEN, now);
+            }
+
+        }else if(circuitState == CircuitState.OPEN){
+
+            if(now - stateChangedAt >= openMillis){
+                changeState(CircuitState.HALF_OPEN, now);
+            }
+
+        }else if(circuitState == CircuitState.HALF_OPEN){
+
+            // 恢复期内异常率仍超限， 再次熔断 (恢复期样本较少， 最小调用量减半)
+            if(halfOpenTotal >= Math.max(1, minRequests / 2) && (double) halfOpenError / halfOpenTotal >= errorRateThreshold){
+                changeState(CircuitState.OPEN, now);
+
+            }else if(now - stateChangedAt >= recoveryMillis){
+                changeState(CircuitState.CLOSED, now);
+            }
+        }
+    }
+
+    /** 健康系数 [0, 1]： 熔断为0， 恢复中按时间线性增长， 正常为1 **/
+    public synchronized double healthFactor(long recoveryMillis, long now){
+
+        if(circuitState == CircuitState.OPEN){
+            return 0;
+        }
+        if(circuitState == CircuitState.HALF_OPEN){
+            double progress = recoveryMillis <= 0 ? 1 : (double) (now - stateChangedAt) / recoveryMillis;
+            return Math.min(1, Math.max(MIN_RECOVERY_FACTOR, progress));
+        }
+        return 1;
+    }
+
+    /** 窗口内耗时百分位数 (毫秒)， 无数据时返回0 **/
+    public synchronized long latencyPercentile(double percentile, long now){
+
+        long[] histogram = new long[LATENCY_BOUNDS.length];
+        long total = 0;
+        for (int i = 0; i < bucketStartAt.length; i++) {
+            if(isActiveBucket(i, now)){
+                for (int j = 0; j < histogram.length; j++) {
+                    histogram[j] += bucketLatency[i][j];
+                    total += bucketLatency[i][j];
+                }
+            }
+        }
+
+        if(total <= 0){
+            return 0;
+        }
+
+        long target = (long) Math.ceil(percentile * total);
+        long cumulative = 0;
+        for (int j = 0; j < histogram.length; j++) {
+            cumulative += histogram[j];
+            if(cumulative >= target){
+                return j == histogram.length - 1 ? LATENCY_BOUNDS[j - 1] : LATENCY_BOUNDS[j];
+            }
+        }
+        return LATENCY_BOUNDS[LATENCY_BOUNDS.length - 2];
+    }
+
+    public synchronized CircuitState getCircuitState(){
+        return circuitState;
+    }
+
+    /** 监控数据 **/
+    public synchronized Map<String, Object> snapshot(long now){
+
+        long total = windowTotal(now);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ifCode", ifCode);
+        result.put("circuitState", circuitState);
+        result.put("windowTotal", total);
+        result.put("windowError", windowError(now));
+        result.put("errorRate", total <= 0 ? 0 : (double) windowError(now) / total);
+        result.put("p50", latencyPercentile(0.5, now));
+        result.put("p95", latencyPercentile(0.95, now));
+        result.put("p99", latencyPercentile(0.99, now));
+        return result;
+    }
+
+    private void changeState(CircuitState newState, long now){
+        circuitState = newState;
+        stateChangedAt = now;
+        halfOpenTotal = 0;
+        halfOpenError = 0;
+    }
+
+    private long windowTotal(long now){
+        long result = 0;
+        for (int i = 0; i < bucketStartAt.length; i++) {
+            if(isActiveBucket(i, now)){
+                result += bucketTotal[i];
+            }
+        }
+        return result;
+    }
+
+    private long windowError(long now){
+        long result = 0;
+        for (int i = 0; i < bucketStartAt.length; i++) {
+            if(isActiveBucket(i, now)){
+                result += bucketError[i];
+            }
+        }
+        return result;
+    }
+
+    /** 获取当前时间片， 已过期的时间片清零后复用 **/
+    private int currentBucket(long now){
+
+        long bucketStart = now - now % bucketMillis;
+        int index = (int) ((now / bucketMillis) % bucketStartAt.length);
+
+        if(bucketStartAt[index] != bucketStart){
+            bucketStartAt[index] = bucketStart;
+            bucketTotal[index] = 0;
+            bucketError[index] = 0;
+            bucketLatency[index] = new long[LATENCY_BOUNDS.length];
+        }
+        return index;
+    }
+
+    private boolean isActiveBucket(int index, long now){
+        return now - bucketStartAt[index] < bucketMillis * bucketStartAt.length;
+    }
+
+    private static int latencyIndex(long costMillis){
+        for (int i = 0; i < LATENCY_BOUNDS.length; i++) {
+            if(costMillis <= LATENCY_BOUNDS[i]){
+                return i;
+            }
+        }
+        return LATENCY_BOUNDS.length - 1;
+    }
+
+}
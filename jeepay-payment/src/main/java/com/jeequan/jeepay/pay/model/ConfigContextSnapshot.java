@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.model;
+
+import com.jeequan.jeepay.core.entity.IsvInfo;
+import com.jeequan.jeepay.core.entity.MchApp;
+import com.jeequan.jeepay.core.entity.MchInfo;
+import com.jeequan.jeepay.core.entity.PayInterfaceConfig;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+* 配置信息预热数据
+* 预热时批量查询的数据行， 同时作为本地快照文件的内容 （下次启动时仅查询主键及更新时间， 变更的数据行重新查询）。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 17:20
+*/
+@Data
+public class ConfigContextSnapshot {
+
+    /** 已启用的服务商 **/
+    private List<IsvInfo> isvInfoList = new ArrayList<>();
+
+    /** 已启用的商户 **/
+    private List<MchInfo> mchInfoList = new ArrayList<>();
+
+    /** 已启用商户的全部应用 **/
+    private List<MchApp> mchAppList = new ArrayList<>();
+
+    /** 已启用的支付接口配置 **/
+    private List<PayInterfaceConfig> payInterfaceConfigList = new ArrayList<>();
+
+}
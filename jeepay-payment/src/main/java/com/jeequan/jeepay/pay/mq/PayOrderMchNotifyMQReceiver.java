@@ -15,22 +15,17 @@
  */
 package com.jeequan.jeepay.pay.mq;
 
-import cn.hutool.core.net.url.UrlBuilder;
-import cn.hutool.core.util.CharsetUtil;
-import cn.hutool.core.util.StrUtil;
-import cn.hutool.http.HttpUtil;
 import com.jeequan.jeepay.components.mq.model.PayOrderMchNotifyMQ;
-import com.jeequan.jeepay.components.mq.vender.IMQSender;
 import com.jeequan.jeepay.core.entity.MchNotifyRecord;
-import com.jeequan.jeepay.core.exception.BizException;
+import com.jeequan.jeepay.pay.service.MchNotifyDispatcher;
+import com.jeequan.jeepay.pay.service.MchNotifyRetryService;
 import com.jeequan.jeepay.service.impl.MchNotifyRecordService;
 import com.jeequan.jeepay.service.impl.PayOrderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
-
 /**
  * 接收MQ消息
  * 业务： 支付订单商户通知
@@ -47,7 +42,17 @@ public class PayOrderMchNotifyMQReceiver implements PayOrderMchNotifyMQ.IMQRecei
     @Autowired
     private MchNotifyRecordService mchNotifyRecordService;
     @Autowired
-    private IMQSender mqSender;
+    private MchNotifyDispatcher mchNotifyDispatcher;
+    @Autowired
+    private MchNotifyRetryService mchNotifyRetryService;
+
+    /** 商户host排队已满时， 延迟重新投递的时间 (秒) **/
+    @Value("${isys.notify.defer-seconds:10}")
+    private int notifyDeferSeconds;
+
+    /** 发送期间的占位时长 (秒)， 需大于 排队等待 + 请求超时 时间， 节点宕机时到期后重新投递 **/
+    @Value("${isys.notify.lease-seconds:300}")
+    private int notifyLeaseSeconds;
 
     @Override
     public void receive(PayOrderMchNotifyMQ.MsgPayload payload) {
@@ -66,51 +71,57 @@ public class PayOrderMchNotifyMQReceiver implements PayOrderMchNotifyMQ.IMQRecei
                 return;
             }
 
-            //1. (发送结果最多6次)
-            Integer currentCount = record.getNotifyCount() + 1;
-
             String notifyUrl = record.getNotifyUrl();
-            String res = "";
-            try {
-                // res = HttpUtil.createPost(notifyUrl).timeout(20000).execute().body();
 
-                String host = notifyUrl.split("\\?")[0];
-                Map bodyMap = HttpUtil.decodeParamMap(notifyUrl, CharsetUtil.CHARSET_UTF_8);
-                res = HttpUtil.post(host, bodyMap, 20000);
+            // 异步发送前占位： MQ消息在此之后即确认， 节点宕机时由延迟队列重新投递
+            mchNotifyRetryService.lease(notifyId, notifyLeaseSeconds);
 
-            } catch (Exception e) {
-                log.error("http error", e);
-                res = "连接["+ UrlBuilder.of(notifyUrl).getHost() +"]异常:【" + e.getMessage() + "】";
-            }
+            // 异步发送， 由调度器按商户host进行并发控制， 不占用MQ消费线程
+            boolean isAccepted = mchNotifyDispatcher.dispatch(notifyId, notifyUrl, res -> processNotifyResult(record, res));
 
-            //支付订单 & 第一次通知: 更新为已通知
-            if(currentCount == 1 && MchNotifyRecord.TYPE_PAY_ORDER == record.getOrderType()){
-                payOrderService.updateNotifySent(record.getOrderId());
+            // 该商户host排队已满： 本次不计入通知次数， 延迟重新投递
+            if(!isAccepted){
+                log.warn("商户通知排队已满, 延迟{}秒重新投递, notifyId={}", notifyDeferSeconds, notifyId);
+                mchNotifyRetryService.schedule(notifyId, notifyDeferSeconds);
             }
 
-            //通知成功
-            if("SUCCESS".equalsIgnoreCase(res)){
-                mchNotifyRecordService.updateNotifyResult(notifyId, MchNotifyRecord.STATE_SUCCESS, res);
-                return;
-            }
+            return;
+        }catch (Exception e) {
+            log.error(e.getMessage(), e);
+            return;
+        }
+    }
 
-            //通知次数 >= 最大通知次数时， 更新响应结果为异常， 不在继续延迟发送消息
-            if( currentCount >= record.getNotifyCountLimit() ){
-                mchNotifyRecordService.updateNotifyResult(notifyId, MchNotifyRecord.STATE_FAIL, res);
-                return;
-            }
 
-            // 继续发送MQ 延迟发送
-            mchNotifyRecordService.updateNotifyResult(notifyId, MchNotifyRecord.STATE_ING, res);
-            // 通知延时次数
-            //        1   2  3  4   5   6
-            //        0  30 60 90 120 150
-            mqSender.send(PayOrderMchNotifyMQ.build(notifyId), currentCount * 30);
+    /** 处理商户响应结果， 更新通知记录状态 **/
+    private void processNotifyResult(MchNotifyRecord record, String res){
+
+        Long notifyId = record.getNotifyId();
+
+        //1. (发送结果最多6次)
+        Integer currentCount = record.getNotifyCount() + 1;
+
+        //支付订单 & 第一次通知: 更新为已通知
+        if(currentCount == 1 && MchNotifyRecord.TYPE_PAY_ORDER == record.getOrderType()){
+            payOrderService.updateNotifySent(record.getOrderId());
+        }
 
+        //通知成功
+        if("SUCCESS".equalsIgnoreCase(res)){
+            mchNotifyRecordService.updateNotifyResult(notifyId, MchNotifyRecord.STATE_SUCCESS, res);
+            mchNotifyRetryService.release(notifyId);
             return;
-        }catch (Exception e) {
-            log.error(e.getMessage(), e);
+        }
+
+        //通知次数 >= 最大通知次数时， 更新响应结果为异常， 不在继续延迟发送消息
+        if( currentCount >= record.getNotifyCountLimit() ){
+            mchNotifyRecordService.updateNotifyResult(notifyId, MchNotifyRecord.STATE_FAIL, res);
+            mchNotifyRetryService.release(notifyId);
             return;
         }
+
+        // 继续延迟发送 (指数退避 + 随机抖动， 支持按商户配置)
+        mchNotifyRecordService.updateNotifyResult(notifyId, MchNotifyRecord.STATE_ING, res);
+        mchNotifyRetryService.scheduleRetry(record.getMchNo(), notifyId, currentCount);
     }
 }
@@ -17,10 +17,17 @@ package com.jeequan.jeepay.pay.mq;
 
 import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
 import com.jeequan.jeepay.pay.service.ConfigContextService;
+import com.jeequan.jeepay.pay.service.MchPayPassageRouteService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * 接收MQ消息
  * 业务： 更新服务商/商户/商户应用配置信息；
@@ -35,6 +42,9 @@ public class ResetIsvMchAppInfoMQReceiver implements ResetIsvMchAppInfoConfigMQ.
     @Autowired
     private ConfigContextService configContextService;
 
+    @Autowired
+    private MchPayPassageRouteService mchPayPassageRouteService;
+
     @Override
     public void receive(ResetIsvMchAppInfoConfigMQ.MsgPayload payload) {
 
@@ -44,14 +54,47 @@ public class ResetIsvMchAppInfoMQReceiver implements ResetIsvMchAppInfoConfigMQ.
             this.modifyMchInfo(payload.getMchNo());
         }else if(payload.getResetType() == ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_APP){
             this.modifyMchApp(payload.getMchNo(), payload.getAppId());
+        }else if(payload.getResetType() == ResetIsvMchAppInfoConfigMQ.RESET_TYPE_PAY_IF_DEFINE){
+            this.modifyPayIfDefine();
+        }else if(payload.getResetType() == ResetIsvMchAppInfoConfigMQ.RESET_TYPE_BATCH){
+            this.modifyBatch(payload.getItemList());
         }
 
     }
 
+    /** 批量接收 （开启批量消费时）， 与合并后的批量重置消息一并处理 **/
+    @Override
+    public void receiveBatch(List<ResetIsvMchAppInfoConfigMQ.MsgPayload> payloadList) {
+        this.modifyBatch(payloadList);
+    }
+
+    /** 接收 [批量重置] 的消息： 按类型去重后批量重置， 每类数据仅查询一次DB **/
+    private void modifyBatch(List<ResetIsvMchAppInfoConfigMQ.MsgPayload> itemList) {
+
+        ResetKeys keys = new ResetKeys();
+        keys.collect(itemList);
+
+        log.info("成功接收 [批量重置] 的消息, isvNos={}, mchNos={}, appIds={}, payIfDefine={}", keys.isvNos, keys.mchNos, keys.appMchNoMap.keySet(), keys.payIfDefine);
+
+        configContextService.initIsvConfigContexts(keys.isvNos);
+
+        configContextService.initMchInfoConfigContexts(keys.mchNos);
+        mchPayPassageRouteService.resetMchInfos(keys.mchNos);
+
+        configContextService.initMchAppConfigContexts(keys.appMchNoMap);
+        mchPayPassageRouteService.resetMchApps(keys.appMchNoMap.keySet());
+
+        if(keys.payIfDefine){
+            mchPayPassageRouteService.resetPayIfDefine();
+        }
+        log.info(" [批量重置] 已完成");
+    }
+
     /** 接收 [商户配置信息] 的消息 **/
     private void modifyMchInfo(String mchNo) {
         log.info("成功接收 [商户配置信息] 的消息, msg={}", mchNo);
         configContextService.initMchInfoConfigContext(mchNo);
+        mchPayPassageRouteService.resetMchInfo(mchNo);
         log.info(" [商户配置信息] 已重置");
     }
 
@@ -59,9 +102,17 @@ public class ResetIsvMchAppInfoMQReceiver implements ResetIsvMchAppInfoConfigMQ.
     private void modifyMchApp(String mchNo, String appId) {
         log.info("成功接收 [商户应用支付参数配置信息] 的消息, mchNo={}, appId={}", mchNo, appId);
         configContextService.initMchAppConfigContext(mchNo, appId);
+        mchPayPassageRouteService.resetMchApp(appId);
         log.info(" [商户应用支付参数配置信息] 已重置");
     }
 
+    /** 接收 [支付接口定义] 的消息 **/
+    private void modifyPayIfDefine() {
+        log.info("成功接收 [支付接口定义] 重置");
+        mchPayPassageRouteService.resetPayIfDefine();
+        log.info("[支付接口定义] 已重置");
+    }
+
     /** 重置ISV信息 **/
     private void modifyIsvInfo(String isvNo) {
         log.info("成功接收 [ISV信息] 重置, msg={}", isvNo);
@@ -69,4 +120,34 @@ public class ResetIsvMchAppInfoMQReceiver implements ResetIsvMchAppInfoConfigMQ.
         log.info("[ISV信息] 已重置");
     }
 
+    /** 批量重置消息中 去重后的各类key **/
+    private static class ResetKeys {
+
+        private final Set<String> isvNos = new LinkedHashSet<>();
+        private final Set<String> mchNos = new LinkedHashSet<>();
+        private final Map<String, String> appMchNoMap = new LinkedHashMap<>(); // <appId, mchNo>
+        private boolean payIfDefine = false;
+
+        private void collect(List<ResetIsvMchAppInfoConfigMQ.MsgPayload> itemList) {
+
+            if(itemList == null){
+                return ;
+            }
+
+            for (ResetIsvMchAppInfoConfigMQ.MsgPayload item : itemList) {
+                if(item.getResetType() == ResetIsvMchAppInfoConfigMQ.RESET_TYPE_ISV_INFO){
+                    isvNos.add(item.getIsvNo());
+                }else if(item.getResetType() == ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_INFO){
+                    mchNos.add(item.getMchNo());
+                }else if(item.getResetType() == ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_APP){
+                    appMchNoMap.put(item.getAppId(), item.getMchNo());
+                }else if(item.getResetType() == ResetIsvMchAppInfoConfigMQ.RESET_TYPE_PAY_IF_DEFINE){
+                    payIfDefine = true;
+                }else if(item.getResetType() == ResetIsvMchAppInfoConfigMQ.RESET_TYPE_BATCH){
+                    collect(item.getItemList());
+                }
+            }
+        }
+    }
+
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.service;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.alibaba.fastjson.JSON;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jeequan.jeepay.core.model.params.alipay.AlipayIsvParams;
+import com.jeequan.jeepay.core.model.params.alipay.AlipayNormalMchParams;
+import com.jeequan.jeepay.core.model.params.pppay.PppayNormalMchParams;
+import com.jeequan.jeepay.core.model.params.wxpay.WxpayIsvParams;
+import com.jeequan.jeepay.core.model.params.wxpay.WxpayNormalMchParams;
+import com.jeequan.jeepay.core.model.params.ysf.YsfpayIsvParams;
+import com.jeequan.jeepay.core.utils.SpringBeansUtil;
+import com.jeequan.jeepay.pay.channel.ysfpay.utils.YsfSignUtils;
+import com.jeequan.jeepay.pay.model.AlipayClientWrapper;
+import com.jeequan.jeepay.pay.model.PaypalWrapper;
+import com.jeequan.jeepay.pay.model.WxServiceWrapper;
+import com.jeequan.jeepay.pay.util.ChannelCertConfigKitBean;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.PrivateKey;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/*
+* 支付渠道SDK客户端 注册表
+*
+* 按生效参数的摘要（参数类型 + 参数JSON）缓存客户端， 相同参数的服务商/商户应用共用同一客户端，
+* 客户端内已加载的证书、 私钥及HTTP连接随客户端复用， 避免每次请求（非缓存模式）或每次重置时重复读取证书文件。
+* 每种参数类型对应唯一的客户端类型： 支付宝 -> AlipayClientWrapper， 微信 -> WxServiceWrapper，
+* PayPal -> PaypalWrapper， 云闪付服务商 -> 签名私钥。
+* 参数变更时摘要随之变化； 配置重置时按旧参数及DB中的当前参数失效 （兼容证书文件内容变更但文件名不变的情况， 与是否缓存配置无关）。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 18:10
+*/
+@Slf4j
+@Service
+public class ChannelClientRegistry {
+
+    /** 客户端缓存的最大数量 **/
+    @Value("${isys.channel-client.maximum-size:10000}")
+    private long maximumSize;
+
+    /** 未被访问的客户端的过期时间 (秒) **/
+    @Value("${isys.channel-client.expire-after-access-seconds:1800}")
+    private long expireAfterAccessSeconds;
+
+    /** <参数摘要, 客户端> **/
+    private Cache<String, Object> clientCache;
+
+    @PostConstruct
+    public void init(){
+        clientCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofSeconds(expireAfterAccessSeconds))
+                .recordStats()
+                .build();
+    }
+
+
+    public AlipayClientWrapper getAlipayClientWrapper(AlipayIsvParams alipayParams){
+        return get(alipayParams, () -> AlipayClientWrapper.buildAlipayClientWrapper(alipayParams));
+    }
+
+    public AlipayClientWrapper getAlipayClientWrapper(AlipayNormalMchParams alipayParams){
+        return get(alipayParams, () -> AlipayClientWrapper.buildAlipayClientWrapper(alipayParams));
+    }
+
+    public WxServiceWrapper getWxServiceWrapper(WxpayIsvParams wxpayParams){
+        return get(wxpayParams, () -> WxServiceWrapper.buildWxServiceWrapper(wxpayParams));
+    }
+
+    public WxServiceWrapper getWxServiceWrapper(WxpayNormalMchParams wxpayParams){
+        return get(wxpayParams, () -> WxServiceWrapper.buildWxServiceWrapper(wxpayParams));
+    }
+
+    public PaypalWrapper getPaypalWrapper(PppayNormalMchParams ppPayParams){
+        return get(ppPayParams, () -> PaypalWrapper.buildPaypalWrapper(ppPayParams));
+    }
+
+    /** 云闪付服务商签名私钥 **/
+    public PrivateKey getYsfpaySignPrivateKey(YsfpayIsvParams isvParams){
+        return get(isvParams, () -> YsfSignUtils.getSignCertPrivateKey(
+                SpringBeansUtil.getBean(ChannelCertConfigKitBean.class).getCertFilePath(isvParams.getIsvPrivateCertFile()), isvParams.getIsvPrivateCertPwd()));
+    }
+
+    /** 失效参数对应的客户端， params为空时忽略 **/
+    public void invalidate(Object params){
+        if(params != null){
+            clientCache.invalidate(cacheKey(params));
+        }
+    }
+
+    /** 缓存统计信息 **/
+    public Map<String, Object> stats(){
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", clientCache.estimatedSize());
+        result.put("hitCount", clientCache.stats().hitCount());
+        result.put("missCount", clientCache.stats().missCount());
+        result.put("evictionCount", clientCache.stats().evictionCount());
+        return result;
+    }
+
+    /** 获取客户端， 不存在时构建 （构建结果为空时不缓存） **/
+    @SuppressWarnings("unchecked")
+    private <T> T get(Object params, Supplier<T> builder){
+        return (T) clientCache.get(cacheKey(params), key -> builder.get());
+    }
+
+    private String cacheKey(Object params){
+        return DigestUtil.sha256Hex(params.getClass().getName() + ":" + JSON.toJSONString(params));
+    }
+
+}
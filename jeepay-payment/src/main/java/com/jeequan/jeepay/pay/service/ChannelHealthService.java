@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.service;
+
+import com.jeequan.jeepay.pay.model.ChannelHealth;
+import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+* 支付通道健康度服务
+* 记录调起上游支付接口的耗时和结果 (SYS_ERROR / API_RET_ERROR / 异常 记为失败)，
+* 计算路由时的有效权重： 配置权重 * 健康系数(熔断/恢复) * 耗时系数(p95超过目标耗时时按比例降低)
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 15:00
+*/
+@Slf4j
+@Service
+public class ChannelHealthService {
+
+    /** 耗时系数最小值， 避免慢通道完全没有流量而无法恢复统计 **/
+    private static final double MIN_LATENCY_FACTOR = 0.1;
+
+    /** <接口代码, 健康状态> **/
+    private final Map<String, ChannelHealth> channelHealthMap = new ConcurrentHashMap<>();
+
+    /** 滑动窗口时间片数量 & 时间片时长(毫秒)， 默认 12 * 5s = 1分钟 **/
+    @Value("${isys.route.window-buckets:12}")
+    private int windowBuckets;
+
+    @Value("${isys.route.bucket-millis:5000}")
+    private long bucketMillis;
+
+    /** 触发熔断的最小调用量 **/
+    @Value("${isys.route.min-requests:20}")
+    private long minRequests;
+
+    /** 触发熔断的异常率 **/
+    @Value("${isys.route.error-rate-threshold:0.5}")
+    private double errorRateThreshold;
+
+    /** 熔断时长 (毫秒) **/
+    @Value("${isys.route.open-millis:30000}")
+    private long openMillis;
+
+    /** 半开恢复时长 (毫秒)， 期间流量从10%线性恢复到100% **/
+    @Value("${isys.route.recovery-millis:60000}")
+    private long recoveryMillis;
+
+    /** 目标耗时 (毫秒)， p95超过该值时按比例降低权重 **/
+    @Value("${isys.route.latency-target-millis:2000}")
+    private long latencyTargetMillis;
+
+
+    /** 记录调用结果 **/
+    public void record(String ifCode, long costMillis, ChannelRetMsg channelRetMsg){
+
+        boolean isError = channelRetMsg != null && (
+                channelRetMsg.getChannelState() == ChannelRetMsg.ChannelState.SYS_ERROR
+                || channelRetMsg.getChannelState() == ChannelRetMsg.ChannelState.API_RET_ERROR);
+
+        record(ifCode, costMillis, isError);
+    }
+
+    /** 记录调用结果 **/
+    public void record(String ifCode, long costMillis, boolean isError){
+
+        long now = System.currentTimeMillis();
+        ChannelHealth channelHealth = getChannelHealth(ifCode);
+        channelHealth.record(costMillis, isError, now);
+
+        ChannelHealth.CircuitState beforeState = channelHealth.getCircuitState();
+        channelHealth.evaluate(minRequests, errorRateThreshold, openMillis, recoveryMillis, now);
+        if(beforeState != channelHealth.getCircuitState()){
+            log.warn("支付通道[{}]熔断状态变更: {} -> {}", ifCode, beforeState, channelHealth.getCircuitState());
+        }
+    }
+
+    /** 计算有效权重 **/
+    public double effectiveWeight(String ifCode, int configWeight){
+
+        if(configWeight <= 0){
+            return 0;
+        }
+
+        long now = System.currentTimeMillis();
+        ChannelHealth channelHealth = getChannelHealth(ifCode);
+
+        // 熔断时间到期后无调用也需进入半开状态
+        channelHealth.evaluate(minRequests, errorRateThreshold, openMillis, recoveryMillis, now);
+
+        double healthFactor = channelHealth.healthFactor(recoveryMillis, now);
+        if(healthFactor <= 0){
+            return 0;
+        }
+
+        double latencyFactor = 1;
+        long p95 = channelHealth.latencyPercentile(0.95, now);
+        if(p95 > latencyTargetMillis){
+            latencyFactor = Math.max(MIN_LATENCY_FACTOR, (double) latencyTargetMillis / p95);
+        }
+
+        return configWeight * healthFactor * latencyFactor;
+    }
+
+    /** 所有通道的监控数据 **/
+    public List<Map<String, Object>> snapshot(){
+
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> result = new ArrayList<>();
+        channelHealthMap.values().forEach(channelHealth -> result.add(channelHealth.snapshot(now)));
+        return result;
+    }
+
+    private ChannelHealth getChannelHealth(String ifCode){
+        return channelHealthMap.computeIfAbsent(ifCode, k -> new ChannelHealth(k, windowBuckets, bucketMillis));
+    }
+
+}
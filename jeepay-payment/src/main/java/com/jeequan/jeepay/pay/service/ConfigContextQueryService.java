@@ -51,6 +51,7 @@ public class ConfigContextQueryService {
     @Autowired private MchInfoService mchInfoService;
     @Autowired private MchAppService mchAppService;
     @Autowired private PayInterfaceConfigService payInterfaceConfigService;
+    @Autowired private ChannelClientRegistry channelClientRegistry;
 
     private boolean isCache(){
         return SysConfigService.IS_USE_CACHE;
@@ -175,11 +176,11 @@ public class ConfigContextQueryService {
         if(mchAppConfigContext.isIsvsubMch()){
 
             AlipayIsvParams alipayParams = (AlipayIsvParams)queryIsvParams(mchAppConfigContext.getMchInfo().getIsvNo(), CS.IF_CODE.ALIPAY);
-            return AlipayClientWrapper.buildAlipayClientWrapper(alipayParams);
+            return channelClientRegistry.getAlipayClientWrapper(alipayParams);
         }else{
 
             AlipayNormalMchParams alipayParams = (AlipayNormalMchParams)queryNormalMchParams(mchAppConfigContext.getMchNo(), mchAppConfigContext.getAppId(), CS.IF_CODE.ALIPAY);
-            return AlipayClientWrapper.buildAlipayClientWrapper(alipayParams);
+            return channelClientRegistry.getAlipayClientWrapper(alipayParams);
         }
 
     }
@@ -194,11 +195,11 @@ public class ConfigContextQueryService {
         if(mchAppConfigContext.isIsvsubMch()){
 
             WxpayIsvParams wxParams = (WxpayIsvParams)queryIsvParams(mchAppConfigContext.getMchInfo().getIsvNo(), CS.IF_CODE.WXPAY);
-            return WxServiceWrapper.buildWxServiceWrapper(wxParams);
+            return channelClientRegistry.getWxServiceWrapper(wxParams);
         }else{
 
             WxpayNormalMchParams wxParams = (WxpayNormalMchParams)queryNormalMchParams(mchAppConfigContext.getMchNo(), mchAppConfigContext.getAppId(), CS.IF_CODE.WXPAY);
-            return WxServiceWrapper.buildWxServiceWrapper(wxParams);
+            return channelClientRegistry.getWxServiceWrapper(wxParams);
         }
 
     }
@@ -209,7 +210,7 @@ public class ConfigContextQueryService {
                     configContextService.getMchAppConfigContext(mchAppConfigContext.getMchNo(), mchAppConfigContext.getAppId()).getPaypalWrapper();
         }
         PppayNormalMchParams ppPayNormalMchParams = (PppayNormalMchParams) queryNormalMchParams(mchAppConfigContext.getMchNo(), mchAppConfigContext.getAppId(), CS.IF_CODE.PPPAY);;
-        return PaypalWrapper.buildPaypalWrapper(ppPayNormalMchParams);
+        return channelClientRegistry.getPaypalWrapper(ppPayNormalMchParams);
 
     }
 
@@ -15,6 +15,10 @@
  */
 package com.jeequan.jeepay.pay.service;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.entity.IsvInfo;
 import com.jeequan.jeepay.core.entity.MchApp;
@@ -30,18 +34,30 @@ import com.jeequan.jeepay.core.model.params.wxpay.WxpayIsvParams;
 import com.jeequan.jeepay.core.model.params.wxpay.WxpayNormalMchParams;
 import com.jeequan.jeepay.pay.model.*;
 import com.jeequan.jeepay.service.impl.*;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /*
 * 商户/服务商 配置信息上下文服务
 *
+* 每个key独立加载 (同一key并发请求只加载一次， 不同key互不阻塞)，
+* 重置时记录key的失效版本号并失效缓存， 重置前已开始的加载结果（旧版本）不会覆盖新数据。
+*
 * @author terrfly
 * @site https://www.jeequan.com
 * @date 2021/6/8 17:41
@@ -51,156 +67,358 @@ import java.util.concurrent.ConcurrentHashMap;
 public class ConfigContextService {
 
     /** <商户ID, 商户配置项>  **/
-    private static final Map<String, MchInfoConfigContext> mchInfoConfigContextMap = new ConcurrentHashMap<>();
+    private VersionedCache<MchInfoConfigContext> mchInfoConfigContextCache;
 
     /** <应用ID, 商户配置上下文>  **/
-    private static final Map<String, MchAppConfigContext> mchAppConfigContextMap = new ConcurrentHashMap<>();
+    private VersionedCache<MchAppConfigContext> mchAppConfigContextCache;
 
     /** <服务商号, 服务商配置上下文>  **/
-    private static final Map<String, IsvConfigContext> isvConfigContextMap = new ConcurrentHashMap<>();
+    private VersionedCache<IsvConfigContext> isvConfigContextCache;
 
     @Autowired private MchInfoService mchInfoService;
     @Autowired private MchAppService mchAppService;
     @Autowired private IsvInfoService isvInfoService;
     @Autowired private PayInterfaceConfigService payInterfaceConfigService;
+    @Autowired private ChannelClientRegistry channelClientRegistry;
+
+    /** 预热时每类配置的并行构建分片数 **/
+    private static final int PRELOAD_CHUNKS = 32;
+
+    /** 普通商户参数中包含渠道客户端的支付接口 **/
+    private static final Set<String> NORMAL_MCH_CLIENT_IF_CODES = new HashSet<>(Arrays.asList(CS.IF_CODE.ALIPAY, CS.IF_CODE.WXPAY, CS.IF_CODE.PPPAY));
+
+    /** 每类配置缓存的最大数量 **/
+    @Value("${isys.config-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    /** 写入后自动刷新时间 (秒)， 作为MQ广播丢失时的兜底 **/
+    @Value("${isys.config-cache.refresh-after-write-seconds:600}")
+    private long refreshAfterWriteSeconds;
+
+    @PostConstruct
+    public void init(){
+        mchInfoConfigContextCache = new VersionedCache<>(this::loadMchInfoConfigContexts);
+        mchAppConfigContextCache = new VersionedCache<>(this::loadMchAppConfigContexts);
+        isvConfigContextCache = new VersionedCache<>(this::loadIsvConfigContexts);
+    }
 
 
     /** 获取 [商户配置信息] **/
     public MchInfoConfigContext getMchInfoConfigContext(String mchNo){
 
-        MchInfoConfigContext mchInfoConfigContext = mchInfoConfigContextMap.get(mchNo);
-
-        //无此数据， 需要初始化
-        if(mchInfoConfigContext == null){
-            initMchInfoConfigContext(mchNo);
+        if(!isCache()){ // 当前系统不进行缓存
+            return null;
         }
-
-        return mchInfoConfigContextMap.get(mchNo);
+        return mchInfoConfigContextCache.get(mchNo);
     }
 
     /** 获取 [商户应用支付参数配置信息] **/
     public MchAppConfigContext getMchAppConfigContext(String mchNo, String appId){
 
-        MchAppConfigContext mchAppConfigContext = mchAppConfigContextMap.get(appId);
-
-        //无此数据， 需要初始化
-        if(mchAppConfigContext == null){
-            initMchAppConfigContext(mchNo, appId);
+        if(!isCache()){ // 当前系统不进行缓存
+            return null;
         }
 
-        return mchAppConfigContextMap.get(appId);
+        MchAppConfigContext mchAppConfigContext = mchAppConfigContextCache.get(appId);
+
+        // 商户应用mchNo 与参数不匹配
+        if(mchAppConfigContext != null && !mchAppConfigContext.getMchNo().equals(mchNo)){
+            return null;
+        }
+        return mchAppConfigContext;
     }
 
     /** 获取 [ISV支付参数配置信息] **/
     public IsvConfigContext getIsvConfigContext(String isvNo){
 
-        IsvConfigContext isvConfigContext = isvConfigContextMap.get(isvNo);
-
-        //无此数据， 需要初始化
-        if(isvConfigContext == null){
-            initIsvConfigContext(isvNo);
+        if(!isCache()){ // 当前系统不进行缓存
+            return null;
         }
+        return isvConfigContextCache.get(isvNo);
+    }
 
-        return isvConfigContextMap.get(isvNo);
+    /** 缓存统计信息 <缓存名称, 统计数据> **/
+    public Map<String, Object> getCacheStats(){
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mchInfo", mchInfoConfigContextCache.stats());
+        result.put("mchApp", mchAppConfigContextCache.stats());
+        result.put("isv", isvConfigContextCache.stats());
+        result.put("channelClient", channelClientRegistry.stats());
+        return result;
     }
 
 
     /** 初始化 [商户配置信息] **/
-    public synchronized void initMchInfoConfigContext(String mchNo){
+    public void initMchInfoConfigContext(String mchNo){
+        initMchInfoConfigContexts(Collections.singleton(mchNo));
+    }
+
+    /** 批量初始化 [商户配置信息]， 每类数据仅查询一次DB **/
+    public void initMchInfoConfigContexts(Collection<String> mchNos){
+
+        if(!isCache() || mchNos.isEmpty()){ // 当前系统不进行缓存
+            return ;
+        }
+
+        Set<String> mchNoSet = new HashSet<>(mchNos);
+
+        // 商户应用内缓存了商户主体信息， 一并失效
+        for (String mchNo : mchNoSet) {
+            MchInfoConfigContext oldContext = mchInfoConfigContextCache.getIfPresent(mchNo);
+            if(oldContext != null){
+                oldContext.getAppMap().keySet().forEach(appId -> mchAppConfigContextCache.invalidate(appId));
+            }
+        }
+        mchAppConfigContextCache.invalidateIf(v -> mchNoSet.contains(v.getMchNo()));
+
+        mchNoSet.forEach(mchInfoConfigContextCache::invalidate);
+        mchInfoConfigContextCache.getAll(mchNoSet);
+    }
+
+    /** 初始化 [商户应用支付参数配置信息] **/
+    public void initMchAppConfigContext(String mchNo, String appId){
+        initMchAppConfigContexts(Collections.singletonMap(appId, mchNo));
+    }
+
+    /** 批量初始化 [商户应用支付参数配置信息]， appMchNoMap: <应用ID, 商户号> **/
+    public void initMchAppConfigContexts(Map<String, String> appMchNoMap){
+
+        if(appMchNoMap.isEmpty()){
+            return ;
+        }
+
+        // 失效当前参数对应的渠道客户端 （证书文件内容变更但文件名不变）， 与是否缓存无关
+        invalidateChannelClients(CS.INFO_TYPE_MCH_APP, appMchNoMap.keySet());
 
         if(!isCache()){ // 当前系统不进行缓存
             return ;
         }
 
-        //商户主体信息
-        MchInfo mchInfo = mchInfoService.getById(mchNo);
-        if(mchInfo == null){ // 查询不到商户主体， 可能已经删除
+        // 失效旧参数对应的渠道客户端 （参数已变更）
+        appMchNoMap.keySet().forEach(appId -> {
+            MchAppConfigContext oldContext = mchAppConfigContextCache.getIfPresent(appId);
+            if(oldContext != null){
+                oldContext.getNormalMchParamsMap().values().forEach(channelClientRegistry::invalidate);
+            }
+        });
 
-            MchInfoConfigContext mchInfoConfigContext = mchInfoConfigContextMap.get(mchNo);
+        appMchNoMap.keySet().forEach(mchAppConfigContextCache::invalidate);
+        Map<String, MchAppConfigContext> loadedMap = mchAppConfigContextCache.getAll(appMchNoMap.keySet());
 
-            // 删除所有的商户应用
-            if(mchInfoConfigContext != null){
-                mchInfoConfigContext.getAppMap().forEach((k, v) -> mchAppConfigContextMap.remove(k));
+        //DB已经删除, 清除商户主体信息中的appId
+        appMchNoMap.forEach((appId, mchNo) -> {
+            if(!loadedMap.containsKey(appId)){
+                MchInfoConfigContext mchInfoConfigContext = mchInfoConfigContextCache.getIfPresent(mchNo);
+                if(mchInfoConfigContext != null){
+                    mchInfoConfigContext.getAppMap().remove(appId);
+                }
             }
+        });
+    }
+
+    /** 初始化 [ISV支付参数配置信息]  **/
+    public void initIsvConfigContext(String isvNo){
+        initIsvConfigContexts(Collections.singleton(isvNo));
+    }
+
+    /** 批量初始化 [ISV支付参数配置信息]  **/
+    public void initIsvConfigContexts(Collection<String> isvNos){
 
-            mchInfoConfigContextMap.remove(mchNo);
+        if(isvNos.isEmpty()){
             return ;
         }
 
-        MchInfoConfigContext mchInfoConfigContext = new MchInfoConfigContext();
+        Set<String> isvNoSet = new HashSet<>(isvNos);
 
-        // 设置商户信息
-        mchInfoConfigContext.setMchNo(mchInfo.getMchNo());
-        mchInfoConfigContext.setMchType(mchInfo.getType());
-        mchInfoConfigContext.setMchInfo(mchInfo);
-        mchAppService.list(MchApp.gw().eq(MchApp::getMchNo, mchNo)).stream().forEach( mchApp -> {
+        // 失效当前参数对应的渠道客户端 （证书文件内容变更但文件名不变）， 与是否缓存无关
+        invalidateChannelClients(CS.INFO_TYPE_ISV, isvNoSet);
+
+        if(!isCache()){ // 当前系统不进行缓存
+            return ;
+        }
 
-            //1. 更新商户内appId集合
-            mchInfoConfigContext.putMchApp(mchApp);
+        // 商户应用内缓存了服务商配置对象， 一并失效
+        mchAppConfigContextCache.invalidateIf(v -> v.getMchInfo() != null && isvNoSet.contains(v.getMchInfo().getIsvNo()));
 
-            MchAppConfigContext mchAppConfigContext = mchAppConfigContextMap.get(mchApp.getAppId());
-            if(mchAppConfigContext != null){
-                mchAppConfigContext.setMchApp(mchApp);
-                mchAppConfigContext.setMchNo(mchInfo.getMchNo());
-                mchAppConfigContext.setMchType(mchInfo.getType());
-                mchAppConfigContext.setMchInfo(mchInfo);
+        // 失效旧参数对应的渠道客户端 （参数已变更）
+        isvNoSet.forEach(isvNo -> {
+            IsvConfigContext oldContext = isvConfigContextCache.getIfPresent(isvNo);
+            if(oldContext != null){
+                oldContext.getIsvParamsMap().values().forEach(channelClientRegistry::invalidate);
             }
         });
 
-        mchInfoConfigContextMap.put(mchNo, mchInfoConfigContext);
+        isvNoSet.forEach(isvConfigContextCache::invalidate);
+        isvConfigContextCache.getAll(isvNoSet);
     }
 
-    /** 初始化 [商户应用支付参数配置信息] **/
-    public synchronized void initMchAppConfigContext(String mchNo, String appId){
+
+    /**
+     * 预热： 由批量查询的数据行直接构建配置上下文并放入缓存， 各数据行在线程池中并行构建。
+     * 查询数据前记录开始版本号， 预热期间发生重置的key不放入缓存， 读取时重新加载。
+     * @return 预热的配置上下文数量
+     **/
+    public int preload(Supplier<ConfigContextSnapshot> snapshotSupplier, ExecutorService executor){
 
         if(!isCache()){ // 当前系统不进行缓存
-            return ;
+            return 0;
         }
 
-        // 获取商户的配置信息
-        MchInfoConfigContext mchInfoConfigContext = getMchInfoConfigContext(mchNo);
-        if(mchInfoConfigContext == null){ // 商户信息不存在
-            return;
+        long isvLoadVersion = isvConfigContextCache.beginLoad();
+        long mchInfoLoadVersion = mchInfoConfigContextCache.beginLoad();
+        long mchAppLoadVersion = mchAppConfigContextCache.beginLoad();
+        try {
+            return preload(snapshotSupplier.get(), executor, isvLoadVersion, mchInfoLoadVersion, mchAppLoadVersion);
+        } finally {
+            isvConfigContextCache.endLoad(isvLoadVersion);
+            mchInfoConfigContextCache.endLoad(mchInfoLoadVersion);
+            mchAppConfigContextCache.endLoad(mchAppLoadVersion);
         }
+    }
 
-        // 查询商户应用信息主体
-        MchApp dbMchApp = mchAppService.getById(appId);
+    private int preload(ConfigContextSnapshot snapshot, ExecutorService executor, long isvLoadVersion, long mchInfoLoadVersion, long mchAppLoadVersion){
 
-        //DB已经删除
-        if(dbMchApp == null){
-            mchAppConfigContextMap.remove(appId);  //清除缓存信息
-            mchInfoConfigContext.getAppMap().remove(appId); //清除主体信息中的appId
-            return ;
+        Map<String, List<PayInterfaceConfig>> isvConfigMap = new HashMap<>();
+        Map<String, List<PayInterfaceConfig>> mchAppConfigMap = new HashMap<>();
+        for (PayInterfaceConfig payInterfaceConfig : snapshot.getPayInterfaceConfigList()) {
+            if(payInterfaceConfig.getInfoType() == CS.INFO_TYPE_ISV){
+                isvConfigMap.computeIfAbsent(payInterfaceConfig.getInfoId(), k -> new ArrayList<>()).add(payInterfaceConfig);
+            }else if(payInterfaceConfig.getInfoType() == CS.INFO_TYPE_MCH_APP){
+                mchAppConfigMap.computeIfAbsent(payInterfaceConfig.getInfoId(), k -> new ArrayList<>()).add(payInterfaceConfig);
+            }
         }
 
+        // 服务商
+        Map<String, IsvConfigContext> isvMap = buildParallel(snapshot.getIsvInfoList(), IsvInfo::getIsvNo,
+                isvInfo -> buildIsvConfigContext(isvInfo, isvConfigMap.getOrDefault(isvInfo.getIsvNo(), Collections.emptyList())), executor);
+        isvConfigContextCache.putAll(isvMap, isvLoadVersion);
+
+        // 商户
+        Map<String, List<MchApp>> mchAppMap = snapshot.getMchAppList().stream().collect(Collectors.groupingBy(MchApp::getMchNo));
+        Map<String, MchInfoConfigContext> mchInfoMap = buildParallel(snapshot.getMchInfoList(), MchInfo::getMchNo,
+                mchInfo -> buildMchInfoConfigContext(mchInfo, mchAppMap.getOrDefault(mchInfo.getMchNo(), Collections.emptyList())), executor);
+        mchInfoConfigContextCache.putAll(mchInfoMap, mchInfoLoadVersion);
+
+        // 已启用的商户应用 (未预热的服务商从缓存中获取)
+        List<MchApp> enabledMchAppList = snapshot.getMchAppList().stream()
+                .filter(mchApp -> mchApp.getState() == CS.YES && mchInfoMap.containsKey(mchApp.getMchNo())).toList();
+        Function<String, IsvConfigContext> isvGetter = isvNo -> isvMap.containsKey(isvNo) ? isvMap.get(isvNo) : isvConfigContextCache.get(isvNo);
+        Map<String, MchAppConfigContext> mchAppContextMap = buildParallel(enabledMchAppList, MchApp::getAppId,
+                mchApp -> buildMchAppConfigContext(mchApp, mchInfoMap.get(mchApp.getMchNo()).getMchInfo(),
+                        mchAppConfigMap.getOrDefault(mchApp.getAppId(), Collections.emptyList()), isvGetter), executor);
+        mchAppConfigContextCache.putAll(mchAppContextMap, mchAppLoadVersion);
+
+        return isvMap.size() + mchInfoMap.size() + mchAppContextMap.size();
+    }
 
-        // 商户应用mchNo 与参数不匹配
-        if(!dbMchApp.getMchNo().equals(mchNo)){
-            return;
+    /** 在线程池中分片并行构建 **/
+    private <E, T> Map<String, T> buildParallel(List<E> rowList, Function<E, String> keyGetter, Function<E, T> builder, ExecutorService executor){
+
+        int chunkSize = Math.max(1, (rowList.size() + PRELOAD_CHUNKS - 1) / PRELOAD_CHUNKS);
+        List<CompletableFuture<Map<String, T>>> futureList = new ArrayList<>();
+        for (int i = 0; i < rowList.size(); i += chunkSize) {
+            List<E> chunk = rowList.subList(i, Math.min(i + chunkSize, rowList.size()));
+            futureList.add(CompletableFuture.supplyAsync(() -> {
+                Map<String, T> chunkResult = new HashMap<>();
+                chunk.forEach(row -> chunkResult.put(keyGetter.apply(row), builder.apply(row)));
+                return chunkResult;
+            }, executor));
         }
 
-        //更新商户信息主体中的商户应用
-        mchInfoConfigContext.putMchApp(dbMchApp);
+        Map<String, T> result = new HashMap<>();
+        futureList.forEach(future -> result.putAll(future.join()));
+        return result;
+    }
+
+    /** 批量加载 [商户配置信息] **/
+    private Map<String, MchInfoConfigContext> loadMchInfoConfigContexts(Set<String> mchNos){
+
+        Map<String, MchInfoConfigContext> result = new HashMap<>();
+
+        //商户主体信息 (查询不到的商户主体， 可能已经删除)
+        List<MchInfo> mchInfoList = mchInfoService.listByIds(mchNos);
+        if(mchInfoList.isEmpty()){
+            return result;
+        }
+
+        Map<String, List<MchApp>> mchAppMap = mchAppService.list(MchApp.gw().in(MchApp::getMchNo, mchInfoList.stream().map(MchInfo::getMchNo).toList()))
+                .stream().collect(Collectors.groupingBy(MchApp::getMchNo));
+
+        for (MchInfo mchInfo : mchInfoList) {
+            result.put(mchInfo.getMchNo(), buildMchInfoConfigContext(mchInfo, mchAppMap.getOrDefault(mchInfo.getMchNo(), Collections.emptyList())));
+        }
+        return result;
+    }
+
+    /** 构建 [商户配置信息] **/
+    private MchInfoConfigContext buildMchInfoConfigContext(MchInfo mchInfo, List<MchApp> mchAppList){
+
+        MchInfoConfigContext mchInfoConfigContext = new MchInfoConfigContext();
+
+        // 设置商户信息
+        mchInfoConfigContext.setMchNo(mchInfo.getMchNo());
+        mchInfoConfigContext.setMchType(mchInfo.getType());
+        mchInfoConfigContext.setMchInfo(mchInfo);
+        mchAppList.forEach(mchInfoConfigContext::putMchApp);
+        return mchInfoConfigContext;
+    }
+
+    /** 批量加载 [商户应用支付参数配置信息] **/
+    private Map<String, MchAppConfigContext> loadMchAppConfigContexts(Set<String> appIds){
+
+        Map<String, MchAppConfigContext> result = new HashMap<>();
+
+        // 查询商户应用信息主体 (DB已经删除的不返回)
+        List<MchApp> dbMchAppList = mchAppService.listByIds(appIds);
+        if(dbMchAppList.isEmpty()){
+            return result;
+        }
+
+        // 获取商户的配置信息
+        Map<String, MchInfoConfigContext> mchInfoConfigContextMap = mchInfoConfigContextCache.getAll(
+                dbMchAppList.stream().map(MchApp::getMchNo).collect(Collectors.toSet())
+        );
+
+        // 服务商模式商户的服务商信息
+        Map<String, IsvConfigContext> isvConfigContextMap = isvConfigContextCache.getAll(
+                mchInfoConfigContextMap.values().stream().map(MchInfoConfigContext::getMchInfo)
+                        .filter(mchInfo -> mchInfo.getType() != CS.MCH_TYPE_NORMAL && mchInfo.getIsvNo() != null)
+                        .map(MchInfo::getIsvNo).collect(Collectors.toSet())
+        );
+
+        // 查询商户的所有支持的参数配置
+        Map<String, List<PayInterfaceConfig>> configMap = listPayInterfaceConfig(CS.INFO_TYPE_MCH_APP, appIds);
+
+        for (MchApp dbMchApp : dbMchAppList) {
+
+            MchInfoConfigContext mchInfoConfigContext = mchInfoConfigContextMap.get(dbMchApp.getMchNo());
+            if(mchInfoConfigContext == null){ // 商户信息不存在
+                continue;
+            }
+
+            //更新商户信息主体中的商户应用
+            mchInfoConfigContext.putMchApp(dbMchApp);
+
+            result.put(dbMchApp.getAppId(), buildMchAppConfigContext(dbMchApp, mchInfoConfigContext.getMchInfo(),
+                    configMap.getOrDefault(dbMchApp.getAppId(), Collections.emptyList()), isvConfigContextMap::get));
+        }
+
+        return result;
+    }
+
+    /** 构建 [商户应用支付参数配置信息] **/
+    private MchAppConfigContext buildMchAppConfigContext(MchApp dbMchApp, MchInfo mchInfo, List<PayInterfaceConfig> allConfigList, Function<String, IsvConfigContext> isvConfigContextGetter){
 
-        //商户主体信息
-        MchInfo mchInfo = mchInfoConfigContext.getMchInfo();
         MchAppConfigContext mchAppConfigContext = new MchAppConfigContext();
 
         // 设置商户信息
-        mchAppConfigContext.setAppId(appId);
+        mchAppConfigContext.setAppId(dbMchApp.getAppId());
         mchAppConfigContext.setMchNo(mchInfo.getMchNo());
         mchAppConfigContext.setMchType(mchInfo.getType());
         mchAppConfigContext.setMchInfo(mchInfo);
         mchAppConfigContext.setMchApp(dbMchApp);
 
-        // 查询商户的所有支持的参数配置
-        List<PayInterfaceConfig> allConfigList = payInterfaceConfigService.list(PayInterfaceConfig.gw()
-                .select(PayInterfaceConfig::getIfCode, PayInterfaceConfig::getIfParams)
-                .eq(PayInterfaceConfig::getState, CS.YES)
-                .eq(PayInterfaceConfig::getInfoType, CS.INFO_TYPE_MCH_APP)
-                .eq(PayInterfaceConfig::getInfoId, appId)
-        );
-
         // 普通商户
         if(mchInfo.getType() == CS.MCH_TYPE_NORMAL){
 
@@ -215,19 +433,19 @@ public class ConfigContextService {
 
             AlipayNormalMchParams alipayParams = mchAppConfigContext.getNormalMchParamsByIfCode(CS.IF_CODE.ALIPAY, AlipayNormalMchParams.class);
             if(alipayParams != null){
-                mchAppConfigContext.setAlipayClientWrapper(AlipayClientWrapper.buildAlipayClientWrapper(alipayParams));
+                mchAppConfigContext.setAlipayClientWrapper(channelClientRegistry.getAlipayClientWrapper(alipayParams));
             }
 
             //放置 wxJavaService
             WxpayNormalMchParams wxpayParams = mchAppConfigContext.getNormalMchParamsByIfCode(CS.IF_CODE.WXPAY, WxpayNormalMchParams.class);
             if(wxpayParams != null){
-                mchAppConfigContext.setWxServiceWrapper(WxServiceWrapper.buildWxServiceWrapper(wxpayParams));
+                mchAppConfigContext.setWxServiceWrapper(channelClientRegistry.getWxServiceWrapper(wxpayParams));
             }
 
             //放置 paypal client
             PppayNormalMchParams ppPayMchParams = mchAppConfigContext.getNormalMchParamsByIfCode(CS.IF_CODE.PPPAY, PppayNormalMchParams.class);
             if (ppPayMchParams != null) {
-                mchAppConfigContext.setPaypalWrapper(PaypalWrapper.buildPaypalWrapper(ppPayMchParams));
+                mchAppConfigContext.setPaypalWrapper(channelClientRegistry.getPaypalWrapper(ppPayMchParams));
             }
 
 
@@ -240,59 +458,43 @@ public class ConfigContextService {
             }
 
             //放置 当前商户的 服务商信息
-            mchAppConfigContext.setIsvConfigContext(getIsvConfigContext(mchInfo.getIsvNo()));
+            mchAppConfigContext.setIsvConfigContext(isvConfigContextGetter.apply(mchInfo.getIsvNo()));
 
         }
 
-        mchAppConfigContextMap.put(appId, mchAppConfigContext);
+        return mchAppConfigContext;
     }
 
 
-    /** 初始化 [ISV支付参数配置信息]  **/
-    public synchronized void initIsvConfigContext(String isvNo){
+    /** 批量加载 [ISV支付参数配置信息]  **/
+    private Map<String, IsvConfigContext> loadIsvConfigContexts(Set<String> isvNos){
 
-        if(!isCache()){ // 当前系统不进行缓存
-            return ;
+        Map<String, IsvConfigContext> result = new HashMap<>();
+
+        List<IsvInfo> isvInfoList = isvInfoService.listByIds(isvNos);
+        if(isvInfoList.isEmpty()){
+            return result;
         }
 
-        //查询出所有商户的配置信息并更新
-        List<String> mchNoList = new ArrayList<>();
-        mchInfoService.list(MchInfo.gw().select(MchInfo::getMchNo).eq(MchInfo::getIsvNo, isvNo)).forEach(r -> mchNoList.add(r.getMchNo()));
+        // 查询服务商的所有支持的参数配置
+        Map<String, List<PayInterfaceConfig>> configMap = listPayInterfaceConfig(CS.INFO_TYPE_ISV, isvNos);
 
-        // 查询出所有 所属当前服务商的所有应用集合
-        List<String> mchAppIdList = new ArrayList<>();
-        if(!mchNoList.isEmpty()){
-            mchAppService.list(MchApp.gw().select(MchApp::getAppId).in(MchApp::getMchNo, mchNoList)).forEach(r -> mchAppIdList.add(r.getAppId()));
+        for (IsvInfo isvInfo : isvInfoList) {
+            result.put(isvInfo.getIsvNo(), buildIsvConfigContext(isvInfo, configMap.getOrDefault(isvInfo.getIsvNo(), Collections.emptyList())));
         }
 
-        IsvConfigContext isvConfigContext = new IsvConfigContext();
-        IsvInfo isvInfo = isvInfoService.getById(isvNo);
-        if(isvInfo == null){
-
-            for (String appId : mchAppIdList) {
-                //将更新已存在缓存的商户配置信息 （每个商户下存储的为同一个 服务商配置的对象指针）
-                MchAppConfigContext mchAppConfigContext = mchAppConfigContextMap.get(appId);
-                if(mchAppConfigContext != null){
-                    mchAppConfigContext.setIsvConfigContext(null);
-                }
-            }
+        return result;
+    }
 
-            isvConfigContextMap.remove(isvNo); // 服务商有商户不可删除， 此处不再更新商户下的配置信息
-            return ;
-        }
+    /** 构建 [ISV支付参数配置信息]  **/
+    private IsvConfigContext buildIsvConfigContext(IsvInfo isvInfo, List<PayInterfaceConfig> allConfigList){
+
+        IsvConfigContext isvConfigContext = new IsvConfigContext();
 
         // 设置商户信息
         isvConfigContext.setIsvNo(isvInfo.getIsvNo());
         isvConfigContext.setIsvInfo(isvInfo);
 
-        // 查询商户的所有支持的参数配置
-        List<PayInterfaceConfig> allConfigList = payInterfaceConfigService.list(PayInterfaceConfig.gw()
-                .select(PayInterfaceConfig::getIfCode, PayInterfaceConfig::getIfParams)
-                .eq(PayInterfaceConfig::getState, CS.YES)
-                .eq(PayInterfaceConfig::getInfoType, CS.INFO_TYPE_ISV)
-                .eq(PayInterfaceConfig::getInfoId, isvNo)
-        );
-
         for (PayInterfaceConfig payInterfaceConfig : allConfigList) {
             isvConfigContext.getIsvParamsMap().put(
                     payInterfaceConfig.getIfCode(),
@@ -303,29 +505,202 @@ public class ConfigContextService {
         //放置alipay client
         AlipayIsvParams alipayParams = isvConfigContext.getIsvParamsByIfCode(CS.IF_CODE.ALIPAY, AlipayIsvParams.class);
         if(alipayParams != null){
-            isvConfigContext.setAlipayClientWrapper(AlipayClientWrapper.buildAlipayClientWrapper(alipayParams));
+            isvConfigContext.setAlipayClientWrapper(channelClientRegistry.getAlipayClientWrapper(alipayParams));
         }
 
         //放置 wxJavaService
         WxpayIsvParams wxpayParams = isvConfigContext.getIsvParamsByIfCode(CS.IF_CODE.WXPAY, WxpayIsvParams.class);
         if(wxpayParams != null){
-            isvConfigContext.setWxServiceWrapper(WxServiceWrapper.buildWxServiceWrapper(wxpayParams));
+            isvConfigContext.setWxServiceWrapper(channelClientRegistry.getWxServiceWrapper(wxpayParams));
         }
 
-        isvConfigContextMap.put(isvNo, isvConfigContext);
+        return isvConfigContext;
+    }
+
+    /** 按DB中的当前参数失效渠道客户端 (不缓存配置上下文 或 旧配置已不在缓存中时， 无旧参数可用) **/
+    private void invalidateChannelClients(Byte infoType, Set<String> infoIds){
 
-        //查询出所有商户的配置信息并更新
-        for (String appId : mchAppIdList) {
-            //将更新已存在缓存的商户配置信息 （每个商户下存储的为同一个 服务商配置的对象指针）
-            MchAppConfigContext mchAppConfigContext = mchAppConfigContextMap.get(appId);
-            if(mchAppConfigContext != null){
-                mchAppConfigContext.setIsvConfigContext(isvConfigContext);
+        listPayInterfaceConfig(infoType, infoIds).values().forEach(configList -> configList.forEach(payInterfaceConfig -> {
+            if(infoType == CS.INFO_TYPE_ISV){
+                channelClientRegistry.invalidate(IsvParams.factory(payInterfaceConfig.getIfCode(), payInterfaceConfig.getIfParams()));
+            }else if(NORMAL_MCH_CLIENT_IF_CODES.contains(payInterfaceConfig.getIfCode())){
+                // 服务商模式商户的子商户参数无对应客户端， 失效不存在的key无影响
+                channelClientRegistry.invalidate(NormalMchParams.factory(payInterfaceConfig.getIfCode(), payInterfaceConfig.getIfParams()));
             }
-        }
+        }));
+    }
+
+    /** 查询已启用的支付接口配置 <infoId, 配置列表> **/
+    private Map<String, List<PayInterfaceConfig>> listPayInterfaceConfig(Byte infoType, Set<String> infoIds){
+
+        return payInterfaceConfigService.list(PayInterfaceConfig.gw()
+                .select(PayInterfaceConfig::getInfoId, PayInterfaceConfig::getIfCode, PayInterfaceConfig::getIfParams)
+                .eq(PayInterfaceConfig::getState, CS.YES)
+                .eq(PayInterfaceConfig::getInfoType, infoType)
+                .in(PayInterfaceConfig::getInfoId, infoIds)
+        ).stream().collect(Collectors.groupingBy(PayInterfaceConfig::getInfoId));
     }
 
     private boolean isCache(){
         return SysConfigService.IS_USE_CACHE;
     }
 
+
+    /**
+     * 带版本号的本地缓存
+     * 加载开始时记录当前版本号， 重置时递增版本号并记录该key的失效版本；
+     * 读取时若缓存值的版本早于key的失效版本（加载期间发生了重置）， 则丢弃并重新加载。
+     * 失效版本仅在存在更早开始的批量加载 / 预热时保留， 否则随缓存一并移除。
+     * 单个key加载与批量加载共用同一批量加载器 （批量时每类数据仅查询一次DB）。
+     **/
+    private class VersionedCache<T> {
+
+        /** 递增版本号 **/
+        private final AtomicLong clock = new AtomicLong();
+
+        /** <key, 失效版本号> **/
+        private final Map<String, Long> invalidateVersionMap = new ConcurrentHashMap<>();
+
+        /** 进行中的批量加载 / 预热 的开始版本号 **/
+        private final ConcurrentSkipListSet<Long> activeLoads = new ConcurrentSkipListSet<>();
+
+        private final LoadingCache<String, VersionedValue<T>> cache;
+
+        VersionedCache(Function<Set<String>, Map<String, T>> bulkLoader){
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .refreshAfterWrite(Duration.ofSeconds(refreshAfterWriteSeconds))
+                    .recordStats()
+                    .build(new CacheLoader<>() {
+
+                        @Override
+                        public VersionedValue<T> load(String key) {
+                            return loadAll(Collections.singleton(key)).get(key);
+                        }
+
+                        @Override
+                        public Map<String, VersionedValue<T>> loadAll(Set<? extends String> keys) {
+
+                            long version = clock.get();
+
+                            Map<String, VersionedValue<T>> result = new HashMap<>();
+                            bulkLoader.apply(new HashSet<>(keys)).forEach((key, value) -> result.put(key, new VersionedValue<>(version, value)));
+                            return result;
+                        }
+                    });
+        }
+
+        T get(String key){
+
+            VersionedValue<T> versionedValue = cache.get(key);
+
+            // 加载期间发生重置， 旧数据不可使用
+            if(versionedValue != null && isStale(key, versionedValue)){
+                cache.asMap().remove(key, versionedValue);
+                versionedValue = cache.get(key);
+            }
+            return versionedValue == null ? null : versionedValue.value;
+        }
+
+        /** 批量获取， 不存在的key不返回 **/
+        Map<String, T> getAll(Set<String> keys){
+
+            Map<String, T> result = new HashMap<>();
+            if(keys.isEmpty()){
+                return result;
+            }
+
+            long loadVersion = beginLoad();
+            try {
+                cache.getAll(keys).forEach((key, versionedValue) -> {
+                    // 加载期间发生重置， 单独重新加载
+                    T value = isStale(key, versionedValue) ? get(key) : versionedValue.value;
+                    if(value != null){
+                        result.put(key, value);
+                    }
+                });
+            } finally {
+                endLoad(loadVersion);
+            }
+            return result;
+        }
+
+        /** 开始批量加载 / 预热， 返回开始版本号， 完成后需调用 endLoad **/
+        synchronized long beginLoad(){
+            long loadVersion = clock.incrementAndGet();
+            activeLoads.add(loadVersion);
+            return loadVersion;
+        }
+
+        synchronized void endLoad(long loadVersion){
+            activeLoads.remove(loadVersion);
+            purgeInvalidateVersions();
+        }
+
+        /** 放入缓存， loadVersion: 数据查询前 beginLoad 返回的版本号 **/
+        void putAll(Map<String, T> valueMap, long loadVersion){
+
+            valueMap.forEach((key, value) -> cache.put(key, new VersionedValue<>(loadVersion, value)));
+
+            // 预热期间已重置的key： 移除旧数据， 读取时重新加载
+            valueMap.keySet().forEach(key -> {
+                VersionedValue<T> versionedValue = cache.getIfPresent(key);
+                if(versionedValue != null && isStale(key, versionedValue)){
+                    cache.asMap().remove(key, versionedValue);
+                }
+            });
+        }
+
+        T getIfPresent(String key){
+            VersionedValue<T> versionedValue = cache.getIfPresent(key);
+            return versionedValue == null ? null : versionedValue.value;
+        }
+
+        void invalidate(String key){
+            invalidateVersionMap.put(key, clock.incrementAndGet());
+            cache.invalidate(key);
+            purgeInvalidateVersions();
+        }
+
+        void invalidateIf(Predicate<T> predicate){
+            cache.asMap().forEach((key, versionedValue) -> {
+                if(predicate.test(versionedValue.value)){
+                    invalidate(key);
+                }
+            });
+        }
+
+        Map<String, Object> stats(){
+
+            CacheStats stats = cache.stats();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("size", cache.estimatedSize());
+            result.put("hitCount", stats.hitCount());
+            result.put("missCount", stats.missCount());
+            result.put("hitRate", stats.hitRate());
+            result.put("loadSuccessCount", stats.loadSuccessCount());
+            result.put("loadFailureCount", stats.loadFailureCount());
+            result.put("averageLoadPenaltyMillis", stats.averageLoadPenalty() / 1_000_000);
+            result.put("evictionCount", stats.evictionCount());
+            return result;
+        }
+
+        private boolean isStale(String key, VersionedValue<T> versionedValue){
+            Long invalidateVersion = invalidateVersionMap.get(key);
+            return invalidateVersion != null && versionedValue.version < invalidateVersion;
+        }
+
+        /** 移除不再需要的失效版本： 早于全部进行中的批量加载 (无进行中的加载时全部移除) **/
+        private synchronized void purgeInvalidateVersions(){
+
+            if(invalidateVersionMap.isEmpty()){
+                return ;
+            }
+            long oldestLoadVersion = activeLoads.isEmpty() ? Long.MAX_VALUE : activeLoads.first();
+            invalidateVersionMap.values().removeIf(invalidateVersion -> invalidateVersion < oldestLoadVersion);
+        }
+    }
+
+    private record VersionedValue<T>(long version, T value) {}
+
 }
@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.service;
+
+import cn.hutool.core.net.url.UrlBuilder;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.StrUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/*
+* 商户通知 异步调度器
+* 基于JDK HttpClient (HTTP/2 & 连接池复用) 非阻塞发送， 按商户通知地址的host进行隔离：
+*   每个host最大并发数 & 最大排队数， 某个商户接口响应缓慢时仅占用该host的配额， 不会拖垮其他商户的通知。
+* 发送完成后在回调线程池中执行 callback (更新通知记录等)。
+* 停机时排队中(未开始发送)的通知交由延迟队列重新投递 (MchNotifyRetryService)； 发送中的通知等待其完成，
+* 超时仍未完成的， 在其请求超时之后才重新投递， 避免请求仍可能成功时重复通知商户。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 16:00
+*/
+@Slf4j
+@Service
+public class MchNotifyDispatcher {
+
+    /** 建立连接超时时间 (毫秒) **/
+    @Value("${isys.notify.connect-timeout-millis:3000}")
+    private long connectTimeoutMillis;
+
+    /** 请求超时时间 (毫秒)， 等待商户响应的最大时长 **/
+    @Value("${isys.notify.request-timeout-millis:20000}")
+    private long requestTimeoutMillis;
+
+    /** https地址是否优先使用HTTP/2 (通过ALPN协商， 服务端不支持时自动降级为HTTP/1.1)； http地址始终使用HTTP/1.1， 不发送h2c升级请求 **/
+    @Value("${isys.notify.http2:true}")
+    private boolean http2;
+
+    /** 每个host的最大并发请求数 **/
+    @Value("${isys.notify.max-concurrency-per-host:20}")
+    private int maxConcurrencyPerHost;
+
+    /** 每个host的最大排队数， 超出后拒绝 (由调用方延迟重投) **/
+    @Value("${isys.notify.max-queue-per-host:500}")
+    private int maxQueuePerHost;
+
+    /** 回调线程数 (处理响应结果 & 更新DB) **/
+    @Value("${isys.notify.callback-threads:16}")
+    private int callbackThreads;
+
+    /** 停机时等待进行中请求完成的最大时长 (毫秒) **/
+    @Value("${isys.notify.shutdown-wait-millis:10000}")
+    private long shutdownWaitMillis;
+
+    /** 停机时未发送的通知， 重新投递的延迟时间 (秒) **/
+    private static final int SHUTDOWN_REDELIVER_SECONDS = 1;
+
+    @Autowired private MchNotifyRetryService mchNotifyRetryService;
+
+    private HttpClient httpClient;
+
+    private ExecutorService callbackExecutor;
+
+    /** <host, 隔离舱> **/
+    private final Map<String, HostBulkhead> bulkheadMap = new ConcurrentHashMap<>();
+
+    /** 已提交但尚未完成回调的通知ID **/
+    private final Set<Long> pendingNotifyIds = ConcurrentHashMap.newKeySet();
+
+    /** <发送中的通知ID, 开始发送时间> **/
+    private final Map<Long, Long> inFlightStartMap = new ConcurrentHashMap<>();
+
+    /** 是否停机中 **/
+    private volatile boolean closing = false;
+
+    @PostConstruct
+    public void init(){
+
+        callbackExecutor = Executors.newFixedThreadPool(callbackThreads, new NamedThreadFactory("mchNotifyCallback-", false));
+
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    /**
+     * 停机： 不再接收新通知， 排队中(未开始发送)的通知直接重新投递， 等待发送中的请求完成 (最多 shutdownWaitMillis)；
+     * 超时仍未完成的通知， 延迟至其请求超时之后重新投递 (请求超时前商户仍可能收到本次通知)。
+     */
+    @PreDestroy
+    public void destroy(){
+
+        closing = true;
+
+        // 1. 排队中的通知
+        for (HostBulkhead bulkhead : bulkheadMap.values()) {
+            NotifyTask task;
+            while ((task = bulkhead.waitQueue.poll()) != null){
+                bulkhead.queued.decrementAndGet();
+                redeliver(task.notifyId);
+            }
+        }
+
+        // 2. 等待进行中的请求完成回调
+        long deadline = System.currentTimeMillis() + shutdownWaitMillis;
+        while (!pendingNotifyIds.isEmpty() && System.currentTimeMillis() < deadline){
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        callbackExecutor.shutdown();
+
+        // 3. 仍在发送中的通知： 请求超时后再重新投递
+        long now = System.currentTimeMillis();
+        new HashMap<>(inFlightStartMap).forEach((notifyId, startMillis) -> {
+            long remainMillis = startMillis + requestTimeoutMillis - now;
+            redeliver(notifyId, SHUTDOWN_REDELIVER_SECONDS + (int) TimeUnit.MILLISECONDS.toSeconds(Math.max(remainMillis, 0) + 999));
+        });
+    }
+
+    private void redeliver(Long notifyId){
+        redeliver(notifyId, SHUTDOWN_REDELIVER_SECONDS);
+    }
+
+    private void redeliver(Long notifyId, int delaySeconds){
+        pendingNotifyIds.remove(notifyId);
+        try {
+            mchNotifyRetryService.schedule(notifyId, delaySeconds);
+        } catch (Exception e) {
+            log.error("停机时重新投递商户通知异常, notifyId={}", notifyId, e);
+        }
+    }
+
+
+    /**
+     * 提交通知请求 (POST form表单， 参数为notifyUrl中的query部分)
+     * @param notifyId 通知记录ID， 停机时用于重新投递
+     * @param notifyUrl 通知地址 (包含参数)
+     * @param callback 响应结果回调， 参数为商户响应内容或异常描述
+     * @return false: 该host排队已满 或 停机中， 本次未发送， 调用方需自行延迟重试
+     */
+    public boolean dispatch(Long notifyId, String notifyUrl, Consumer<String> callback){
+
+        if(closing){
+            return false;
+        }
+
+        String[] urlArray = notifyUrl.split("\\?", 2);
+
+        HttpRequest request;
+        HostBulkhead bulkhead;
+        try {
+            URI uri = URI.create(urlArray[0]);
+            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofMillis(requestTimeoutMillis))
+                    .header("Content-Type", "application/x-www-form-urlencoded;charset=UTF-8")
+                    .POST(HttpRequest.BodyPublishers.ofString(urlArray.length > 1 ? urlArray[1] : "", StandardCharsets.UTF_8));
+            if(http2 && "https".equalsIgnoreCase(uri.getScheme())){
+                requestBuilder.version(HttpClient.Version.HTTP_2);
+            }
+            request = requestBuilder.build();
+
+            String hostKey = uri.getScheme() + "://" + uri.getAuthority();
+            bulkhead = bulkheadMap.computeIfAbsent(hostKey, HostBulkhead::new);
+
+        } catch (Exception e) {
+            log.error("通知地址异常, notifyUrl={}", notifyUrl, e);
+            callback.accept(errorMsg(notifyUrl, e));
+            return true;
+        }
+
+        if(!pendingNotifyIds.add(notifyId)){
+            return true; // 同一通知已在处理中
+        }
+        if(!bulkhead.submit(new NotifyTask(notifyId, () -> send(bulkhead, notifyId, notifyUrl, request, callback)))){
+            pendingNotifyIds.remove(notifyId);
+            return false;
+        }
+        return true;
+    }
+
+
+    /** 发送请求， 完成后释放配额 & 回调 **/
+    private void send(HostBulkhead bulkhead, Long notifyId, String notifyUrl, HttpRequest request, Consumer<String> callback){
+
+        long startTime = System.nanoTime();
+        bulkhead.inFlight.incrementAndGet();
+        inFlightStartMap.put(notifyId, System.currentTimeMillis());
+
+        CompletableFuture<HttpResponse<String>> future;
+        try {
+            future = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        future.whenCompleteAsync((response, ex) -> {
+
+            bulkhead.complete(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), ex != null);
+
+            String res;
+            if(ex != null){
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                log.error("http error, notifyUrl={}", notifyUrl, cause);
+                res = errorMsg(notifyUrl, cause);
+            }else{
+                res = StrUtil.nullToEmpty(response.body());
+            }
+
+            try {
+                callback.accept(res);
+            } catch (Exception e) {
+                log.error("商户通知回调处理异常", e);
+            } finally {
+                inFlightStartMap.remove(notifyId);
+                pendingNotifyIds.remove(notifyId);
+            }
+        }, callbackExecutor);
+    }
+
+    private String errorMsg(String notifyUrl, Throwable e){
+        String host;
+        try {
+            host = UrlBuilder.of(notifyUrl).getHost();
+        } catch (Exception ue) {
+            host = notifyUrl;
+        }
+        return "连接["+ host +"]异常:【" + StrUtil.blankToDefault(e.getMessage(), e.getClass().getSimpleName()) + "】";
+    }
+
+
+    /** 各host的 并发数/排队数/耗时 指标 **/
+    public List<Map<String, Object>> snapshot(){
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        bulkheadMap.values().forEach(bulkhead -> result.add(bulkhead.snapshot()));
+        result.sort(Comparator.comparing(item -> (String) item.get("host")));
+        return result;
+    }
+
+
+    /** 待发送的通知 **/
+    private static class NotifyTask {
+
+        private final Long notifyId;
+        private final Runnable action;
+
+        NotifyTask(Long notifyId, Runnable action) {
+            this.notifyId = notifyId;
+            this.action = action;
+        }
+    }
+
+    /** 单个host的隔离舱： 并发许可 + 有界等待队列 + 指标 **/
+    private class HostBulkhead {
+
+        private final String host;
+        private final Semaphore permits = new Semaphore(maxConcurrencyPerHost);
+        private final Queue<NotifyTask> waitQueue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final LongAdder totalCount = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder rejectCount = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final AtomicLong maxMillis = new AtomicLong();
+        private volatile long lastMillis;
+
+        HostBulkhead(String host) {
+            this.host = host;
+        }
+
+        boolean submit(NotifyTask task){
+
+            if(permits.tryAcquire()){
+                task.action.run();
+                return true;
+            }
+
+            if(queued.incrementAndGet() > maxQueuePerHost){
+                queued.decrementAndGet();
+                rejectCount.increment();
+                return false;
+            }
+
+            waitQueue.offer(task);
+            drain(); // 入队期间可能有请求已完成并释放了许可
+            return true;
+        }
+
+        void complete(long costMillis, boolean isError){
+
+            inFlight.decrementAndGet();
+            totalCount.increment();
+            totalMillis.add(costMillis);
+            maxMillis.accumulateAndGet(costMillis, Math::max);
+            lastMillis = costMillis;
+            if(isError){
+                errorCount.increment();
+            }
+
+            permits.release();
+            drain();
+        }
+
+        private void drain(){
+
+            // 停机中不再开始发送排队中的通知 (由 destroy 重新投递)
+            while (!closing && !waitQueue.isEmpty() && permits.tryAcquire()){
+                NotifyTask task = waitQueue.poll();
+                if(task == null){
+                    permits.release();
+                    return;
+                }
+                queued.decrementAndGet();
+                task.action.run();
+            }
+        }
+
+        Map<String, Object> snapshot(){
+
+            long total = totalCount.sum();
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("host", host);
+            result.put("maxConcurrency", maxConcurrencyPerHost);
+            result.put("inFlight", inFlight.get());
+            result.put("queued", queued.get());
+            result.put("totalCount", total);
+            result.put("errorCount", errorCount.sum());
+            result.put("rejectCount", rejectCount.sum());
+            result.put("avgMillis", total == 0 ? 0 : totalMillis.sum() / total);
+            result.put("maxMillis", maxMillis.get());
+            result.put("lastMillis", lastMillis);
+            return result;
+        }
+    }
+
+}
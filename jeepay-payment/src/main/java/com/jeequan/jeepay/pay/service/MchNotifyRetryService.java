@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.service;
+
+import com.jeequan.jeepay.components.mq.model.PayOrderMchNotifyMQ;
+import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import com.jeequan.jeepay.core.cache.RedisUtil;
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.pay.config.MchNotifyRetryConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+* 商户通知 重试策略 & 延迟调度
+* 重试间隔为指数退避 + 全抖动， 避免大量通知在同一时刻集中重试；
+* 默认使用redis有序集合实现精确延迟 (score为到期时间)， 到期后立即投递MQ， 不依赖各MQ厂商的延迟消息能力。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 16:30
+*/
+@Slf4j
+@Service
+public class MchNotifyRetryService {
+
+    public static final String SCHEDULER_REDIS = "redis";
+
+    /** 单次拉取的到期消息数量 **/
+    private static final int FIRE_BATCH_SIZE = 500;
+
+    @Autowired private MchNotifyRetryConfig mchNotifyRetryConfig;
+    @Autowired private IMQSender mqSender;
+
+
+    /** 商户的最大通知次数 **/
+    public int getNotifyCountLimit(String mchNo){
+        return getPolicyValue(mchNo, MchNotifyRetryConfig.Policy::getMaxCount);
+    }
+
+    /**
+     * 计算下一次重试的延迟时间 (秒)
+     * @param currentCount 已通知次数 (从1开始)
+     */
+    public int nextDelaySeconds(String mchNo, int currentCount){
+
+        int baseSeconds = getPolicyValue(mchNo, MchNotifyRetryConfig.Policy::getBaseSeconds);
+        int maxSeconds = getPolicyValue(mchNo, MchNotifyRetryConfig.Policy::getMaxSeconds);
+        boolean jitter = getPolicyValue(mchNo, MchNotifyRetryConfig.Policy::getJitter);
+
+        // 防止移位溢出
+        long backoff = (long) baseSeconds << Math.min(Math.max(currentCount - 1, 0), 20);
+        int cap = (int) Math.min(maxSeconds, backoff);
+
+        if(!jitter){
+            return Math.max(cap, 1);
+        }
+        return Math.max(ThreadLocalRandom.current().nextInt(cap + 1), 1);
+    }
+
+    /** 按重试策略延迟通知 **/
+    public void scheduleRetry(String mchNo, Long notifyId, int currentCount){
+        schedule(notifyId, nextDelaySeconds(mchNo, currentCount));
+    }
+
+    /** 延迟通知 **/
+    public void schedule(Long notifyId, int delaySeconds){
+
+        if(SCHEDULER_REDIS.equals(mchNotifyRetryConfig.getScheduler())){
+            try {
+                RedisUtil.zAdd(CS.CACHE_KEY_MCH_NOTIFY_DELAY_QUEUE, notifyId.toString(), System.currentTimeMillis() + delaySeconds * 1000L);
+                return;
+            } catch (Exception e) {
+                log.error("写入延迟队列异常， 改为MQ延迟消息, notifyId={}", notifyId, e);
+            }
+        }
+
+        mqSender.send(PayOrderMchNotifyMQ.build(notifyId), delaySeconds);
+    }
+
+    /**
+     * 通知发送前占位： 发送期间在延迟队列中保留一条到期时间为 leaseSeconds 后的记录，
+     * 节点宕机导致通知未完成时由延迟队列重新投递； 发送完成后由 release 或 重试调度 覆盖。 仅redis调度方式生效。
+     */
+    public void lease(Long notifyId, int leaseSeconds){
+
+        if(!SCHEDULER_REDIS.equals(mchNotifyRetryConfig.getScheduler())){
+            return;
+        }
+        try {
+            RedisUtil.zAdd(CS.CACHE_KEY_MCH_NOTIFY_DELAY_QUEUE, notifyId.toString(), System.currentTimeMillis() + leaseSeconds * 1000L);
+        } catch (Exception e) {
+            log.error("写入通知占位异常, notifyId={}", notifyId, e);
+        }
+    }
+
+    /** 通知已结束 (成功 或 达到最大次数)， 移除占位 **/
+    public void release(Long notifyId){
+
+        if(!SCHEDULER_REDIS.equals(mchNotifyRetryConfig.getScheduler())){
+            return;
+        }
+        try {
+            RedisUtil.zRemove(CS.CACHE_KEY_MCH_NOTIFY_DELAY_QUEUE, notifyId.toString());
+        } catch (Exception e) {
+            log.error("移除通知占位异常, notifyId={}", notifyId, e);
+        }
+    }
+
+    /**
+     * 投递已到期的通知， 多节点同时执行时以 ZREM 成功作为抢占标记， 保证只投递一次
+     * @return 本次投递数量
+     */
+    public int fireDueNotify(){
+
+        if(!SCHEDULER_REDIS.equals(mchNotifyRetryConfig.getScheduler())){
+            return 0;
+        }
+
+        int fireCount = 0;
+        while (true){
+
+            Set<String> dueSet = RedisUtil.zRangeByScore(CS.CACHE_KEY_MCH_NOTIFY_DELAY_QUEUE, 0, System.currentTimeMillis(), 0, FIRE_BATCH_SIZE);
+            List<PayOrderMchNotifyMQ> mqList = new ArrayList<>(dueSet.size());
+            for (String notifyId : dueSet) {
+                if(RedisUtil.zRemove(CS.CACHE_KEY_MCH_NOTIFY_DELAY_QUEUE, notifyId)){
+                    mqList.add(PayOrderMchNotifyMQ.build(Long.parseLong(notifyId)));
+                }
+            }
+            try {
+                mqSender.sendBatch(mqList);
+                fireCount += mqList.size();
+            } catch (Exception e) {
+                // 推送失败： 放回延迟队列， 下次执行时重新投递
+                log.error("批量投递到期通知异常， 放回延迟队列, size={}", mqList.size(), e);
+                long retryTime = System.currentTimeMillis() + 1000;
+                mqList.forEach(mq -> RedisUtil.zAdd(CS.CACHE_KEY_MCH_NOTIFY_DELAY_QUEUE, mq.getPayload().getNotifyId().toString(), retryTime));
+                return fireCount;
+            }
+
+            if(dueSet.size() < FIRE_BATCH_SIZE){
+                return fireCount;
+            }
+        }
+    }
+
+    /** 获取商户策略值， 未配置时使用默认策略 **/
+    private <T> T getPolicyValue(String mchNo, Function<MchNotifyRetryConfig.Policy, T> getter){
+
+        MchNotifyRetryConfig.Policy policy = mchNo == null ? null : mchNotifyRetryConfig.getMch().get(mchNo);
+        T value = policy == null ? null : getter.apply(policy);
+        return value != null ? value : getter.apply(mchNotifyRetryConfig.getDefaults());
+    }
+
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jeequan.jeepay.core.entity.MchPayPassage;
+import com.jeequan.jeepay.service.impl.MchPayPassageService;
+import com.jeequan.jeepay.service.impl.PayInterfaceDefineService;
+import com.jeequan.jeepay.service.impl.SysConfigService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/*
+* 商户支付通道路由服务
+* 缓存模式下： 内存保存 (商户号, 应用ID, 支付方式) -> 已开启的支付通道列表， 以及已启用的支付接口集合，
+* 下单时无需查询DB； 通道或接口变更时通过 [ResetIsvMchAppInfoConfigMQ] 广播按应用增量失效。
+*
+* 同一支付方式开启多个通道时， 按 [配置权重 * 通道健康度] 加权随机选择， 熔断中的通道不分配流量。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 14:00
+*/
+@Slf4j
+@Service
+public class MchPayPassageRouteService {
+
+    @Autowired private MchPayPassageService mchPayPassageService;
+    @Autowired private PayInterfaceDefineService payInterfaceDefineService;
+    @Autowired private ChannelHealthService channelHealthService;
+
+    /** 路由表最大数量 **/
+    @Value("${isys.config-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    /** 写入后过期时间 (秒)， 作为MQ广播丢失时的兜底 **/
+    @Value("${isys.config-cache.refresh-after-write-seconds:600}")
+    private long expireAfterWriteSeconds;
+
+    /** <路由key, 已开启的支付通道列表>  **/
+    private Cache<RouteKey, RouteValue> routeTable;
+
+    /** <应用ID, 版本号> 重置时递增， 用于丢弃重置前已开始加载的旧数据 **/
+    private final Map<String, AtomicLong> appVersionMap = new ConcurrentHashMap<>();
+
+    /** 已启用的支付接口集合， 为null时需重新加载 **/
+    private volatile Set<String> enabledIfCodes = null;
+
+    /** 支付接口版本号， 重置时递增 **/
+    private final AtomicLong ifDefineVersion = new AtomicLong();
+
+    @PostConstruct
+    public void init(){
+        routeTable = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .build();
+    }
+
+    /** 根据应用ID 和 支付方式， 查询出商户可用的支付通道 **/
+    public MchPayPassage findMchPayPassage(String mchNo, String appId, String wayCode){
+
+        List<MchPayPassage> passageList;
+        Set<String> ifCodes;
+
+        if(isCache()){
+            passageList = getEnabledPassageList(mchNo, appId, wayCode);
+            ifCodes = getEnabledIfCodes();
+        }else{ // 当前系统不进行缓存
+            passageList = mchPayPassageService.listEnabledMchPayPassage(mchNo, appId, wayCode);
+            ifCodes = passageList.isEmpty() ? Set.of() : payInterfaceDefineService.selectEnabledIfCodes(passageList.stream().map(MchPayPassage::getIfCode).toList());
+        }
+
+        // 支付接口已启用的通道
+        List<MchPayPassage> candidateList = new ArrayList<>();
+        for (MchPayPassage mchPayPassage : passageList) {
+            if(ifCodes.contains(mchPayPassage.getIfCode())){
+                candidateList.add(mchPayPassage);
+            }
+        }
+
+        return selectByWeight(candidateList);
+    }
+
+    /** 按有效权重加权随机选择通道， 所有通道均不可用（熔断）时选择配置权重最高的通道 **/
+    private MchPayPassage selectByWeight(List<MchPayPassage> candidateList){
+
+        if(candidateList.isEmpty()){
+            return null;
+        }
+        if(candidateList.size() == 1){
+            return candidateList.get(0);
+        }
+
+        double[] weights = new double[candidateList.size()];
+        double totalWeight = 0;
+        for (int i = 0; i < candidateList.size(); i++) {
+            MchPayPassage mchPayPassage = candidateList.get(i);
+            weights[i] = channelHealthService.effectiveWeight(mchPayPassage.getIfCode(), configWeight(mchPayPassage));
+            totalWeight += weights[i];
+        }
+
+        if(totalWeight <= 0){
+            MchPayPassage result = candidateList.get(0);
+            for (MchPayPassage mchPayPassage : candidateList) {
+                if(configWeight(mchPayPassage) > configWeight(result)){
+                    result = mchPayPassage;
+                }
+            }
+            return result;
+        }
+
+        double random = ThreadLocalRandom.current().nextDouble(totalWeight);
+        for (int i = 0; i < candidateList.size(); i++) {
+            random -= weights[i];
+            if(random < 0){
+                return candidateList.get(i);
+            }
+        }
+        return candidateList.get(candidateList.size() - 1);
+    }
+
+    /** 配置权重， 未配置时默认100 **/
+    private int configWeight(MchPayPassage mchPayPassage){
+        return mchPayPassage.getWeight() == null ? 100 : mchPayPassage.getWeight();
+    }
+
+    /** 查询 已开启的支付通道列表 (缓存) **/
+    public List<MchPayPassage> getEnabledPassageList(String mchNo, String appId, String wayCode){
+
+        RouteKey routeKey = new RouteKey(mchNo, appId, wayCode);
+
+        RouteValue routeValue = routeTable.get(routeKey, this::loadRoute);
+
+        // 加载期间发生重置， 旧数据不可使用
+        if(routeValue.version < currentVersion(appId)){
+            routeTable.asMap().remove(routeKey, routeValue);
+            routeValue = routeTable.get(routeKey, this::loadRoute);
+        }
+        return routeValue.passageList;
+    }
+
+    /** 已启用的支付接口集合 (缓存) **/
+    public Set<String> getEnabledIfCodes(){
+
+        Set<String> result = enabledIfCodes;
+        if(result == null){
+            long version = ifDefineVersion.get();
+            result = payInterfaceDefineService.selectEnabledIfCodes();
+
+            // 加载期间未发生重置才可放入缓存
+            synchronized (ifDefineVersion){
+                if(version == ifDefineVersion.get()){
+                    enabledIfCodes = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /** 重置 [商户应用] 的路由信息 **/
+    public void resetMchApp(String appId){
+        resetMchApps(Collections.singleton(appId));
+    }
+
+    /** 批量重置 [商户应用] 的路由信息 （仅遍历一次路由表） **/
+    public void resetMchApps(Collection<String> appIds){
+        Set<String> appIdSet = new HashSet<>(appIds);
+        appIdSet.forEach(appId -> appVersionMap.computeIfAbsent(appId, k -> new AtomicLong()).incrementAndGet());
+        routeTable.asMap().keySet().removeIf(routeKey -> appIdSet.contains(routeKey.appId()));
+    }
+
+    /** 重置 [商户] 的路由信息 **/
+    public void resetMchInfo(String mchNo){
+        resetMchInfos(Collections.singleton(mchNo));
+    }
+
+    /** 批量重置 [商户] 的路由信息 **/
+    public void resetMchInfos(Collection<String> mchNos){
+        Set<String> mchNoSet = new HashSet<>(mchNos);
+        resetMchApps(routeTable.asMap().keySet().stream().filter(routeKey -> mchNoSet.contains(routeKey.mchNo()))
+                .map(RouteKey::appId).collect(Collectors.toSet()));
+    }
+
+    /** 重置 [支付接口] 启用状态 **/
+    public void resetPayIfDefine(){
+        synchronized (ifDefineVersion){
+            ifDefineVersion.incrementAndGet();
+            enabledIfCodes = null;
+        }
+    }
+
+    private RouteValue loadRoute(RouteKey routeKey){
+        long version = currentVersion(routeKey.appId());
+        return new RouteValue(version, mchPayPassageService.listEnabledMchPayPassage(routeKey.mchNo(), routeKey.appId(), routeKey.wayCode()));
+    }
+
+    private long currentVersion(String appId){
+        AtomicLong version = appVersionMap.get(appId);
+        return version == null ? 0 : version.get();
+    }
+
+    private boolean isCache(){
+        return SysConfigService.IS_USE_CACHE;
+    }
+
+    private record RouteKey(String mchNo, String appId, String wayCode) {}
+
+    private record RouteValue(long version, List<MchPayPassage> passageList) {}
+
+}
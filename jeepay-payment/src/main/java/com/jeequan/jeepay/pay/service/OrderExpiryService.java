@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.service;
+
+import com.jeequan.jeepay.core.entity.MchNotifyRecord;
+import com.jeequan.jeepay.core.entity.PayOrder;
+import com.jeequan.jeepay.core.entity.RefundOrder;
+import com.jeequan.jeepay.pay.event.OrderClosedEvent;
+import com.jeequan.jeepay.service.impl.PayOrderService;
+import com.jeequan.jeepay.service.impl.RefundOrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+* 订单过期关闭服务
+* 按 expired_time + 主键 游标分批查询已过期的订单， 每批按主键更新 (单批次为短事务， 避免大范围锁表)，
+* 仅本批次UPDATE实际关闭的订单发布 OrderClosedEvent 事件。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 18:30
+*/
+@Slf4j
+@Service
+public class OrderExpiryService {
+
+    /** 每批处理数量 **/
+    private static final int CHUNK_SIZE = 200;
+
+    @Autowired private PayOrderService payOrderService;
+    @Autowired private RefundOrderService refundOrderService;
+    @Autowired private ApplicationEventPublisher applicationEventPublisher;
+
+
+    /** 关闭已过期的支付订单， 返回关闭数量 **/
+    public int closeExpiredPayOrder(){
+
+        Date now = new Date();
+        PayOrder cursorOrder = null;
+        int closeCount = 0;
+
+        while (true){
+
+            List<PayOrder> expiredList = payOrderService.listExpiredOrder(now, cursorOrder, CHUNK_SIZE);
+            if(expiredList.isEmpty()){
+                break;
+            }
+
+            List<String> payOrderIdList = expiredList.stream().map(PayOrder::getPayOrderId).collect(Collectors.toList());
+            // 部分订单在查询后状态已变更 (如已支付成功)， 仅本次实际关闭的订单发布事件
+            Set<String> closedIdSet = new HashSet<>(payOrderService.updateExpired2Close(payOrderIdList, now));
+            closeCount += closedIdSet.size();
+
+            for (PayOrder payOrder : expiredList) {
+                if(closedIdSet.contains(payOrder.getPayOrderId())){
+                    publishClosedEvent(MchNotifyRecord.TYPE_PAY_ORDER, payOrder.getPayOrderId(), payOrder.getMchNo(), payOrder.getAppId());
+                }
+            }
+
+            if(expiredList.size() < CHUNK_SIZE){
+                break;
+            }
+            cursorOrder = expiredList.get(expiredList.size() - 1);
+        }
+        return closeCount;
+    }
+
+
+    /** 关闭已过期的退款单， 返回关闭数量 **/
+    public int closeExpiredRefundOrder(){
+
+        Date now = new Date();
+        RefundOrder cursorOrder = null;
+        int closeCount = 0;
+
+        while (true){
+
+            List<RefundOrder> expiredList = refundOrderService.listExpiredOrder(now, cursorOrder, CHUNK_SIZE);
+            if(expiredList.isEmpty()){
+                break;
+            }
+
+            List<String> refundOrderIdList = expiredList.stream().map(RefundOrder::getRefundOrderId).collect(Collectors.toList());
+            // 部分退款单在查询后状态已变更， 仅本次实际关闭的退款单发布事件
+            Set<String> closedIdSet = new HashSet<>(refundOrderService.updateExpired2Close(refundOrderIdList, now));
+            closeCount += closedIdSet.size();
+
+            for (RefundOrder refundOrder : expiredList) {
+                if(closedIdSet.contains(refundOrder.getRefundOrderId())){
+                    publishClosedEvent(MchNotifyRecord.TYPE_REFUND_ORDER, refundOrder.getRefundOrderId(), refundOrder.getMchNo(), refundOrder.getAppId());
+                }
+            }
+
+            if(expiredList.size() < CHUNK_SIZE){
+                break;
+            }
+            cursorOrder = expiredList.get(expiredList.size() - 1);
+        }
+        return closeCount;
+    }
+
+
+    private void publishClosedEvent(Byte orderType, String orderId, String mchNo, String appId){
+        try {
+            applicationEventPublisher.publishEvent(new OrderClosedEvent(this, orderType, orderId, mchNo, appId));
+        } catch (Exception e) { // 订阅方异常不影响关闭流程
+            log.error("订单关闭事件处理异常, orderId={}", orderId, e);
+        }
+    }
+
+}
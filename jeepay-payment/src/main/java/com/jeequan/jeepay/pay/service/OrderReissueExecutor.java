@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.service;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.jeequan.jeepay.pay.config.OrderReissueConfig;
+import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/*
+* 补单(查单) 并行执行器
+* 1. 固定大小的查单线程池， 查单任务按空闲容量领取订单后直接提交， 不阻塞调度线程；
+*    每个商户已提交未完成的订单最多 mchClaimLimit 笔并按商户轮询排序， 超出的订单重新入队， 避免单个商户的大量积压订单占满线程；
+* 2. 按支付接口(ifCode)令牌桶限流， 超过上游查单频率限制的订单延迟查单；
+* 3. 记录各支付接口的查单耗时。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 17:30
+*/
+@Slf4j
+@Service
+public class OrderReissueExecutor {
+
+    @Autowired private OrderReissueConfig orderReissueConfig;
+    @Autowired private OrderReissueQueueService orderReissueQueueService;
+
+    private ExecutorService workerExecutor;
+
+    /** 已提交未完成的订单数量 (查单中 + 排队中) **/
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    /** <商户号, 已提交未完成的订单数量> **/
+    private final Map<String, Integer> mchPendingMap = new ConcurrentHashMap<>();
+
+    /** <接口代码, 令牌桶> **/
+    private final Map<String, TokenBucket> tokenBucketMap = new ConcurrentHashMap<>();
+
+    /** <接口代码, 查单耗时> **/
+    private final Map<String, LatencyStat> latencyStatMap = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init(){
+        workerExecutor = Executors.newFixedThreadPool(orderReissueConfig.getWorkerThreads(), new NamedThreadFactory("orderReissueWorker-", false));
+    }
+
+    @PreDestroy
+    public void destroy(){
+        workerExecutor.shutdown();
+    }
+
+
+    /** 可提交的订单数量 (查单中 + 排队中的订单不超过 queueCapacity)， 查单任务按此数量领取， 避免领取后长时间排队导致租约过期 **/
+    public int availableSlots(){
+        return Math.max(orderReissueConfig.getQueueCapacity() - pendingCount.get(), 0);
+    }
+
+    /**
+     * 提交并行查单， 不等待执行完成
+     * 每个商户已提交未完成的订单最多 mchClaimLimit 笔 (按商户轮询排序提交)， 超出的订单重新入队至当前时间 (排在其他商户已到期的订单之后)，
+     * 避免单个商户的大量积压订单占满查单线程。
+     * 上游明确成功/失败的订单出队， 其他订单按查单间隔重新入队。
+     *
+     * @param orderList 本批次订单 (均为处理中状态)
+     * @param queryFunction 查单处理函数， 返回上游查询结果
+     * @return 本次提交的订单数量
+     */
+    public <T> int execute(OrderReissueQueueService.OrderType orderType, List<T> orderList,
+                           Function<T, String> orderIdGetter, Function<T, String> mchNoGetter, Function<T, String> ifCodeGetter,
+                           Function<T, ChannelRetMsg> queryFunction){
+
+        int submitCount = 0;
+        for (T order : fairSelect(orderType, orderList, orderIdGetter, mchNoGetter)) {
+
+            String orderId = orderIdGetter.apply(order);
+            String mchNo = mchNoGetter.apply(order);
+            try {
+                workerExecutor.execute(() -> {
+                    try {
+                        process(orderType, order, orderId, ifCodeGetter.apply(order), queryFunction);
+                    } catch (Exception e) { // 租约到期后重新领取
+                        log.error("查单异常, orderType={}, orderId={}", orderType, orderId, e);
+                    } finally {
+                        release(mchNo);
+                    }
+                });
+                submitCount++;
+            } catch (RejectedExecutionException e) { // 停机中： 立即放回队列
+                release(mchNo);
+                orderReissueQueueService.delay(orderType, orderId, 0);
+            }
+        }
+        return submitCount;
+    }
+
+    private <T> void process(OrderReissueQueueService.OrderType orderType, T order, String orderId, String ifCode, Function<T, ChannelRetMsg> queryFunction){
+
+        // 上游查单限流： 等待超时则延迟查单
+        if(!getTokenBucket(ifCode).tryAcquire(orderReissueConfig.getRateLimitWaitMillis())){
+            orderReissueQueueService.delay(orderType, orderId, orderReissueConfig.getRateLimitedDelaySeconds());
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        ChannelRetMsg channelRetMsg = null;
+        try {
+            channelRetMsg = queryFunction.apply(order);
+        } finally {
+            latencyStatMap.computeIfAbsent(ifCode, k -> new LatencyStat()).record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
+
+        if(channelRetMsg != null && (channelRetMsg.getChannelState() == ChannelRetMsg.ChannelState.CONFIRM_SUCCESS
+                || channelRetMsg.getChannelState() == ChannelRetMsg.ChannelState.CONFIRM_FAIL)){
+            orderReissueQueueService.complete(orderType, orderId);
+        }else{
+            orderReissueQueueService.delay(orderType, orderId);
+        }
+    }
+
+    /** 选取商户未超过 mchClaimLimit 的订单 (选取即占用商户配额)， 按商户轮询排序： m1, m2, m3, m1, m2, m1 ...； 未选取的订单重新入队 **/
+    private <T> List<T> fairSelect(OrderReissueQueueService.OrderType orderType, List<T> orderList, Function<T, String> orderIdGetter, Function<T, String> mchNoGetter){
+
+        Map<String, Deque<T>> mchOrderMap = new LinkedHashMap<>();
+        for (T order : orderList) {
+            String mchNo = mchNoGetter.apply(order);
+            if(tryAcquire(mchNo)){
+                mchOrderMap.computeIfAbsent(mchNo, k -> new ArrayDeque<>()).add(order);
+            }else{
+                orderReissueQueueService.delay(orderType, orderIdGetter.apply(order), 0);
+            }
+        }
+
+        List<T> result = new ArrayList<>(orderList.size());
+        while (!mchOrderMap.isEmpty()){
+            Iterator<Deque<T>> iterator = mchOrderMap.values().iterator();
+            while (iterator.hasNext()){
+                Deque<T> deque = iterator.next();
+                result.add(deque.poll());
+                if(deque.isEmpty()){
+                    iterator.remove();
+                }
+            }
+        }
+        return result;
+    }
+
+    /** 占用商户配额 **/
+    private boolean tryAcquire(String mchNo){
+
+        boolean[] acquired = new boolean[1];
+        mchPendingMap.compute(mchNo, (k, count) -> {
+            int current = count == null ? 0 : count;
+            if(current >= orderReissueConfig.getMchClaimLimit()){
+                return count;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+        if(acquired[0]){
+            pendingCount.incrementAndGet();
+        }
+        return acquired[0];
+    }
+
+    /** 释放商户配额 **/
+    private void release(String mchNo){
+        mchPendingMap.computeIfPresent(mchNo, (k, count) -> count <= 1 ? null : count - 1);
+        pendingCount.decrementAndGet();
+    }
+
+    private TokenBucket getTokenBucket(String ifCode){
+        return tokenBucketMap.computeIfAbsent(ifCode, k -> new TokenBucket(orderReissueConfig.getIfCodeQps().getOrDefault(k, orderReissueConfig.getDefaultQps())));
+    }
+
+
+    /** 各支付接口的 限流 & 查单耗时 **/
+    public List<Map<String, Object>> snapshot(){
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        new TreeSet<>(latencyStatMap.keySet()).forEach(ifCode -> {
+
+            LatencyStat latencyStat = latencyStatMap.get(ifCode);
+            long count = latencyStat.count.sum();
+
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("ifCode", ifCode);
+            item.put("qps", getTokenBucket(ifCode).permitsPerSecond);
+            item.put("queryCount", count);
+            item.put("avgMillis", count == 0 ? 0 : latencyStat.totalMillis.sum() / count);
+            item.put("maxMillis", latencyStat.maxMillis.get());
+            result.add(item);
+        });
+        return result;
+    }
+
+
+    /** 令牌桶 (容量为1秒的令牌数， 令牌不足时预占并等待) **/
+    private static class TokenBucket {
+
+        private final int permitsPerSecond;
+        private final double permitsPerMillis;
+        private double tokens;
+        private long lastRefillTime = System.currentTimeMillis();
+
+        TokenBucket(int permitsPerSecond) {
+            this.permitsPerSecond = Math.max(permitsPerSecond, 1);
+            this.permitsPerMillis = this.permitsPerSecond / 1000D;
+            this.tokens = this.permitsPerSecond;
+        }
+
+        boolean tryAcquire(long timeoutMillis){
+
+            long waitMillis;
+            synchronized (this){
+                long now = System.currentTimeMillis();
+                tokens = Math.min(permitsPerSecond, tokens + (now - lastRefillTime) * permitsPerMillis);
+                lastRefillTime = now;
+
+                if(tokens >= 1){
+                    tokens -= 1;
+                    return true;
+                }
+
+                waitMillis = (long) Math.ceil((1 - tokens) / permitsPerMillis);
+                if(waitMillis > timeoutMillis){
+                    return false;
+                }
+                tokens -= 1; // 预占， 等待期间其他线程需排在其后
+            }
+
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        }
+    }
+
+    /** 查单耗时 **/
+    private static class LatencyStat {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final AtomicLong maxMillis = new AtomicLong();
+
+        void record(long costMillis){
+            count.increment();
+            totalMillis.add(costMillis);
+            maxMillis.accumulateAndGet(costMillis, Math::max);
+        }
+    }
+
+}
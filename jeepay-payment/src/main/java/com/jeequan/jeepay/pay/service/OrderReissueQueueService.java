@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.service;
+
+import com.jeequan.jeepay.core.cache.RedisUtil;
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.entity.MchNotifyRecord;
+import com.jeequan.jeepay.pay.event.OrderClosedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+* 补单(查单)延迟队列
+* 订单进入【处理中】状态时入队， score为下次查单时间； 查单任务按score领取到期订单 (领取时续期租约， 多节点不会重复处理)，
+* 订单确认成功/失败后出队， 否则按查单间隔重新入队。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 17:00
+*/
+@Slf4j
+@Service
+public class OrderReissueQueueService {
+
+    /** 领取租约时长 (秒)， 节点异常退出时， 租约到期后由其他节点重新领取 **/
+    private static final int CLAIM_LEASE_SECONDS = 120;
+
+    /** <订单类型, 出队计数> **/
+    private final Map<OrderType, MinuteCounter> drainCounterMap = new EnumMap<>(OrderType.class);
+    {
+        for (OrderType orderType : OrderType.values()) {
+            drainCounterMap.put(orderType, new MinuteCounter());
+        }
+    }
+
+    /** 订单类型 & 首次查单延迟 & 查单间隔 **/
+    @Getter
+    @AllArgsConstructor
+    public enum OrderType {
+
+        PAY(600, 60), // 支付订单： 10分钟后开始查单 (大部分订单在此期间已收到回调)
+        REFUND(60, 60), // 退款订单
+        TRANSFER(60, 60); // 转账订单
+
+        /** 首次查单延迟 (秒) **/
+        private final int firstDelaySeconds;
+
+        /** 查单间隔 (秒) **/
+        private final int intervalSeconds;
+    }
+
+
+    /** 订单进入处理中状态： 入队 **/
+    public void enqueue(OrderType orderType, String orderId){
+        try {
+            RedisUtil.zAdd(getQueueKey(orderType), orderId, System.currentTimeMillis() + orderType.getFirstDelaySeconds() * 1000L);
+        } catch (Exception e) { // 入队失败由兜底扫描任务补偿
+            log.error("补单队列入队异常, orderType={}, orderId={}", orderType, orderId, e);
+        }
+    }
+
+    /** 兜底扫描： 不在队列中时入队并立即查单， 已在队列中的不做变更 **/
+    public boolean enqueueIfAbsent(OrderType orderType, String orderId){
+        return RedisUtil.zAddIfAbsent(getQueueKey(orderType), orderId, System.currentTimeMillis());
+    }
+
+    /** 领取到期的订单 **/
+    public List<String> claimDue(OrderType orderType, int count){
+        long now = System.currentTimeMillis();
+        return RedisUtil.zClaimByScore(getQueueKey(orderType), now, now + CLAIM_LEASE_SECONDS * 1000L, count);
+    }
+
+    /** 仍处于处理中： 按查单间隔重新入队 **/
+    public void delay(OrderType orderType, String orderId){
+        delay(orderType, orderId, orderType.getIntervalSeconds());
+    }
+
+    /** 指定延迟时间重新入队 **/
+    public void delay(OrderType orderType, String orderId, int delaySeconds){
+        RedisUtil.zAdd(getQueueKey(orderType), orderId, System.currentTimeMillis() + delaySeconds * 1000L);
+    }
+
+    /** 订单已是终态 (或无需继续查单)： 出队 **/
+    public void complete(OrderType orderType, String orderId){
+        if(RedisUtil.zRemove(getQueueKey(orderType), orderId)){
+            drainCounterMap.get(orderType).increment();
+        }
+    }
+
+    /** 订单过期关闭： 出队 **/
+    @EventListener
+    public void onOrderClosed(OrderClosedEvent event){
+
+        if(event.getOrderType() == MchNotifyRecord.TYPE_PAY_ORDER){
+            complete(OrderType.PAY, event.getOrderId());
+        }else if(event.getOrderType() == MchNotifyRecord.TYPE_REFUND_ORDER){
+            complete(OrderType.REFUND, event.getOrderId());
+        }
+    }
+
+    /** 队列中的订单数量 **/
+    public long size(OrderType orderType){
+        return RedisUtil.zCard(getQueueKey(orderType));
+    }
+
+    /** 已到期待查单的订单数量 **/
+    public long dueSize(OrderType orderType){
+        return RedisUtil.zCount(getQueueKey(orderType), 0, System.currentTimeMillis());
+    }
+
+    /** 最近一分钟的出队数量 (当前节点) **/
+    public long drainCountLastMinute(OrderType orderType){
+        return drainCounterMap.get(orderType).sumLastMinute();
+    }
+
+    private String getQueueKey(OrderType orderType){
+        return CS.getCacheKeyOrderReissueQueue(orderType.name());
+    }
+
+
+    /** 最近一分钟计数器 (60个1秒的时间片) **/
+    private static class MinuteCounter {
+
+        private final AtomicLongArray counts = new AtomicLongArray(60);
+        private final AtomicLongArray seconds = new AtomicLongArray(60);
+
+        void increment(){
+            long second = System.currentTimeMillis() / 1000;
+            int index = (int) (second % 60);
+            if(seconds.get(index) != second){
+                synchronized (this){
+                    if(seconds.get(index) != second){
+                        counts.set(index, 0);
+                        seconds.set(index, second);
+                    }
+                }
+            }
+            counts.incrementAndGet(index);
+        }
+
+        long sumLastMinute(){
+            long second = System.currentTimeMillis() / 1000;
+            long sum = 0;
+            for (int i = 0; i < 60; i++) {
+                if(second - seconds.get(i) < 60){
+                    sum += counts.get(i);
+                }
+            }
+            return sum;
+        }
+    }
+
+}
@@ -47,6 +47,7 @@ public class PayMchNotifyService {
     @Autowired private MchNotifyRecordService mchNotifyRecordService;
     @Autowired private ConfigContextQueryService configContextQueryService;
     @Autowired private IMQSender mqSender;
+    @Autowired private MchNotifyRetryService mchNotifyRetryService;
 
 
     /** 商户通知信息， 只有订单是终态，才会发送通知， 如明确成功和明确失败 **/
@@ -82,6 +83,7 @@ public class PayMchNotifyService {
             mchNotifyRecord.setNotifyUrl(notifyUrl);
             mchNotifyRecord.setResResult("");
             mchNotifyRecord.setNotifyCount(0);
+            mchNotifyRecord.setNotifyCountLimit(mchNotifyRetryService.getNotifyCountLimit(mchNotifyRecord.getMchNo())); // 最大通知次数
             mchNotifyRecord.setState(MchNotifyRecord.STATE_ING); // 通知中
 
             try {
@@ -133,6 +135,7 @@ public class PayMchNotifyService {
             mchNotifyRecord.setNotifyUrl(notifyUrl);
             mchNotifyRecord.setResResult("");
             mchNotifyRecord.setNotifyCount(0);
+            mchNotifyRecord.setNotifyCountLimit(mchNotifyRetryService.getNotifyCountLimit(mchNotifyRecord.getMchNo())); // 最大通知次数
             mchNotifyRecord.setState(MchNotifyRecord.STATE_ING); // 通知中
 
             try {
@@ -184,6 +187,7 @@ public class PayMchNotifyService {
             mchNotifyRecord.setNotifyUrl(notifyUrl);
             mchNotifyRecord.setResResult("");
             mchNotifyRecord.setNotifyCount(0);
+            mchNotifyRecord.setNotifyCountLimit(mchNotifyRetryService.getNotifyCountLimit(mchNotifyRecord.getMchNo())); // 最大通知次数
             mchNotifyRecord.setState(MchNotifyRecord.STATE_ING); // 通知中
 
             try {
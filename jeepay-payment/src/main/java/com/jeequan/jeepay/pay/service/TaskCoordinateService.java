@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.service;
+
+import cn.hutool.core.net.NetUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.RuntimeUtil;
+import com.jeequan.jeepay.core.cache.RedisUtil;
+import com.jeequan.jeepay.core.constants.CS;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/*
+* 定时任务 多节点协调服务 (基于redis)
+* 单节点执行： 任务触发时抢占租约锁， 租约期内其他节点跳过本次执行；
+* redis异常时退化为各节点独立执行 (与未开启协调时一致)。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 18:00
+*/
+@Slf4j
+@Service
+public class TaskCoordinateService {
+
+    /** 是否开启多节点协调 **/
+    @Value("${isys.task.coordinate:true}")
+    private boolean coordinate;
+
+    /** 当前节点ID **/
+    private final String nodeId = NetUtil.getLocalhostStr() + ":" + RuntimeUtil.getPid() + ":" + IdUtil.fastSimpleUUID().substring(0, 8);
+
+    /**
+     * 抢占单节点执行权
+     * 租约到期前不主动释放， 避免各节点触发时间存在微小偏差时重复执行， 因此租约时长应略小于任务的执行周期。
+     *
+     * @param taskName 任务名称
+     * @param leaseSeconds 租约时长 (秒)
+     * @return true: 当前节点执行
+     */
+    public boolean tryAcquireSingleton(String taskName, int leaseSeconds){
+
+        if(!coordinate){
+            return true;
+        }
+
+        try {
+            return RedisUtil.setIfAbsent(CS.getCacheKeyTaskLock(taskName), nodeId, leaseSeconds);
+        } catch (Exception e) {
+            log.error("抢占定时任务锁异常, 当前节点直接执行, taskName={}", taskName, e);
+            return true;
+        }
+    }
+
+    /**
+     * 续期单节点执行权 (执行时间可能超过租约时长的任务， 在每批数据处理前调用)
+     *
+     * @param taskName 任务名称
+     * @param leaseSeconds 租约时长 (秒)
+     * @return true: 当前节点仍持有执行权， false: 租约已过期或被其他节点抢占， 需停止执行
+     */
+    public boolean renewSingleton(String taskName, int leaseSeconds){
+
+        if(!coordinate){
+            return true;
+        }
+
+        try {
+            return RedisUtil.expireIfEquals(CS.getCacheKeyTaskLock(taskName), nodeId, leaseSeconds);
+        } catch (Exception e) {
+            log.error("续期定时任务锁异常, 当前节点继续执行, taskName={}", taskName, e);
+            return true;
+        }
+    }
+
+}
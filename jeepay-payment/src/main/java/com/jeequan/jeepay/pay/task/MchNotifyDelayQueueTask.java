@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.task;
+
+import com.jeequan.jeepay.pay.service.MchNotifyRetryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+* 商户通知延迟队列 定时任务
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 16:30
+*/
+@Slf4j
+@Component
+public class MchNotifyDelayQueueTask {
+
+    @Autowired private MchNotifyRetryService mchNotifyRetryService;
+
+    @Scheduled(fixedDelay = 1000) // 上次执行完成后1秒执行
+    public void start() {
+
+        try {
+            int fireCount = mchNotifyRetryService.fireDueNotify();
+            if(fireCount > 0){
+                log.info("投递到期商户通知{}条.", fireCount);
+            }
+        } catch (Exception e) {
+            log.error("投递到期商户通知异常", e);
+        }
+    }
+
+}
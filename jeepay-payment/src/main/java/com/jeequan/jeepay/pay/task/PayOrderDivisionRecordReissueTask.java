@@ -26,6 +26,7 @@ import com.jeequan.jeepay.pay.channel.IDivisionService;
 import com.jeequan.jeepay.pay.model.MchAppConfigContext;
 import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
 import com.jeequan.jeepay.pay.service.ConfigContextQueryService;
+import com.jeequan.jeepay.pay.service.TaskCoordinateService;
 import com.jeequan.jeepay.service.impl.PayOrderDivisionRecordService;
 import com.jeequan.jeepay.service.impl.PayOrderService;
 import lombok.extern.slf4j.Slf4j;
@@ -53,10 +54,16 @@ public class PayOrderDivisionRecordReissueTask {
     @Autowired private PayOrderDivisionRecordService payOrderDivisionRecordService;
     @Autowired private ConfigContextQueryService configContextQueryService;
     @Autowired private PayOrderService payOrderService;
+    @Autowired private TaskCoordinateService taskCoordinateService;
 
     @Scheduled(cron="0 0/1 * * * ?") // 每分钟执行一次
     public void start() {
 
+        // 多节点部署时仅由一个节点执行， 避免各节点重复扫描全表
+        if(!taskCoordinateService.tryAcquireSingleton("PayOrderDivisionRecordReissueTask", 50)){
+            return;
+        }
+
         log.info("处理分账补单任务 开始");
 
         //当前时间 减去5分钟。
@@ -15,7 +15,8 @@
  */
 package com.jeequan.jeepay.pay.task;
 
-import com.jeequan.jeepay.service.impl.PayOrderService;
+import com.jeequan.jeepay.pay.service.OrderExpiryService;
+import com.jeequan.jeepay.pay.service.TaskCoordinateService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -32,12 +33,18 @@ import org.springframework.stereotype.Component;
 @Component
 public class PayOrderExpiredTask {
 
-    @Autowired private PayOrderService payOrderService;
+    @Autowired private OrderExpiryService orderExpiryService;
+    @Autowired private TaskCoordinateService taskCoordinateService;
 
     @Scheduled(cron="0 0/1 * * * ?") // 每分钟执行一次
     public void start() {
 
-        int updateCount = payOrderService.updateOrderExpired();
+        // 多节点部署时仅由一个节点执行
+        if(!taskCoordinateService.tryAcquireSingleton("PayOrderExpiredTask", 50)){
+            return;
+        }
+
+        int updateCount = orderExpiryService.closeExpiredPayOrder();
         log.info("处理订单超时{}条.", updateCount);
     }
 
@@ -16,22 +16,24 @@
 package com.jeequan.jeepay.pay.task;
 
 import cn.hutool.core.date.DateUtil;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.jeequan.jeepay.core.entity.PayOrder;
 import com.jeequan.jeepay.pay.service.ChannelOrderReissueService;
+import com.jeequan.jeepay.pay.service.OrderReissueExecutor;
+import com.jeequan.jeepay.pay.service.OrderReissueQueueService;
+import com.jeequan.jeepay.pay.service.TaskCoordinateService;
 import com.jeequan.jeepay.service.impl.PayOrderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.Date;
+import java.util.*;
 
 /*
 * 补单定时任务
-* 
+* 1. 每秒按查单执行器的剩余容量领取补单队列中到期的订单并行查单；
+* 2. 每10分钟兜底扫描支付中的订单 (按 created_at + pay_order_id 游标分页)， 将遗漏的订单补充入队。
+*
 * @author terrfly
 * @site https://www.jeequan.com
 * @date 2021/6/8 17:47
@@ -44,45 +46,112 @@ public class PayOrderReissueTask {
 
     @Autowired private PayOrderService payOrderService;
     @Autowired private ChannelOrderReissueService channelOrderReissueService;
+    @Autowired private OrderReissueQueueService orderReissueQueueService;
+    @Autowired private OrderReissueExecutor orderReissueExecutor;
+    @Autowired private TaskCoordinateService taskCoordinateService;
 
-    @Scheduled(cron="0 0/1 * * * ?") // 每分钟执行一次
+    @Scheduled(fixedDelay = 1000) // 上次执行完成后1秒执行 (仅领取并提交， 不等待查单完成)
     public void start() {
 
-        //当前时间 减去10分钟。
-        Date offsetDate = DateUtil.offsetMinute(new Date(), -10);
-
-        //查询条件： 支付中的订单 & （ 订单创建时间 + 10分钟 >= 当前时间 ）
-        LambdaQueryWrapper<PayOrder> lambdaQueryWrapper = PayOrder.gw().eq(PayOrder::getState, PayOrder.STATE_ING).le(PayOrder::getCreatedAt, offsetDate);
-
-        int currentPageIndex = 1; //当前页码
         while(true){
 
             try {
-                IPage<PayOrder> payOrderIPage = payOrderService.page(new Page(currentPageIndex, QUERY_PAGE_SIZE), lambdaQueryWrapper);
+                // 按查单执行器的剩余容量领取
+                int claimCount = Math.min(QUERY_PAGE_SIZE, orderReissueExecutor.availableSlots());
+                if(claimCount <= 0){ //执行器已满, 下次再领取;
+                    break;
+                }
 
-                if(payOrderIPage == null || payOrderIPage.getRecords().isEmpty()){ //本次查询无结果, 不再继续查询;
+                List<String> idList = orderReissueQueueService.claimDue(OrderReissueQueueService.OrderType.PAY, claimCount);
+                if(idList.isEmpty()){ //本次领取无结果, 不再继续领取;
                     break;
                 }
 
-                for(PayOrder payOrder: payOrderIPage.getRecords()){
-                    channelOrderReissueService.processPayOrder(payOrder);
+                Map<String, PayOrder> orderMap = new HashMap<>();
+                payOrderService.listByIds(idList).forEach(item -> orderMap.put(item.getPayOrderId(), item));
+
+                List<PayOrder> ingOrderList = new ArrayList<>();
+                for(String id : idList){
+                    PayOrder item = orderMap.get(id);
+
+                    // 订单不存在 或 已不是支付中状态 (已收到回调/已关闭)
+                    if(item == null || item.getState() != PayOrder.STATE_ING){
+                        orderReissueQueueService.complete(OrderReissueQueueService.OrderType.PAY, id);
+                        continue;
+                    }
+                    ingOrderList.add(item);
                 }
 
-                //已经到达页码最大量，无需再次查询
-                if(payOrderIPage.getPages() <= currentPageIndex){
+                // 提交并行查单 (按接口限流 & 按商户公平调度)， 不等待查单完成
+                int submitCount = orderReissueExecutor.execute(OrderReissueQueueService.OrderType.PAY, ingOrderList,
+                        PayOrder::getPayOrderId, PayOrder::getMchNo, PayOrder::getIfCode, channelOrderReissueService::processPayOrder);
+
+                //本次领取不足一批 或 订单均超出商户配额, 不再继续领取;
+                if(idList.size() < claimCount || submitCount == 0){
                     break;
                 }
-                currentPageIndex++;
-
 
             } catch (Exception e) { //出现异常，直接退出，避免死循环。
                 log.error("error", e);
                 break;
             }
-
         }
     }
 
 
+    @Scheduled(cron="0 0/10 * * * ?") // 每10分钟执行一次
+    public void sweep() {
+
+        // 多节点部署时仅由一个节点执行
+        if(!taskCoordinateService.tryAcquireSingleton("PayOrderReissueSweep", 500)){
+            return;
+        }
+
+        //当前时间 减去10分钟。
+        Date offsetDate = DateUtil.offsetMinute(new Date(), -10);
+
+        Date lastCreatedAt = null;
+        String lastPayOrderId = null;
+        int enqueueCount = 0;
+        while(true){
+
+            try {
+                //查询条件： 支付中的订单 & （ 订单创建时间 + 10分钟 >= 当前时间 ） & 游标之后的数据
+                final Date cursorCreatedAt = lastCreatedAt;
+                final String cursorPayOrderId = lastPayOrderId;
+                List<PayOrder> payOrderList = payOrderService.list(PayOrder.gw()
+                        .select(PayOrder::getPayOrderId, PayOrder::getCreatedAt)
+                        .eq(PayOrder::getState, PayOrder.STATE_ING)
+                        .le(PayOrder::getCreatedAt, offsetDate)
+                        .and(cursorCreatedAt != null, w -> w.gt(PayOrder::getCreatedAt, cursorCreatedAt)
+                                .or(w2 -> w2.eq(PayOrder::getCreatedAt, cursorCreatedAt).gt(PayOrder::getPayOrderId, cursorPayOrderId)))
+                        .orderByAsc(PayOrder::getCreatedAt, PayOrder::getPayOrderId)
+                        .last("limit " + QUERY_PAGE_SIZE));
+
+                for(PayOrder payOrder: payOrderList){
+                    if(orderReissueQueueService.enqueueIfAbsent(OrderReissueQueueService.OrderType.PAY, payOrder.getPayOrderId())){
+                        enqueueCount++;
+                    }
+                }
+
+                //本次查询不足一页, 不再继续查询;
+                if(payOrderList.size() < QUERY_PAGE_SIZE){
+                    break;
+                }
+
+                PayOrder lastPayOrder = payOrderList.get(payOrderList.size() - 1);
+                lastCreatedAt = lastPayOrder.getCreatedAt();
+                lastPayOrderId = lastPayOrder.getPayOrderId();
+
+            } catch (Exception e) { //出现异常，直接退出，避免死循环。
+                log.error("error", e);
+                break;
+            }
+        }
+
+        if(enqueueCount > 0){
+            log.info("补单兜底扫描： 支付订单补充入队{}条.", enqueueCount);
+        }
+    }
 
 }
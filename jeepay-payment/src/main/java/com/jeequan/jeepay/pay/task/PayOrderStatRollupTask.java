@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.task;
+
+import cn.hutool.core.date.DateUtil;
+import com.jeequan.jeepay.pay.service.TaskCoordinateService;
+import com.jeequan.jeepay.service.impl.StatPayOrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+* 支付订单统计 汇总任务 (首页统计数据来源)
+* 1. 增量： 查找上次执行以来 updated_at 发生变化的订单 (支付成功、退款等均会更新该字段)， 仅重算其创建时间所在的小时及日汇总；
+* 2. 回填： 首次执行时从最早的订单开始按日回填历史数据 (每次最多 BACKFILL_DAYS_PER_RUN 天)，
+*    回填完成后每日重算一次前一日的数据， 作为增量的兜底校准。
+* 多节点时仅由持有租约的节点执行， 每汇总一天前续期租约， 续期失败 (已被其他节点抢占) 时立即停止。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 21:40
+*/
+@Slf4j
+@Component
+public class PayOrderStatRollupTask {
+
+    /** 增量时间点回退的毫秒数， 覆盖执行期间尚未提交的事务 **/
+    private static final long DELTA_LAG_MILLIS = 30 * 1000;
+
+    /** 每次执行最多回填的天数 **/
+    private static final int BACKFILL_DAYS_PER_RUN = 31;
+
+    /** 单节点执行的任务名称 **/
+    private static final String TASK_NAME = "PayOrderStatRollupTask";
+
+    /** 单节点执行租约时长 (秒)， 短于执行周期； 执行期间每汇总一天前续期 **/
+    private static final int LEASE_SECONDS = 50;
+
+    @Autowired private StatPayOrderService statPayOrderService;
+    @Autowired private TaskCoordinateService taskCoordinateService;
+
+    @Scheduled(cron="0 0/1 * * * ?") // 每分钟执行一次
+    public void start() {
+
+        // 多节点部署时仅由一个节点执行
+        if(!taskCoordinateService.tryAcquireSingleton(TASK_NAME, LEASE_SECONDS)){
+            return;
+        }
+
+        try {
+            rollupDelta();
+            backfill();
+        } catch (Exception e) {
+            log.error("支付订单统计汇总异常", e);
+        }
+    }
+
+    /** 增量重算 **/
+    private void rollupDelta(){
+
+        Date now = new Date();
+
+        // 首次执行： 当日数据由增量处理， 之前的数据由回填处理
+        Date checkpoint = statPayOrderService.getCheckpoint(StatPayOrderService.CHECKPOINT_DELTA);
+        if(checkpoint == null){
+            checkpoint = DateUtil.beginOfDay(now).toJdkDate();
+        }
+
+        // 按日分组： <日期, 小时列表>
+        Map<Date, List<Date>> dayHours = new TreeMap<>();
+        for (Date hour : statPayOrderService.listChangedHours(checkpoint)) {
+            dayHours.computeIfAbsent(DateUtil.beginOfDay(hour).toJdkDate(), k -> new ArrayList<>()).add(hour);
+        }
+
+        for (Map.Entry<Date, List<Date>> entry : dayHours.entrySet()) {
+            if(!renewLease()){
+                return; // 未保存检查点， 由持有租约的节点重新处理
+            }
+            statPayOrderService.rollup(entry.getKey(), entry.getValue());
+        }
+
+        statPayOrderService.saveCheckpoint(StatPayOrderService.CHECKPOINT_DELTA, new Date(now.getTime() - DELTA_LAG_MILLIS));
+
+        if(!dayHours.isEmpty()){
+            log.info("支付订单统计增量汇总, 重算{}天共{}小时", dayHours.size(), dayHours.values().stream().mapToInt(List::size).sum());
+        }
+    }
+
+    /** 历史回填 (不含当日) **/
+    private void backfill(){
+
+        Date today = DateUtil.beginOfDay(new Date()).toJdkDate();
+
+        Date day = statPayOrderService.getCheckpoint(StatPayOrderService.CHECKPOINT_BACKFILL);
+        if(day == null){
+            Date minCreatedAt = statPayOrderService.getMinOrderCreatedAt();
+            day = minCreatedAt == null || minCreatedAt.after(today) ? today : DateUtil.beginOfDay(minCreatedAt).toJdkDate();
+            statPayOrderService.saveCheckpoint(StatPayOrderService.CHECKPOINT_BACKFILL, day);
+        }
+
+        int days = 0;
+        while (day.before(today) && days < BACKFILL_DAYS_PER_RUN && renewLease()) {
+            statPayOrderService.rollup(day, null);
+            day = DateUtil.offsetDay(day, 1).toJdkDate();
+            statPayOrderService.saveCheckpoint(StatPayOrderService.CHECKPOINT_BACKFILL, day);
+            days++;
+        }
+
+        if(days > 0){
+            log.info("支付订单统计回填{}天, 已回填至{}", days, DateUtil.formatDate(day));
+        }
+    }
+
+    /** 续期租约， 失败时 (租约已过期并被其他节点抢占) 停止本次执行 **/
+    private boolean renewLease(){
+
+        if(taskCoordinateService.renewSingleton(TASK_NAME, LEASE_SECONDS)){
+            return true;
+        }
+        log.warn("支付订单统计汇总租约已失效, 停止本次执行");
+        return false;
+    }
+
+}
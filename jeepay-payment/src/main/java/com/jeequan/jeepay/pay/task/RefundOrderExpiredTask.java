@@ -16,7 +16,8 @@
 package com.jeequan.jeepay.pay.task;
 
 import com.jeequan.jeepay.service.impl.PayOrderService;
-import com.jeequan.jeepay.service.impl.RefundOrderService;
+import com.jeequan.jeepay.pay.service.OrderExpiryService;
+import com.jeequan.jeepay.pay.service.TaskCoordinateService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -33,12 +34,18 @@ import org.springframework.stereotype.Component;
 @Component
 public class RefundOrderExpiredTask {
 
-    @Autowired private RefundOrderService refundOrderService;
+    @Autowired private OrderExpiryService orderExpiryService;
+    @Autowired private TaskCoordinateService taskCoordinateService;
 
     @Scheduled(cron="0 0/1 * * * ?") // 每分钟执行一次
     public void start() {
 
-        int updateCount = refundOrderService.updateOrderExpired();
+        // 多节点部署时仅由一个节点执行
+        if(!taskCoordinateService.tryAcquireSingleton("RefundOrderExpiredTask", 50)){
+            return;
+        }
+
+        int updateCount = orderExpiryService.closeExpiredRefundOrder();
         log.info("处理退款订单超时{}条.", updateCount);
     }
 
@@ -15,22 +15,23 @@
  */
 package com.jeequan.jeepay.pay.task;
 
-import cn.hutool.core.date.DateUtil;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.jeequan.jeepay.core.entity.RefundOrder;
 import com.jeequan.jeepay.pay.service.ChannelOrderReissueService;
+import com.jeequan.jeepay.pay.service.OrderReissueExecutor;
+import com.jeequan.jeepay.pay.service.OrderReissueQueueService;
+import com.jeequan.jeepay.pay.service.TaskCoordinateService;
 import com.jeequan.jeepay.service.impl.RefundOrderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.Date;
+import java.util.*;
 
 /*
 * 补单定时任务(退款单)
+* 1. 每秒按查单执行器的剩余容量领取补单队列中到期的退款单并行查单；
+* 2. 每10分钟兜底扫描退款中的订单 (按 created_at + refund_order_id 游标分页)， 将遗漏的订单补充入队。
 *
 * @author terrfly
 * @site https://www.jeequan.com
@@ -44,42 +45,108 @@ public class RefundOrderReissueTask {
 
     @Autowired private RefundOrderService refundOrderService;
     @Autowired private ChannelOrderReissueService channelOrderReissueService;
+    @Autowired private OrderReissueQueueService orderReissueQueueService;
+    @Autowired private OrderReissueExecutor orderReissueExecutor;
+    @Autowired private TaskCoordinateService taskCoordinateService;
 
-    @Scheduled(cron="0 0/1 * * * ?") // 每分钟执行一次
+    @Scheduled(fixedDelay = 1000) // 上次执行完成后1秒执行 (仅领取并提交， 不等待查单完成)
     public void start() {
 
-        //查询条件： 退款中的订单
-        LambdaQueryWrapper<RefundOrder> lambdaQueryWrapper = RefundOrder.gw().eq(RefundOrder::getState, RefundOrder.STATE_ING);
-
-        int currentPageIndex = 1; //当前页码
         while(true){
 
             try {
-                IPage<RefundOrder> refundOrderIPage = refundOrderService.page(new Page(currentPageIndex, QUERY_PAGE_SIZE), lambdaQueryWrapper);
+                // 按查单执行器的剩余容量领取
+                int claimCount = Math.min(QUERY_PAGE_SIZE, orderReissueExecutor.availableSlots());
+                if(claimCount <= 0){ //执行器已满, 下次再领取;
+                    break;
+                }
 
-                if(refundOrderIPage == null || refundOrderIPage.getRecords().isEmpty()){ //本次查询无结果, 不再继续查询;
+                List<String> idList = orderReissueQueueService.claimDue(OrderReissueQueueService.OrderType.REFUND, claimCount);
+                if(idList.isEmpty()){ //本次领取无结果, 不再继续领取;
                     break;
                 }
 
-                for(RefundOrder refundOrder: refundOrderIPage.getRecords()){
-                    channelOrderReissueService.processRefundOrder(refundOrder);
+                Map<String, RefundOrder> orderMap = new HashMap<>();
+                refundOrderService.listByIds(idList).forEach(item -> orderMap.put(item.getRefundOrderId(), item));
+
+                List<RefundOrder> ingOrderList = new ArrayList<>();
+                for(String id : idList){
+                    RefundOrder item = orderMap.get(id);
+
+                    // 退款单不存在 或 已不是退款中状态
+                    if(item == null || item.getState() != RefundOrder.STATE_ING){
+                        orderReissueQueueService.complete(OrderReissueQueueService.OrderType.REFUND, id);
+                        continue;
+                    }
+                    ingOrderList.add(item);
                 }
 
-                //已经到达页码最大量，无需再次查询
-                if(refundOrderIPage.getPages() <= currentPageIndex){
+                // 提交并行查单 (按接口限流 & 按商户公平调度)， 不等待查单完成
+                int submitCount = orderReissueExecutor.execute(OrderReissueQueueService.OrderType.REFUND, ingOrderList,
+                        RefundOrder::getRefundOrderId, RefundOrder::getMchNo, RefundOrder::getIfCode, channelOrderReissueService::processRefundOrder);
+
+                //本次领取不足一批 或 订单均超出商户配额, 不再继续领取;
+                if(idList.size() < claimCount || submitCount == 0){
                     break;
                 }
-                currentPageIndex++;
-
 
             } catch (Exception e) { //出现异常，直接退出，避免死循环。
                 log.error("error", e);
                 break;
             }
-
         }
     }
 
 
+    @Scheduled(cron="0 0/10 * * * ?") // 每10分钟执行一次
+    public void sweep() {
+
+        // 多节点部署时仅由一个节点执行
+        if(!taskCoordinateService.tryAcquireSingleton("RefundOrderReissueSweep", 500)){
+            return;
+        }
+
+        Date lastCreatedAt = null;
+        String lastRefundOrderId = null;
+        int enqueueCount = 0;
+        while(true){
+
+            try {
+                //查询条件： 退款中的订单 & 游标之后的数据
+                final Date cursorCreatedAt = lastCreatedAt;
+                final String cursorRefundOrderId = lastRefundOrderId;
+                List<RefundOrder> refundOrderList = refundOrderService.list(RefundOrder.gw()
+                        .select(RefundOrder::getRefundOrderId, RefundOrder::getCreatedAt)
+                        .eq(RefundOrder::getState, RefundOrder.STATE_ING)
+                        .and(cursorCreatedAt != null, w -> w.gt(RefundOrder::getCreatedAt, cursorCreatedAt)
+                                .or(w2 -> w2.eq(RefundOrder::getCreatedAt, cursorCreatedAt).gt(RefundOrder::getRefundOrderId, cursorRefundOrderId)))
+                        .orderByAsc(RefundOrder::getCreatedAt, RefundOrder::getRefundOrderId)
+                        .last("limit " + QUERY_PAGE_SIZE));
+
+                for(RefundOrder refundOrder: refundOrderList){
+                    if(orderReissueQueueService.enqueueIfAbsent(OrderReissueQueueService.OrderType.REFUND, refundOrder.getRefundOrderId())){
+                        enqueueCount++;
+                    }
+                }
+
+                //本次查询不足一页, 不再继续查询;
+                if(refundOrderList.size() < QUERY_PAGE_SIZE){
+                    break;
+                }
+
+                RefundOrder lastRefundOrder = refundOrderList.get(refundOrderList.size() - 1);
+                lastCreatedAt = lastRefundOrder.getCreatedAt();
+                lastRefundOrderId = lastRefundOrder.getRefundOrderId();
+
+            } catch (Exception e) { //出现异常，直接退出，避免死循环。
+                log.error("error", e);
+                break;
+            }
+        }
+
+        if(enqueueCount > 0){
+            log.info("补单兜底扫描： 退款订单补充入队{}条.", enqueueCount);
+        }
+    }
 
 }
@@ -16,10 +16,10 @@
 package com.jeequan.jeepay.pay.task;
 
 import cn.hutool.core.date.DateUtil;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.jeequan.jeepay.core.entity.TransferOrder;
+import com.jeequan.jeepay.pay.service.OrderReissueExecutor;
+import com.jeequan.jeepay.pay.service.OrderReissueQueueService;
+import com.jeequan.jeepay.pay.service.TaskCoordinateService;
 import com.jeequan.jeepay.pay.service.TransferOrderReissueService;
 import com.jeequan.jeepay.service.impl.TransferOrderService;
 import lombok.extern.slf4j.Slf4j;
@@ -27,10 +27,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.Date;
+import java.util.*;
 
 /*
 * 转账补单定时任务
+* 1. 每秒按查单执行器的剩余容量领取补单队列中到期的转账单并行查单 (只处理一天内的转账单)；
+* 2. 每10分钟兜底扫描转账中的订单 (按 created_at + transfer_id 游标分页)， 将遗漏的订单补充入队。
 *
 * @author zx
 * @site https://www.jeequan.com
@@ -44,34 +46,53 @@ public class TransferOrderReissueTask {
 
     @Autowired private TransferOrderService transferOrderService;
     @Autowired private TransferOrderReissueService transferOrderReissueService;
+    @Autowired private OrderReissueQueueService orderReissueQueueService;
+    @Autowired private OrderReissueExecutor orderReissueExecutor;
+    @Autowired private TaskCoordinateService taskCoordinateService;
 
-    @Scheduled(cron="0 0/1 * * * ?") // 每分钟执行一次
+    @Scheduled(fixedDelay = 1000) // 上次执行完成后1秒执行 (仅领取并提交， 不等待查单完成)
     public void start() {
 
-        //查询条件：
-        LambdaQueryWrapper<TransferOrder> lambdaQueryWrapper = TransferOrder.gw()
-                .eq(TransferOrder::getState, TransferOrder.STATE_ING) // 转账中
-                .ge(TransferOrder::getCreatedAt, DateUtil.offsetDay(new Date(), -1)); // 只查询一天内的转账单;
+        //只查询一天内的转账单
+        Date offsetDate = DateUtil.offsetDay(new Date(), -1);
 
-        int currentPageIndex = 1; //当前页码
         while(true){
 
             try {
-                IPage<TransferOrder> iPage = transferOrderService.page(new Page(currentPageIndex, QUERY_PAGE_SIZE), lambdaQueryWrapper);
+                // 按查单执行器的剩余容量领取
+                int claimCount = Math.min(QUERY_PAGE_SIZE, orderReissueExecutor.availableSlots());
+                if(claimCount <= 0){ //执行器已满, 下次再领取;
+                    break;
+                }
 
-                if(iPage == null || iPage.getRecords().isEmpty()){ //本次查询无结果, 不再继续查询;
+                List<String> idList = orderReissueQueueService.claimDue(OrderReissueQueueService.OrderType.TRANSFER, claimCount);
+                if(idList.isEmpty()){ //本次领取无结果, 不再继续领取;
                     break;
                 }
 
-                for(TransferOrder transferOrder: iPage.getRecords()){
-                    transferOrderReissueService.processOrder(transferOrder);
+                Map<String, TransferOrder> orderMap = new HashMap<>();
+                transferOrderService.listByIds(idList).forEach(item -> orderMap.put(item.getTransferId(), item));
+
+                List<TransferOrder> ingOrderList = new ArrayList<>();
+                for(String id : idList){
+                    TransferOrder item = orderMap.get(id);
+
+                    // 转账单不存在 或 已不是转账中状态 或 超过一天的转账单 (不再查询)
+                    if(item == null || item.getState() != TransferOrder.STATE_ING || item.getCreatedAt().before(offsetDate)){
+                        orderReissueQueueService.complete(OrderReissueQueueService.OrderType.TRANSFER, id);
+                        continue;
+                    }
+                    ingOrderList.add(item);
                 }
 
-                //已经到达页码最大量，无需再次查询
-                if(iPage.getPages() <= currentPageIndex){
+                // 提交并行查单 (按接口限流 & 按商户公平调度)， 不等待查单完成
+                int submitCount = orderReissueExecutor.execute(OrderReissueQueueService.OrderType.TRANSFER, ingOrderList,
+                        TransferOrder::getTransferId, TransferOrder::getMchNo, TransferOrder::getIfCode, transferOrderReissueService::processOrder);
+
+                //本次领取不足一批 或 订单均超出商户配额, 不再继续领取;
+                if(idList.size() < claimCount || submitCount == 0){
                     break;
                 }
-                currentPageIndex++;
 
             } catch (Exception e) { //出现异常，直接退出，避免死循环。
                 log.error("error", e);
@@ -81,5 +102,59 @@ public class TransferOrderReissueTask {
     }
 
 
+    @Scheduled(cron="0 0/10 * * * ?") // 每10分钟执行一次
+    public void sweep() {
+
+        // 多节点部署时仅由一个节点执行
+        if(!taskCoordinateService.tryAcquireSingleton("TransferOrderReissueSweep", 500)){
+            return;
+        }
+
+        //只查询一天内的转账单
+        Date offsetDate = DateUtil.offsetDay(new Date(), -1);
+
+        Date lastCreatedAt = null;
+        String lastTransferId = null;
+        int enqueueCount = 0;
+        while(true){
+
+            try {
+                //查询条件： 转账中的订单 & 一天内的转账单 & 游标之后的数据
+                final Date cursorCreatedAt = lastCreatedAt;
+                final String cursorTransferId = lastTransferId;
+                List<TransferOrder> transferOrderList = transferOrderService.list(TransferOrder.gw()
+                        .select(TransferOrder::getTransferId, TransferOrder::getCreatedAt)
+                        .eq(TransferOrder::getState, TransferOrder.STATE_ING)
+                        .ge(TransferOrder::getCreatedAt, offsetDate)
+                        .and(cursorCreatedAt != null, w -> w.gt(TransferOrder::getCreatedAt, cursorCreatedAt)
+                                .or(w2 -> w2.eq(TransferOrder::getCreatedAt, cursorCreatedAt).gt(TransferOrder::getTransferId, cursorTransferId)))
+                        .orderByAsc(TransferOrder::getCreatedAt, TransferOrder::getTransferId)
+                        .last("limit " + QUERY_PAGE_SIZE));
+
+                for(TransferOrder transferOrder: transferOrderList){
+                    if(orderReissueQueueService.enqueueIfAbsent(OrderReissueQueueService.OrderType.TRANSFER, transferOrder.getTransferId())){
+                        enqueueCount++;
+                    }
+                }
+
+                //本次查询不足一页, 不再继续查询;
+                if(transferOrderList.size() < QUERY_PAGE_SIZE){
+                    break;
+                }
+
+                TransferOrder lastTransferOrder = transferOrderList.get(transferOrderList.size() - 1);
+                lastCreatedAt = lastTransferOrder.getCreatedAt();
+                lastTransferId = lastTransferOrder.getTransferId();
+
+            } catch (Exception e) { //出现异常，直接退出，避免死循环。
+                log.error("error", e);
+                break;
+            }
+        }
+
+        if(enqueueCount > 0){
+            log.info("补单兜底扫描： 转账订单补充入队{}条.", enqueueCount);
+        }
+    }
 
 }
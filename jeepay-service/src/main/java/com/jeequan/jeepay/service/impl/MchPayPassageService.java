@@ -20,10 +20,8 @@ import com.alibaba.fastjson.JSONObject;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.entity.MchPayPassage;
-import com.jeequan.jeepay.core.entity.PayInterfaceDefine;
 import com.jeequan.jeepay.core.exception.BizException;
 import com.jeequan.jeepay.service.mapper.MchPayPassageMapper;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
@@ -44,8 +42,6 @@ import java.util.Map;
 @Service
 public class MchPayPassageService extends ServiceImpl<MchPayPassageMapper, MchPayPassage> {
 
-    @Autowired private PayInterfaceDefineService payInterfaceDefineService;
-
     /**
      * @Author: ZhuXiao
      * @Description: 根据支付方式查询可用的支付接口列表
@@ -75,6 +71,7 @@ public class MchPayPassageService extends ServiceImpl<MchPayPassageMapper, MchPa
                     object.put("rate", payPassage.getRate().multiply(new BigDecimal("100")));
                 }
                 object.put("state", payPassage.getState());
+                object.put("weight", payPassage.getWeight());
             }
             if(object.getBigDecimal("ifRate") != null) {
                 object.put("ifRate", object.getBigDecimal("ifRate").multiply(new BigDecimal("100")));
@@ -102,38 +99,15 @@ public class MchPayPassageService extends ServiceImpl<MchPayPassageMapper, MchPa
     }
 
 
-    /** 根据应用ID 和 支付方式， 查询出商户可用的支付接口 **/
-    public MchPayPassage findMchPayPassage(String mchNo, String appId, String wayCode){
+    /** 根据应用ID 和 支付方式， 查询出商户已开启的支付通道列表 **/
+    public List<MchPayPassage> listEnabledMchPayPassage(String mchNo, String appId, String wayCode){
 
-        List<MchPayPassage> list = list(MchPayPassage.gw()
-                                    .eq(MchPayPassage::getMchNo, mchNo)
-                                    .eq(MchPayPassage::getAppId, appId)
-                                    .eq(MchPayPassage::getState, CS.YES)
-                                    .eq(MchPayPassage::getWayCode, wayCode)
+        return list(MchPayPassage.gw()
+                .eq(MchPayPassage::getMchNo, mchNo)
+                .eq(MchPayPassage::getAppId, appId)
+                .eq(MchPayPassage::getState, CS.YES)
+                .eq(MchPayPassage::getWayCode, wayCode)
         );
-
-        if (list.isEmpty()) {
-            return null;
-        }else { // 返回一个可用通道
-
-            HashMap<String, MchPayPassage> mchPayPassageMap = new HashMap<>();
-
-            for (MchPayPassage mchPayPassage:list) {
-                mchPayPassageMap.put(mchPayPassage.getIfCode(), mchPayPassage);
-            }
-            // 查询ifCode所有接口
-            PayInterfaceDefine interfaceDefine = payInterfaceDefineService
-                    .getOne(PayInterfaceDefine.gw()
-                            .select(PayInterfaceDefine::getIfCode, PayInterfaceDefine::getState)
-                            .eq(PayInterfaceDefine::getState, CS.YES)
-                            .in(PayInterfaceDefine::getIfCode, mchPayPassageMap.keySet()), false);
-
-            if (interfaceDefine != null) {
-                return mchPayPassageMap.get(interfaceDefine.getIfCode());
-            }
-        }
-        return null;
     }
 
-
 }
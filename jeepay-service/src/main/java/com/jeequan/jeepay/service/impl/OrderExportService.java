@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.impl;
+
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.util.IdUtil;
+import com.alibaba.fastjson.JSONObject;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.jeequan.jeepay.core.cache.RedisUtil;
+import com.jeequan.jeepay.core.constants.ApiCodeEnum;
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.entity.PayOrder;
+import com.jeequan.jeepay.core.entity.RefundOrder;
+import com.jeequan.jeepay.core.entity.TransferOrder;
+import com.jeequan.jeepay.core.exception.BizException;
+import com.jeequan.jeepay.core.export.ExportJob;
+import com.jeequan.jeepay.core.export.ExportWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/*
+* 订单导出 (支付订单、 退款订单、 转账订单)
+*   查询条件与列表查询一致， 结果集流式读取 (MySQL逐行读取) 并逐行写入 CSV / XLSX， 内存占用与导出行数无关。
+*   1. 同步导出： 直接写入响应流， 时间范围不超过 sync-max-days 天；
+*   2. 后台导出： 大范围导出写入本地文件 (${isys.oss.file-private-path}/export)， 任务状态保存在redis， 完成后由创建者下载，
+*      文件保留 job-keep-hours 小时。 多节点部署时需共享该目录 (与OSS本地存储一致)。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 22:10
+*/
+@Slf4j
+@Service
+public class OrderExportService {
+
+    /** 同步导出允许的最大时间范围 (天) **/
+    @Value("${isys.export.sync-max-days:31}")
+    private int syncMaxDays;
+
+    /** 后台导出任务 并发线程数 **/
+    @Value("${isys.export.job-threads:2}")
+    private int jobThreads;
+
+    /** 后台导出任务 最大排队数 **/
+    @Value("${isys.export.job-queue-size:20}")
+    private int jobQueueSize;
+
+    /** 后台导出文件 保留时长 (小时) **/
+    @Value("${isys.export.job-keep-hours:24}")
+    private int jobKeepHours;
+
+    @Value("${isys.oss.file-private-path:/jeepayhomes/service/uploads/private}")
+    private String filePrivatePath;
+
+    @Autowired private PayOrderService payOrderService;
+    @Autowired private RefundOrderService refundOrderService;
+    @Autowired private TransferOrderService transferOrderService;
+
+    private ThreadPoolExecutor jobExecutor;
+
+    private static final List<String> PAY_ORDER_TITLES = Arrays.asList("支付订单号", "商户订单号", "商户号", "商户名称", "应用ID", "服务商号",
+            "支付方式", "支付接口", "支付金额(元)", "手续费(元)", "退款金额(元)", "支付状态", "渠道订单号", "创建时间", "成功时间");
+
+    private static final List<String> REFUND_ORDER_TITLES = Arrays.asList("退款订单号", "支付订单号", "商户退款单号", "商户号", "商户名称", "应用ID",
+            "支付金额(元)", "退款金额(元)", "退款状态", "渠道支付订单号", "渠道退款单号", "退款原因", "创建时间", "成功时间");
+
+    private static final List<String> TRANSFER_ORDER_TITLES = Arrays.asList("转账订单号", "商户订单号", "商户号", "商户名称", "应用ID", "支付接口",
+            "入账方式", "转账金额(元)", "收款账号", "收款人姓名", "转账状态", "渠道订单号", "创建时间", "成功时间");
+
+    private static final String[] PAY_ORDER_STATES = {"订单生成", "支付中", "支付成功", "支付失败", "已撤销", "已退款", "订单关闭"};
+    private static final String[] REFUND_ORDER_STATES = {"订单生成", "退款中", "退款成功", "退款失败", "退款任务关闭"};
+    private static final String[] TRANSFER_ORDER_STATES = {"订单生成", "转账中", "转账成功", "转账失败", "订单关闭"};
+
+    @PostConstruct
+    public void init(){
+        AtomicInteger threadIndex = new AtomicInteger();
+        jobExecutor = new ThreadPoolExecutor(jobThreads, jobThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(jobQueueSize),
+                r -> new Thread(r, "order-export-" + threadIndex.incrementAndGet()));
+        jobExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void destroy(){
+        jobExecutor.shutdown();
+    }
+
+
+    /** 同步导出参数校验： 文件格式， 以及时间范围 (超出时使用后台导出) **/
+    public void checkSyncExport(JSONObject paramJSON, String format){
+
+        checkFormat(format);
+
+        String createdStart = paramJSON == null ? null : paramJSON.getString("createdStart");
+        String createdEnd = paramJSON == null ? null : paramJSON.getString("createdEnd");
+        if(StringUtils.isAnyEmpty(createdStart, createdEnd)
+                || DateUtil.betweenDay(DateUtil.parse(createdStart), DateUtil.parse(createdEnd), true) >= syncMaxDays){
+            throw new BizException("同步导出的时间范围不能超过" + syncMaxDays + "天， 请使用后台导出");
+        }
+    }
+
+    /** 同步导出 支付订单 (调用前需 checkSyncExport， 以便在写入响应头之前返回参数错误) **/
+    public void exportPayOrder(PayOrder payOrder, JSONObject paramJSON, LambdaQueryWrapper<PayOrder> wrapper, String format, OutputStream out) throws IOException {
+        writePayOrder(payOrder, paramJSON, wrapper, format, out);
+    }
+
+    /** 同步导出 退款订单 **/
+    public void exportRefundOrder(RefundOrder refundOrder, JSONObject paramJSON, LambdaQueryWrapper<RefundOrder> wrapper, String format, OutputStream out) throws IOException {
+        writeRefundOrder(refundOrder, paramJSON, wrapper, format, out);
+    }
+
+    /** 同步导出 转账订单 **/
+    public void exportTransferOrder(TransferOrder transferOrder, JSONObject paramJSON, LambdaQueryWrapper<TransferOrder> wrapper, String format, OutputStream out) throws IOException {
+        writeTransferOrder(transferOrder, paramJSON, wrapper, format, out);
+    }
+
+    /** 后台导出 支付订单 **/
+    public ExportJob submitPayOrderJob(String ownerKey, PayOrder payOrder, JSONObject paramJSON, LambdaQueryWrapper<PayOrder> wrapper, String format) {
+        return submitJob(ownerKey, "payOrder", format, out -> writePayOrder(payOrder, paramJSON, wrapper, format, out));
+    }
+
+    /** 后台导出 退款订单 **/
+    public ExportJob submitRefundOrderJob(String ownerKey, RefundOrder refundOrder, JSONObject paramJSON, LambdaQueryWrapper<RefundOrder> wrapper, String format) {
+        return submitJob(ownerKey, "refundOrder", format, out -> writeRefundOrder(refundOrder, paramJSON, wrapper, format, out));
+    }
+
+    /** 后台导出 转账订单 **/
+    public ExportJob submitTransferOrderJob(String ownerKey, TransferOrder transferOrder, JSONObject paramJSON, LambdaQueryWrapper<TransferOrder> wrapper, String format) {
+        return submitJob(ownerKey, "transferOrder", format, out -> writeTransferOrder(transferOrder, paramJSON, wrapper, format, out));
+    }
+
+    /** 查询后台导出任务， 非创建者返回null **/
+    public ExportJob getJob(String jobId, String ownerKey){
+        ExportJob job = RedisUtil.getObject(CS.getCacheKeyExportJob(jobId), ExportJob.class);
+        if(job == null || !StringUtils.equals(job.getOwnerKey(), ownerKey)){
+            return null;
+        }
+        return job;
+    }
+
+    /** 后台导出任务的文件， 任务未成功或文件已删除时返回null **/
+    public File getJobFile(ExportJob job){
+        if(job.getState() != ExportJob.STATE_SUCCESS){
+            return null;
+        }
+        File file = new File(getJobDir(), job.getJobId() + "." + job.getFormat());
+        return file.isFile() ? file : null;
+    }
+
+    /** 下载文件名 **/
+    public static String genFileName(String name, String format){
+        return name + "_" + DateUtil.format(new Date(), "yyyyMMddHHmmss") + "." + format.toLowerCase();
+    }
+
+    /** 清理过期的后台导出文件 **/
+    @Scheduled(cron = "0 10 * * * ?") // 每小时执行一次
+    public void cleanJobFiles(){
+
+        File[] files = getJobDir().listFiles();
+        if(files == null){
+            return;
+        }
+
+        long expireTime = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(jobKeepHours);
+        for (File file : files) {
+            if(file.isFile() && file.lastModified() < expireTime && !file.delete()){
+                log.warn("删除过期导出文件失败: {}", file.getAbsolutePath());
+            }
+        }
+    }
+
+
+    private long writePayOrder(PayOrder payOrder, JSONObject paramJSON, LambdaQueryWrapper<PayOrder> wrapper, String format, OutputStream out) throws IOException {
+        return this.<PayOrder>write(format, out, PAY_ORDER_TITLES,
+                handler -> payOrderService.streamList(payOrder, paramJSON, wrapper, handler),
+                order -> Arrays.asList(order.getPayOrderId(), order.getMchOrderNo(), order.getMchNo(), order.getMchName(), order.getAppId(), order.getIsvNo(),
+                        order.getWayCode(), order.getIfCode(), toYuan(order.getAmount()), toYuan(order.getMchFeeAmount()), toYuan(order.getRefundAmount()),
+                        stateName(PAY_ORDER_STATES, order.getState()), order.getChannelOrderNo(), order.getCreatedAt(), order.getSuccessTime()));
+    }
+
+    private long writeRefundOrder(RefundOrder refundOrder, JSONObject paramJSON, LambdaQueryWrapper<RefundOrder> wrapper, String format, OutputStream out) throws IOException {
+        return this.<RefundOrder>write(format, out, REFUND_ORDER_TITLES,
+                handler -> refundOrderService.streamList(refundOrder, paramJSON, wrapper, handler),
+                order -> Arrays.asList(order.getRefundOrderId(), order.getPayOrderId(), order.getMchRefundNo(), order.getMchNo(), order.getMchName(), order.getAppId(),
+                        toYuan(order.getPayAmount()), toYuan(order.getRefundAmount()), stateName(REFUND_ORDER_STATES, order.getState()),
+                        order.getChannelPayOrderNo(), order.getChannelOrderNo(), order.getRefundReason(), order.getCreatedAt(), order.getSuccessTime()));
+    }
+
+    private long writeTransferOrder(TransferOrder transferOrder, JSONObject paramJSON, LambdaQueryWrapper<TransferOrder> wrapper, String format, OutputStream out) throws IOException {
+        return this.<TransferOrder>write(format, out, TRANSFER_ORDER_TITLES,
+                handler -> transferOrderService.streamList(transferOrder, paramJSON, wrapper, handler),
+                order -> Arrays.asList(order.getTransferId(), order.getMchOrderNo(), order.getMchNo(), order.getMchName(), order.getAppId(), order.getIfCode(),
+                        order.getEntryType(), toYuan(order.getAmount()), order.getAccountNo(), order.getAccountName(),
+                        stateName(TRANSFER_ORDER_STATES, order.getState()), order.getChannelOrderNo(), order.getCreatedAt(), order.getSuccessTime()));
+    }
+
+    /** 流式查询并逐行写入， 返回导出行数 **/
+    private <T> long write(String format, OutputStream out, List<String> titles, Consumer<ResultHandler<T>> query, Function<T, List<?>> rowMapper) throws IOException {
+
+        ExportWriter writer = ExportWriter.create(format, out);
+        writer.writeHeader(titles);
+
+        AtomicLong rowCount = new AtomicLong();
+        try {
+            query.accept(context -> {
+                try {
+                    writer.writeRow(rowMapper.apply(context.getResultObject()));
+                    rowCount.incrementAndGet();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.finish();
+        return rowCount.get();
+    }
+
+    /** 导出任务： 写入输出流， 返回导出行数 **/
+    private interface ExportAction {
+        long write(OutputStream out) throws IOException;
+    }
+
+    private ExportJob submitJob(String ownerKey, String name, String format, ExportAction action){
+
+        checkFormat(format);
+
+        ExportJob job = new ExportJob();
+        job.setJobId(IdUtil.fastSimpleUUID());
+        job.setOwnerKey(ownerKey);
+        job.setFileName(genFileName(name, format));
+        job.setFormat(format.toLowerCase());
+        job.setState(ExportJob.STATE_ING);
+        job.setRowCount(0L);
+        job.setCreatedAt(new Date());
+        saveJob(job);
+
+        try {
+            jobExecutor.execute(() -> runJob(job, action));
+        } catch (RejectedExecutionException e) {
+            RedisUtil.del(CS.getCacheKeyExportJob(job.getJobId()));
+            throw new BizException("后台导出任务过多， 请稍后再试");
+        }
+        return job;
+    }
+
+    private void runJob(ExportJob job, ExportAction action){
+
+        File dir = getJobDir();
+        File tmpFile = new File(dir, job.getJobId() + "." + job.getFormat() + ".tmp");
+        try {
+            Files.createDirectories(dir.toPath());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath()))) {
+                job.setRowCount(action.write(out));
+            }
+            Files.move(tmpFile.toPath(), new File(dir, job.getJobId() + "." + job.getFormat()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            job.setState(ExportJob.STATE_SUCCESS);
+
+        } catch (Exception e) {
+            log.error("后台导出任务异常, jobId={}", job.getJobId(), e);
+            tmpFile.delete();
+            job.setState(ExportJob.STATE_FAIL);
+            job.setErrMsg(e instanceof BizException ? e.getMessage() : "导出异常");
+        }
+
+        job.setFinishedAt(new Date());
+        saveJob(job);
+        log.info("后台导出任务完成, jobId={}, fileName={}, state={}, rowCount={}", job.getJobId(), job.getFileName(), job.getState(), job.getRowCount());
+    }
+
+    private void saveJob(ExportJob job){
+        RedisUtil.set(CS.getCacheKeyExportJob(job.getJobId()), job, jobKeepHours, TimeUnit.HOURS);
+    }
+
+    private File getJobDir(){
+        return new File(filePrivatePath, "export");
+    }
+
+    private static void checkFormat(String format){
+        if(!ExportWriter.FORMAT_CSV.equalsIgnoreCase(format) && !ExportWriter.FORMAT_XLSX.equalsIgnoreCase(format)){
+            throw new BizException(ApiCodeEnum.PARAMS_ERROR, "format");
+        }
+    }
+
+    /** 分 转 元 **/
+    private static BigDecimal toYuan(Long amount){
+        return amount == null ? null : BigDecimal.valueOf(amount, 2);
+    }
+
+    private static String stateName(String[] names, Byte state){
+        return state == null || state < 0 || state >= names.length ? String.valueOf(state) : names[state];
+    }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.impl;
+
+import com.alibaba.fastjson.JSONObject;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jeequan.jeepay.core.exception.BizException;
+import com.jeequan.jeepay.core.model.KeysetPage;
+import com.jeequan.jeepay.service.mapper.OrderStreamMapper;
+import jakarta.annotation.PostConstruct;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeMap;
+
+/*
+* 订单列表查询引擎 （支付订单、 退款订单、 转账订单）
+*
+* 1. 游标分页： 请求中包含cursor参数时， 按 [创建时间 倒序, 主键 倒序] 定位下一页， 避免 OFFSET 深翻页扫描；
+*    不包含cursor参数时仍为页码分页， 兼容原有调用方式。
+* 2. 总数缓存： 相同查询条件的 COUNT 结果缓存 count-cache-seconds 秒， 翻页时不再重复 COUNT(*)。
+* 3. 三合一订单号： 由各订单Mapper以 UNION 方式分别走各订单号索引查出主键， 再以主键 IN 查询， 替代多列 OR 全表扫描。
+* 4. 流式查询 (导出)： 不分页， 结果集逐行回调 (MySQL逐行读取)， 内存占用与导出行数无关。
+* 配套索引见 docs/sql/patch.sql。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 21:10
+*/
+@Service
+public class OrderQueryEngine {
+
+    /** 游标参数名 **/
+    public static final String CURSOR_PARAM_NAME = "cursor";
+
+    /** 三合一订单号 单个索引最多匹配的记录数 **/
+    public static final int UNION_LOOKUP_LIMIT = 100;
+
+    /** 总数缓存时间 (秒)， 0表示不缓存 **/
+    @Value("${isys.order-query.count-cache-seconds:30}")
+    private long countCacheSeconds;
+
+    /** 总数缓存的最大条件数 **/
+    @Value("${isys.order-query.count-cache-size:10000}")
+    private long countCacheSize;
+
+    /** <实体类型 + 查询条件, 总数> **/
+    private Cache<String, Long> countCache;
+
+    @PostConstruct
+    public void init(){
+        countCache = Caffeine.newBuilder()
+                .maximumSize(countCacheSize)
+                .expireAfterWrite(Duration.ofSeconds(Math.max(countCacheSeconds, 0)))
+                .build();
+    }
+
+
+    /**
+     * 分页查询订单
+     * @param iPage 页码分页信息
+     * @param wrapper 已设置查询条件（不含排序）的查询对象
+     * @param createdAtColumn 创建时间列
+     * @param idColumn 主键列
+     * @param cursor 游标， 为null时使用页码分页， 空串表示游标分页的第一页
+     * @param unionIds 三合一订单号匹配的主键集合， 为null时不限制
+     */
+    public <T> IPage<T> page(IService<T> service, IPage<T> iPage, LambdaQueryWrapper<T> wrapper,
+                             SFunction<T, Date> createdAtColumn, SFunction<T, String> idColumn,
+                             String cursor, Collection<String> unionIds){
+
+        if(unionIds != null){
+            if(unionIds.isEmpty()){ // 三合一订单号无匹配， 无需查询
+                return emptyPage(iPage, cursor);
+            }
+            wrapper.in(idColumn, unionIds);
+        }
+
+        long total = count(service, wrapper);
+
+        // 页码分页 （兼容模式）, 总数取缓存值
+        if(cursor == null){
+            if(iPage instanceof Page<T> page){
+                page.setSearchCount(false);
+            }
+            wrapper.orderByDesc(createdAtColumn).orderByDesc(idColumn);
+            IPage<T> result = service.page(iPage, wrapper);
+            result.setTotal(total);
+            return result;
+        }
+
+        // 游标分页
+        if(StringUtils.isNotEmpty(cursor)){
+            int splitIndex = cursor.indexOf('_');
+            long cursorTime;
+            try {
+                cursorTime = Long.parseLong(cursor.substring(0, Math.max(splitIndex, 0)));
+            } catch (NumberFormatException e) {
+                throw new BizException("cursor参数有误");
+            }
+            Date cursorCreatedAt = new Date(cursorTime);
+            String cursorId = cursor.substring(splitIndex + 1);
+            wrapper.and(wr -> wr.lt(createdAtColumn, cursorCreatedAt)
+                    .or(w -> w.eq(createdAtColumn, cursorCreatedAt).lt(idColumn, cursorId)));
+        }
+
+        long size = iPage.getSize();
+        wrapper.orderByDesc(createdAtColumn).orderByDesc(idColumn).last("limit " + (size + 1));
+        List<T> records = new ArrayList<>(service.list(wrapper));
+
+        KeysetPage<T> result = new KeysetPage<>(iPage.getCurrent(), size, total, records);
+        if(records.size() > size){
+            records.subList((int) size, records.size()).clear();
+            T last = records.get(records.size() - 1);
+            result.setHasNext(true);
+            result.setNextCursor(createdAtColumn.apply(last).getTime() + "_" + idColumn.apply(last));
+        }
+        return result;
+    }
+
+    /**
+     * 流式查询订单 (按创建时间倒序)， 结果集逐行回调， 内存占用与数据量无关
+     * @param unionIds 三合一订单号匹配的主键集合， 为null时不限制
+     */
+    public <T> void stream(OrderStreamMapper<T> mapper, LambdaQueryWrapper<T> wrapper,
+                           SFunction<T, Date> createdAtColumn, SFunction<T, String> idColumn,
+                           Collection<String> unionIds, ResultHandler<T> handler){
+
+        if(unionIds != null){
+            if(unionIds.isEmpty()){
+                return;
+            }
+            wrapper.in(idColumn, unionIds);
+        }
+
+        wrapper.orderByDesc(createdAtColumn).orderByDesc(idColumn);
+        mapper.selectStream(wrapper, handler);
+    }
+
+    /** 获取请求中的游标参数： 不包含cursor参数时返回null (页码分页) **/
+    public static String getCursor(JSONObject paramJSON){
+        if(paramJSON == null || !paramJSON.containsKey(CURSOR_PARAM_NAME)){
+            return null;
+        }
+        return StringUtils.defaultString(paramJSON.getString(CURSOR_PARAM_NAME));
+    }
+
+    /** 查询总数， 优先取缓存 **/
+    private <T> long count(IService<T> service, LambdaQueryWrapper<T> wrapper){
+
+        if(countCacheSeconds <= 0){
+            return service.count(wrapper);
+        }
+
+        String cacheKey = service.getEntityClass().getName() + ":" + wrapper.getSqlSegment() + ":" + new TreeMap<>(wrapper.getParamNameValuePairs());
+        return countCache.get(cacheKey, k -> service.count(wrapper));
+    }
+
+    private <T> IPage<T> emptyPage(IPage<T> iPage, String cursor){
+        if(cursor != null){
+            return new KeysetPage<>(iPage.getCurrent(), iPage.getSize(), 0, new ArrayList<>());
+        }
+        iPage.setTotal(0);
+        iPage.setRecords(new ArrayList<>());
+        return iPage;
+    }
+
+}
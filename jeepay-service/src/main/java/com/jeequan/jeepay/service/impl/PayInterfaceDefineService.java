@@ -16,10 +16,15 @@
 package com.jeequan.jeepay.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.entity.PayInterfaceDefine;
 import com.jeequan.jeepay.service.mapper.PayInterfaceDefineMapper;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * <p>
  * 支付接口定义表 服务实现类
@@ -31,4 +36,26 @@ import org.springframework.stereotype.Service;
 @Service
 public class PayInterfaceDefineService extends ServiceImpl<PayInterfaceDefineMapper, PayInterfaceDefine> {
 
+    /** 查询所有已启用的接口代码 **/
+    public Set<String> selectEnabledIfCodes(){
+
+        Set<String> result = new HashSet<>();
+        list(PayInterfaceDefine.gw().select(PayInterfaceDefine::getIfCode).eq(PayInterfaceDefine::getState, CS.YES))
+                .forEach(item -> result.add(item.getIfCode()));
+        return result;
+    }
+
+    /** 查询指定接口代码中已启用的接口代码 **/
+    public Set<String> selectEnabledIfCodes(Collection<String> ifCodes){
+
+        Set<String> result = new HashSet<>();
+        if(ifCodes == null || ifCodes.isEmpty()){
+            return result;
+        }
+
+        list(PayInterfaceDefine.gw().select(PayInterfaceDefine::getIfCode).eq(PayInterfaceDefine::getState, CS.YES).in(PayInterfaceDefine::getIfCode, ifCodes))
+                .forEach(item -> result.add(item.getIfCode()));
+        return result;
+    }
+
 }
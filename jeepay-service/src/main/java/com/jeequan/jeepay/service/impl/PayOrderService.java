@@ -15,7 +15,6 @@
  */
 package com.jeequan.jeepay.service.impl;
 
-import cn.hutool.core.date.DatePattern;
 import cn.hutool.core.date.DateTime;
 import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.util.StrUtil;
@@ -31,11 +30,14 @@ import com.jeequan.jeepay.core.entity.PayOrder;
 import com.jeequan.jeepay.core.entity.PayWay;
 import com.jeequan.jeepay.service.mapper.*;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.session.ResultHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * <p>
@@ -52,7 +54,9 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
     @Autowired private MchInfoMapper mchInfoMapper;
     @Autowired private IsvInfoMapper isvInfoMapper;
     @Autowired private PayWayMapper payWayMapper;
+    @Autowired private StatPayOrderMapper statPayOrderMapper;
     @Autowired private PayOrderDivisionRecordMapper payOrderDivisionRecordMapper;
+    @Autowired private OrderQueryEngine orderQueryEngine;
 
     /** 更新订单状态  【订单生成】 --》 【支付中】 **/
     public boolean updateInit2Ing(String payOrderId, PayOrder payOrder){
@@ -147,57 +151,48 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
     }
 
 
-    public Map payCount(String mchNo, Byte state, Byte refundState, String dayStart, String dayEnd) {
-        Map param = new HashMap<>();
-        if (state != null) {
-            param.put("state", state);
-        }
-        if (refundState != null) {
-            param.put("refundState", refundState);
-        }
-        if (StrUtil.isNotBlank(mchNo)) {
-            param.put("mchNo", mchNo);
-        }
-        if (StrUtil.isNotBlank(dayStart)) {
-            param.put("createTimeStart", dayStart);
-        }
-        if (StrUtil.isNotBlank(dayEnd)) {
-            param.put("createTimeEnd", dayEnd);
-        }
-        return payOrderMapper.payCount(param);
+    /**
+     * 查询已过期的订单 (按 expired_time + pay_order_id 游标分页， 仅查询主键等必要字段)
+     * @param cursorOrder 上一批次的最后一条记录， 首次查询传null
+     */
+    public List<PayOrder> listExpiredOrder(Date expiredTime, PayOrder cursorOrder, int limit){
+
+        return list(PayOrder.gw()
+                .select(PayOrder::getPayOrderId, PayOrder::getMchNo, PayOrder::getAppId, PayOrder::getExpiredTime)
+                .in(PayOrder::getState, Arrays.asList(PayOrder.STATE_INIT, PayOrder.STATE_ING))
+                .le(PayOrder::getExpiredTime, expiredTime)
+                .and(cursorOrder != null, w -> w.gt(PayOrder::getExpiredTime, cursorOrder.getExpiredTime())
+                        .or(w2 -> w2.eq(PayOrder::getExpiredTime, cursorOrder.getExpiredTime()).gt(PayOrder::getPayOrderId, cursorOrder.getPayOrderId())))
+                .orderByAsc(PayOrder::getExpiredTime, PayOrder::getPayOrderId)
+                .last("limit " + limit));
     }
 
-    public List<Map> payTypeCount(String mchNo, Byte state, Byte refundState, String dayStart, String dayEnd) {
-        Map param = new HashMap<>();
-        if (state != null) {
-            param.put("state", state);
-        }
-        if (refundState != null) {
-            param.put("refundState", refundState);
-        }
-        if (StrUtil.isNotBlank(mchNo)) {
-            param.put("mchNo", mchNo);
-        }
-        if (StrUtil.isNotBlank(dayStart)) {
-            param.put("createTimeStart", dayStart);
-        }
-        if (StrUtil.isNotBlank(dayEnd)) {
-            param.put("createTimeEnd", dayEnd);
-        }
-        return payOrderMapper.payTypeCount(param);
-    }
+    /**
+     * 按主键批量更新订单为 关闭状态 (仅更新 订单生成/支付中 且已过期的订单)
+     * 先锁定符合条件的行再更新， 返回本次实际关闭的订单号 (查询后状态已变更的订单不包含在内)
+     **/
+    @Transactional
+    public List<String> updateExpired2Close(List<String> payOrderIdList, Date expiredTime){
 
-    /** 更新订单为 超时状态 **/
-    public Integer updateOrderExpired(){
+        List<String> closeIdList = baseMapper.selectList(PayOrder.gw().select(PayOrder::getPayOrderId)
+                .in(PayOrder::getPayOrderId, payOrderIdList)
+                .in(PayOrder::getState, Arrays.asList(PayOrder.STATE_INIT, PayOrder.STATE_ING))
+                .le(PayOrder::getExpiredTime, expiredTime)
+                .last("FOR UPDATE")
+        ).stream().map(PayOrder::getPayOrderId).collect(Collectors.toList());
 
-        PayOrder payOrder = new PayOrder();
-        payOrder.setState(PayOrder.STATE_CLOSED);
+        if(closeIdList.isEmpty()){
+            return closeIdList;
+        }
+
+        PayOrder updateRecord = new PayOrder();
+        updateRecord.setState(PayOrder.STATE_CLOSED);
 
-        return baseMapper.update(payOrder,
-                PayOrder.gw()
-                        .in(PayOrder::getState, Arrays.asList(PayOrder.STATE_INIT, PayOrder.STATE_ING))
-                        .le(PayOrder::getExpiredTime, new Date())
+        baseMapper.update(updateRecord, PayOrder.gw()
+                .in(PayOrder::getPayOrderId, closeIdList)
+                .in(PayOrder::getState, Arrays.asList(PayOrder.STATE_INIT, PayOrder.STATE_ING))
         );
+        return closeIdList;
     }
 
     /** 更新订单 通知状态 --> 已发送 **/
@@ -208,32 +203,37 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
         return baseMapper.updateById(payOrder);
     }
 
-    /** 首页支付周统计 **/
+    /** 首页支付周统计 (查询日统计表) **/
     public JSONObject mainPageWeekCount(String mchNo) {
         JSONObject json = new JSONObject();
-        Map dayAmount = new LinkedHashMap();
         ArrayList array = new ArrayList<>();
-        BigDecimal payAmount = new BigDecimal(0);    // 当日金额
-        BigDecimal payWeek  = payAmount;   // 周总收益
+        BigDecimal payWeek  = new BigDecimal(0);   // 周总收益
         String todayAmount = "0.00";    // 今日金额
         String todayPayCount = "0";    // 今日交易笔数
         String yesterdayAmount = "0.00";    // 昨日金额
         Date today = new Date();
+
+        Map param = new HashMap<>();
+        if (StrUtil.isNotBlank(mchNo)) {
+            param.put("mchNo", mchNo);
+        }
+        param.put("dateStart", DateUtil.formatDate(DateUtil.offsetDay(today, -6)));
+        param.put("dateEnd", DateUtil.formatDate(today));
+        Map<String, Map> dayAmountMap = new HashMap<>();
+        for (Map dayAmount : statPayOrderMapper.sumGroupByDate(param)) {
+            dayAmountMap.put(dayAmount.get("statDate").toString(), dayAmount);
+        }
+
         for(int i = 0 ; i < 7 ; i++){
-            Date date = DateUtil.offsetDay(today, -i).toJdkDate();
-            String dayStart = DateUtil.beginOfDay(date).toString(DatePattern.NORM_DATETIME_MINUTE_PATTERN);
-            String dayEnd = DateUtil.endOfDay(date).toString(DatePattern.NORM_DATETIME_MINUTE_PATTERN);
-            // 每日交易金额查询
-            dayAmount = payCount(mchNo, PayOrder.STATE_SUCCESS, null, dayStart, dayEnd);
-            if (dayAmount != null) {
-                payAmount = new BigDecimal(dayAmount.get("payAmount").toString());
-            }
-            if (i == 0) {
-                todayAmount = dayAmount.get("payAmount").toString();
-                todayPayCount = dayAmount.get("payCount").toString();
+            // 每日交易金额
+            Map dayAmount = dayAmountMap.get(DateUtil.formatDate(DateUtil.offsetDay(today, -i)));
+            BigDecimal payAmount = dayAmount == null ? new BigDecimal(0) : new BigDecimal(dayAmount.get("successAmount").toString());
+            if (i == 0 && dayAmount != null) {
+                todayAmount = dayAmount.get("successAmount").toString();
+                todayPayCount = dayAmount.get("successCount").toString();
             }
-            if (i == 1) {
-                yesterdayAmount = dayAmount.get("payAmount").toString();
+            if (i == 1 && dayAmount != null) {
+                yesterdayAmount = dayAmount.get("successAmount").toString();
             }
             payWeek = payWeek.add(payAmount);
             array.add(payAmount);
@@ -256,8 +256,12 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
         long mchCount = mchInfoMapper.selectCount(MchInfo.gw());
         // 服务商总数
         long isvCount = isvInfoMapper.selectCount(IsvInfo.gw());
-        // 总交易金额
-        Map<String, String> payCountMap = payCount(mchNo, PayOrder.STATE_SUCCESS, null, null, null);
+        // 总交易金额 (查询日统计表)
+        Map param = new HashMap<>();
+        if (StrUtil.isNotBlank(mchNo)) {
+            param.put("mchNo", mchNo);
+        }
+        Map<String, String> payCountMap = statPayOrderMapper.sumPay(param);
         json.put("totalMch", mchCount);
         json.put("totalIsv", isvCount);
         json.put("totalAmount", payCountMap.get("payAmount"));
@@ -265,50 +269,47 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
         return json;
     }
 
-    /** 首页支付统计 **/
+    /** 首页支付统计 (查询日统计表) **/
     public List<Map> mainPagePayCount(String mchNo, String createdStart, String createdEnd) {
         Map param = new HashMap<>(); // 条件参数
         int daySpace = 6; // 默认最近七天（含当天）
         if (StringUtils.isNotEmpty(createdStart) && StringUtils.isNotEmpty(createdEnd)) {
-            createdStart = createdStart + " 00:00:00";
-            createdEnd = createdEnd + " 23:59:59";
             // 计算两时间间隔天数
             daySpace = Math.toIntExact(DateUtil.betweenDay(DateUtil.parseDate(createdStart), DateUtil.parseDate(createdEnd), true));
         } else {
             Date today = new Date();
-            createdStart = DateUtil.formatDate(DateUtil.offsetDay(today, -daySpace)) + " 00:00:00";
-            createdEnd = DateUtil.formatDate(today) + " 23:59:59";
+            createdStart = DateUtil.formatDate(DateUtil.offsetDay(today, -daySpace));
+            createdEnd = DateUtil.formatDate(today);
         }
 
         if (StrUtil.isNotBlank(mchNo)) {
             param.put("mchNo", mchNo);
         }
-        param.put("createTimeStart", createdStart);
-        param.put("createTimeEnd", createdEnd);
+        param.put("dateStart", createdStart);
+        param.put("dateEnd", createdEnd);
         // 查询收款的记录
-        List<Map> payAndRefundOrderList = payOrderMapper.selectOrderCount(param);
+        List<Map> payAndRefundOrderList = statPayOrderMapper.sumGroupByDate(param);
         // 生成前端返回参数类型
-        List<Map> returnList = getReturnList(daySpace, createdEnd, payAndRefundOrderList);
+        List<Map> returnList = getReturnList(daySpace, createdEnd + " 23:59:59", payAndRefundOrderList);
         return returnList;
     }
 
-    /** 首页支付类型统计 **/
+    /** 首页支付类型统计 (查询日统计表) **/
     public ArrayList mainPagePayTypeCount(String mchNo, String createdStart, String createdEnd) {
         // 返回数据列
         ArrayList array = new ArrayList<>();
-        if (StringUtils.isNotEmpty(createdStart) && StringUtils.isNotEmpty(createdEnd)) {
-            createdStart = createdStart + " 00:00:00";
-            createdEnd = createdEnd + " 23:59:59";
-        }else {
-            Date endDay = new Date();    // 当前日期
-            Date startDay = DateUtil.lastWeek().toJdkDate(); // 一周前日期
-            String end = DateUtil.formatDate(endDay);
-            String start = DateUtil.formatDate(startDay);
-            createdStart = start + " 00:00:00";
-            createdEnd = end + " 23:59:59";
+        if (StringUtils.isEmpty(createdStart) || StringUtils.isEmpty(createdEnd)) {
+            createdStart = DateUtil.formatDate(DateUtil.lastWeek().toJdkDate()); // 一周前日期
+            createdEnd = DateUtil.formatDate(new Date()); // 当前日期
+        }
+        Map param = new HashMap<>();
+        if (StrUtil.isNotBlank(mchNo)) {
+            param.put("mchNo", mchNo);
         }
+        param.put("dateStart", createdStart);
+        param.put("dateEnd", createdEnd);
         // 统计列表
-        List<Map> payCountMap = payTypeCount(mchNo, PayOrder.STATE_SUCCESS, null, createdStart, createdEnd);
+        List<Map> payCountMap = statPayOrderMapper.sumGroupByWayCode(param);
 
         // 得到所有支付方式
         Map<String, String> payWayNameMap = new HashMap<>();
@@ -400,6 +401,19 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
      * @return
      */
     public IPage<PayOrder> listByPage(IPage iPage, PayOrder payOrder, JSONObject paramJSON, LambdaQueryWrapper<PayOrder> wrapper) {
+        List<String> unionIds = buildListCondition(wrapper, payOrder, paramJSON);
+        return orderQueryEngine.page(this, iPage, wrapper, PayOrder::getCreatedAt, PayOrder::getPayOrderId,
+                OrderQueryEngine.getCursor(paramJSON), unionIds);
+    }
+
+    /** 流式查询 (导出)， 查询条件同列表查询， 按创建时间倒序逐行回调 **/
+    public void streamList(PayOrder payOrder, JSONObject paramJSON, LambdaQueryWrapper<PayOrder> wrapper, ResultHandler<PayOrder> handler) {
+        List<String> unionIds = buildListCondition(wrapper, payOrder, paramJSON);
+        orderQueryEngine.stream(baseMapper, wrapper, PayOrder::getCreatedAt, PayOrder::getPayOrderId, unionIds, handler);
+    }
+
+    /** 列表查询条件， 返回三合一订单号匹配的主键集合 (未传入三合一订单号时返回null) **/
+    private List<String> buildListCondition(LambdaQueryWrapper<PayOrder> wrapper, PayOrder payOrder, JSONObject paramJSON) {
         if (StringUtils.isNotEmpty(payOrder.getPayOrderId())) {
             wrapper.eq(PayOrder::getPayOrderId, payOrder.getPayOrderId());
         }
@@ -438,17 +452,11 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
                 wrapper.le(PayOrder::getCreatedAt, paramJSON.getString("createdEnd"));
             }
         }
-        // 三合一订单
+        // 三合一订单： 支付订单号 / 商户订单号 / 渠道订单号 分别走索引查出主键
+        List<String> unionIds = null;
         if (paramJSON != null && StringUtils.isNotEmpty(paramJSON.getString("unionOrderId"))) {
-            wrapper.and(wr -> {
-                wr.eq(PayOrder::getPayOrderId, paramJSON.getString("unionOrderId"))
-                        .or().eq(PayOrder::getMchOrderNo, paramJSON.getString("unionOrderId"))
-                        .or().eq(PayOrder::getChannelOrderNo, paramJSON.getString("unionOrderId"));
-            });
+            unionIds = payOrderMapper.selectIdsByUnionOrderId(paramJSON.getString("unionOrderId"), payOrder.getMchNo(), OrderQueryEngine.UNION_LOOKUP_LIMIT);
         }
-
-        wrapper.orderByDesc(PayOrder::getCreatedAt);
-
-        return page(iPage, wrapper);
+        return unionIds;
     }
 }
@@ -25,12 +25,15 @@ import com.jeequan.jeepay.core.exception.BizException;
 import com.jeequan.jeepay.service.mapper.PayOrderMapper;
 import com.jeequan.jeepay.service.mapper.RefundOrderMapper;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.session.ResultHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * <p>
@@ -44,6 +47,7 @@ import java.util.Date;
 public class RefundOrderService extends ServiceImpl<RefundOrderMapper, RefundOrder> {
 
     @Autowired private PayOrderMapper payOrderMapper;
+    @Autowired private OrderQueryEngine orderQueryEngine;
 
     /** 查询商户订单 **/
     public RefundOrder queryMchOrder(String mchNo, String mchRefundNo, String refundOrderId){
@@ -126,21 +130,66 @@ public class RefundOrderService extends ServiceImpl<RefundOrderMapper, RefundOrd
     }
 
 
-    /** 更新退款单为 关闭状态 **/
-    public Integer updateOrderExpired(){
 
-        RefundOrder refundOrder = new RefundOrder();
-        refundOrder.setState(RefundOrder.STATE_CLOSED);
+    /**
+     * 查询已过期的退款单 (按 expired_time + refund_order_id 游标分页， 仅查询主键等必要字段)
+     * @param cursorOrder 上一批次的最后一条记录， 首次查询传null
+     */
+    public List<RefundOrder> listExpiredOrder(Date expiredTime, RefundOrder cursorOrder, int limit){
 
-        return baseMapper.update(refundOrder,
-                RefundOrder.gw()
-                        .in(RefundOrder::getState, Arrays.asList(RefundOrder.STATE_INIT, RefundOrder.STATE_ING))
-                        .le(RefundOrder::getExpiredTime, new Date())
+        return list(RefundOrder.gw()
+                .select(RefundOrder::getRefundOrderId, RefundOrder::getMchNo, RefundOrder::getAppId, RefundOrder::getExpiredTime)
+                .in(RefundOrder::getState, Arrays.asList(RefundOrder.STATE_INIT, RefundOrder.STATE_ING))
+                .le(RefundOrder::getExpiredTime, expiredTime)
+                .and(cursorOrder != null, w -> w.gt(RefundOrder::getExpiredTime, cursorOrder.getExpiredTime())
+                        .or(w2 -> w2.eq(RefundOrder::getExpiredTime, cursorOrder.getExpiredTime()).gt(RefundOrder::getRefundOrderId, cursorOrder.getRefundOrderId())))
+                .orderByAsc(RefundOrder::getExpiredTime, RefundOrder::getRefundOrderId)
+                .last("limit " + limit));
+    }
+
+    /**
+     * 按主键批量更新退款单为 关闭状态 (仅更新 订单生成/退款中 且已过期的退款单)
+     * 先锁定符合条件的行再更新， 返回本次实际关闭的退款单号 (查询后状态已变更的退款单不包含在内)
+     **/
+    @Transactional
+    public List<String> updateExpired2Close(List<String> refundOrderIdList, Date expiredTime){
+
+        List<String> closeIdList = baseMapper.selectList(RefundOrder.gw().select(RefundOrder::getRefundOrderId)
+                .in(RefundOrder::getRefundOrderId, refundOrderIdList)
+                .in(RefundOrder::getState, Arrays.asList(RefundOrder.STATE_INIT, RefundOrder.STATE_ING))
+                .le(RefundOrder::getExpiredTime, expiredTime)
+                .last("FOR UPDATE")
+        ).stream().map(RefundOrder::getRefundOrderId).collect(Collectors.toList());
+
+        if(closeIdList.isEmpty()){
+            return closeIdList;
+        }
+
+        RefundOrder updateRecord = new RefundOrder();
+        updateRecord.setState(RefundOrder.STATE_CLOSED);
+
+        baseMapper.update(updateRecord, RefundOrder.gw()
+                .in(RefundOrder::getRefundOrderId, closeIdList)
+                .in(RefundOrder::getState, Arrays.asList(RefundOrder.STATE_INIT, RefundOrder.STATE_ING))
         );
+        return closeIdList;
     }
 
 
     public IPage<RefundOrder> pageList(IPage iPage, LambdaQueryWrapper<RefundOrder> wrapper, RefundOrder refundOrder, JSONObject paramJSON) {
+        List<String> unionIds = buildListCondition(wrapper, refundOrder, paramJSON);
+        return orderQueryEngine.page(this, iPage, wrapper, RefundOrder::getCreatedAt, RefundOrder::getRefundOrderId,
+                OrderQueryEngine.getCursor(paramJSON), unionIds);
+    }
+
+    /** 流式查询 (导出)， 查询条件同列表查询， 按创建时间倒序逐行回调 **/
+    public void streamList(RefundOrder refundOrder, JSONObject paramJSON, LambdaQueryWrapper<RefundOrder> wrapper, ResultHandler<RefundOrder> handler) {
+        List<String> unionIds = buildListCondition(wrapper, refundOrder, paramJSON);
+        orderQueryEngine.stream(baseMapper, wrapper, RefundOrder::getCreatedAt, RefundOrder::getRefundOrderId, unionIds, handler);
+    }
+
+    /** 列表查询条件， 返回三合一订单号匹配的主键集合 (未传入三合一订单号时返回null) **/
+    private List<String> buildListCondition(LambdaQueryWrapper<RefundOrder> wrapper, RefundOrder refundOrder, JSONObject paramJSON) {
         if (StringUtils.isNotEmpty(refundOrder.getRefundOrderId())) {
             wrapper.eq(RefundOrder::getRefundOrderId, refundOrder.getRefundOrderId());
         }
@@ -176,17 +225,11 @@ public class RefundOrderService extends ServiceImpl<RefundOrderMapper, RefundOrd
                 wrapper.le(RefundOrder::getCreatedAt, paramJSON.getString("createdEnd"));
             }
         }
-        // 三合一订单
+        // 三合一订单： 退款订单号 / 支付订单号 / 渠道支付订单号 / 商户退款单号 分别走索引查出主键
+        List<String> unionIds = null;
         if (paramJSON != null && StringUtils.isNotEmpty(paramJSON.getString("unionOrderId"))) {
-            wrapper.and(wr -> {
-                wr.eq(RefundOrder::getPayOrderId, paramJSON.getString("unionOrderId"))
-                        .or().eq(RefundOrder::getRefundOrderId, paramJSON.getString("unionOrderId"))
-                        .or().eq(RefundOrder::getChannelPayOrderNo, paramJSON.getString("unionOrderId"))
-                        .or().eq(RefundOrder::getMchRefundNo, paramJSON.getString("unionOrderId"));
-            });
+            unionIds = baseMapper.selectIdsByUnionOrderId(paramJSON.getString("unionOrderId"), refundOrder.getMchNo(), OrderQueryEngine.UNION_LOOKUP_LIMIT);
         }
-        wrapper.orderByDesc(RefundOrder::getCreatedAt);
-
-        return page(iPage, wrapper);
+        return unionIds;
     }
 }
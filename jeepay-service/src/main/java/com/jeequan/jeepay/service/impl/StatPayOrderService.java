@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.impl;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.date.DateUtil;
+import com.jeequan.jeepay.service.mapper.StatPayOrderMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/*
+* 支付订单统计 汇总表维护
+*   小时统计表由订单表按 [订单创建时间所在小时, 商户号, 服务商号, 支付方式, 支付接口] 汇总，
+*   日统计表由小时统计表汇总； 均为按时间范围整体重算（先删后插）， 重复执行结果一致。
+*   订单表仅做普通查询 （一致性读） 后写入汇总结果， 避免 INSERT ... SELECT 在订单表上加锁阻塞下单。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/18 21:40
+*/
+@Service
+public class StatPayOrderService {
+
+    /** 统计进度： 增量重算（订单 updated_at 已处理至的时间点） **/
+    public static final String CHECKPOINT_DELTA = "PAY_ORDER_DELTA";
+
+    /** 统计进度： 历史回填（下一个待回填的日期） **/
+    public static final String CHECKPOINT_BACKFILL = "PAY_ORDER_BACKFILL";
+
+    /** 小时统计批量写入的单批条数 **/
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    @Autowired private StatPayOrderMapper statPayOrderMapper;
+
+    public Date getCheckpoint(String statName){
+        return statPayOrderMapper.selectCheckpoint(statName);
+    }
+
+    public void saveCheckpoint(String statName, Date checkpointTime){
+        statPayOrderMapper.saveCheckpoint(statName, checkpointTime);
+    }
+
+    /** 查询 updated_at >= since 的订单所在的小时 **/
+    public List<Date> listChangedHours(Date since){
+        return statPayOrderMapper.selectChangedHours(since);
+    }
+
+    /** 查询最早的订单创建时间， 无订单时返回null **/
+    public Date getMinOrderCreatedAt(){
+        return statPayOrderMapper.selectMinOrderCreatedAt();
+    }
+
+    /**
+     * 重算某一日的统计数据
+     * @param day 日期 (当日0点)
+     * @param hours 需重算的小时， 为空时重算全天
+     */
+    @Transactional
+    public void rollup(Date day, Collection<Date> hours){
+
+        Date nextDay = DateUtil.offsetDay(day, 1).toJdkDate();
+
+        if(hours == null || hours.isEmpty()){
+            rollupHour(day, nextDay);
+        }else{
+            for (Date hour : hours) {
+                rollupHour(hour, DateUtil.offsetHour(hour, 1).toJdkDate());
+            }
+        }
+
+        statPayOrderMapper.deleteDayStat(day, nextDay);
+        statPayOrderMapper.insertDayStat(day, nextDay);
+    }
+
+    /** 重算小时统计 [start, end) **/
+    private void rollupHour(Date start, Date end){
+
+        List<Map> statList = statPayOrderMapper.selectHourStat(start, end);
+
+        statPayOrderMapper.deleteHourStat(start, end);
+        for (List<Map> batch : CollUtil.split(statList, INSERT_BATCH_SIZE)) {
+            statPayOrderMapper.insertHourStatBatch(batch);
+        }
+    }
+
+}
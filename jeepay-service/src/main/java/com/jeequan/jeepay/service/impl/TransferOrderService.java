@@ -23,10 +23,13 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.jeequan.jeepay.core.entity.TransferOrder;
 import com.jeequan.jeepay.service.mapper.TransferOrderMapper;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
+import java.util.List;
 
 /**
  * <p>
@@ -39,6 +42,8 @@ import java.util.Date;
 @Service
 public class TransferOrderService extends ServiceImpl<TransferOrderMapper, TransferOrder> {
 
+    @Autowired private OrderQueryEngine orderQueryEngine;
+
 
     /** 更新转账订单状态  【转账订单生成】 --》 【转账中】 **/
     public boolean updateInit2Ing(String transferId, String channelResData){
@@ -117,6 +122,19 @@ public class TransferOrderService extends ServiceImpl<TransferOrderMapper, Trans
 
 
     public IPage<TransferOrder> pageList(IPage iPage, LambdaQueryWrapper<TransferOrder> wrapper, TransferOrder transferOrder, JSONObject paramJSON) {
+        List<String> unionIds = buildListCondition(wrapper, transferOrder, paramJSON);
+        return orderQueryEngine.page(this, iPage, wrapper, TransferOrder::getCreatedAt, TransferOrder::getTransferId,
+                OrderQueryEngine.getCursor(paramJSON), unionIds);
+    }
+
+    /** 流式查询 (导出)， 查询条件同列表查询， 按创建时间倒序逐行回调 **/
+    public void streamList(TransferOrder transferOrder, JSONObject paramJSON, LambdaQueryWrapper<TransferOrder> wrapper, ResultHandler<TransferOrder> handler) {
+        List<String> unionIds = buildListCondition(wrapper, transferOrder, paramJSON);
+        orderQueryEngine.stream(baseMapper, wrapper, TransferOrder::getCreatedAt, TransferOrder::getTransferId, unionIds, handler);
+    }
+
+    /** 列表查询条件， 返回三合一订单号匹配的主键集合 (未传入三合一订单号时返回null) **/
+    private List<String> buildListCondition(LambdaQueryWrapper<TransferOrder> wrapper, TransferOrder transferOrder, JSONObject paramJSON) {
         if (StringUtils.isNotEmpty(transferOrder.getTransferId())) {
             wrapper.eq(TransferOrder::getTransferId, transferOrder.getTransferId());
         }
@@ -143,16 +161,11 @@ public class TransferOrderService extends ServiceImpl<TransferOrderMapper, Trans
                 wrapper.le(TransferOrder::getCreatedAt, paramJSON.getString("createdEnd"));
             }
         }
-        // 三合一订单
+        // 三合一订单： 转账订单号 / 商户订单号 / 渠道订单号 分别走索引查出主键
+        List<String> unionIds = null;
         if (paramJSON != null && StringUtils.isNotEmpty(paramJSON.getString("unionOrderId"))) {
-            wrapper.and(wr -> {
-                wr.eq(TransferOrder::getTransferId, paramJSON.getString("unionOrderId"))
-                        .or().eq(TransferOrder::getMchOrderNo, paramJSON.getString("unionOrderId"))
-                        .or().eq(TransferOrder::getChannelOrderNo, paramJSON.getString("unionOrderId"));
-            });
+            unionIds = baseMapper.selectIdsByUnionOrderId(paramJSON.getString("unionOrderId"), transferOrder.getMchNo(), OrderQueryEngine.UNION_LOOKUP_LIMIT);
         }
-        wrapper.orderByDesc(TransferOrder::getCreatedAt);
-
-        return page(iPage, wrapper);
+        return unionIds;
     }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.impl.idempotent;
+
+import com.jeequan.jeepay.core.entity.PayOrder;
+import com.jeequan.jeepay.service.impl.PayOrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * 商户订单号幂等索引 DB实现类
+ * 直接查询订单表， 无预占能力， 并发请求依赖数据库唯一索引拦截。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/18 10:00
+ */
+@Service
+@ConditionalOnProperty(name = "isys.idempotent.type", havingValue = "db")
+public class DBMchOrderIdempotentService implements IMchOrderIdempotentService {
+
+    @Autowired private PayOrderService payOrderService;
+
+    @Override
+    public boolean reserve(String mchNo, String mchOrderNo) {
+        return payOrderService.count(PayOrder.gw().eq(PayOrder::getMchNo, mchNo).eq(PayOrder::getMchOrderNo, mchOrderNo)) <= 0;
+    }
+
+    @Override
+    public void commit(String mchNo, String mchOrderNo) {
+    }
+
+    @Override
+    public void release(String mchNo, String mchOrderNo) {
+    }
+
+}
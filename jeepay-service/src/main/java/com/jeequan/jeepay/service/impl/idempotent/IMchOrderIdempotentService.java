@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.impl.idempotent;
+
+/**
+ * 商户订单号幂等索引接口
+ * 下单时先预占[商户号+商户订单号]， 订单入库成功后确认， 入库失败需释放预占。
+ * 注意： 数据库唯一索引[Uni_MchNo_MchOrderNo]仍为最终保障。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/18 10:00
+ */
+public interface IMchOrderIdempotentService {
+
+    /** 预占商户订单号， 返回false表示该订单号已存在 (或正在被其他请求处理) **/
+    boolean reserve(String mchNo, String mchOrderNo);
+
+    /** 订单入库成功， 确认预占 **/
+    void commit(String mchNo, String mchOrderNo);
+
+    /** 订单入库失败或下单中断， 释放预占 **/
+    void release(String mchNo, String mchOrderNo);
+
+}
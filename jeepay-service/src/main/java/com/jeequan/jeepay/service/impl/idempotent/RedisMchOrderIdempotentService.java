@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.impl.idempotent;
+
+import cn.hutool.core.lang.hash.MurmurHash;
+import com.jeequan.jeepay.core.cache.RedisUtil;
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.entity.PayOrder;
+import com.jeequan.jeepay.service.impl.PayOrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 商户订单号幂等索引 Redis实现类 (默认)
+ *
+ * 1. 本地布隆过滤器： 记录本节点已确认入库的订单号， 命中时(可能误判)回查DB确认， 重复订单在进程内直接拒绝；
+ * 2. Redis SET NX EX： 多节点间原子预占， 预占失败即为重复订单；
+ * 3. 预占过期后的重复订单， 由数据库唯一索引兜底。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/18 10:00
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "isys.idempotent.type", havingValue = "redis", matchIfMissing = true)
+public class RedisMchOrderIdempotentService implements IMchOrderIdempotentService {
+
+    /** 预占状态 **/
+    private static final String STATE_RESERVED = "0";
+
+    /** 确认状态 **/
+    private static final String STATE_COMMITTED = "1";
+
+    @Autowired private PayOrderService payOrderService;
+
+    /** 预占key过期时间， 单位：秒 (默认与订单默认过期时间一致： 2小时) **/
+    @Value("${isys.idempotent.expire-seconds:7200}")
+    private long expireSeconds;
+
+    /** 布隆过滤器预计容量， 超出后重建过滤器 (避免误判率持续升高) **/
+    @Value("${isys.idempotent.bloom-capacity:1000000}")
+    private int bloomCapacity;
+
+    private volatile ConcurrentBloomFilter bloomFilter;
+
+    private final AtomicInteger bloomCount = new AtomicInteger(0);
+
+    @Override
+    public boolean reserve(String mchNo, String mchOrderNo) {
+
+        String cacheKey = CS.getCacheKeyMchOrderNo(mchNo, mchOrderNo);
+
+        // 本地布隆过滤器命中 (存在误判)， 回查DB确认
+        if(getBloomFilter().contains(cacheKey)
+                && payOrderService.count(PayOrder.gw().eq(PayOrder::getMchNo, mchNo).eq(PayOrder::getMchOrderNo, mchOrderNo)) > 0){
+            return false;
+        }
+
+        return RedisUtil.setIfAbsent(cacheKey, STATE_RESERVED, expireSeconds);
+    }
+
+    @Override
+    public void commit(String mchNo, String mchOrderNo) {
+
+        String cacheKey = CS.getCacheKeyMchOrderNo(mchNo, mchOrderNo);
+
+        try {
+            RedisUtil.setString(cacheKey, STATE_COMMITTED, expireSeconds);
+        } catch (Exception e) { // 订单已入库， 更新状态失败不影响业务
+            log.error("确认商户订单号预占异常, cacheKey={}", cacheKey, e);
+        }
+
+        if(bloomCount.incrementAndGet() > bloomCapacity){
+            resetBloomFilter();
+        }
+        getBloomFilter().add(cacheKey);
+    }
+
+    @Override
+    public void release(String mchNo, String mchOrderNo) {
+
+        String cacheKey = CS.getCacheKeyMchOrderNo(mchNo, mchOrderNo);
+
+        try {
+            RedisUtil.del(cacheKey);
+        } catch (Exception e) { // 释放失败， 等待key自动过期
+            log.error("释放商户订单号预占异常, cacheKey={}", cacheKey, e);
+        }
+    }
+
+    private ConcurrentBloomFilter getBloomFilter(){
+
+        if(bloomFilter == null){
+            synchronized (this){
+                if(bloomFilter == null){
+                    bloomFilter = newBloomFilter();
+                }
+            }
+        }
+        return bloomFilter;
+    }
+
+    private synchronized void resetBloomFilter(){
+
+        if(bloomCount.get() > bloomCapacity){
+            bloomFilter = newBloomFilter();
+            bloomCount.set(0);
+        }
+    }
+
+    /** 每条记录占用 8 bit, 误判率约为 2% **/
+    private ConcurrentBloomFilter newBloomFilter(){
+        return new ConcurrentBloomFilter((long) bloomCapacity * 8, 4);
+    }
+
+    /**
+     * 线程安全的布隆过滤器 (AtomicLongArray 按位CAS置位， 并发 add / contains 无需加锁)
+     * 哈希位置： murmur64 的高低32位做双重哈希 h1 + i * h2
+     **/
+    private static class ConcurrentBloomFilter {
+
+        private final AtomicLongArray words;
+
+        private final long bitSize;
+
+        private final int hashCount;
+
+        ConcurrentBloomFilter(long bitSize, int hashCount){
+            this.words = new AtomicLongArray((int) ((bitSize + 63) >>> 6));
+            this.bitSize = (long) words.length() << 6;
+            this.hashCount = hashCount;
+        }
+
+        void add(String value){
+
+            long hash = MurmurHash.hash64(value);
+            int h1 = (int) hash, h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                long bitIndex = index(h1 + i * h2);
+                int wordIndex = (int) (bitIndex >>> 6);
+                long mask = 1L << bitIndex;
+
+                long word;
+                while (((word = words.get(wordIndex)) & mask) == 0 && !words.compareAndSet(wordIndex, word, word | mask)){
+                    // CAS失败， 重试
+                }
+            }
+        }
+
+        boolean contains(String value){
+
+            long hash = MurmurHash.hash64(value);
+            int h1 = (int) hash, h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                long bitIndex = index(h1 + i * h2);
+                if((words.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0){
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(int combinedHash){
+            return (combinedHash & 0xFFFFFFFFL) % bitSize;
+        }
+    }
+
+}
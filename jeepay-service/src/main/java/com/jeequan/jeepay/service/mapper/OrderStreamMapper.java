@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.mapper;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * <p>
+ * 订单流式查询 Mapper 接口 (支付/退款/转账订单Mapper实现)
+ *   各Mapper.xml中的 selectStream 语句需设置 resultSetType="FORWARD_ONLY" fetchSize="-2147483648"，
+ *   MySQL驱动将逐行读取结果集， 不会一次性加载到内存。
+ * </p>
+ *
+ * @author terrfly
+ * @since 2026-10-18
+ */
+public interface OrderStreamMapper<T> {
+
+    /** 按查询条件逐行回调 **/
+    void selectStream(@Param(Constants.WRAPPER) Wrapper<T> wrapper, ResultHandler<T> handler);
+}
@@ -20,7 +20,6 @@ import com.jeequan.jeepay.core.entity.PayOrder;
 import org.apache.ibatis.annotations.Param;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * <p>
@@ -30,14 +29,11 @@ import java.util.Map;
  * @author [mybatis plus generator]
  * @since 2021-04-27
  */
-public interface PayOrderMapper extends BaseMapper<PayOrder> {
-
-    Map payCount(Map param);
-
-    List<Map> payTypeCount(Map param);
-
-    List<Map> selectOrderCount(Map param);
+public interface PayOrderMapper extends BaseMapper<PayOrder>, OrderStreamMapper<PayOrder> {
 
     /** 更新订单退款金额和次数 **/
     int updateRefundAmountAndCount(@Param("payOrderId") String payOrderId, @Param("currentRefundAmount") Long currentRefundAmount);
+
+    /** 三合一订单号： 分别按各订单号索引查询主键 (UNION)， mchNo 为空时不限制商户 **/
+    List<String> selectIdsByUnionOrderId(@Param("unionOrderId") String unionOrderId, @Param("mchNo") String mchNo, @Param("limit") int limit);
 }
@@ -17,6 +17,9 @@ package com.jeequan.jeepay.service.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.jeequan.jeepay.core.entity.RefundOrder;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * <p>
@@ -26,9 +29,11 @@ import com.jeequan.jeepay.core.entity.RefundOrder;
  * @author [mybatis plus generator]
  * @since 2021-04-27
  */
-public interface RefundOrderMapper extends BaseMapper<RefundOrder> {
+public interface RefundOrderMapper extends BaseMapper<RefundOrder>, OrderStreamMapper<RefundOrder> {
 
     /** 查询全部退成功金额 **/
     Long sumSuccessRefundAmount(String payOrderId);
 
+    /** 三合一订单号： 分别按各订单号索引查询主键 (UNION)， mchNo 为空时不限制商户 **/
+    List<String> selectIdsByUnionOrderId(@Param("unionOrderId") String unionOrderId, @Param("mchNo") String mchNo, @Param("limit") int limit);
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.mapper;
+
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * 支付订单统计（小时/日汇总表） Mapper 接口
+ * </p>
+ *
+ * @author terrfly
+ * @since 2026-10-18
+ */
+public interface StatPayOrderMapper {
+
+    /** 查询 updated_at >= since 的订单所在的小时 (订单创建时间) **/
+    List<Date> selectChangedHours(@Param("since") Date since);
+
+    /** 查询最早的订单创建时间 **/
+    Date selectMinOrderCreatedAt();
+
+    /** 删除小时统计 [start, end) **/
+    int deleteHourStat(@Param("start") Date start, @Param("end") Date end);
+
+    /** 由订单表汇总小时统计 [start, end) **/
+    List<Map> selectHourStat(@Param("start") Date start, @Param("end") Date end);
+
+    /** 批量写入小时统计 **/
+    int insertHourStatBatch(@Param("list") List<Map> list);
+
+    /** 删除日统计 [start, end) **/
+    int deleteDayStat(@Param("start") Date start, @Param("end") Date end);
+
+    /** 由小时统计表汇总日统计 [start, end) **/
+    int insertDayStat(@Param("start") Date start, @Param("end") Date end);
+
+    /** 查询统计任务进度 **/
+    Date selectCheckpoint(@Param("statName") String statName);
+
+    /** 保存统计任务进度 **/
+    int saveCheckpoint(@Param("statName") String statName, @Param("checkpointTime") Date checkpointTime);
+
+    /** 支付成功订单 金额&笔数 **/
+    Map sumPay(Map param);
+
+    /** 按日期汇总： 支付成功金额&笔数， 收款金额(含已退款订单)， 退款金额 **/
+    List<Map> sumGroupByDate(Map param);
+
+    /** 按支付方式汇总： 支付成功金额&笔数 **/
+    List<Map> sumGroupByWayCode(Map param);
+}
@@ -17,6 +17,9 @@ package com.jeequan.jeepay.service.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.jeequan.jeepay.core.entity.TransferOrder;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * <p>
@@ -26,6 +29,8 @@ import com.jeequan.jeepay.core.entity.TransferOrder;
  * @author [mybatis plus generator]
  * @since 2021-08-11
  */
-public interface TransferOrderMapper extends BaseMapper<TransferOrder> {
+public interface TransferOrderMapper extends BaseMapper<TransferOrder>, OrderStreamMapper<TransferOrder> {
 
+    /** 三合一订单号： 分别按各订单号索引查询主键 (UNION)， mchNo 为空时不限制商户 **/
+    List<String> selectIdsByUnionOrderId(@Param("unionOrderId") String unionOrderId, @Param("mchNo") String mchNo, @Param("limit") int limit);
 }